@@ -0,0 +1,56 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.benchmark;
+
+import net.minecraft.server.MinecraftServer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStartedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Запуск бенчмарков горячего пути внутри сервера разработки (конфигурация spoilageBenchmark).
+ *
+ * Компоненты и правила порчи доступны только после загрузки мода, поэтому JMH запускается
+ * в процессе сервера после его старта, с уровнем overworld. Без системного свойства
+ * {@link #RESULTS_PROPERTY} обработчик ничего не делает, и остальные конфигурации запуска
+ * работают как обычно. После прогона сервер останавливается; при ошибке прогона процесс
+ * завершается с ненулевым кодом, чтобы задача Gradle не прошла на старых результатах.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = SpoilageBenchmarkMod.MODID)
+public final class SpoilageBenchmarkHarness {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageBenchmarkHarness.class);
+
+    /**
+     * Путь к JSON-файлу результатов JMH
+     */
+    public static final String RESULTS_PROPERTY = "metaphysicsspoilage.benchmark.results";
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        String resultsPath = System.getProperty(RESULTS_PROPERTY);
+        if (resultsPath == null) {
+            return;
+        }
+
+        MinecraftServer server = event.getServer();
+        SpoilageHotPathBenchmark.level = server.overworld();
+        try {
+            SpoilageBenchmarkRunner.run(resultsPath);
+        } catch (Exception e) {
+            LOGGER.error("Ошибка запуска бенчмарков порчи", e);
+            // System.exit из потока сервера заблокировался бы на хуке остановки сервера
+            Runtime.getRuntime().halt(1);
+        } finally {
+            SpoilageHotPathBenchmark.level = null;
+        }
+        server.halt(false);
+    }
+
+    // Запрещаем создание экземпляров
+    private SpoilageBenchmarkHarness() {}
+}
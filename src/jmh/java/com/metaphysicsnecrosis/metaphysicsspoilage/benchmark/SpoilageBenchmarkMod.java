@@ -0,0 +1,17 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.benchmark;
+
+import net.neoforged.fml.common.Mod;
+
+/**
+ * Мод разработки с бенчмарками горячего пути порчи.
+ * Загружается только конфигурацией запуска spoilageBenchmark.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@Mod(SpoilageBenchmarkMod.MODID)
+public class SpoilageBenchmarkMod {
+
+    public static final String MODID = "metaphysicsspoilagebenchmark";
+}
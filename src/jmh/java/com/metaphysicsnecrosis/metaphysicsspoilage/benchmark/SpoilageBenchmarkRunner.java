@@ -0,0 +1,61 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Прогон JMH без отдельного процесса (forks 0) с профайлером gc (-prof gc).
+ * Вынесен из {@link SpoilageBenchmarkHarness}, чтобы классы JMH загружались только при прогоне.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+final class SpoilageBenchmarkRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageBenchmarkRunner.class);
+
+    static void run(String resultsPath) throws RunnerException, IOException {
+        Path results = Path.of(resultsPath);
+        Files.createDirectories(results.toAbsolutePath().getParent());
+
+        Options options = new OptionsBuilder()
+            .include(SpoilageHotPathBenchmark.class.getName())
+            .include(SpoilageRecipeViewerBenchmark.class.getName())
+            .forks(0)
+            .shouldFailOnError(true)
+            .warmupIterations(3)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(1))
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(results.toString())
+            .build();
+
+        // JMH ищет сгенерированные классы через контекстный загрузчик - это должен быть загрузчик мода
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(SpoilageBenchmarkRunner.class.getClassLoader());
+        try {
+            new Runner(options).run();
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+        LOGGER.info("Результаты бенчмарков порчи записаны в {}", results);
+    }
+
+    // Запрещаем создание экземпляров
+    private SpoilageBenchmarkRunner() {}
+}
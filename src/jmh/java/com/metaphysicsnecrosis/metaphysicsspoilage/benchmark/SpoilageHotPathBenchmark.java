@@ -0,0 +1,115 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.benchmark;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.component.SpoilageComponent;
+import com.metaphysicsnecrosis.metaphysicsspoilage.effects.FoodBlockingUtils;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageChecker;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
+import com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки горячего пути запросов порчи: проверка стека при обходе инвентаря,
+ * оценка слота контейнера и проверка перед употреблением.
+ *
+ * В установившемся режиме (свежая еда, предметы без порчи) эти пути не должны
+ * выделять память на стек. Запускаются внутри сервера разработки через
+ * {@link SpoilageBenchmarkHarness} с профайлером gc; задача Gradle checkSpoilageAllocations
+ * проваливает сборку, если gc.alloc.rate.norm любого бенчмарка выше порога.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpoilageHotPathBenchmark {
+
+    /**
+     * Уровень сервера, выставляется {@link SpoilageBenchmarkHarness} перед запуском
+     */
+    static volatile ServerLevel level;
+
+    private ServerLevel serverLevel;
+
+    /**
+     * Свежая еда с меткой дня создания (без сохраненного дня порчи)
+     */
+    private ItemStack freshFood;
+
+    /**
+     * Свежая еда с сохраненным днем порчи
+     */
+    private ItemStack freshFoodWithExpiry;
+
+    /**
+     * Предмет, который не портится
+     */
+    private ItemStack nonFood;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serverLevel = level;
+        if (serverLevel == null) {
+            throw new IllegalStateException("Бенчмарки порчи запускаются только через SpoilageBenchmarkHarness в сервере разработки");
+        }
+
+        long currentDay = WorldDayTracker.getInstance(serverLevel).getCurrentDay();
+
+        freshFood = new ItemStack(Items.BREAD);
+        freshFood.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(), new SpoilageComponent(currentDay));
+
+        freshFoodWithExpiry = new ItemStack(Items.BREAD);
+        freshFoodWithExpiry.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(),
+            new SpoilageComponent(currentDay, currentDay + 1_000_000L));
+
+        nonFood = new ItemStack(Items.STONE);
+
+        // Прогреваем кэш правил, чтобы измерялся установившийся режим
+        SpoilageUtils.getSpoilageData(Items.BREAD);
+        SpoilageUtils.getSpoilageData(Items.STONE);
+    }
+
+    @Benchmark
+    public boolean isItemSpoiledFresh() {
+        return SpoilageUtils.isItemSpoiled(freshFood, serverLevel);
+    }
+
+    @Benchmark
+    public boolean isItemSpoiledStoredExpiry() {
+        return SpoilageUtils.isItemSpoiled(freshFoodWithExpiry, serverLevel);
+    }
+
+    @Benchmark
+    public boolean isItemSpoiledNonFood() {
+        return SpoilageUtils.isItemSpoiled(nonFood, serverLevel);
+    }
+
+    @Benchmark
+    public ItemStack processSpoilageFresh() {
+        return SpoilageChecker.processSpoilage(freshFood, serverLevel);
+    }
+
+    @Benchmark
+    public ItemStack processSpoilageNonFood() {
+        return SpoilageChecker.processSpoilage(nonFood, serverLevel);
+    }
+
+    @Benchmark
+    public boolean shouldBlockConsumptionFresh() {
+        return FoodBlockingUtils.shouldBlockConsumption(freshFood);
+    }
+}
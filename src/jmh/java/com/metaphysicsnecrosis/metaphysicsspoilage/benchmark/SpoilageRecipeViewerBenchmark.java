@@ -0,0 +1,94 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.benchmark;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.component.LogicalServerContext;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.CreativeTabFoodStacks;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки клиентского пути просмотрщиков рецептов (JEI/EMI): построение списка
+ * стеков всех предметов, копирование креативных прототипов еды и проверка подсказки.
+ *
+ * На клиенте хуки ItemStack отсекаются контекстом логического сервера. Чтобы измерить
+ * этот путь внутри сервера разработки, контекст отвязывается на время прогона: пока JMH
+ * занимает поток сервера, игровых тиков нет, и стеки никто больше не создает.
+ * Результаты в отчете, но не участвуют в проверке checkSpoilageAllocations -
+ * сами стеки выделяются при любом поведении хуков.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpoilageRecipeViewerBenchmark {
+
+    private MinecraftServer server;
+
+    /**
+     * Все предметы реестра (список ингредиентов просмотрщика)
+     */
+    private Item[] items;
+
+    /**
+     * Креативные прототипы еды текущего поколения правил
+     */
+    private List<ItemStack> prototypes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (SpoilageHotPathBenchmark.level == null) {
+            throw new IllegalStateException("Бенчмарки порчи запускаются только через SpoilageBenchmarkHarness в сервере разработки");
+        }
+        server = SpoilageHotPathBenchmark.level.getServer();
+        items = BuiltInRegistries.ITEM.stream().toArray(Item[]::new);
+        prototypes = CreativeTabFoodStacks.getPrototypes();
+
+        // Дальше стеки создаются так же, как на клиенте
+        LogicalServerContext.detach();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        LogicalServerContext.attach(server);
+    }
+
+    @Benchmark
+    public void itemListStacks(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(new ItemStack(item));
+        }
+    }
+
+    @Benchmark
+    public void creativeTabCopies(Blackhole blackhole) {
+        for (int i = 0; i < prototypes.size(); i++) {
+            blackhole.consume(prototypes.get(i).copy());
+        }
+    }
+
+    @Benchmark
+    public void tooltipLookup(Blackhole blackhole) {
+        for (int i = 0; i < prototypes.size(); i++) {
+            ItemStack stack = prototypes.get(i);
+            blackhole.consume(SpoilageUtils.hasTimestamp(stack) && SpoilageUtils.canItemSpoil(stack.getItem()));
+        }
+    }
+}
@@ -11,8 +11,10 @@ import net.neoforged.neoforge.common.ModConfigSpec;
 
 /**
  * Configuration class for MetaphysicsSpoilage mod
- * Contains all configurable settings for the spoilage system
+ * Contains all configurable settings for the spoilage system.
+ * Runtime code reads the immutable {@link SpoilageSettings} snapshot rebuilt on every (re)load.
  */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
 public class Config {
     private static final ModConfigSpec.Builder BUILDER = new ModConfigSpec.Builder();
 
@@ -65,9 +67,35 @@ public class Config {
         }
     }
 
+    public enum StackMergePolicy {
+        EXACT("exact"),
+        DAY_BUCKET("day_bucket"),
+        OLDEST_WINS("oldest_wins");
+
+        private final String name;
+
+        StackMergePolicy(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static StackMergePolicy fromString(String name) {
+            for (StackMergePolicy policy : values()) {
+                if (policy.name.equals(name)) {
+                    return policy;
+                }
+            }
+            return EXACT; // default
+        }
+    }
+
     // === GENERAL SETTINGS ===
     public static final ModConfigSpec.BooleanValue ENABLE_SPOILAGE_SYSTEM;
     public static final ModConfigSpec.DoubleValue SPOILAGE_SPEED_MULTIPLIER;
+    public static final ModConfigSpec.BooleanValue STORE_ABSOLUTE_EXPIRY;
     public static final ModConfigSpec.EnumValue<SpoilageMode> SPOILAGE_MODE;
 
     // === UNIVERSAL FOOD SETTINGS ===
@@ -98,6 +126,16 @@ public class Config {
 
     // === НАСТРОЙКИ ПРОИЗВОДИТЕЛЬНОСТИ ===
     public static final ModConfigSpec.BooleanValue ENABLE_PERFORMANCE_PROFILING;
+    public static final ModConfigSpec.IntValue PROFILING_SAMPLE_RATE;
+    public static final ModConfigSpec.BooleanValue ENABLE_JFR_EVENTS;
+    public static final ModConfigSpec.BooleanValue ENABLE_METRICS_ENDPOINT;
+    public static final ModConfigSpec.IntValue METRICS_ENDPOINT_PORT;
+    public static final ModConfigSpec.BooleanValue PERSIST_SPOILAGE_STATISTICS;
+    public static final ModConfigSpec.BooleanValue ENABLE_SPOILAGE_JOURNAL;
+    public static final ModConfigSpec.IntValue JOURNAL_FILE_SIZE_MB;
+    public static final ModConfigSpec.IntValue JOURNAL_MAX_FILES;
+    public static final ModConfigSpec.BooleanValue ENABLE_COST_ATTRIBUTION;
+    public static final ModConfigSpec.IntValue ATTRIBUTION_WINDOW_SECONDS;
     public static final ModConfigSpec.BooleanValue ENABLE_CACHE_OPTIMIZATION;
     public static final ModConfigSpec.IntValue CACHE_SIZE_LIMIT;
     public static final ModConfigSpec.IntValue GUI_REFRESH_INTERVAL_MS;
@@ -109,6 +147,18 @@ public class Config {
     public static final ModConfigSpec.IntValue GLOBAL_CONTAINER_CHECK_INTERVAL;
     public static final ModConfigSpec.IntValue PLAYER_CONTAINER_CHECK_INTERVAL;
     public static final ModConfigSpec.IntValue CONTAINER_CHECK_RADIUS;
+    public static final ModConfigSpec.IntValue GLOBAL_CONTAINER_BUDGET_PER_TICK;
+    public static final ModConfigSpec.BooleanValue ENABLE_PERSISTENT_EXPIRY_INDEX;
+    public static final ModConfigSpec.IntValue SWEEP_TICK_BUDGET_MS;
+
+    // === НАСТРОЙКИ ОБЪЕДИНЕНИЯ СТЕКОВ ===
+    public static final ModConfigSpec.EnumValue<StackMergePolicy> STACK_MERGE_POLICY;
+    public static final ModConfigSpec.IntValue STACK_MERGE_BUCKET_DAYS;
+    public static final ModConfigSpec.EnumValue<StackMergePolicy> ITEM_ENTITY_MERGE_POLICY;
+
+    // === СЕТЕВЫЕ НАСТРОЙКИ ===
+    public static final ModConfigSpec.IntValue FOOD_CONTAINER_ACTION_BUDGET;
+    public static final ModConfigSpec.IntValue FOOD_CONTAINER_BUDGET_REFILL_PER_SECOND;
 
     static {
         // General settings
@@ -122,6 +172,11 @@ public class Config {
                 .comment("Multiplier for spoilage speed (higher = faster spoilage)")
                 .defineInRange("spoilageSpeedMultiplier", 1.0, 0.1, 10.0);
 
+        STORE_ABSOLUTE_EXPIRY = BUILDER
+                .comment("Store the spoil day on each stack when it is stamped (with spoilageSpeedMultiplier applied).",
+                         "Freshness checks then skip the spoilage rules; run /spoilage sweep to apply rule changes to existing stacks")
+                .define("storeAbsoluteExpiry", false);
+
         SPOILAGE_MODE = BUILDER
                 .comment("How spoiled food should behave: instant_disappear or transform_to_spoiled")
                 .defineEnum("spoilageMode", SpoilageMode.TRANSFORM_TO_SPOILED);
@@ -218,13 +273,43 @@ public class Config {
         BUILDER.comment("Performance optimization settings")
                 .push("performance");
         ENABLE_PERFORMANCE_PROFILING = BUILDER
-                .comment("Enable performance profiling and monitoring (may impact performance slightly)")
+                .comment("Enable performance profiling: latency histograms (p50/p99/p999) for registered operations and periodic reports")
                 .define("enablePerformanceProfiling", false);
+        PROFILING_SAMPLE_RATE = BUILDER
+                .comment("Hot-path operations are timed once every N calls (rounded down to a power of two); 1 times every call")
+                .defineInRange("profilingSampleRate", 16, 1, 1024);
+        ENABLE_JFR_EVENTS = BUILDER
+                .comment("Enable mod events (sweeps, transforms, rule rebuilds, syncs, day rollovers) in every running Java Flight Recorder recording; when false, enable them per recording with a JFR settings file")
+                .define("enableJfrEvents", false);
+        ENABLE_METRICS_ENDPOINT = BUILDER
+                .comment("Serve spoilage metrics in Prometheus text format at http://127.0.0.1:<metricsEndpointPort>/metrics (localhost only)")
+                .define("enableMetricsEndpoint", false);
+        METRICS_ENDPOINT_PORT = BUILDER
+                .comment("Port of the local metrics endpoint")
+                .defineInRange("metricsEndpointPort", 9464, 1024, 65535);
+        PERSIST_SPOILAGE_STATISTICS = BUILDER
+                .comment("Save spoilage statistics (checks, spoiled and transformed items per type) with the world so they accumulate across restarts")
+                .define("persistSpoilageStatistics", false);
+        ENABLE_SPOILAGE_JOURNAL = BUILDER
+                .comment("Record every spoiled stack (where, which item, what it became) to a binary journal in <world>/metaphysicsspoilage/journal; decode it with SpoilageJournalReader")
+                .define("enableSpoilageJournal", false);
+        JOURNAL_FILE_SIZE_MB = BUILDER
+                .comment("Size of each journal file in megabytes (64 bytes per event); a new file is started when it fills up")
+                .defineInRange("journalFileSizeMb", 16, 1, 512);
+        JOURNAL_MAX_FILES = BUILDER
+                .comment("Number of journal files kept; the oldest are deleted")
+                .defineInRange("journalMaxFiles", 8, 1, 100);
+        ENABLE_COST_ATTRIBUTION = BUILDER
+                .comment("Attribute spoilage CPU time and stack counts to individual holders (players, block containers, chunks, entity types); view with /spoilage attribution")
+                .define("enableCostAttribution", false);
+        ATTRIBUTION_WINDOW_SECONDS = BUILDER
+                .comment("Length of the sliding window, in seconds, over which cost attribution is reported")
+                .defineInRange("attributionWindowSeconds", 60, 10, 3600);
         ENABLE_CACHE_OPTIMIZATION = BUILDER
                 .comment("Enable cache optimization for better performance")
                 .define("enableCacheOptimization", true);
         CACHE_SIZE_LIMIT = BUILDER
-                .comment("Maximum number of entries in performance caches (higher = more memory, better performance)")
+                .comment("Maximum number of entries in each performance cache; least frequently used entries are evicted beyond it (higher = more memory, better performance)")
                 .defineInRange("cacheSizeLimit", 1000, 100, 10000);
         GUI_REFRESH_INTERVAL_MS = BUILDER
                 .comment("GUI refresh interval in milliseconds (lower = more responsive, higher = better performance)")
@@ -238,22 +323,73 @@ public class Config {
         BUILDER.comment("Container processing settings for real-time food timestamp application")
                 .push("container_processing");
         ENABLE_GLOBAL_CONTAINER_PROCESSING = BUILDER
-                .comment("Enable processing of ALL containers in loaded chunks (performance intensive)")
+                .comment("Evaluate block-entity containers on chunk load and sweep indexed chunks around players (containers are skipped until their earliest spoil day)")
                 .define("enableGlobalContainerProcessing", true);
         GLOBAL_CONTAINER_CHECK_INTERVAL = BUILDER
-                .comment("Interval in ticks for checking all containers globally (20 ticks = 1 second)")
+                .comment("Interval in ticks between global sweeps of chunk spoilage indexes around players (20 ticks = 1 second)")
                 .defineInRange("globalContainerCheckInterval", 20, 20, 1200);
         PLAYER_CONTAINER_CHECK_INTERVAL = BUILDER
                 .comment("Interval in ticks for checking containers opened by players (faster)")
                 .defineInRange("playerContainerCheckInterval", 20, 1, 60);
         CONTAINER_CHECK_RADIUS = BUILDER
-                .comment("Radius in blocks for checking containers around players (sphere)")
+                .comment("Radius in blocks for checking containers around players (rounded up to whole chunks)")
                 .defineInRange("containerCheckRadius", 100, 10, 200);
+        GLOBAL_CONTAINER_BUDGET_PER_TICK = BUILDER
+                .comment("Maximum number of containers evaluated per tick by the global sweep")
+                .defineInRange("globalContainerBudgetPerTick", 64, 1, 4096);
+        ENABLE_PERSISTENT_EXPIRY_INDEX = BUILDER
+                .comment("Keep a per-dimension on-disk index of container spoil days so due containers are found after a restart without scanning chunks")
+                .define("enablePersistentExpiryIndex", true);
+        SWEEP_TICK_BUDGET_MS = BUILDER
+                .comment("Time budget in milliseconds per server tick for the administrative /spoilage sweep command")
+                .defineInRange("sweepTickBudgetMs", 5, 1, 40);
+        BUILDER.pop();
+
+        // Stack merging settings
+        BUILDER.comment("Merging of food stacks stamped on different days when items are inserted into inventories")
+                .push("stacking");
+        STACK_MERGE_POLICY = BUILDER
+                .comment("exact: only identical stamps stack (vanilla behaviour)",
+                         "day_bucket: stamps within the same bucket of stackMergeBucketDays stack, the merged stack keeps the older stamp",
+                         "oldest_wins: any stamps stack, the merged stack keeps the older stamp")
+                .defineEnum("stackMergePolicy", StackMergePolicy.EXACT);
+        STACK_MERGE_BUCKET_DAYS = BUILDER
+                .comment("Bucket size in days for the day_bucket merge policy")
+                .defineInRange("stackMergeBucketDays", 7, 1, 365);
+        ITEM_ENTITY_MERGE_POLICY = BUILDER
+                .comment("Merge policy for dropped food item entities (same values as stackMergePolicy, bucket size is shared)",
+                         "Lets farm drops from different days collapse into one entity")
+                .defineEnum("itemEntityMergePolicy", StackMergePolicy.EXACT);
+        BUILDER.pop();
+
+        // Network settings
+        BUILDER.comment("Per-player limits for FoodContainer GUI actions sent by clients")
+                .push("network");
+        FOOD_CONTAINER_ACTION_BUDGET = BUILDER
+                .comment("Maximum action cost a player can spend in a burst (single extraction = 1, extract all = 16)")
+                .defineInRange("foodContainerActionBudget", 32, 16, 1024);
+        FOOD_CONTAINER_BUDGET_REFILL_PER_SECOND = BUILDER
+                .comment("Action cost restored to each player's budget per second")
+                .defineInRange("foodContainerBudgetRefillPerSecond", 16, 1, 512);
         BUILDER.pop();
     }
 
     static final ModConfigSpec SPEC = BUILDER.build();
 
+    @SubscribeEvent
+    static void onLoad(final ModConfigEvent.Loading event) {
+        if (event.getConfig().getSpec() == SPEC) {
+            SpoilageSettings.reload();
+        }
+    }
+
+    @SubscribeEvent
+    static void onReload(final ModConfigEvent.Reloading event) {
+        if (event.getConfig().getSpec() == SPEC) {
+            SpoilageSettings.reload();
+        }
+    }
+
     private static boolean validateItemName(final Object obj) {
         return obj instanceof String itemName && BuiltInRegistries.ITEM.containsKey(ResourceLocation.parse(itemName));
     }
@@ -265,7 +401,7 @@ public class Config {
      * @return true if the item should be excluded from spoilage
      */
     public static boolean isItemExcluded(String itemId) {
-        return EXCLUDED_ITEMS.get().contains(itemId);
+        return SpoilageSettings.get().isItemExcluded(itemId);
     }
 
     /**
@@ -275,7 +411,7 @@ public class Config {
      * @return true if the item can be eaten without timestamp
      */
     public static boolean isAlwaysEdible(String itemId) {
-        return ALWAYS_EDIBLE_ITEMS.get().contains(itemId);
+        return SpoilageSettings.get().isAlwaysEdible(itemId);
     }
 
     /**
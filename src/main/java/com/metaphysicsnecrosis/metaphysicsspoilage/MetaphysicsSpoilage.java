@@ -26,7 +26,9 @@ import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.event.BuildCreativeModeTabContentsEvent;
+import net.neoforged.neoforge.event.server.ServerAboutToStartEvent;
 import net.neoforged.neoforge.event.server.ServerStartingEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
 import net.neoforged.neoforge.event.tick.ServerTickEvent;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
 
@@ -38,6 +40,7 @@ import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageTransformer;
 import com.metaphysicsnecrosis.metaphysicsspoilage.manager.TimedFoodManager;
 // import com.metaphysicsnecrosis.metaphysicsspoilage.events.SpoilageTransformationHandler; // ОТКЛЮЧЕНО
 import com.metaphysicsnecrosis.metaphysicsspoilage.component.SpoilageHooks;
+import com.metaphysicsnecrosis.metaphysicsspoilage.component.LogicalServerContext;
 import com.metaphysicsnecrosis.metaphysicsspoilage.items.FoodContainer;
 import com.metaphysicsnecrosis.metaphysicsspoilage.items.StoredFoodEntry;
 import com.metaphysicsnecrosis.metaphysicsspoilage.gui.FoodContainerMenu;
@@ -48,7 +51,11 @@ import com.metaphysicsnecrosis.metaphysicsspoilage.network.FoodContainerPayload;
 import com.metaphysicsnecrosis.metaphysicsspoilage.network.FoodContainerPayloadHandler;
 import com.metaphysicsnecrosis.metaphysicsspoilage.network.FoodContainerSyncPayload;
 import com.metaphysicsnecrosis.metaphysicsspoilage.network.FoodContainerSyncHandler;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.CreativeTabFoodStacks;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.JsonSpoilageConfig;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.ContainerSpoilageState;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.ChunkSpoilageIndex;
+import com.metaphysicsnecrosis.metaphysicsspoilage.gametest.ContainerSpoilageGameTests;
 import net.minecraft.network.codec.ByteBufCodecs;
 import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
 import net.neoforged.neoforge.network.registration.PayloadRegistrar;
@@ -58,6 +65,8 @@ import net.neoforged.neoforge.registries.DeferredBlock;
 import net.neoforged.neoforge.registries.DeferredHolder;
 import net.neoforged.neoforge.registries.DeferredItem;
 import net.neoforged.neoforge.registries.DeferredRegister;
+import net.neoforged.neoforge.registries.NeoForgeRegistries;
+import net.neoforged.neoforge.attachment.AttachmentType;
 
 // The value here should match an entry in the META-INF/neoforge.mods.toml file
 @Mod(MetaphysicsSpoilage.MODID)
@@ -79,6 +88,9 @@ public class MetaphysicsSpoilage {
     // Create a Deferred Register to hold MenuTypes which will all be registered under the "metaphysicsspoilage" namespace
     public static final DeferredRegister<MenuType<?>> MENU_TYPES = DeferredRegister.create(Registries.MENU, MODID);
 
+    // Create a Deferred Register to hold AttachmentTypes which will all be registered under the "metaphysicsspoilage" namespace
+    public static final DeferredRegister<AttachmentType<?>> ATTACHMENT_TYPES = DeferredRegister.create(NeoForgeRegistries.Keys.ATTACHMENT_TYPES, MODID);
+
     // Register the SpoilageComponent data component
     public static final DeferredHolder<DataComponentType<?>, DataComponentType<SpoilageComponent>> SPOILAGE_COMPONENT =
             DATA_COMPONENT_TYPES.register("spoilage", () -> DataComponentType.<SpoilageComponent>builder()
@@ -93,6 +105,18 @@ public class MetaphysicsSpoilage {
                     .networkSynchronized(ByteBufCodecs.collection(java.util.ArrayList::new, StoredFoodEntry.STREAM_CODEC))
                     .build());
 
+    // Состояние ленивой обработки порчи для блочных контейнеров (не сохраняется, если еды в контейнере не осталось)
+    public static final DeferredHolder<AttachmentType<?>, AttachmentType<ContainerSpoilageState>> CONTAINER_SPOILAGE_STATE =
+            ATTACHMENT_TYPES.register("container_spoilage_state", () -> AttachmentType.builder(() -> new ContainerSpoilageState())
+                    .serialize(ContainerSpoilageState.MAP_CODEC, ContainerSpoilageState::hasFood)
+                    .build());
+
+    // Индекс контейнеров с едой в чанке для глобальной обработки
+    public static final DeferredHolder<AttachmentType<?>, AttachmentType<ChunkSpoilageIndex>> CHUNK_SPOILAGE_INDEX =
+            ATTACHMENT_TYPES.register("chunk_spoilage_index", () -> AttachmentType.builder(() -> new ChunkSpoilageIndex())
+                    .serialize(ChunkSpoilageIndex.MAP_CODEC)
+                    .build());
+
     // Creates a new Block with the id "metaphysicsspoilage:example_block", combining the namespace and path
     public static final DeferredBlock<Block> EXAMPLE_BLOCK = BLOCKS.registerSimpleBlock("example_block", BlockBehaviour.Properties.of().mapColor(MapColor.STONE));
     // Creates a new BlockItem with the id "metaphysicsspoilage:example_block", combining the namespace and path
@@ -140,6 +164,10 @@ public class MetaphysicsSpoilage {
         DATA_COMPONENT_TYPES.register(modEventBus);
         // Register the Deferred Register to the mod event bus so menu types get registered
         MENU_TYPES.register(modEventBus);
+        // Register the Deferred Register to the mod event bus so attachment types get registered
+        ATTACHMENT_TYPES.register(modEventBus);
+        // Игровые тесты (запускаются конфигурацией gameTestServer или командой /test)
+        ContainerSpoilageGameTests.TEST_FUNCTIONS.register(modEventBus);
 
         // Register ourselves for server and other game events we are interested in.
         // Note that this is necessary if and only if we want *this* class (MetaphysicsSpoilage) to respond directly to events.
@@ -214,16 +242,16 @@ public class MetaphysicsSpoilage {
         }
 
         LOGGER.info("MetaphysicsSpoilage: SpoilageChecker system ready for use");
-        LOGGER.info("MetaphysicsSpoilage: System configured with spoilage mode: {}", Config.SPOILAGE_MODE.get().getName());
-        LOGGER.info("MetaphysicsSpoilage: Food blocking mode: {}", Config.FOOD_BLOCKING_MODE.get().getName());
+        LOGGER.info("MetaphysicsSpoilage: System configured with spoilage mode: {}", SpoilageSettings.get().spoilageMode().getName());
+        LOGGER.info("MetaphysicsSpoilage: Food blocking mode: {}", SpoilageSettings.get().foodBlockingMode().getName());
 
         // Инициализация системы производительности
-        if (Config.ENABLE_PERFORMANCE_PROFILING.get()) {
+        if (SpoilageSettings.get().enablePerformanceProfiling()) {
             LOGGER.info("MetaphysicsSpoilage: Performance profiling enabled");
         }
 
-        if (Config.ENABLE_CACHE_OPTIMIZATION.get()) {
-            LOGGER.info("MetaphysicsSpoilage: Cache optimization enabled with limit: {}", Config.CACHE_SIZE_LIMIT.get());
+        if (SpoilageSettings.get().enableCacheOptimization()) {
+            LOGGER.info("MetaphysicsSpoilage: Cache optimization enabled with limit: {}", SpoilageSettings.get().cacheSizeLimit());
         }
 
         // Прогреваем кэши для улучшения производительности
@@ -231,7 +259,7 @@ public class MetaphysicsSpoilage {
     }
 
     private void registerPayloads(RegisterPayloadHandlersEvent event) {
-        final PayloadRegistrar registrar = event.registrar("1");
+        final PayloadRegistrar registrar = event.registrar("3");
 
         // Регистрируем пакет для команд FoodContainer (клиент -> сервер)
         registrar.playToServer(
@@ -283,31 +311,10 @@ public class MetaphysicsSpoilage {
 
             LOGGER.debug("Обработка креативного таба {} для установки флагов порчи", event.getTabKey());
 
-            // Правильный способ обработать предметы в креативном табе:
-            // Используем accept() для добавления предметов с нужными флагами
-            // Сначала получаем все предметы, которые могут портиться
-            var foodItems = net.minecraft.core.registries.BuiltInRegistries.ITEM.stream()
-                .filter(item -> {
-                    net.minecraft.world.item.ItemStack testStack = new net.minecraft.world.item.ItemStack(item);
-                    return testStack.has(net.minecraft.core.component.DataComponents.FOOD) &&
-                           com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils.canItemSpoil(item);
-                })
-                .toList();
-
-            LOGGER.debug("Найдено {} предметов еды для обработки в креативном табе", foodItems.size());
-
-            // Для каждого такого предмета создаем ItemStack с флагом TRANSIENT_NEVER_DECAY
-            for (var item : foodItems) {
-                net.minecraft.world.item.ItemStack stack = new net.minecraft.world.item.ItemStack(item);
-
-                // Устанавливаем флаг "временно не портится" для креативного режима
-                com.metaphysicsnecrosis.metaphysicsspoilage.component.SpoilageHooks.setTransientNonDecaying(stack);
-
-                // Добавляем в таб через accept (это перезапишет стандартный стек)
-                event.accept(stack);
-
-                String itemId = net.minecraft.core.registries.BuiltInRegistries.ITEM.getKey(item).toString();
-                LOGGER.debug("Установлен TRANSIENT_NEVER_DECAY для {} в креативном табе", itemId);
+            // Список еды с флагом TRANSIENT_NEVER_DECAY строится один раз на поколение правил порчи;
+            // accept() получает копию, так как стек остается в содержимом таба
+            for (var prototype : CreativeTabFoodStacks.getPrototypes()) {
+                event.accept(prototype.copy());
             }
 
         } catch (Exception e) {
@@ -315,6 +322,20 @@ public class MetaphysicsSpoilage {
         }
     }
 
+    /**
+     * Привязывает контекст логического сервера до загрузки миров,
+     * чтобы стеки из сохранений получали метки уже на этапе загрузки
+     */
+    @SubscribeEvent
+    public void onServerAboutToStart(ServerAboutToStartEvent event) {
+        LogicalServerContext.attach(event.getServer());
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        LogicalServerContext.detach();
+    }
+
     // You can use SubscribeEvent and let the Event Bus discover methods to call
     @SubscribeEvent
     public void onServerStarting(ServerStartingEvent event) {
@@ -360,13 +381,8 @@ public class MetaphysicsSpoilage {
         }
 
         // Периодические отчеты о производительности (каждые 30 минут = 36000 тиков)
-        if (Config.ENABLE_PERFORMANCE_PROFILING.get() && event.getServer().getTickCount() % 36000 == 0) {
+        if (SpoilageSettings.get().enablePerformanceProfiling() && event.getServer().getTickCount() % 36000 == 0) {
             PerformanceManager.logPerformanceReport();
         }
-
-        // Очистка кэшей каждые 10 минут (12000 тиков)
-        if (Config.ENABLE_CACHE_OPTIMIZATION.get() && event.getServer().getTickCount() % 12000 == 0) {
-            TimedFoodManager.cleanupStaleCacheEntries();
-        }
     }
 }
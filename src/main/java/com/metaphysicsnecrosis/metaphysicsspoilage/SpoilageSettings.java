@@ -0,0 +1,218 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.journal.SpoilageJournal;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.BoundedCache;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.Metrics;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.PrometheusExporter;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageAttribution;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageJfrEvents;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageRulesGeneration;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+import net.neoforged.neoforge.common.ModConfigSpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Неизменяемый снимок настроек мода.
+ *
+ * Пересобирается при загрузке и перезагрузке конфигурации ({@link Config}) и публикуется
+ * через одно volatile поле, поэтому чтение настройки в горячем пути - одна загрузка поля
+ * без обращения к ModConfigSpec. До загрузки конфигурации действует снимок со значениями
+ * по умолчанию ({@link #loaded()} == false), так что вызовы из ранних хуков не бросают исключений.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public record SpoilageSettings(
+        boolean loaded,
+
+        // Общие настройки
+        boolean enableSpoilageSystem,
+        double spoilageSpeedMultiplier,
+        boolean storeAbsoluteExpiry,
+        Config.SpoilageMode spoilageMode,
+
+        // Универсальная порча еды
+        int defaultFoodStorageDays,
+        boolean enableUniversalFoodSpoilage,
+
+        // Исключения
+        boolean excludeMagicalFood,
+        boolean excludePotionsFromSpoilage,
+        boolean excludeAlreadySpoiledItems,
+        Set<String> excludedItems,
+        Set<String> alwaysEdibleItems,
+
+        // Блокировка еды
+        Config.FoodBlockingMode foodBlockingMode,
+
+        // Тултипы
+        boolean enableTooltipSystem,
+        boolean showDetailedTooltips,
+        boolean showContainerTooltips,
+
+        // Производительность
+        boolean enablePerformanceProfiling,
+        int profilingSampleRate,
+        boolean enableJfrEvents,
+        boolean enableMetricsEndpoint,
+        int metricsEndpointPort,
+        boolean persistSpoilageStatistics,
+        boolean enableSpoilageJournal,
+        int journalFileSizeMb,
+        int journalMaxFiles,
+        boolean enableCostAttribution,
+        int attributionWindowSeconds,
+        boolean enableCacheOptimization,
+        int cacheSizeLimit,
+        int guiRefreshIntervalMs,
+        boolean enableBatchProcessing,
+
+        // Обработка контейнеров
+        boolean enableGlobalContainerProcessing,
+        int globalContainerCheckInterval,
+        int playerContainerCheckInterval,
+        int containerCheckRadius,
+        int globalContainerBudgetPerTick,
+        boolean enablePersistentExpiryIndex,
+        int sweepTickBudgetMs,
+
+        // Объединение стеков
+        Config.StackMergePolicy stackMergePolicy,
+        int stackMergeBucketDays,
+        Config.StackMergePolicy itemEntityMergePolicy,
+
+        // Сеть
+        int foodContainerActionBudget,
+        int foodContainerBudgetRefillPerSecond
+) {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageSettings.class);
+
+    /**
+     * Текущий опубликованный снимок
+     */
+    private static volatile SpoilageSettings current = read(false);
+
+    /**
+     * Получает текущий снимок настроек
+     */
+    public static SpoilageSettings get() {
+        return current;
+    }
+
+    /**
+     * Проверяет, исключен ли предмет из системы порчи
+     */
+    public boolean isItemExcluded(String itemId) {
+        return excludedItems.contains(itemId);
+    }
+
+    /**
+     * Проверяет, можно ли всегда есть предмет без временной метки
+     */
+    public boolean isAlwaysEdible(String itemId) {
+        return alwaysEdibleItems.contains(itemId);
+    }
+
+    /**
+     * Проверяет, исключен ли предмет из системы порчи.
+     * При пустом списке (по умолчанию) строка идентификатора не строится.
+     */
+    public boolean isItemExcluded(Item item) {
+        return !excludedItems.isEmpty() && excludedItems.contains(BuiltInRegistries.ITEM.getKey(item).toString());
+    }
+
+    /**
+     * Проверяет, можно ли всегда есть предмет без временной метки.
+     * При пустом списке (по умолчанию) строка идентификатора не строится.
+     */
+    public boolean isAlwaysEdible(Item item) {
+        return !alwaysEdibleItems.isEmpty() && alwaysEdibleItems.contains(BuiltInRegistries.ITEM.getKey(item).toString());
+    }
+
+    /**
+     * Пересобирает снимок из загруженной конфигурации и публикует его.
+     * Вызывается из обработчиков ModConfigEvent в {@link Config}.
+     */
+    static void reload() {
+        try {
+            current = read(true);
+            SpoilageRulesGeneration.bump("перезагрузка конфигурации");
+            Metrics.configure(current.enablePerformanceProfiling, current.profilingSampleRate);
+            BoundedCache.applySizeLimit(current.cacheSizeLimit);
+            SpoilageJfrEvents.configure(current.enableJfrEvents);
+            PrometheusExporter.configure(current);
+            SpoilageJournal.configure(current);
+            SpoilageAttribution.configure(current);
+            LOGGER.debug("Снимок настроек обновлен: система {}, режим порчи {}",
+                current.enableSpoilageSystem, current.spoilageMode);
+        } catch (Exception e) {
+            LOGGER.error("Ошибка при построении снимка настроек, используется предыдущий", e);
+        }
+    }
+
+    /**
+     * Строит снимок из значений конфигурации или из значений по умолчанию
+     */
+    private static SpoilageSettings read(boolean loaded) {
+        return new SpoilageSettings(
+            loaded,
+            value(Config.ENABLE_SPOILAGE_SYSTEM, loaded),
+            value(Config.SPOILAGE_SPEED_MULTIPLIER, loaded),
+            value(Config.STORE_ABSOLUTE_EXPIRY, loaded),
+            value(Config.SPOILAGE_MODE, loaded),
+            value(Config.DEFAULT_FOOD_STORAGE_DAYS, loaded),
+            value(Config.ENABLE_UNIVERSAL_FOOD_SPOILAGE, loaded),
+            value(Config.EXCLUDE_MAGICAL_FOOD, loaded),
+            value(Config.EXCLUDE_POTIONS_FROM_SPOILAGE, loaded),
+            value(Config.EXCLUDE_ALREADY_SPOILED_ITEMS, loaded),
+            toSet(value(Config.EXCLUDED_ITEMS, loaded)),
+            toSet(value(Config.ALWAYS_EDIBLE_ITEMS, loaded)),
+            value(Config.FOOD_BLOCKING_MODE, loaded),
+            value(Config.ENABLE_TOOLTIP_SYSTEM, loaded),
+            value(Config.SHOW_DETAILED_TOOLTIPS, loaded),
+            value(Config.SHOW_CONTAINER_TOOLTIPS, loaded),
+            value(Config.ENABLE_PERFORMANCE_PROFILING, loaded),
+            value(Config.PROFILING_SAMPLE_RATE, loaded),
+            value(Config.ENABLE_JFR_EVENTS, loaded),
+            value(Config.ENABLE_METRICS_ENDPOINT, loaded),
+            value(Config.METRICS_ENDPOINT_PORT, loaded),
+            value(Config.PERSIST_SPOILAGE_STATISTICS, loaded),
+            value(Config.ENABLE_SPOILAGE_JOURNAL, loaded),
+            value(Config.JOURNAL_FILE_SIZE_MB, loaded),
+            value(Config.JOURNAL_MAX_FILES, loaded),
+            value(Config.ENABLE_COST_ATTRIBUTION, loaded),
+            value(Config.ATTRIBUTION_WINDOW_SECONDS, loaded),
+            value(Config.ENABLE_CACHE_OPTIMIZATION, loaded),
+            value(Config.CACHE_SIZE_LIMIT, loaded),
+            value(Config.GUI_REFRESH_INTERVAL_MS, loaded),
+            value(Config.ENABLE_BATCH_PROCESSING, loaded),
+            value(Config.ENABLE_GLOBAL_CONTAINER_PROCESSING, loaded),
+            value(Config.GLOBAL_CONTAINER_CHECK_INTERVAL, loaded),
+            value(Config.PLAYER_CONTAINER_CHECK_INTERVAL, loaded),
+            value(Config.CONTAINER_CHECK_RADIUS, loaded),
+            value(Config.GLOBAL_CONTAINER_BUDGET_PER_TICK, loaded),
+            value(Config.ENABLE_PERSISTENT_EXPIRY_INDEX, loaded),
+            value(Config.SWEEP_TICK_BUDGET_MS, loaded),
+            value(Config.STACK_MERGE_POLICY, loaded),
+            value(Config.STACK_MERGE_BUCKET_DAYS, loaded),
+            value(Config.ITEM_ENTITY_MERGE_POLICY, loaded),
+            value(Config.FOOD_CONTAINER_ACTION_BUDGET, loaded),
+            value(Config.FOOD_CONTAINER_BUDGET_REFILL_PER_SECOND, loaded)
+        );
+    }
+
+    private static <T> T value(ModConfigSpec.ConfigValue<T> configValue, boolean loaded) {
+        return loaded ? configValue.get() : configValue.getDefault();
+    }
+
+    private static Set<String> toSet(List<? extends String> values) {
+        return Set.copyOf(values);
+    }
+}
@@ -0,0 +1,237 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.command;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageAttribution;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageDiagnostics;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageSweepJob;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.DimensionArgument;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * Серверные команды /spoilage.
+ *
+ * <ul>
+ *   <li>/spoilage sweep [dimension] [radius] - административная обработка порчи</li>
+ *   <li>/spoilage sweep status|pause|resume|cancel - управление обработкой</li>
+ *   <li>/spoilage stats [раздел] - диагностика производительности</li>
+ *   <li>/spoilage stats reset|dump - сброс статистики и выгрузка в JSON</li>
+ *   <li>/spoilage attribution start|stop|reset - распределение затрат по держателям</li>
+ *   <li>/spoilage attribution top|chunks [количество] - самые затратные держатели и чанки</li>
+ *   <li>/spoilage attribution dump [количество] - выгрузка топа в JSON</li>
+ * </ul>
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class SpoilageCommands {
+
+    /**
+     * Уровень прав для административных команд
+     */
+    private static final int PERMISSION_LEVEL = 2;
+
+    /**
+     * Предел топа в чате и по умолчанию для выгрузки распределения затрат
+     */
+    private static final int MAX_TOP = 100;
+
+    /**
+     * Предел выгрузки распределения затрат в JSON
+     */
+    private static final int MAX_ATTRIBUTION_DUMP = 10000;
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        register(event.getDispatcher());
+    }
+
+    private static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("spoilage")
+            .requires(source -> source.hasPermission(PERMISSION_LEVEL))
+            .then(Commands.literal("sweep")
+                .executes(context -> startSweep(context, null, 0))
+                .then(Commands.literal("status").executes(SpoilageCommands::sweepStatus))
+                .then(Commands.literal("pause").executes(SpoilageCommands::pauseSweep))
+                .then(Commands.literal("resume").executes(SpoilageCommands::resumeSweep))
+                .then(Commands.literal("cancel").executes(SpoilageCommands::cancelSweep))
+                .then(Commands.argument("dimension", DimensionArgument.dimension())
+                    .executes(context -> startSweep(context,
+                        DimensionArgument.getDimension(context, "dimension"), 0))
+                    .then(Commands.argument("radius", IntegerArgumentType.integer(1))
+                        .executes(context -> startSweep(context,
+                            DimensionArgument.getDimension(context, "dimension"),
+                            IntegerArgumentType.getInteger(context, "radius"))))))
+            .then(buildStats())
+            .then(buildAttribution()));
+    }
+
+    private static LiteralArgumentBuilder<CommandSourceStack> buildStats() {
+        LiteralArgumentBuilder<CommandSourceStack> stats = Commands.literal("stats")
+            .executes(context -> sendLines(context, SpoilageDiagnostics.summary()))
+            .then(Commands.literal("reset").executes(SpoilageCommands::resetStats))
+            .then(Commands.literal("dump").executes(SpoilageCommands::dumpStats));
+
+        for (SpoilageDiagnostics.Section section : SpoilageDiagnostics.Section.values()) {
+            stats.then(Commands.literal(section.getName()).executes(context -> sendLines(context, section.render())));
+        }
+        return stats;
+    }
+
+    private static LiteralArgumentBuilder<CommandSourceStack> buildAttribution() {
+        return Commands.literal("attribution")
+            .executes(context -> sendLines(context, SpoilageAttribution.getReport()))
+            .then(Commands.literal("start").executes(SpoilageCommands::startAttribution))
+            .then(Commands.literal("stop").executes(SpoilageCommands::stopAttribution))
+            .then(Commands.literal("reset").executes(SpoilageCommands::resetAttribution))
+            .then(Commands.literal("top")
+                .executes(context -> sendTop(context, false, SpoilageAttribution.DEFAULT_TOP))
+                .then(Commands.argument("count", IntegerArgumentType.integer(1, MAX_TOP))
+                    .executes(context -> sendTop(context, false, IntegerArgumentType.getInteger(context, "count")))))
+            .then(Commands.literal("chunks")
+                .executes(context -> sendTop(context, true, SpoilageAttribution.DEFAULT_TOP))
+                .then(Commands.argument("count", IntegerArgumentType.integer(1, MAX_TOP))
+                    .executes(context -> sendTop(context, true, IntegerArgumentType.getInteger(context, "count")))))
+            .then(Commands.literal("dump")
+                .executes(context -> dumpAttribution(context, MAX_TOP))
+                .then(Commands.argument("count", IntegerArgumentType.integer(1, MAX_ATTRIBUTION_DUMP))
+                    .executes(context -> dumpAttribution(context, IntegerArgumentType.getInteger(context, "count")))));
+    }
+
+    // === SWEEP ===
+
+    private static int startSweep(CommandContext<CommandSourceStack> context, @Nullable ServerLevel dimension,
+                                  int radius) {
+        CommandSourceStack source = context.getSource();
+        if (!SpoilageSweepJob.start(source, dimension, radius)) {
+            source.sendFailure(Component.translatable("commands.metaphysicsspoilage.sweep.already_running"));
+            return 0;
+        }
+
+        source.sendSuccess(() -> Component.translatable("commands.metaphysicsspoilage.sweep.started"), true);
+        return 1;
+    }
+
+    private static int sweepStatus(CommandContext<CommandSourceStack> context) {
+        Component progress = SpoilageSweepJob.getProgressMessage();
+        if (progress == null) {
+            context.getSource().sendFailure(Component.translatable("commands.metaphysicsspoilage.sweep.not_running"));
+            return 0;
+        }
+
+        context.getSource().sendSuccess(() -> progress, false);
+        return 1;
+    }
+
+    private static int pauseSweep(CommandContext<CommandSourceStack> context) {
+        return reply(context, SpoilageSweepJob.pause(), "commands.metaphysicsspoilage.sweep.paused");
+    }
+
+    private static int resumeSweep(CommandContext<CommandSourceStack> context) {
+        return reply(context, SpoilageSweepJob.resume(), "commands.metaphysicsspoilage.sweep.resumed");
+    }
+
+    private static int cancelSweep(CommandContext<CommandSourceStack> context) {
+        return reply(context, SpoilageSweepJob.cancel(), "commands.metaphysicsspoilage.sweep.cancelled");
+    }
+
+    private static int reply(CommandContext<CommandSourceStack> context, boolean success, String key) {
+        if (!success) {
+            context.getSource().sendFailure(Component.translatable("commands.metaphysicsspoilage.sweep.not_running"));
+            return 0;
+        }
+
+        context.getSource().sendSuccess(() -> Component.translatable(key), true);
+        return 1;
+    }
+
+    // === STATS ===
+
+    private static int sendLines(CommandContext<CommandSourceStack> context, String report) {
+        for (String line : report.split("\n")) {
+            context.getSource().sendSuccess(() -> Component.literal(line), false);
+        }
+        return 1;
+    }
+
+    private static int resetStats(CommandContext<CommandSourceStack> context) {
+        SpoilageDiagnostics.resetStatistics();
+        context.getSource().sendSuccess(() -> Component.translatable("commands.metaphysicsspoilage.stats.reset"), true);
+        return 1;
+    }
+
+    private static int dumpStats(CommandContext<CommandSourceStack> context) {
+        Path file = SpoilageDiagnostics.dumpJson(context.getSource().getServer());
+        if (file == null) {
+            context.getSource().sendFailure(Component.translatable("commands.metaphysicsspoilage.stats.dump_failed"));
+            return 0;
+        }
+
+        context.getSource().sendSuccess(() -> Component.translatable("commands.metaphysicsspoilage.stats.dumped",
+            file.toString()), false);
+        return 1;
+    }
+
+    // === ATTRIBUTION ===
+
+    private static int startAttribution(CommandContext<CommandSourceStack> context) {
+        SpoilageAttribution.startByCommand();
+        context.getSource().sendSuccess(() -> Component.translatable("commands.metaphysicsspoilage.attribution.started"), true);
+        return 1;
+    }
+
+    private static int stopAttribution(CommandContext<CommandSourceStack> context) {
+        if (!SpoilageAttribution.stopByCommand()) {
+            context.getSource().sendFailure(Component.translatable("commands.metaphysicsspoilage.attribution.enabled_by_config"));
+            return 0;
+        }
+
+        context.getSource().sendSuccess(() -> Component.translatable("commands.metaphysicsspoilage.attribution.stopped"), true);
+        return 1;
+    }
+
+    private static int resetAttribution(CommandContext<CommandSourceStack> context) {
+        SpoilageAttribution.reset();
+        context.getSource().sendSuccess(() -> Component.translatable("commands.metaphysicsspoilage.attribution.reset"), true);
+        return 1;
+    }
+
+    private static int sendTop(CommandContext<CommandSourceStack> context, boolean chunks, int count) {
+        StringBuilder report = new StringBuilder(SpoilageAttribution.getStatistics());
+        if (chunks) {
+            SpoilageAttribution.appendTop(report, "Чанки:", SpoilageAttribution.topChunks(count));
+        } else {
+            SpoilageAttribution.appendTop(report, "Держатели:", SpoilageAttribution.top(count));
+        }
+        return sendLines(context, report.toString());
+    }
+
+    private static int dumpAttribution(CommandContext<CommandSourceStack> context, int count) {
+        Path file = SpoilageAttribution.dumpJson(context.getSource().getServer(), count);
+        if (file == null) {
+            context.getSource().sendFailure(Component.translatable("commands.metaphysicsspoilage.stats.dump_failed"));
+            return 0;
+        }
+
+        context.getSource().sendSuccess(() -> Component.translatable("commands.metaphysicsspoilage.stats.dumped",
+            file.toString()), false);
+        return 1;
+    }
+
+    // Запрещаем создание экземпляров
+    private SpoilageCommands() {}
+}
@@ -0,0 +1,13 @@
+/**
+ * Серверные команды MetaphysicsSpoilage.
+ *
+ * <h2>Основные классы:</h2>
+ * <ul>
+ *   <li>{@link com.metaphysicsnecrosis.metaphysicsspoilage.command.SpoilageCommands} - Регистрация команды /spoilage</li>
+ * </ul>
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+package com.metaphysicsnecrosis.metaphysicsspoilage.command;
@@ -0,0 +1,81 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.component;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.time.TimeUtils;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Явный контекст логического сервера для хуков ItemStack.
+ *
+ * Хуки вызываются для каждого создаваемого ItemStack, в том числе на клиенте
+ * (JEI/EMI, креативный поиск, подсказки). Временные метки имеют смысл только
+ * на логическом сервере, поэтому все остальные потоки отсекаются одной проверкой
+ * без обращения к ServerLifecycleHooks и WorldDayTracker.
+ *
+ * На выделенном сервере логическим сервером считается любой поток (включая сетевые),
+ * на клиенте - только поток встроенного сервера.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class LogicalServerContext {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogicalServerContext.class);
+
+    private static volatile MinecraftServer server;
+    private static volatile Thread serverThread;
+    private static volatile boolean dedicated;
+
+    /**
+     * Привязывает контекст к запускаемому серверу (ServerAboutToStartEvent)
+     */
+    public static void attach(MinecraftServer minecraftServer) {
+        serverThread = minecraftServer.getRunningThread();
+        dedicated = minecraftServer.isDedicatedServer();
+        server = minecraftServer;
+        LOGGER.debug("Контекст логического сервера привязан (выделенный: {}, поток: {})",
+            dedicated, serverThread.getName());
+    }
+
+    /**
+     * Отвязывает контекст после остановки сервера (ServerStoppedEvent)
+     */
+    public static void detach() {
+        server = null;
+        serverThread = null;
+        dedicated = false;
+        LOGGER.debug("Контекст логического сервера отвязан");
+    }
+
+    /**
+     * Проверяет, выполняется ли текущий код на логическом сервере
+     */
+    public static boolean isLogicalServer() {
+        if (server == null) {
+            return false;
+        }
+        return dedicated || Thread.currentThread() == serverThread;
+    }
+
+    /**
+     * Получает текущий игровой день по времени верхнего мира.
+     * Совпадает со значением WorldDayTracker, который синхронизируется с мировым временем.
+     *
+     * @return текущий день или 0, если миры еще не загружены
+     */
+    public static long getCurrentDay() {
+        MinecraftServer current = server;
+        if (current == null) {
+            return 0L;
+        }
+
+        ServerLevel overworld = current.overworld();
+        return overworld != null ? TimeUtils.getCurrentDayFromWorldTime(overworld) : 0L;
+    }
+
+    // Запрещаем создание экземпляров
+    private LogicalServerContext() {}
+}
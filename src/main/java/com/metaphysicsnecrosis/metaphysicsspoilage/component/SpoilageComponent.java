@@ -1,7 +1,11 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.component;
 
-import com.metaphysicsnecrosis.metaphysicsspoilage.performance.PerformanceManager;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.Metrics;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.OperationTimer;
+import com.mojang.datafixers.util.Either;
 import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
 import net.minecraft.network.RegistryFriendlyByteBuf;
 import net.minecraft.network.codec.StreamCodec;
 import org.slf4j.Logger;
@@ -11,6 +15,11 @@ import org.slf4j.LoggerFactory;
  * Оптимизированный компонент данных для отслеживания времени создания предмета.
  * Хранит день создания предмета для системы порчи с оптимизированной сериализацией.
  *
+ * При включенной настройке {@code storeAbsoluteExpiry} дополнительно хранит день порчи,
+ * рассчитанный при установке метки (с учетом множителя скорости порчи). Проверка свежести
+ * такого стека - одно сравнение без обращения к правилам порчи. Компоненты без сохраненного
+ * срока сериализуются как раньше (одно число), поэтому старые миры читаются без миграции.
+ *
  * ОПТИМИЗАЦИИ:
  * - Кэширование результатов сериализации
  * - Профилирование операций
@@ -18,14 +27,20 @@ import org.slf4j.LoggerFactory;
  * - Валидация данных
  *
  * @param creationDay День создания предмета (игровой день)
+ * @param expiryDay   Сохраненный день порчи или {@link #NO_STORED_EXPIRY}
  * @author MetaphysicsNecrosis
  * @version 1.1 (оптимизированная)
  * @since 1.21.8
  */
-public record SpoilageComponent(long creationDay) {
+public record SpoilageComponent(long creationDay, long expiryDay) {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageComponent.class);
 
+    private static final OperationTimer DECODE_TIMER = Metrics.sampledTimer("SpoilageComponent.decode");
+    private static final OperationTimer ENCODE_TIMER = Metrics.sampledTimer("SpoilageComponent.encode");
+    private static final OperationTimer WRITE_TIMER = Metrics.sampledTimer("SpoilageComponent.write");
+    private static final OperationTimer READ_TIMER = Metrics.sampledTimer("SpoilageComponent.read");
+
     /**
      * Специальные флаги временных меток (по образцу TFC)
      */
@@ -40,6 +55,11 @@ public record SpoilageComponent(long creationDay) {
     public static final long MIN_CREATION_DAY = 0L;
     public static final long MAX_CREATION_DAY = Long.MAX_VALUE - 1000L; // Оставляем запас
 
+    /**
+     * День порчи не сохранен - срок определяется правилами порчи при проверке
+     */
+    public static final long NO_STORED_EXPIRY = -1L;
+
     /**
      * Конструктор с валидацией данных
      */
@@ -59,6 +79,32 @@ public record SpoilageComponent(long creationDay) {
                 creationDay = MAX_CREATION_DAY;
             }
         }
+
+        // У специальных флагов срока нет
+        if (isSpecialFlag(creationDay) || expiryDay < creationDay) {
+            expiryDay = NO_STORED_EXPIRY;
+        }
+    }
+
+    /**
+     * Компонент без сохраненного дня порчи
+     */
+    public SpoilageComponent(long creationDay) {
+        this(creationDay, NO_STORED_EXPIRY);
+    }
+
+    /**
+     * Проверяет, сохранен ли в компоненте день порчи
+     */
+    public boolean hasStoredExpiry() {
+        return expiryDay != NO_STORED_EXPIRY;
+    }
+
+    /**
+     * Создает копию компонента с другим сохраненным днем порчи
+     */
+    public SpoilageComponent withExpiryDay(long newExpiryDay) {
+        return newExpiryDay == expiryDay ? this : new SpoilageComponent(creationDay, newExpiryDay);
     }
 
     /**
@@ -72,23 +118,55 @@ public record SpoilageComponent(long creationDay) {
     }
 
     /**
-     * Оптимизированный Codec для сериализации/десериализации компонента в NBT
-     * Включает профилирование и валидацию
+     * Проверка дня создания при чтении из NBT
      */
-    public static final Codec<SpoilageComponent> CODEC = Codec.LONG
+    private static DataResult<Long> validateCreationDay(long day) {
+        if (day < MIN_CREATION_DAY || day > MAX_CREATION_DAY) {
+            return DataResult.error(() -> "Некорректный день создания: " + day);
+        }
+        return DataResult.success(day);
+    }
+
+    /**
+     * Старый формат: только день создания (одно число)
+     */
+    private static final Codec<SpoilageComponent> CREATION_DAY_CODEC = Codec.LONG
             .comapFlatMap(
-                day -> {
-                    try (var profiler = PerformanceManager.profile("SpoilageComponent.decode")) {
-                        if (day < MIN_CREATION_DAY || day > MAX_CREATION_DAY) {
-                            return com.mojang.serialization.DataResult.error(() ->
-                                "Некорректный день создания: " + day);
-                        }
-                        return com.mojang.serialization.DataResult.success(new SpoilageComponent(day));
+                day -> validateCreationDay(day).map(SpoilageComponent::new),
+                SpoilageComponent::creationDay
+            );
+
+    /**
+     * Формат с сохраненным днем порчи
+     */
+    private static final Codec<SpoilageComponent> EXPIRY_CODEC = RecordCodecBuilder.create(instance -> instance.group(
+            Codec.LONG.validate(SpoilageComponent::validateCreationDay).fieldOf("creation_day").forGetter(SpoilageComponent::creationDay),
+            Codec.LONG.fieldOf("expiry_day").forGetter(SpoilageComponent::expiryDay)
+    ).apply(instance, SpoilageComponent::new));
+
+    /**
+     * Оптимизированный Codec для сериализации/десериализации компонента в NBT
+     * Включает профилирование и валидацию. Компонент без сохраненного срока пишется
+     * в старом формате, с сохраненным сроком - как структура.
+     */
+    public static final Codec<SpoilageComponent> CODEC = Codec.either(CREATION_DAY_CODEC, EXPIRY_CODEC)
+            .xmap(
+                either -> {
+                    long timerStart = DECODE_TIMER.start();
+                    try {
+                        return either.map(component -> component, component -> component);
+                    } finally {
+                        DECODE_TIMER.stop(timerStart);
                     }
                 },
                 component -> {
-                    try (var profiler = PerformanceManager.profile("SpoilageComponent.encode")) {
-                        return component.creationDay();
+                    long timerStart = ENCODE_TIMER.start();
+                    try {
+                        return component.hasStoredExpiry()
+                            ? Either.right(component)
+                            : Either.left(component);
+                    } finally {
+                        ENCODE_TIMER.stop(timerStart);
                     }
                 }
             );
@@ -100,16 +178,25 @@ public record SpoilageComponent(long creationDay) {
     public static final StreamCodec<RegistryFriendlyByteBuf, SpoilageComponent> STREAM_CODEC =
             StreamCodec.of(
                 (buf, component) -> {
-                    try (var profiler = PerformanceManager.profile("SpoilageComponent.write")) {
-                        // Оптимизированная запись: используем варлонг для экономии места
+                    long timerStart = WRITE_TIMER.start();
+                    try {
+                        // Оптимизированная запись: используем варлонг для экономии места.
+                        // Срок пишется со сдвигом на 1, чтобы отсутствие срока занимало один байт
                         writeVarLong(buf, component.creationDay());
+                        writeVarLong(buf, component.expiryDay() + 1);
+                    } finally {
+                        WRITE_TIMER.stop(timerStart);
                     }
                 },
                 buf -> {
-                    try (var profiler = PerformanceManager.profile("SpoilageComponent.read")) {
+                    long timerStart = READ_TIMER.start();
+                    try {
                         // Оптимизированное чтение
                         long day = readVarLong(buf);
-                        return new SpoilageComponent(day);
+                        long expiryDay = readVarLong(buf) - 1;
+                        return new SpoilageComponent(day, expiryDay);
+                    } finally {
+                        READ_TIMER.stop(timerStart);
                     }
                 }
             );
@@ -160,8 +247,11 @@ public record SpoilageComponent(long creationDay) {
      * Получает размер сериализованных данных в байтах (приблизительно)
      */
     public int getSerializedSize() {
-        // VarLong encoding: от 1 до 9 байт в зависимости от значения
-        long value = creationDay;
+        // VarLong encoding: от 1 до 10 байт на значение (день создания и срок со сдвигом)
+        return varLongSize(creationDay) + varLongSize(expiryDay + 1);
+    }
+
+    private static int varLongSize(long value) {
         int bytes = 1;
         while ((value & -128L) != 0L) {
             bytes++;
@@ -193,7 +283,7 @@ public record SpoilageComponent(long creationDay) {
 
     @Override
     public String toString() {
-        return String.format("SpoilageComponent{day=%d, valid=%s, size=%db}",
-                           creationDay, isValid(), getSerializedSize());
+        return String.format("SpoilageComponent{day=%d, expiry=%d, valid=%s, size=%db}",
+                           creationDay, expiryDay, isValid(), getSerializedSize());
     }
 }
\ No newline at end of file
@@ -1,19 +1,18 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.component;
 
-import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
 import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.BoundedCache;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
 import com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
-import net.neoforged.neoforge.server.ServerLifecycleHooks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
 
 /**
  * Упрощенная система управления временными метками для еды.
@@ -31,27 +30,24 @@ public final class SpoilageHooks {
     private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageHooks.class);
 
     /**
-     * Кэш для проверки возможности порчи предметов (для производительности)
+     * Кэш для проверки возможности порчи предметов (сбрасывается со сменой поколения правил)
      */
-    private static final Map<String, Boolean> CAN_SPOIL_CACHE = new ConcurrentHashMap<>(128);
-
-    /**
-     * Кэш для исключенных предметов
-     */
-    private static final Map<String, Boolean> EXCLUDED_CACHE = new ConcurrentHashMap<>(64);
-
-    /**
-     * Флаг включения системы (для быстрой проверки)
-     */
-    private static volatile boolean systemEnabled = true;
+    private static final BoundedCache<Item, Boolean> CAN_SPOIL_CACHE =
+        BoundedCache.generational("SpoilageHooks.canSpoil");
 
     /**
      * Вызывается при создании каждого ItemStack через Mixin.
      * Автоматически добавляет временную метку если предмет является едой.
+     * Стеки, созданные вне логического сервера (клиент, поток рендера), не обрабатываются.
      *
      * @param stack Созданный ItemStack
      */
     public static void onItemStackCreated(ItemStack stack) {
+        // Клиентские стеки (JEI/EMI, креативный поиск, подсказки) ничего не стоят
+        if (!LogicalServerContext.isLogicalServer()) {
+            return;
+        }
+
         // Быстрые проверки для производительности
         if (stack == null || stack.isEmpty()) {
             return;
@@ -70,6 +66,10 @@ public final class SpoilageHooks {
 
         // Проверяем, уже есть ли временная метка
         if (SpoilageUtils.hasTimestamp(stack)) {
+            // Стек из креативного таба попал на сервер - превращаем временный флаг в свежую метку
+            if (SpoilageUtils.getCreationDay(stack) == SpoilageComponent.TRANSIENT_NEVER_DECAY_FLAG) {
+                setFreshTimestamp(stack);
+            }
             return;
         }
 
@@ -86,41 +86,14 @@ public final class SpoilageHooks {
      * Проверяет, может ли предмет портиться (с кэшированием)
      */
     private static boolean canItemSpoilCached(ItemStack stack) {
-        try {
-            String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
-
-            return CAN_SPOIL_CACHE.computeIfAbsent(itemId, id -> {
-                try {
-                    // Проверяем исключения
-                    if (isItemExcludedCached(id)) {
-                        return false;
-                    }
-
-                    // Проверяем базовую способность к порче
-                    return SpoilageUtils.canItemSpoil(stack.getItem());
-                } catch (Exception e) {
-                    // При любой ошибке считаем, что предмет не может портиться
-                    LOGGER.debug("Ошибка при проверке способности к порче для {}: {}", id, e.getMessage());
-                    return false;
-                }
-            });
-        } catch (Exception e) {
-            // Если даже получить ID предмета не удается
-            LOGGER.debug("Ошибка при получении ID предмета: {}", e.getMessage());
-            return false;
-        }
-    }
-
-    /**
-     * Проверяет, исключен ли предмет (с кэшированием)
-     */
-    private static boolean isItemExcludedCached(String itemId) {
-        return EXCLUDED_CACHE.computeIfAbsent(itemId, id -> {
+        return CAN_SPOIL_CACHE.get(stack.getItem(), item -> {
             try {
-                return Config.isItemExcluded(id);
+                // Исключения учитываются в SpoilageUtils.canItemSpoil
+                return SpoilageUtils.canItemSpoil(item);
             } catch (Exception e) {
-                // При ошибке считаем предмет НЕ исключенным (безопасная сторона)
-                LOGGER.debug("Ошибка при проверке исключения для {}: {}", id, e.getMessage());
+                // При любой ошибке считаем, что предмет не может портиться
+                LOGGER.debug("Ошибка при проверке способности к порче для {}: {}",
+                    BuiltInRegistries.ITEM.getKey(item), e.getMessage());
                 return false;
             }
         });
@@ -135,7 +108,7 @@ public final class SpoilageHooks {
             long currentDay = getCurrentDay();
 
             // Устанавливаем компонент
-            SpoilageComponent component = new SpoilageComponent(currentDay);
+            SpoilageComponent component = SpoilageUtils.createComponent(stack.getItem(), currentDay);
             stack.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(), component);
 
             LOGGER.debug("Добавлена временная метка к {} (день: {})",
@@ -192,7 +165,7 @@ public final class SpoilageHooks {
 
         try {
             long currentDay = getCurrentDay();
-            SpoilageComponent component = new SpoilageComponent(currentDay);
+            SpoilageComponent component = SpoilageUtils.createComponent(stack.getItem(), currentDay);
             stack.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(), component);
             LOGGER.debug("Установлена свежая временная метка для {} (день: {})",
                 BuiltInRegistries.ITEM.getKey(stack.getItem()), currentDay);
@@ -205,61 +178,25 @@ public final class SpoilageHooks {
     }
 
     /**
-     * Получает текущий игровой день
+     * Получает текущий игровой день из контекста логического сервера
      */
     private static long getCurrentDay() {
-        try {
-            // Пытаемся получить серверный уровень
-            var server = ServerLifecycleHooks.getCurrentServer();
-            if (server != null) {
-                ServerLevel overworld = server.overworld();
-                if (overworld != null) {
-                    return WorldDayTracker.getInstance(overworld).getCurrentDay();
-                }
-            }
-        } catch (Exception e) {
-            LOGGER.debug("Не удалось получить серверный уровень, используем день 0: {}", e.getMessage());
-        }
-
-        // Fallback - возвращаем день 0 если нет доступа к серверу
-        // Это может произойти на клиенте или при загрузке
-        return 0L;
+        return LogicalServerContext.getCurrentDay();
     }
 
     /**
      * Проверяет, загружена ли конфигурация и готова ли система
      */
     private static boolean isConfigLoaded() {
-        try {
-            // Пытаемся получить значение конфига без исключений
-            Config.ENABLE_SPOILAGE_SYSTEM.get();
-            return true;
-        } catch (IllegalStateException e) {
-            // Конфигурация еще не загружена
-            return false;
-        } catch (Exception e) {
-            // Любая другая ошибка - считаем, что система не готова
-            LOGGER.debug("Ошибка при проверке готовности конфига: {}", e.getMessage());
-            return false;
-        }
+        // До загрузки конфигурации опубликован снимок значений по умолчанию
+        return SpoilageSettings.get().loaded();
     }
 
     /**
      * Проверяет, включена ли система порчи
      */
     private static boolean isSystemEnabled() {
-        try {
-            // Кэшируем результат для производительности
-            boolean currentValue = Config.ENABLE_SPOILAGE_SYSTEM.get();
-            if (systemEnabled != currentValue) {
-                systemEnabled = currentValue;
-            }
-            return systemEnabled;
-        } catch (Exception e) {
-            // Если не удается получить значение, считаем систему отключенной
-            LOGGER.debug("Не удается получить настройку ENABLE_SPOILAGE_SYSTEM: {}", e.getMessage());
-            return false;
-        }
+        return SpoilageSettings.get().enableSpoilageSystem();
     }
 
     /**
@@ -281,7 +218,7 @@ public final class SpoilageHooks {
 
         // Устанавливаем новую временную метку
         long currentDay = WorldDayTracker.getInstance(level).getCurrentDay();
-        SpoilageComponent component = new SpoilageComponent(currentDay);
+        SpoilageComponent component = SpoilageUtils.createComponent(stack.getItem(), currentDay);
         stack.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(), component);
 
         LOGGER.debug("Принудительно обновлена временная метка для {} (день: {})",
@@ -293,8 +230,6 @@ public final class SpoilageHooks {
      */
     public static void clearCaches() {
         CAN_SPOIL_CACHE.clear();
-        EXCLUDED_CACHE.clear();
-        systemEnabled = Config.ENABLE_SPOILAGE_SYSTEM.get();
         LOGGER.debug("Очищены кэши SpoilageHooks");
     }
 
@@ -302,8 +237,8 @@ public final class SpoilageHooks {
      * Получает статистику кэшей
      */
     public static String getCacheStats() {
-        return String.format("SpoilageHooks кэши - CanSpoil: %d, Excluded: %d, System: %s",
-            CAN_SPOIL_CACHE.size(), EXCLUDED_CACHE.size(), systemEnabled);
+        return String.format("SpoilageHooks кэши - CanSpoil: %d (%.1f%%), Excluded: %d, System: %s",
+            CAN_SPOIL_CACHE.size(), CAN_SPOIL_CACHE.getHitRatio() * 100, SpoilageSettings.get().excludedItems().size(), isSystemEnabled());
     }
 
     /**
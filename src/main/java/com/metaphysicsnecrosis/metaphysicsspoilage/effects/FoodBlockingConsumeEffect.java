@@ -2,6 +2,7 @@ package com.metaphysicsnecrosis.metaphysicsspoilage.effects;
 
 import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
 import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
 import com.metaphysicsnecrosis.metaphysicsspoilage.manager.TimedFoodManager;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
 import net.minecraft.ChatFormatting;
@@ -31,8 +32,8 @@ import org.slf4j.LoggerFactory;
  * - ZERO_NUTRITION: Позволяет употребить, но без восстановления голода
  *
  * Интегрируется с:
- * - Config.FOOD_BLOCKING_MODE - режим блокировки
- * - Config.ALWAYS_EDIBLE_ITEMS - список исключений
+ * - SpoilageSettings.foodBlockingMode() - режим блокировки
+ * - SpoilageSettings.alwaysEdibleItems() - список исключений
  * - SpoilageUtils - проверка временных меток
  * - TimedFoodManager - управление временными метками
  *
@@ -61,7 +62,7 @@ public class FoodBlockingConsumeEffect {
         }
 
         // Проверяем, что система порчи включена
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return;
         }
 
@@ -98,7 +99,7 @@ public class FoodBlockingConsumeEffect {
         }
 
         // Проверяем, что система включена
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return;
         }
 
@@ -121,10 +122,8 @@ public class FoodBlockingConsumeEffect {
      * @return true если нужно блокировать
      */
     private static boolean shouldBlockFoodConsumption(ItemStack stack, LivingEntity entity) {
-        String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
-
         // Проверяем, входит ли предмет в список всегда съедобных
-        if (Config.isAlwaysEdible(itemId)) {
+        if (SpoilageSettings.get().isAlwaysEdible(stack.getItem())) {
             return false;
         }
 
@@ -139,7 +138,7 @@ public class FoodBlockingConsumeEffect {
         }
 
         // Проверяем режим блокировки
-        Config.FoodBlockingMode blockingMode = Config.FOOD_BLOCKING_MODE.get();
+        Config.FoodBlockingMode blockingMode = SpoilageSettings.get().foodBlockingMode();
         return blockingMode == Config.FoodBlockingMode.FULL_BLOCK;
     }
 
@@ -151,15 +150,13 @@ public class FoodBlockingConsumeEffect {
      * @return true если нужно обнулить питательность
      */
     private static boolean shouldApplyZeroNutrition(ItemStack stack, LivingEntity entity) {
-        String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
-
         // Проверяем режим блокировки
-        if (Config.FOOD_BLOCKING_MODE.get() != Config.FoodBlockingMode.ZERO_NUTRITION) {
+        if (SpoilageSettings.get().foodBlockingMode() != Config.FoodBlockingMode.ZERO_NUTRITION) {
             return false;
         }
 
         // Проверяем исключения
-        if (Config.isAlwaysEdible(itemId)) {
+        if (SpoilageSettings.get().isAlwaysEdible(stack.getItem())) {
             return false;
         }
 
@@ -278,14 +275,12 @@ public class FoodBlockingConsumeEffect {
         }
 
         // Проверяем, что система включена
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return false;
         }
 
-        String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
-
         // Проверяем исключения
-        if (Config.isAlwaysEdible(itemId)) {
+        if (SpoilageSettings.get().isAlwaysEdible(stack.getItem())) {
             return false;
         }
 
@@ -295,7 +290,7 @@ public class FoodBlockingConsumeEffect {
         }
 
         // Проверяем политику блокировки
-        Config.FoodBlockingMode blockingMode = Config.FOOD_BLOCKING_MODE.get();
+        Config.FoodBlockingMode blockingMode = SpoilageSettings.get().foodBlockingMode();
         return blockingMode == Config.FoodBlockingMode.FULL_BLOCK;
     }
 
@@ -306,8 +301,8 @@ public class FoodBlockingConsumeEffect {
      */
     public static boolean validateEffect() {
         try {
-            // Проверяем доступность Config
-            Config.FoodBlockingMode mode = Config.FOOD_BLOCKING_MODE.get();
+            // Проверяем доступность снимка настроек
+            Config.FoodBlockingMode mode = SpoilageSettings.get().foodBlockingMode();
 
             // Проверяем доступность TimedFoodManager
             if (!TimedFoodManager.validateManager()) {
@@ -333,10 +328,9 @@ public class FoodBlockingConsumeEffect {
      * @param event Событие начала использования предмета
      */
     private static void handleSpoiledFoodConsumption(ItemStack stack, ServerPlayer player, ServerLevel level, LivingEntityUseItemEvent.Start event) {
-        String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
-
         // Проверяем, испорчена ли еда
         if (SpoilageUtils.isItemSpoiled(stack, level)) {
+            String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
             LOGGER.debug("Блокировка употребления испорченной еды: {} игроком {}", itemId, player.getName().getString());
 
             // Блокируем употребление
@@ -378,9 +372,9 @@ public class FoodBlockingConsumeEffect {
     public static String getStatistics() {
         return String.format(
             "FoodBlockingConsumeEffect - Режим: %s, Система включена: %s, Исключений: %d",
-            Config.FOOD_BLOCKING_MODE.get().getName(),
-            Config.ENABLE_SPOILAGE_SYSTEM.get(),
-            Config.ALWAYS_EDIBLE_ITEMS.get().size()
+            SpoilageSettings.get().foodBlockingMode().getName(),
+            SpoilageSettings.get().enableSpoilageSystem(),
+            SpoilageSettings.get().alwaysEdibleItems().size()
         );
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.effects;
 
 import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
 import com.metaphysicsnecrosis.metaphysicsspoilage.manager.TimedFoodManager;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
 import net.minecraft.core.component.DataComponents;
@@ -40,7 +41,7 @@ public class FoodBlockingUtils {
         }
 
         // Проверяем, что система включена
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return false;
         }
 
@@ -50,10 +51,8 @@ public class FoodBlockingUtils {
             return false;
         }
 
-        String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
-
         // Проверяем исключения
-        if (Config.isAlwaysEdible(itemId)) {
+        if (SpoilageSettings.get().isAlwaysEdible(stack.getItem())) {
             return false;
         }
 
@@ -135,8 +134,7 @@ public class FoodBlockingUtils {
         }
 
         // Проверяем, что предмет может быть изменен
-        String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
-        if (Config.isItemExcluded(itemId)) {
+        if (SpoilageSettings.get().isItemExcluded(stack.getItem())) {
             return false;
         }
 
@@ -151,9 +149,9 @@ public class FoodBlockingUtils {
     public static String getBlockingStatistics() {
         return String.format(
             "FoodBlockingUtils - Система включена: %s, Режим блокировки: %s, Исключений: %d",
-            Config.ENABLE_SPOILAGE_SYSTEM.get(),
-            Config.FOOD_BLOCKING_MODE.get().getName(),
-            Config.ALWAYS_EDIBLE_ITEMS.get().size()
+            SpoilageSettings.get().enableSpoilageSystem(),
+            SpoilageSettings.get().foodBlockingMode().getName(),
+            SpoilageSettings.get().alwaysEdibleItems().size()
         );
     }
 
@@ -164,8 +162,8 @@ public class FoodBlockingUtils {
      */
     public static boolean validateUtils() {
         try {
-            // Проверяем доступность Config
-            Config.FoodBlockingMode mode = Config.FOOD_BLOCKING_MODE.get();
+            // Проверяем доступность снимка настроек
+            Config.FoodBlockingMode mode = SpoilageSettings.get().foodBlockingMode();
 
             // Проверяем доступность TimedFoodManager
             if (!TimedFoodManager.validateManager()) {
@@ -194,8 +192,8 @@ public class FoodBlockingUtils {
      * @return true если система активна
      */
     public static boolean isSystemActive() {
-        return Config.ENABLE_SPOILAGE_SYSTEM.get() &&
-               Config.FOOD_BLOCKING_MODE.get() != null;
+        return SpoilageSettings.get().enableSpoilageSystem() &&
+               SpoilageSettings.get().foodBlockingMode() != null;
     }
 
     /**
@@ -204,11 +202,11 @@ public class FoodBlockingUtils {
      * @return Описание текущего режима блокировки
      */
     public static String getBlockingModeInfo() {
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return "Система порчи отключена";
         }
 
-        Config.FoodBlockingMode mode = Config.FOOD_BLOCKING_MODE.get();
+        Config.FoodBlockingMode mode = SpoilageSettings.get().foodBlockingMode();
         return switch (mode) {
             case FULL_BLOCK -> "Полная блокировка еды без временной метки";
             case ZERO_NUTRITION -> "Еда без временной метки не восстанавливает голод";
@@ -0,0 +1,307 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.events;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageTransformer;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
+import com.metaphysicsnecrosis.metaphysicsspoilage.time.HierarchicalTimingWheel;
+import com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageAttribution;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.TickCostTracker;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.level.Level;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.EntityJoinLevelEvent;
+import net.neoforged.neoforge.event.entity.EntityLeaveLevelEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Планировщик порчи предметов, лежащих в мире (ItemEntity).
+ *
+ * При появлении в мире портящийся предмет регистрирует день своей порчи
+ * в колесе таймеров своего измерения и больше не проверяется до срабатывания слота.
+ * Выход из мира (подбор, деспавн, выгрузка чанка) снимает регистрацию, поэтому
+ * размер колеса ограничен количеством загруженных предметов.
+ *
+ * Сработавшие предметы превращаются с ограничением на количество за тик,
+ * чтобы смена дня на больших фермах не давала пиковой нагрузки.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class ItemEntityExpiryScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ItemEntityExpiryScheduler.class);
+
+    /**
+     * Максимум превращений предметов в мире за один тик измерения
+     */
+    private static final int MAX_TRANSFORMS_PER_TICK = 256;
+
+    /**
+     * Расписания по измерениям (доступ только из серверного потока)
+     */
+    private static final Map<ResourceKey<Level>, LevelSchedule> SCHEDULES = new HashMap<>();
+
+    private static long firedTotal = 0;
+    private static long transformedTotal = 0;
+
+    /**
+     * Регистрирует предмет при появлении в мире.
+     * Низкий приоритет - временная метка к этому моменту уже установлена SpoilageEventHandler.
+     */
+    @SubscribeEvent(priority = EventPriority.LOW)
+    public static void onEntityJoinLevel(EntityJoinLevelEvent event) {
+        if (!(event.getEntity() instanceof ItemEntity itemEntity)) {
+            return;
+        }
+
+        if (!(event.getLevel() instanceof ServerLevel serverLevel)) {
+            return;
+        }
+
+        schedule(serverLevel, itemEntity);
+    }
+
+    /**
+     * Снимает регистрацию при выходе предмета из мира
+     */
+    @SubscribeEvent
+    public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        if (!(event.getEntity() instanceof ItemEntity itemEntity)) {
+            return;
+        }
+
+        if (event.getLevel().isClientSide()) {
+            return;
+        }
+
+        LevelSchedule schedule = SCHEDULES.get(itemEntity.level().dimension());
+        if (schedule != null) {
+            schedule.wheel.remove(itemEntity);
+            schedule.due.remove(itemEntity);
+        }
+    }
+
+    /**
+     * Продвигает колесо измерения и обрабатывает сработавшие предметы
+     */
+    @SubscribeEvent
+    public static void onLevelTick(LevelTickEvent.Post event) {
+        long tickStart = TickCostTracker.start();
+        try {
+            if (!(event.getLevel() instanceof ServerLevel serverLevel)) {
+                return;
+            }
+
+            LevelSchedule schedule = SCHEDULES.get(serverLevel.dimension());
+            if (schedule == null) {
+                return;
+            }
+
+            long currentDay = syncDay(serverLevel, schedule);
+
+            if (!schedule.due.isEmpty()) {
+                drainDue(serverLevel, schedule, currentDay);
+            }
+        } finally {
+            TickCostTracker.stop(tickStart);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            SCHEDULES.remove(serverLevel.dimension());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        clear();
+    }
+
+    /**
+     * Пересчитывает срок предмета по текущим настройкам и переносит его в колесе
+     * (административная обработка после изменения сроков хранения)
+     */
+    public static void reschedule(ServerLevel level, ItemEntity itemEntity) {
+        if (itemEntity.isRemoved()) {
+            return;
+        }
+
+        LevelSchedule schedule = SCHEDULES.get(level.dimension());
+        if (schedule != null) {
+            schedule.wheel.remove(itemEntity);
+            schedule.due.remove(itemEntity);
+        }
+        schedule(level, itemEntity);
+    }
+
+    /**
+     * Регистрирует предмет в колесе его измерения по дню порчи
+     */
+    private static void schedule(ServerLevel level, ItemEntity itemEntity) {
+        long expiryDay = SpoilageUtils.getExpiryDay(itemEntity.getItem());
+        if (expiryDay < 0) {
+            return;
+        }
+
+        LevelSchedule schedule = SCHEDULES.computeIfAbsent(level.dimension(),
+            key -> new LevelSchedule(WorldDayTracker.getInstance(level).getCurrentDay()));
+        syncDay(level, schedule);
+        schedule.wheel.schedule(itemEntity, expiryDay, schedule.due::add);
+    }
+
+    /**
+     * Приводит день колеса к дню мира. Колесо идет только вперед, поэтому после
+     * перевода времени назад (/time set) оно перестраивается на новый день - иначе
+     * свежие предметы срабатывали бы сразу и выпадали из расписания.
+     *
+     * @return текущий день мира
+     */
+    private static long syncDay(ServerLevel level, LevelSchedule schedule) {
+        long currentDay = WorldDayTracker.getInstance(level).getCurrentDay();
+        long wheelDay = schedule.wheel.getCurrentDay();
+        if (currentDay > wheelDay) {
+            schedule.wheel.advance(currentDay, schedule.due::add);
+        } else if (currentDay < wheelDay) {
+            LOGGER.debug("День мира {} переведен назад: {} -> {}, колесо перестроено",
+                level.dimension().location(), wheelDay, currentDay);
+            schedule.wheel.rewind(currentDay, schedule.due::add);
+        }
+        return currentDay;
+    }
+
+    /**
+     * Превращает сработавшие предметы в пределах бюджета тика
+     */
+    private static void drainDue(ServerLevel level, LevelSchedule schedule, long currentDay) {
+        int processed = 0;
+
+        List<ItemEntity> pending = new ArrayList<>();
+        Iterator<ItemEntity> iterator = schedule.due.iterator();
+        while (processed < MAX_TRANSFORMS_PER_TICK && iterator.hasNext()) {
+            ItemEntity itemEntity = iterator.next();
+            iterator.remove();
+            processed++;
+            firedTotal++;
+
+            if (itemEntity.isRemoved() || itemEntity.level() != level) {
+                continue;
+            }
+
+            if (!SpoilageTransformer.isTransformationEnabled()) {
+                continue;
+            }
+
+            try {
+                long attributionStart = SpoilageAttribution.start();
+                boolean transformed = SpoilageTransformationHandler.processItemEntitySpoilage(itemEntity);
+                SpoilageAttribution.recordEntity(itemEntity, attributionStart, 1, transformed ? 1 : 0);
+                if (transformed) {
+                    transformedTotal++;
+                    continue;
+                }
+
+                // Предмет еще не испорчен (стек изменился или срок еще не наступил по дню мира) -
+                // переносим на срок относительно дня мира, а не колеса
+                long expiryDay = SpoilageUtils.getExpiryDay(itemEntity.getItem());
+                if (expiryDay > currentDay) {
+                    schedule.wheel.schedule(itemEntity, expiryDay, pending::add);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Ошибка при обработке порчи предмета в мире {}", itemEntity, e);
+            }
+        }
+        schedule.due.addAll(pending);
+    }
+
+    /**
+     * Получает статистику планировщика
+     */
+    public static String getStatistics() {
+        int scheduled = 0;
+        int due = 0;
+        for (LevelSchedule schedule : SCHEDULES.values()) {
+            scheduled += schedule.wheel.size();
+            due += schedule.due.size();
+        }
+
+        return String.format("Предметы в мире - Запланировано: %d, Ожидают обработки: %d, Сработало: %d, Превращено: %d, Измерений: %d",
+            scheduled, due, firedTotal, transformedTotal, SCHEDULES.size());
+    }
+
+    public static int getScheduledCount() {
+        int scheduled = 0;
+        for (LevelSchedule schedule : SCHEDULES.values()) {
+            scheduled += schedule.wheel.size();
+        }
+        return scheduled;
+    }
+
+    public static long getFiredTotal() {
+        return firedTotal;
+    }
+
+    public static long getTransformedTotal() {
+        return transformedTotal;
+    }
+
+    /**
+     * Количество сработавших предметов, ожидающих обработки
+     */
+    public static int getDueCount() {
+        int due = 0;
+        for (LevelSchedule schedule : SCHEDULES.values()) {
+            due += schedule.due.size();
+        }
+        return due;
+    }
+
+    /**
+     * Очищает все расписания
+     */
+    public static void clear() {
+        SCHEDULES.clear();
+        firedTotal = 0;
+        transformedTotal = 0;
+        LOGGER.debug("Расписания порчи предметов в мире очищены");
+    }
+
+    /**
+     * Колесо таймеров и очередь сработавших предметов одного измерения
+     */
+    private static final class LevelSchedule {
+        final HierarchicalTimingWheel<ItemEntity> wheel;
+        /**
+         * Сработавшие предметы в порядке срабатывания; множество - чтобы снятие
+         * регистрации при выходе предмета из мира было O(1)
+         */
+        final Set<ItemEntity> due = new LinkedHashSet<>();
+
+        LevelSchedule(long startDay) {
+            this.wheel = new HierarchicalTimingWheel<>(startDay);
+        }
+    }
+
+    // Запрещаем создание экземпляров
+    private ItemEntityExpiryScheduler() {}
+}
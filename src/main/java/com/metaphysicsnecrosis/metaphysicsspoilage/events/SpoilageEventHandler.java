@@ -1,8 +1,12 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.events;
 
 import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.journal.SpoilageJournal;
 import com.metaphysicsnecrosis.metaphysicsspoilage.manager.TimedFoodManager;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.ContainerSpoilageEvaluator;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageChecker;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.TickCostTracker;
 import net.minecraft.core.component.DataComponents;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
@@ -11,6 +15,7 @@ import net.minecraft.world.InteractionHand;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.food.FoodProperties;
 import net.minecraft.world.inventory.MenuType;
+import net.minecraft.world.inventory.Slot;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.neoforged.bus.api.SubscribeEvent;
@@ -63,11 +68,6 @@ public class SpoilageEventHandler {
      */
     private static final Map<UUID, Long> LAST_INVENTORY_CHECK = new ConcurrentHashMap<>();
 
-    /**
-     * Карта открытых контейнеров для предотвращения дублирующих проверок
-     */
-    private static final Map<UUID, Set<Integer>> OPEN_CONTAINERS = new ConcurrentHashMap<>();
-
     // === СОБЫТИЕ: УПОТРЕБЛЕНИЕ ПРЕДМЕТОВ ===
 
     /**
@@ -88,7 +88,7 @@ public class SpoilageEventHandler {
         }
 
         // Проверяем, включена ли система порчи
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return;
         }
 
@@ -105,7 +105,7 @@ public class SpoilageEventHandler {
         String itemId = net.minecraft.core.registries.BuiltInRegistries.ITEM.getKey(itemStack.getItem()).toString();
 
         // Проверяем, есть ли предмет в списке всегда съедобных
-        if (Config.isAlwaysEdible(itemId)) {
+        if (SpoilageSettings.get().isAlwaysEdible(itemId)) {
             LOGGER.debug("Разрешено употребление всегда съедобного предмета: {}", itemId);
             return;
         }
@@ -113,7 +113,7 @@ public class SpoilageEventHandler {
         // Проверяем наличие временной метки
         if (!TimedFoodManager.isTimedFood(itemStack)) {
             // Предмет без временной метки
-            Config.FoodBlockingMode blockingMode = Config.FOOD_BLOCKING_MODE.get();
+            Config.FoodBlockingMode blockingMode = SpoilageSettings.get().foodBlockingMode();
 
             switch (blockingMode) {
                 case FULL_BLOCK:
@@ -141,6 +141,7 @@ public class SpoilageEventHandler {
                 ItemStack selectedItem = player.getMainHandItem();
                 if (ItemStack.matches(selectedItem, itemStack)) {
                     player.setItemInHand(InteractionHand.MAIN_HAND, processed);
+                    SpoilageJournal.recordEntity(player, itemStack, processed);
                 }
             }
         }
@@ -157,7 +158,7 @@ public class SpoilageEventHandler {
             return;
         }
 
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return;
         }
 
@@ -169,9 +170,9 @@ public class SpoilageEventHandler {
         String itemId = net.minecraft.core.registries.BuiltInRegistries.ITEM.getKey(itemStack.getItem()).toString();
 
         // Проверяем режим блокировки и наличие временной метки
-        if (Config.FOOD_BLOCKING_MODE.get() == Config.FoodBlockingMode.ZERO_NUTRITION &&
+        if (SpoilageSettings.get().foodBlockingMode() == Config.FoodBlockingMode.ZERO_NUTRITION &&
                 !TimedFoodManager.isTimedFood(itemStack) &&
-                !Config.isAlwaysEdible(itemId)) {
+                !SpoilageSettings.get().isAlwaysEdible(itemId)) {
 
             // Обнуляем восстановленный голод и насыщение
             // Это приблизительная реализация - может потребоваться более точное управление
@@ -194,7 +195,8 @@ public class SpoilageEventHandler {
 
     /**
      * Обрабатывает открытие контейнеров игроками.
-     * Автоматически проверяет содержимое на предмет испорченных предметов.
+     * Содержимое проверяется в серверном потоке и только если наступил
+     * ближайший день порчи контейнера (см. {@link ContainerSpoilageEvaluator}).
      */
     @SubscribeEvent
     public static void onContainerOpen(PlayerContainerEvent.Open event) {
@@ -207,7 +209,7 @@ public class SpoilageEventHandler {
             return;
         }
 
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return;
         }
 
@@ -216,62 +218,12 @@ public class SpoilageEventHandler {
             return;
         }
 
-        // Получаем контейнер из меню
-        Container container = null;
-        if (event.getContainer() instanceof Container directContainer) {
-            container = directContainer;
-        } else if (event.getContainer().slots.size() > 0 &&
-                event.getContainer().getSlot(0) != null &&
-                event.getContainer().getSlot(0).container instanceof Container slotContainer) {
-            container = slotContainer;
-        }
-
-        if (container == null) {
-            return;
-        }
-
-        UUID playerId = player.getUUID();
-        int containerId = container.hashCode();
-
-        // Предотвращаем дублирующие проверки
-        Set<Integer> playerContainers = OPEN_CONTAINERS.computeIfAbsent(playerId, k -> ConcurrentHashMap.newKeySet());
-        if (playerContainers.contains(containerId)) {
-            return;
-        }
-        playerContainers.add(containerId);
-
-        // Выполняем проверку контейнера в отдельном потоке для производительности
-        final Container finalContainer = container;
-        final ServerLevel finalServerLevel = serverLevel;
-        final String playerName = player.getName().getString();
-        new Thread(() -> {
-            try {
-                LOGGER.debug("Проверка контейнера {} при открытии игроком {}",
-                        finalContainer.getClass().getSimpleName(), playerName);
-
-                SpoilageChecker.checkContainerForSpoilage(finalContainer, finalServerLevel);
-
-            } catch (Exception e) {
-                LOGGER.error("Ошибка при проверке контейнера на порчу", e);
+        // Оцениваем каждый контейнер меню один раз (у двойного сундука и модовых меню их может быть несколько)
+        Set<Container> containers = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Slot slot : event.getContainer().slots) {
+            if (slot.container != null && containers.add(slot.container)) {
+                ContainerSpoilageEvaluator.evaluate(serverLevel, slot.container);
             }
-        }, "SpoilageChecker-Container-" + containerId).start();
-    }
-
-    /**
-     * Обрабатывает закрытие контейнеров для очистки кэша.
-     */
-    @SubscribeEvent
-    public static void onContainerClose(PlayerContainerEvent.Close event) {
-        if (!(event.getEntity() instanceof ServerPlayer player)) {
-            return;
-        }
-
-        UUID playerId = player.getUUID();
-        Set<Integer> playerContainers = OPEN_CONTAINERS.get(playerId);
-        if (playerContainers != null) {
-            // Очищаем все контейнеры игрока при закрытии
-            // В более сложной реализации можно отслеживать конкретные контейнеры
-            playerContainers.clear();
         }
     }
 
@@ -289,12 +241,11 @@ public class SpoilageEventHandler {
 
         UUID playerId = player.getUUID();
         LAST_INVENTORY_CHECK.put(playerId, serverTickCounter);
-        OPEN_CONTAINERS.put(playerId, ConcurrentHashMap.newKeySet());
 
         LOGGER.debug("Инициализирована система порчи для игрока: {}", player.getName().getString());
 
         // Выполняем первоначальную проверку инвентаря
-        if (Config.ENABLE_SPOILAGE_SYSTEM.get() && player.level() instanceof ServerLevel serverLevel) {
+        if (SpoilageSettings.get().enableSpoilageSystem() && player.level() instanceof ServerLevel serverLevel) {
             new Thread(() -> {
                 try {
                     Thread.sleep(1000); // Даем время на полную загрузку игрока
@@ -318,7 +269,6 @@ public class SpoilageEventHandler {
 
         UUID playerId = player.getUUID();
         LAST_INVENTORY_CHECK.remove(playerId);
-        OPEN_CONTAINERS.remove(playerId);
 
         LOGGER.debug("Очищены данные системы порчи для игрока: {}", player.getName().getString());
     }
@@ -330,11 +280,16 @@ public class SpoilageEventHandler {
      */
     @SubscribeEvent
     public static void onServerTick(ServerTickEvent.Pre event) {
-        serverTickCounter++;
+        long tickStart = TickCostTracker.start();
+        try {
+            serverTickCounter++;
 
-        // Выполняем периодические задачи раз в секунду
-        if (serverTickCounter % 20 == 0) {
-            performPeriodicTasks();
+            // Выполняем периодические задачи раз в секунду
+            if (serverTickCounter % 20 == 0) {
+                performPeriodicTasks();
+            }
+        } finally {
+            TickCostTracker.stop(tickStart);
         }
     }
 
@@ -343,35 +298,40 @@ public class SpoilageEventHandler {
      */
     @SubscribeEvent
     public static void onPlayerTick(PlayerTickEvent.Pre event) {
-        if (!(event.getEntity() instanceof ServerPlayer player)) {
-            return;
-        }
-
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
-            return;
-        }
-
-        Level level = player.level();
-        if (!(level instanceof ServerLevel serverLevel)) {
-            return;
-        }
+        long tickStart = TickCostTracker.start();
+        try {
+            if (!(event.getEntity() instanceof ServerPlayer player)) {
+                return;
+            }
 
-        UUID playerId = player.getUUID();
-        Long lastCheck = LAST_INVENTORY_CHECK.get(playerId);
+            if (!SpoilageSettings.get().enableSpoilageSystem()) {
+                return;
+            }
 
-        // Проверяем, нужно ли проверить инвентарь игрока
-        if (lastCheck == null || (serverTickCounter - lastCheck) >= INVENTORY_CHECK_INTERVAL) {
-            LAST_INVENTORY_CHECK.put(playerId, serverTickCounter);
+            Level level = player.level();
+            if (!(level instanceof ServerLevel serverLevel)) {
+                return;
+            }
 
-            // Выполняем проверку в отдельном потоке
-            new Thread(() -> {
-                try {
-                    SpoilageChecker.checkPlayerInventory(player, serverLevel);
-                } catch (Exception e) {
-                    LOGGER.error("Ошибка при периодической проверке инвентаря игрока {}",
-                            player.getName().getString(), e);
-                }
-            }, "SpoilageChecker-Periodic-" + playerId).start();
+            UUID playerId = player.getUUID();
+            Long lastCheck = LAST_INVENTORY_CHECK.get(playerId);
+
+            // Проверяем, нужно ли проверить инвентарь игрока
+            if (lastCheck == null || (serverTickCounter - lastCheck) >= INVENTORY_CHECK_INTERVAL) {
+                LAST_INVENTORY_CHECK.put(playerId, serverTickCounter);
+
+                // Выполняем проверку в отдельном потоке
+                new Thread(() -> {
+                    try {
+                        SpoilageChecker.checkPlayerInventory(player, serverLevel);
+                    } catch (Exception e) {
+                        LOGGER.error("Ошибка при периодической проверке инвентаря игрока {}",
+                                player.getName().getString(), e);
+                    }
+                }, "SpoilageChecker-Periodic-" + playerId).start();
+            }
+        } finally {
+            TickCostTracker.stop(tickStart);
         }
     }
 
@@ -382,12 +342,6 @@ public class SpoilageEventHandler {
      */
     private static void performPeriodicTasks() {
         try {
-            // Очистка кэшей каждые 5 минут
-            if (serverTickCounter % (20 * 60 * 5) == 0) {
-                SpoilageChecker.clearCache();
-                LOGGER.debug("Выполнена периодическая очистка кэшей системы порчи");
-            }
-
             // Логирование статистики каждые 10 минут
             if (serverTickCounter % (20 * 60 * 10) == 0) {
                 SpoilageChecker.SpoilageStatistics stats = SpoilageChecker.getStatistics();
@@ -411,25 +365,31 @@ public class SpoilageEventHandler {
     private static void cleanupPlayerData() {
         // Удаляем записи игроков, которые давно не были онлайн
         // В реальной реализации можно добавить проверку на активность игроков
-        LOGGER.debug("Очистка устаревших данных игроков - до: LAST_CHECK={}, CONTAINERS={}",
-                LAST_INVENTORY_CHECK.size(), OPEN_CONTAINERS.size());
+        LOGGER.debug("Очистка устаревших данных игроков - до: LAST_CHECK={}",
+                LAST_INVENTORY_CHECK.size());
 
         // Простая очистка - можно улучшить логикой проверки активности
         LAST_INVENTORY_CHECK.entrySet().removeIf(entry ->
                 (serverTickCounter - entry.getValue()) > (20 * 60 * 60 * 24)); // 24 часа
 
-        LOGGER.debug("Очистка завершена - после: LAST_CHECK={}, CONTAINERS={}",
-                LAST_INVENTORY_CHECK.size(), OPEN_CONTAINERS.size());
+        LOGGER.debug("Очистка завершена - после: LAST_CHECK={}",
+                LAST_INVENTORY_CHECK.size());
     }
 
     // === ПУБЛИЧНЫЕ УТИЛИТНЫЕ МЕТОДЫ ===
 
     /**
      * Принудительно проверяет инвентари всех онлайн игроков.
-     * Используется для админских команд или особых ситуаций.
+     * Выполняется в серверном потоке (инвентари не потокобезопасны); для обработки
+     * контейнеров и предметов в мире используется команда /spoilage sweep.
      */
     public static void forceCheckAllPlayers(ServerLevel level) {
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
+            return;
+        }
+
+        if (!level.getServer().isSameThread()) {
+            level.getServer().execute(() -> forceCheckAllPlayers(level));
             return;
         }
 
@@ -437,14 +397,13 @@ public class SpoilageEventHandler {
         LOGGER.info("Начинается принудительная проверка инвентарей {} игроков", players.size());
 
         for (ServerPlayer player : players) {
-            new Thread(() -> {
-                try {
-                    SpoilageChecker.checkPlayerInventory(player, level);
-                } catch (Exception e) {
-                    LOGGER.error("Ошибка при принудительной проверке игрока {}",
-                            player.getName().getString(), e);
-                }
-            }, "SpoilageChecker-Force-" + player.getUUID()).start();
+            try {
+                ServerLevel playerLevel = player.level() instanceof ServerLevel serverLevel ? serverLevel : level;
+                SpoilageChecker.checkPlayerInventory(player, playerLevel, true);
+            } catch (Exception e) {
+                LOGGER.error("Ошибка при принудительной проверке игрока {}",
+                        player.getName().getString(), e);
+            }
         }
     }
 
@@ -454,10 +413,17 @@ public class SpoilageEventHandler {
      * @return Строка со статистикой
      */
     public static String getEventHandlerStats() {
-        return String.format("EventHandler статистика - Тики: %d, Игроки: %d, Открытые контейнеры: %d",
+        return String.format("EventHandler статистика - Тики: %d, Игроки: %d. %s",
                 serverTickCounter,
                 LAST_INVENTORY_CHECK.size(),
-                OPEN_CONTAINERS.values().stream().mapToInt(Set::size).sum());
+                ContainerSpoilageEvaluator.getStatistics());
+    }
+
+    /**
+     * Количество игроков с отслеживаемым временем проверки инвентаря
+     */
+    public static int getTrackedPlayerCount() {
+        return LAST_INVENTORY_CHECK.size();
     }
 
     /**
@@ -467,7 +433,7 @@ public class SpoilageEventHandler {
     public static void reset() {
         serverTickCounter = 0;
         LAST_INVENTORY_CHECK.clear();
-        OPEN_CONTAINERS.clear();
+        ContainerSpoilageEvaluator.reset();
         LOGGER.info("Обработчик событий системы порчи сброшен");
     }
 }
\ No newline at end of file
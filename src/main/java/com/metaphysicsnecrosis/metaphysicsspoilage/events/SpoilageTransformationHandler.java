@@ -1,10 +1,13 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.events;
 
 import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
+import com.metaphysicsnecrosis.metaphysicsspoilage.journal.SpoilageJournal;
 import com.metaphysicsnecrosis.metaphysicsspoilage.manager.TimedFoodManager;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageChecker;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageTransformer;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageAttribution;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.TickCostTracker;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
@@ -17,7 +20,6 @@ import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.event.entity.item.ItemEvent;
 import net.neoforged.neoforge.event.entity.living.LivingEntityUseItemEvent;
 import net.neoforged.neoforge.event.entity.player.PlayerEvent;
-import net.neoforged.neoforge.event.tick.EntityTickEvent;
 import net.neoforged.neoforge.event.tick.ServerTickEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,7 +32,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * Обработчик событий для автоматического превращения испорченных предметов.
  *
  * Реализует требования из README:
- * - Автоматическое превращение предметов в мире (ItemEntity)
+ * - Автоматическое превращение предметов в мире (ItemEntity) - через {@link ItemEntityExpiryScheduler}
  * - Периодическая проверка инвентарей игроков
  * - Превращение при попытке использования
  * - Обработка только предметов с временной меткой, которые не в контейнере
@@ -49,11 +51,6 @@ public class SpoilageTransformationHandler {
      */
     private static final int PLAYER_INVENTORY_CHECK_INTERVAL = 20;
 
-    /**
-     * Интервал проверки предметов в мире в тиках (10 секунд = 200 тиков)
-     */
-    private static final int WORLD_ITEM_CHECK_INTERVAL = 200;
-
     /**
      * Счетчик тиков для периодических проверок
      */
@@ -64,11 +61,6 @@ public class SpoilageTransformationHandler {
      */
     private static final ConcurrentHashMap<UUID, Long> LAST_PLAYER_CHECKS = new ConcurrentHashMap<>();
 
-    /**
-     * Кэш последних проверок предметов в мире
-     */
-    private static final ConcurrentHashMap<UUID, Long> LAST_ITEM_CHECKS = new ConcurrentHashMap<>();
-
     /**
      * Период проверки в миллисекундах для предотвращения частых проверок одного и того же предмета
      */
@@ -79,58 +71,28 @@ public class SpoilageTransformationHandler {
      */
     @SubscribeEvent
     public static void onServerTick(ServerTickEvent.Pre event) {
-        // Проверяем, включена ли система превращения
-        if (!SpoilageTransformer.isTransformationEnabled()) {
-            return;
-        }
-
-        tickCounter++;
-
-        // Периодическая проверка инвентарей игроков
-        if (tickCounter % PLAYER_INVENTORY_CHECK_INTERVAL == 0) {
-            checkAllPlayerInventories(event.getServer());
-        }
-
-        // Очистка кэшей каждые 30 минут (36000 тиков)
-        if (tickCounter % 36000 == 0) {
-            cleanupCaches();
-            tickCounter = 0; // Сброс счетчика для предотвращения переполнения
-        }
-    }
-
-    /**
-     * Обработчик тиков сущностей для проверки предметов в мире
-     */
-    @SubscribeEvent
-    public static void onEntityTick(EntityTickEvent.Pre event) {
-        // Проверяем только предметы в мире
-        if (!(event.getEntity() instanceof ItemEntity itemEntity)) {
-            return;
-        }
-
-        // Проверяем, включена ли система превращения
-        if (!SpoilageTransformer.isTransformationEnabled()) {
-            return;
-        }
+        long tickStart = TickCostTracker.start();
+        try {
+            // Проверяем, включена ли система превращения
+            if (!SpoilageTransformer.isTransformationEnabled()) {
+                return;
+            }
 
-        // Проверяем только на серверной стороне
-        if (itemEntity.level().isClientSide()) {
-            return;
-        }
+            tickCounter++;
 
-        // Проверяем кулдаун для этого предмета
-        UUID itemId = itemEntity.getUUID();
-        long currentTime = System.currentTimeMillis();
-        Long lastCheck = LAST_ITEM_CHECKS.get(itemId);
+            // Периодическая проверка инвентарей игроков
+            if (tickCounter % PLAYER_INVENTORY_CHECK_INTERVAL == 0) {
+                checkAllPlayerInventories(event.getServer());
+            }
 
-        if (lastCheck != null && (currentTime - lastCheck) < CHECK_COOLDOWN) {
-            return; // Слишком рано для проверки
+            // Очистка кэшей каждые 30 минут (36000 тиков)
+            if (tickCounter % 36000 == 0) {
+                cleanupCaches();
+                tickCounter = 0; // Сброс счетчика для предотвращения переполнения
+            }
+        } finally {
+            TickCostTracker.stop(tickStart);
         }
-
-        LAST_ITEM_CHECKS.put(itemId, currentTime);
-
-        // Проверяем и обрабатываем превращение
-        processItemEntitySpoilage(itemEntity);
     }
 
     /**
@@ -205,19 +167,22 @@ public class SpoilageTransformationHandler {
     }
 
     /**
-     * Проверяет предмет в мире на порчу и превращает его при необходимости
+     * Проверяет предмет в мире на порчу и превращает его при необходимости.
+     * Вызывается планировщиком при срабатывании слота колеса.
+     *
+     * @return true если предмет был превращен
      */
-    private static void processItemEntitySpoilage(ItemEntity itemEntity) {
+    static boolean processItemEntitySpoilage(ItemEntity itemEntity) {
         ItemStack itemStack = itemEntity.getItem();
 
         // Проверяем, что это предмет с временной меткой
         if (!TimedFoodManager.isTimedFood(itemStack)) {
-            return;
+            return false;
         }
 
         // Проверяем, может ли предмет быть превращен
         if (!SpoilageTransformer.canItemBeTransformed(itemStack.getItem())) {
-            return;
+            return false;
         }
 
         ServerLevel level = (ServerLevel) itemEntity.level();
@@ -230,13 +195,16 @@ public class SpoilageTransformationHandler {
             if (!transformedStack.isEmpty() && !ItemStack.matches(itemStack, transformedStack)) {
                 // Заменяем предмет в мире
                 itemEntity.setItem(transformedStack);
+                SpoilageJournal.recordEntity(itemEntity, itemStack, transformedStack);
 
                 LOGGER.debug("Превращен предмет в мире: {} -> {} (позиция: {}, {}, {})",
                         BuiltInRegistries.ITEM.getKey(itemStack.getItem()),
                         BuiltInRegistries.ITEM.getKey(transformedStack.getItem()),
                         itemEntity.getX(), itemEntity.getY(), itemEntity.getZ());
+                return true;
             }
         }
+        return false;
     }
 
     /**
@@ -256,6 +224,8 @@ public class SpoilageTransformationHandler {
 
         ServerLevel level = (ServerLevel) player.level();
         int transformedCount = 0;
+        int checkedCount = 0;
+        long attributionStart = SpoilageAttribution.start();
 
         // Проверяем все слоты инвентаря
         for (int i = 0; i < player.getInventory().getContainerSize(); i++) {
@@ -275,6 +245,8 @@ public class SpoilageTransformationHandler {
                 continue;
             }
 
+            checkedCount++;
+
             // Проверяем, испорчен ли предмет
             if (SpoilageUtils.isItemSpoiled(stack, level)) {
                 // Превращаем предмет
@@ -284,17 +256,22 @@ public class SpoilageTransformationHandler {
                     // Заменяем предмет в инвентаре
                     player.getInventory().setItem(i, transformedStack);
                     transformedCount++;
-
-                    LOGGER.debug("Превращен предмет в инвентаре игрока {}: {} -> {}",
-                            player.getName().getString(),
-                            BuiltInRegistries.ITEM.getKey(stack.getItem()),
-                            BuiltInRegistries.ITEM.getKey(transformedStack.getItem()));
+                    SpoilageJournal.recordEntity(player, stack, transformedStack);
+
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("Превращен предмет в инвентаре игрока {}: {} -> {}",
+                                player.getName().getString(),
+                                BuiltInRegistries.ITEM.getKey(stack.getItem()),
+                                BuiltInRegistries.ITEM.getKey(transformedStack.getItem()));
+                    }
                 }
             }
         }
 
-        if (transformedCount > 0) {
-            LOGGER.info("Превращено {} предметов в инвентаре игрока {}",
+        SpoilageAttribution.recordPlayer(player, attributionStart, checkedCount, transformedCount);
+
+        if (transformedCount > 0 && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Превращено {} предметов в инвентаре игрока {}",
                     transformedCount, player.getName().getString());
         }
     }
@@ -357,20 +334,15 @@ public class SpoilageTransformationHandler {
         LAST_PLAYER_CHECKS.entrySet().removeIf(entry ->
                 (currentTime - entry.getValue()) > maxAge);
 
-        // Очищаем кэш проверок предметов
-        LAST_ITEM_CHECKS.entrySet().removeIf(entry ->
-                (currentTime - entry.getValue()) > maxAge);
-
-        LOGGER.debug("Очищены кэши SpoilageTransformationHandler. Игроков: {}, Предметов: {}",
-                LAST_PLAYER_CHECKS.size(), LAST_ITEM_CHECKS.size());
+        LOGGER.debug("Очищены кэши SpoilageTransformationHandler. Игроков: {}", LAST_PLAYER_CHECKS.size());
     }
 
     /**
      * Получает статистику обработчика событий
      */
     public static String getHandlerStatistics() {
-        return String.format("SpoilageTransformationHandler - Активных проверок игроков: %d, Активных проверок предметов: %d",
-                LAST_PLAYER_CHECKS.size(), LAST_ITEM_CHECKS.size());
+        return String.format("SpoilageTransformationHandler - Активных проверок игроков: %d, Запланировано предметов в мире: %d",
+                LAST_PLAYER_CHECKS.size(), ItemEntityExpiryScheduler.getScheduledCount());
     }
 
     /**
@@ -378,7 +350,6 @@ public class SpoilageTransformationHandler {
      */
     public static void clearCaches() {
         LAST_PLAYER_CHECKS.clear();
-        LAST_ITEM_CHECKS.clear();
         tickCounter = 0;
         LOGGER.info("Кэши SpoilageTransformationHandler очищены");
     }
@@ -389,7 +360,7 @@ public class SpoilageTransformationHandler {
     public static boolean validateHandler() {
         try {
             // Проверяем, что кэши инициализированы
-            if (LAST_PLAYER_CHECKS == null || LAST_ITEM_CHECKS == null) {
+            if (LAST_PLAYER_CHECKS == null) {
                 LOGGER.error("Кэши обработчика не инициализированы");
                 return false;
             }
@@ -0,0 +1,88 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.gametest;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.ChunkSpoilageIndex;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.ContainerSpoilageEvaluator;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.ContainerSpoilageState;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
+import com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.ChestBlockEntity;
+import net.minecraft.world.level.block.entity.HopperBlockEntity;
+import net.neoforged.neoforge.registries.DeferredHolder;
+import net.neoforged.neoforge.registries.DeferredRegister;
+
+import java.util.function.Consumer;
+
+/**
+ * Игровые тесты ленивой обработки порчи в блочных контейнерах.
+ * Экземпляры тестов описаны в data/metaphysicsspoilage/test_instance,
+ * запускаются конфигурацией gameTestServer или командой /test.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class ContainerSpoilageGameTests {
+
+    public static final DeferredRegister<Consumer<GameTestHelper>> TEST_FUNCTIONS =
+            DeferredRegister.create(Registries.TEST_FUNCTION, MetaphysicsSpoilage.MODID);
+
+    public static final DeferredHolder<Consumer<GameTestHelper>, Consumer<GameTestHelper>> EMPTY_CHEST_FILLED_BY_HOPPER =
+            TEST_FUNCTIONS.register("empty_chest_filled_by_hopper", () -> ContainerSpoilageGameTests::emptyChestFilledByHopper);
+
+    private static final BlockPos CHEST_POS = new BlockPos(1, 1, 1);
+    private static final BlockPos HOPPER_POS = new BlockPos(1, 2, 1);
+
+    /**
+     * Пустой, ни разу не оценивавшийся сундук наполняется воронкой: позиция должна попасть
+     * в индекс чанка, а оценка по позиции (как при проходе глобальной обработки) - найти еду
+     */
+    private static void emptyChestFilledByHopper(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        BlockPos chestPos = helper.absolutePos(CHEST_POS);
+
+        helper.setBlock(CHEST_POS, Blocks.CHEST);
+        helper.setBlock(HOPPER_POS, Blocks.HOPPER);
+
+        BlockEntity chest = level.getBlockEntity(chestPos);
+        helper.assertTrue(chest instanceof ChestBlockEntity, Component.literal("Сундук не создан"));
+        helper.assertFalse(chest.hasData(MetaphysicsSpoilage.CONTAINER_SPOILAGE_STATE),
+            Component.literal("Новый сундук уже имеет состояние порчи"));
+
+        long currentDay = WorldDayTracker.getInstance(level).getCurrentDay();
+        ItemStack bread = new ItemStack(Items.BREAD);
+        SpoilageUtils.setCreationDay(bread, currentDay);
+        long expiryDay = SpoilageUtils.getExpiryDay(bread);
+        helper.assertTrue(expiryDay >= 0, Component.literal("Хлеб не портится в текущих настройках"));
+
+        HopperBlockEntity hopper = (HopperBlockEntity) level.getBlockEntity(helper.absolutePos(HOPPER_POS));
+        hopper.setItem(0, bread);
+
+        helper.succeedWhen(() -> {
+            helper.assertTrue(((ChestBlockEntity) chest).getItem(0).is(Items.BREAD),
+                Component.literal("Воронка еще не переложила хлеб"));
+            helper.assertTrue(ChunkSpoilageIndex.isIndexed(level, chestPos),
+                Component.literal("Наполненный воронкой сундук не попал в индекс чанка"));
+
+            ContainerSpoilageEvaluator.evaluate(level, chestPos);
+
+            helper.assertTrue(chest.hasData(MetaphysicsSpoilage.CONTAINER_SPOILAGE_STATE),
+                Component.literal("Оценка по позиции пропустила сундук"));
+            ContainerSpoilageState state = chest.getData(MetaphysicsSpoilage.CONTAINER_SPOILAGE_STATE);
+            helper.assertTrue(state.hasFood() && state.getEarliestExpiryDay() == expiryDay,
+                Component.literal("Срок порчи сундука не совпадает со сроком хлеба"));
+        });
+    }
+
+    // Запрещаем создание экземпляров
+    private ContainerSpoilageGameTests() {}
+}
@@ -3,7 +3,12 @@ package com.metaphysicsnecrosis.metaphysicsspoilage.gui;
 import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
 import com.metaphysicsnecrosis.metaphysicsspoilage.items.FoodContainer;
 import com.metaphysicsnecrosis.metaphysicsspoilage.items.StoredFoodEntry;
+import com.metaphysicsnecrosis.metaphysicsspoilage.network.FoodContainerPayload;
 import com.metaphysicsnecrosis.metaphysicsspoilage.network.FoodContainerSyncPayload;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.PrometheusExporter;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageJfrEvents;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.neoforged.neoforge.network.PacketDistributor;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
@@ -15,7 +20,9 @@ import net.minecraft.server.level.ServerLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 /**
@@ -30,6 +37,9 @@ public class FoodContainerMenu extends AbstractContainerMenu {
     private final Player player;
     private final int containerSlot;
 
+    // Номер последнего обработанного действия клиента (серверная сторона)
+    private int lastProcessedSequence = 0;
+
     /**
      * Создает новое меню FoodContainer
      *
@@ -82,13 +92,11 @@ public class FoodContainerMenu extends AbstractContainerMenu {
      * Получает список сохраненной еды из контейнера
      */
     public List<StoredFoodEntry> getStoredFoods() {
-        // На клиентской стороне используем синхронизированные данные
+        // На клиентской стороне используем последний снимок сервера с наложенными предсказаниями
         if (player.level().isClientSide()) {
             synchronized (this) {
-                // Если есть свежие синхронизированные данные (не старше 3 секунд), используем их
-                if (lastSyncTime > 0 && (System.currentTimeMillis() - lastSyncTime) < 3000L) {
-                    LOGGER.debug("Используются синхронизированные данные: {} записей", lastSyncedFoods.size());
-                    return new ArrayList<>(lastSyncedFoods);
+                if (hasServerSnapshot) {
+                    return new ArrayList<>(predictedFoods);
                 }
             }
         }
@@ -248,6 +256,108 @@ public class FoodContainerMenu extends AbstractContainerMenu {
         return false;
     }
 
+    /**
+     * Перекладывает всю еду с временными метками из инвентаря игрока в контейнер.
+     * Один проход по инвентарю, одна запись компонента контейнера и одна синхронизация инвентаря.
+     *
+     * @return true если что-то было перемещено
+     */
+    public boolean depositAllFood() {
+        if (containerStack.isEmpty() || !(containerStack.getItem() instanceof FoodContainer) || player.level().isClientSide) {
+            return false;
+        }
+
+        if (player.level() instanceof ServerLevel serverLevel) {
+            FoodContainer.checkAndRemoveSpoiledFood(containerStack, serverLevel);
+        }
+
+        Inventory inventory = player.getInventory();
+        List<ItemStack> sources = new ArrayList<>();
+        List<Integer> sourceSlots = new ArrayList<>();
+        for (int i = 0; i < Inventory.INVENTORY_SIZE; i++) {
+            ItemStack stack = inventory.getItem(i);
+            if (i != containerSlot && !stack.isEmpty() && !(stack.getItem() instanceof FoodContainer)) {
+                sources.add(stack);
+                sourceSlots.add(i);
+            }
+        }
+
+        int deposited = FoodContainer.addFoodBulk(containerStack, sources);
+        if (deposited == 0) {
+            return false;
+        }
+
+        // Стеки уменьшены на месте; опустевшие слоты очищаем явно
+        for (int i = 0; i < sources.size(); i++) {
+            if (sources.get(i).isEmpty()) {
+                inventory.setItem(sourceSlots.get(i), ItemStack.EMPTY);
+            }
+        }
+        inventory.setItem(containerSlot, containerStack);
+        player.inventoryMenu.broadcastChanges();
+
+        LOGGER.debug("Игрок {} положил {} предметов еды в контейнер", player.getName().getString(), deposited);
+        return true;
+    }
+
+    /**
+     * Пополняет слот хотбара едой из контейнера.
+     * Пустой слот заполняется самой старой едой указанного типа, занятый -
+     * только едой того же типа и дня создания, чтобы стек оставался однородным.
+     *
+     * @param hotbarSlot Слот хотбара (0-8)
+     * @param itemId ID предмета для пустого слота
+     * @return true если слот был пополнен
+     */
+    public boolean refillHotbarSlot(int hotbarSlot, String itemId) {
+        if (containerStack.isEmpty() || !(containerStack.getItem() instanceof FoodContainer) || player.level().isClientSide) {
+            return false;
+        }
+
+        if (!Inventory.isHotbarSlot(hotbarSlot) || hotbarSlot == containerSlot) {
+            return false;
+        }
+
+        if (player.level() instanceof ServerLevel serverLevel) {
+            FoodContainer.checkAndRemoveSpoiledFood(containerStack, serverLevel);
+        }
+
+        Inventory inventory = player.getInventory();
+        ItemStack slotStack = inventory.getItem(hotbarSlot);
+        ItemStack taken;
+
+        if (slotStack.isEmpty()) {
+            if (itemId.isEmpty()) {
+                return false;
+            }
+            taken = FoodContainer.removeFood(containerStack, itemId, 64);
+        } else {
+            if (!SpoilageUtils.hasTimestamp(slotStack)) {
+                return false;
+            }
+            int space = slotStack.getMaxStackSize() - slotStack.getCount();
+            String slotItemId = BuiltInRegistries.ITEM.getKey(slotStack.getItem()).toString();
+            taken = FoodContainer.removeFood(containerStack, slotItemId, SpoilageUtils.getCreationDay(slotStack), space);
+        }
+
+        if (taken.isEmpty()) {
+            return false;
+        }
+
+        if (slotStack.isEmpty()) {
+            inventory.setItem(hotbarSlot, taken);
+        } else {
+            slotStack.grow(taken.getCount());
+            inventory.setItem(hotbarSlot, slotStack);
+        }
+        inventory.setItem(containerSlot, containerStack);
+        player.inventoryMenu.broadcastChanges();
+
+        LOGGER.debug("Игрок {} пополнил слот хотбара {} на {} предметов",
+                    player.getName().getString(), hotbarSlot, taken.getCount());
+        return true;
+    }
+
     /**
      * Получает общее количество предметов в контейнере
      */
@@ -256,21 +366,100 @@ public class FoodContainerMenu extends AbstractContainerMenu {
     }
 
     /**
-     * Обновляет содержимое контейнера (используется для синхронизации с клиентом)
+     * Обновляет содержимое контейнера по снимку сервера (вызывается только на клиенте).
+     * Действия с номером не больше {@code ackSequence} сервер уже учел в снимке,
+     * остальные ожидающие действия повторно накладываются поверх снимка.
+     *
+     * @param foods Содержимое контейнера на сервере
+     * @param ackSequence Номер последнего обработанного сервером действия
+     */
+    public void updateContainerContents(List<StoredFoodEntry> foods, int ackSequence) {
+        synchronized (this) {
+            confirmedFoods = new ArrayList<>(foods);
+            hasServerSnapshot = true;
+
+            while (!pendingActions.isEmpty() && pendingActions.peekFirst().sequence() <= ackSequence) {
+                pendingActions.pollFirst();
+            }
+
+            predictedFoods = new ArrayList<>(confirmedFoods);
+            for (FoodContainerPayload pending : pendingActions) {
+                applyPrediction(predictedFoods, pending);
+            }
+        }
+        LOGGER.debug("Обновлено содержимое FoodContainer меню: {} записей, подтверждено до #{}, ожидает {}",
+                    foods.size(), ackSequence, pendingActions.size());
+    }
+
+    /**
+     * Присваивает действию порядковый номер и сразу применяет его к локальной модели (клиент).
+     * Возвращенный пакет нужно отправить на сервер.
+     *
+     * @param payload Действие без номера
+     * @return Действие с присвоенным номером
      */
-    public void updateContainerContents(List<StoredFoodEntry> foods) {
-        // Обновляем кэш содержимого для последующих запросов getStoredFoods()
-        // Этот метод вызывается только на клиентской стороне
+    public FoodContainerPayload predictAction(FoodContainerPayload payload) {
         synchronized (this) {
-            lastSyncedFoods = new ArrayList<>(foods);
-            lastSyncTime = System.currentTimeMillis();
+            FoodContainerPayload sequenced = payload.withSequence(++nextSequence);
+            pendingActions.addLast(sequenced);
+            applyPrediction(predictedFoods, sequenced);
+            return sequenced;
+        }
+    }
+
+    /**
+     * Запоминает номер обработанного действия для подтверждения клиенту (сервер)
+     */
+    public void acknowledgeSequence(int sequence) {
+        lastProcessedSequence = Math.max(lastProcessedSequence, sequence);
+    }
+
+    /**
+     * Применяет действие к списку так же, как это делает сервер:
+     * извлечение идет из самой старой записи соответствующего типа.
+     */
+    private static void applyPrediction(List<StoredFoodEntry> foods, FoodContainerPayload action) {
+        switch (action.action()) {
+            case EXTRACT_ALL -> foods.clear();
+            case EXTRACT_OLDEST -> reduceOldest(foods, null, action.count());
+            case EXTRACT_SPECIFIC -> reduceOldest(foods, action.itemId(), action.count());
+            case EXTRACT_ALL_TYPE -> reduceOldest(foods, action.itemId(), Integer.MAX_VALUE);
+            // Результат зависит от инвентаря на сервере - ждем подтверждения
+            case DEPOSIT_ALL_FOOD, REFILL_HOTBAR_SLOT -> { }
+        }
+    }
+
+    private static void reduceOldest(List<StoredFoodEntry> foods, String itemId, int count) {
+        if (count <= 0) {
+            return;
+        }
+
+        StoredFoodEntry oldestEntry = null;
+        for (StoredFoodEntry entry : foods) {
+            if (itemId != null && !entry.itemId().equals(itemId)) {
+                continue;
+            }
+            if (oldestEntry == null || entry.creationDay() < oldestEntry.creationDay()) {
+                oldestEntry = entry;
+            }
+        }
+
+        if (oldestEntry == null) {
+            return;
+        }
+
+        foods.remove(oldestEntry);
+        if (oldestEntry.count() > count) {
+            foods.add(oldestEntry.withCount(oldestEntry.count() - count));
         }
-        LOGGER.debug("Обновлено содержимое FoodContainer меню: {} записей", foods.size());
     }
 
-    // Кэш для синхронизированных данных на клиенте
-    private volatile List<StoredFoodEntry> lastSyncedFoods = new ArrayList<>();
-    private volatile long lastSyncTime = 0;
+    // Клиентская модель: подтвержденный снимок сервера, ожидающие подтверждения действия и итоговое предсказание
+    private List<StoredFoodEntry> confirmedFoods = new ArrayList<>();
+    private List<StoredFoodEntry> predictedFoods = new ArrayList<>();
+    private final Deque<FoodContainerPayload> pendingActions = new ArrayDeque<>();
+    private boolean hasServerSnapshot = false;
+    private int nextSequence = 0;
 
     /**
      * Проверяет, пуст ли контейнер
@@ -280,12 +469,14 @@ public class FoodContainerMenu extends AbstractContainerMenu {
     }
 
     /**
-     * Принудительно очищает кэш синхронизированных данных
+     * Принудительно очищает кэш синхронизированных данных и ожидающие предсказания
      */
     public void clearSyncCache() {
         synchronized (this) {
-            lastSyncedFoods.clear();
-            lastSyncTime = 0;
+            confirmedFoods.clear();
+            predictedFoods.clear();
+            pendingActions.clear();
+            hasServerSnapshot = false;
         }
         LOGGER.debug("Очищен кэш синхронизированных данных");
     }
@@ -307,14 +498,18 @@ public class FoodContainerMenu extends AbstractContainerMenu {
             // Отправляем обновленные данные клиенту
             syncContainerToClient();
 
-            // Принудительно очищаем кэш на клиенте для немедленного обновления
-            clearSyncCache();
-
             // Уведомляем меню об изменениях
             this.slotsChanged(null);
         }
     }
 
+    /**
+     * Отправляет клиенту текущее содержимое без проверки порчи (сервер)
+     */
+    public void resyncClient() {
+        syncContainerToClient();
+    }
+
     /**
      * Синхронизирует содержимое контейнера с клиентом
      */
@@ -325,16 +520,31 @@ public class FoodContainerMenu extends AbstractContainerMenu {
 
         try {
             List<StoredFoodEntry> currentFoods = FoodContainer.getStoredFoods(containerStack);
-            FoodContainerSyncPayload syncPayload = new FoodContainerSyncPayload(currentFoods);
+            FoodContainerSyncPayload syncPayload = new FoodContainerSyncPayload(currentFoods, lastProcessedSequence);
 
             if (player instanceof net.minecraft.server.level.ServerPlayer serverPlayer) {
+                SpoilageJfrEvents.ContainerSync syncEvent = new SpoilageJfrEvents.ContainerSync();
+                syncEvent.begin();
                 PacketDistributor.sendToPlayer(serverPlayer, syncPayload);
-                LOGGER.info("Отправлены синхронизированные данные игроку {}: {} записей",
-                    serverPlayer.getName().getString(), currentFoods.size());
+                syncEvent.end();
+
+                // Размер пакета считается только для включенной диагностики
+                boolean recordEvent = syncEvent.shouldCommit();
+                int bytesSent = recordEvent || PrometheusExporter.isRunning() ? syncPayload.encodedSize() : 0;
+                PrometheusExporter.recordContainerSync(bytesSent);
+                if (recordEvent) {
+                    syncEvent.holderType = "food_container";
+                    syncEvent.entryCount = currentFoods.size();
+                    syncEvent.bytesSent = bytesSent;
+                    syncEvent.commit();
+                }
 
-                // Дополнительная отладочная информация
-                for (StoredFoodEntry entry : currentFoods) {
-                    LOGGER.debug("  - {} x{} (день {})", entry.itemId(), entry.count(), entry.creationDay());
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Отправлены синхронизированные данные игроку {}: {} записей (подтверждено до #{})",
+                        serverPlayer.getName().getString(), currentFoods.size(), lastProcessedSequence);
+                    for (StoredFoodEntry entry : currentFoods) {
+                        LOGGER.debug("  - {} x{} (день {})", entry.itemId(), entry.count(), entry.creationDay());
+                    }
                 }
             }
         } catch (Exception e) {
@@ -5,7 +5,9 @@ import com.metaphysicsnecrosis.metaphysicsspoilage.items.StoredFoodEntry;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageChecker;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
 import com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker;
-import com.metaphysicsnecrosis.metaphysicsspoilage.performance.PerformanceManager;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.BoundedCache;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.Metrics;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.OperationTimer;
 import com.metaphysicsnecrosis.metaphysicsspoilage.network.FoodContainerPayload;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.protocol.common.ServerboundCustomPayloadPacket;
@@ -36,6 +38,17 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FoodContainerScreen.class);
 
+    private static final OperationTimer RENDER_FOOD_ITEMS_TIMER = Metrics.sampledTimer("FoodContainerScreen.renderFoodItems");
+    private static final OperationTimer REFRESH_DISPLAY_TIMER = Metrics.timer("FoodContainerScreen.refreshDisplay");
+    private static final OperationTimer EXTRACT_ALL_TIMER = Metrics.timer("FoodContainerScreen.extractAllItems");
+    private static final OperationTimer DEPOSIT_ALL_TIMER = Metrics.timer("FoodContainerScreen.depositAllFood");
+    private static final OperationTimer EXTRACT_OLDEST_TIMER = Metrics.timer("FoodContainerScreen.extractOldestFood");
+
+    /**
+     * Отформатированный текст количества (общий для всех экранов контейнера)
+     */
+    private static final BoundedCache<Integer, String> COUNT_TEXT_CACHE = BoundedCache.create("FoodContainerScreen.countText");
+
     // Текстура GUI (будем использовать стандартную)
     private static final ResourceLocation TEXTURE = ResourceLocation.withDefaultNamespace("textures/gui/container/generic_54.png");
 
@@ -57,6 +70,11 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
     private Button extractAllButton;
     private Button extractOldestButton;
     private Button refreshButton;
+    private Button depositAllButton;
+
+    // Последняя позиция мыши (для горячих клавиш хотбара над сеткой)
+    private int lastMouseX;
+    private int lastMouseY;
 
     // ОПТИМИЗАЦИИ GUI
     private long lastRefreshTime = 0;
@@ -111,6 +129,15 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
         this.addRenderableWidget(this.extractOldestButton);
         this.addRenderableWidget(this.refreshButton);
 
+        // Кнопка пакетного перемещения еды - справа от GUI
+        this.depositAllButton = Button.builder(
+                Component.translatable("gui.metaphysicsspoilage.food_container.deposit_all"),
+                button -> depositAllFood())
+                .bounds(this.leftPos + this.imageWidth + 4, this.topPos + 26, buttonWidth, buttonHeight)
+                .build();
+        this.depositAllButton.setTooltip(Tooltip.create(Component.translatable("gui.metaphysicsspoilage.food_container.tooltip.deposit_all")));
+        this.addRenderableWidget(this.depositAllButton);
+
         // Обновляем отображение
         refreshDisplay();
 
@@ -119,6 +146,8 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
 
     @Override
     public void render(GuiGraphics guiGraphics, int mouseX, int mouseY, float partialTick) {
+        this.lastMouseX = mouseX;
+        this.lastMouseY = mouseY;
         this.renderBackground(guiGraphics, mouseX, mouseY, partialTick);
         super.render(guiGraphics, mouseX, mouseY, partialTick);
         this.renderTooltip(guiGraphics, mouseX, mouseY);
@@ -166,7 +195,8 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
     }
 
     private void renderFoodItems(GuiGraphics guiGraphics) {
-        try (var profiler = PerformanceManager.profile("FoodContainerScreen.renderFoodItems")) {
+        long timerStart = RENDER_FOOD_ITEMS_TIMER.start();
+        try {
             int startX = this.leftPos + 8;
             int startY = this.topPos + 26;
 
@@ -186,6 +216,8 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
 
                 renderSingleFoodSlot(guiGraphics, entry, x, y);
             }
+        } finally {
+            RENDER_FOOD_ITEMS_TIMER.stop(timerStart);
         }
     }
 
@@ -214,10 +246,7 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
 
             // Улучшенное отображение количества
             if (entry.totalCount > 1) {
-                String countText = PerformanceManager.getFromCacheOrCompute(
-                    "count_text_" + entry.totalCount,
-                    () -> formatItemCount(entry.totalCount)
-                );
+                String countText = COUNT_TEXT_CACHE.get(entry.totalCount, FoodContainerScreen::formatItemCount);
 
                 int textWidth = this.font.width(countText);
                 int textX = x + SLOT_SIZE - textWidth - 1;
@@ -231,11 +260,8 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
                 guiGraphics.drawString(this.font, countText, textX, textY, textColor, true);
             }
 
-            // Кэшированное цветовое кодирование в зависимости от свежести
-            int color = PerformanceManager.getFromCacheOrCompute(
-                "freshness_color_" + entry.daysUntilSpoilage,
-                () -> getColorForFreshness(entry.daysUntilSpoilage)
-            );
+            // Цветовое кодирование в зависимости от свежести (несколько сравнений - кэш не нужен)
+            int color = getColorForFreshness(entry.daysUntilSpoilage);
 
             if (color != 0xFFFFFF) {
                 // Полупрозрачный оверлей для свежести
@@ -321,6 +347,7 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
         tooltip.add(Component.literal("Shift+Ctrl+ЛКМ - извлечь 10").withStyle(ChatFormatting.AQUA));
         tooltip.add(Component.literal("ПКМ - извлечь все").withStyle(ChatFormatting.AQUA));
         tooltip.add(Component.literal("Shift+ПКМ - извлечь четверть").withStyle(ChatFormatting.AQUA));
+        tooltip.add(Component.literal("1-9 - пополнить слот хотбара").withStyle(ChatFormatting.AQUA));
 
         return tooltip;
     }
@@ -404,14 +431,63 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
             }
         }
 
-        if (payload != null) {
-            // Отправляем пакет через connection
-            if (Minecraft.getInstance().getConnection() != null) {
-                Minecraft.getInstance().getConnection().send(new ServerboundCustomPayloadPacket(payload));
-                scheduleRefresh(); // Планируем обновление интерфейса
-                LOGGER.debug("Отправлен пакет: {} для {}", description, entry.itemId);
+        if (payload != null && sendPredictedAction(payload)) {
+            LOGGER.debug("Отправлен пакет: {} для {}", description, entry.itemId);
+        }
+    }
+
+    /**
+     * Применяет действие к локальной модели меню и отправляет его на сервер.
+     * Сетка обновляется сразу, не дожидаясь ответа сервера.
+     *
+     * @return true если пакет отправлен
+     */
+    private boolean sendPredictedAction(FoodContainerPayload payload) {
+        if (Minecraft.getInstance().getConnection() == null) {
+            return false;
+        }
+
+        FoodContainerPayload sequenced = this.menu.predictAction(payload);
+        Minecraft.getInstance().getConnection().send(new ServerboundCustomPayloadPacket(sequenced));
+        scheduleRefresh();
+        return true;
+    }
+
+    @Override
+    public boolean keyPressed(int keyCode, int scanCode, int modifiers) {
+        // Клавиши хотбара над едой пополняют соответствующий слот из контейнера
+        FoodDisplayEntry hovered = findEntryAt(lastMouseX, lastMouseY);
+        if (hovered != null && this.minecraft != null) {
+            for (int slot = 0; slot < 9; slot++) {
+                if (this.minecraft.options.keyHotbarSlots[slot].matches(keyCode, scanCode)) {
+                    sendPredictedAction(FoodContainerPayload.refillHotbarSlot(slot, hovered.itemId));
+                    LOGGER.debug("Отправлен пакет пополнения слота хотбара {} едой {}", slot, hovered.itemId);
+                    return true;
+                }
             }
         }
+
+        return super.keyPressed(keyCode, scanCode, modifiers);
+    }
+
+    /**
+     * Находит запись еды под указанной позицией
+     */
+    private FoodDisplayEntry findEntryAt(double mouseX, double mouseY) {
+        int startX = this.leftPos + 8;
+        int startY = this.topPos + 26;
+        int endIndex = Math.min(scrollOffset + ITEMS_PER_PAGE, displayEntries.size());
+
+        for (int i = scrollOffset; i < endIndex; i++) {
+            int relativeIndex = i - scrollOffset;
+            int x = startX + (relativeIndex % ITEMS_PER_ROW) * (SLOT_SIZE + SLOT_MARGIN);
+            int y = startY + (relativeIndex / ITEMS_PER_ROW) * (SLOT_SIZE + SLOT_MARGIN);
+
+            if (mouseX >= x && mouseX < x + SLOT_SIZE && mouseY >= y && mouseY < y + SLOT_SIZE) {
+                return displayEntries.get(i);
+            }
+        }
+        return null;
     }
 
     private boolean handleScrollClick(double mouseX, double mouseY, int button) {
@@ -447,7 +523,8 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
     }
 
     private void refreshDisplay() {
-        try (var profiler = PerformanceManager.profile("FoodContainerScreen.refreshDisplay")) {
+        long timerStart = REFRESH_DISPLAY_TIMER.start();
+        try {
             long currentTime = System.currentTimeMillis();
 
             // Проверяем интервал обновления для предотвращения спама
@@ -473,11 +550,7 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
                 String itemId = group.getKey();
                 List<StoredFoodEntry> entries = group.getValue();
 
-                // Кэшируем результат парсинга ResourceLocation
-                Item item = PerformanceManager.getFromCacheOrCompute(
-                    "item_parse_" + itemId,
-                    () -> BuiltInRegistries.ITEM.getValue(ResourceLocation.parse(itemId))
-                );
+                Item item = BuiltInRegistries.ITEM.getValue(ResourceLocation.parse(itemId));
 
                 if (item == null) continue;
 
@@ -488,15 +561,9 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
 
                 String dayRange = (minDay == maxDay) ? String.valueOf(minDay) : minDay + "-" + maxDay;
 
-                // Кэшируем вычисление времени до порчи
-                long daysUntilSpoilage = PerformanceManager.getFromCacheOrCompute(
-                    "spoilage_time_" + itemId + "_" + minDay,
-                    () -> {
-                        // На клиенте используем приблизительные данные
-                        // В реальной реализации это должно быть синхронизировано с сервером
-                        return Long.MAX_VALUE;
-                    }
-                );
+                // На клиенте используем приблизительные данные
+                // В реальной реализации это должно быть синхронизировано с сервером
+                long daysUntilSpoilage = Long.MAX_VALUE;
 
                 FoodDisplayEntry displayEntry = new FoodDisplayEntry(
                         itemId,
@@ -524,30 +591,41 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
 
             LOGGER.debug("Обновлено отображение: {} записей за {}мс",
                         displayEntries.size(), currentTime - lastRefreshTime);
+        } finally {
+            REFRESH_DISPLAY_TIMER.stop(timerStart);
         }
     }
 
     private void extractAllItems() {
-        try (var profiler = PerformanceManager.profile("FoodContainerScreen.extractAllItems")) {
+        long timerStart = EXTRACT_ALL_TIMER.start();
+        try {
             // Отправляем пакет для извлечения всех предметов
-            FoodContainerPayload payload = FoodContainerPayload.extractAll();
-            if (Minecraft.getInstance().getConnection() != null) {
-                Minecraft.getInstance().getConnection().send(new ServerboundCustomPayloadPacket(payload));
-            }
-            scheduleRefresh();
+            sendPredictedAction(FoodContainerPayload.extractAll());
             LOGGER.debug("Отправлен пакет для извлечения всех предметов из контейнера");
+        } finally {
+            EXTRACT_ALL_TIMER.stop(timerStart);
+        }
+    }
+
+    private void depositAllFood() {
+        long timerStart = DEPOSIT_ALL_TIMER.start();
+        try {
+            // Один пакет вместо отдельного взаимодействия для каждого стека
+            sendPredictedAction(FoodContainerPayload.depositAllFood());
+            LOGGER.debug("Отправлен пакет для перемещения всей еды из инвентаря");
+        } finally {
+            DEPOSIT_ALL_TIMER.stop(timerStart);
         }
     }
 
     private void extractOldestFood() {
-        try (var profiler = PerformanceManager.profile("FoodContainerScreen.extractOldestFood")) {
+        long timerStart = EXTRACT_OLDEST_TIMER.start();
+        try {
             // Отправляем пакет для извлечения самой старой еды
-            FoodContainerPayload payload = FoodContainerPayload.extractOldest(1);
-            if (Minecraft.getInstance().getConnection() != null) {
-                Minecraft.getInstance().getConnection().send(new ServerboundCustomPayloadPacket(payload));
-            }
-            scheduleRefresh();
+            sendPredictedAction(FoodContainerPayload.extractOldest(1));
             LOGGER.debug("Отправлен пакет для извлечения самой старой еды");
+        } finally {
+            EXTRACT_OLDEST_TIMER.stop(timerStart);
         }
     }
 
@@ -593,9 +671,6 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
      */
     private void clearItemIconCache() {
         itemIconCache.clear();
-        PerformanceManager.removeFromCache("item_render_");
-        PerformanceManager.removeFromCache("count_text_");
-        PerformanceManager.removeFromCache("freshness_color_");
     }
 
     @Override
@@ -617,7 +692,7 @@ public class FoodContainerScreen extends AbstractContainerScreen<FoodContainerMe
     /**
      * Форматирует количество предметов для отображения
      */
-    private String formatItemCount(int count) {
+    private static String formatItemCount(int count) {
         if (count < 1000) {
             return String.valueOf(count);
         } else if (count < 1000000) {
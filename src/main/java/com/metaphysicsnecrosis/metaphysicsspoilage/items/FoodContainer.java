@@ -2,6 +2,8 @@ package com.metaphysicsnecrosis.metaphysicsspoilage.items;
 
 import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
 import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.journal.SpoilageJournal;
 import com.metaphysicsnecrosis.metaphysicsspoilage.manager.TimedFoodManager;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageChecker;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
@@ -183,6 +185,74 @@ public class FoodContainer extends Item {
         return true;
     }
 
+    /**
+     * Добавляет в контейнер всю подходящую еду из списка за один проход.
+     * В отличие от {@link #addFood}, стеки принимаются частично: запись того же предмета
+     * и дня дополняется до 64 (или создается, если позволяет лимит типов), а то, что
+     * не поместилось, остается в стеке-источнике.
+     * Принятые предметы списываются со стеков-источников, компонент контейнера
+     * записывается один раз.
+     *
+     * @param container ItemStack контейнера
+     * @param sources Стеки еды с временными метками
+     * @return Общее количество добавленных предметов
+     */
+    public static int addFoodBulk(ItemStack container, List<ItemStack> sources) {
+        if (container.isEmpty() || !(container.getItem() instanceof FoodContainer foodContainer)) {
+            LOGGER.warn("Попытка пакетно добавить еду в предмет, который не является контейнером");
+            return 0;
+        }
+
+        int maxFoodTypes = foodContainer.getTier().getMaxFoodTypes();
+        List<StoredFoodEntry> storedFoods = getStoredFoods(container);
+        int totalAdded = 0;
+
+        for (ItemStack food : sources) {
+            if (food.isEmpty() || !food.has(DataComponents.FOOD) || !SpoilageUtils.hasTimestamp(food)) {
+                continue;
+            }
+
+            String itemId = BuiltInRegistries.ITEM.getKey(food.getItem()).toString();
+            long creationDay = SpoilageUtils.getCreationDay(food);
+            int remaining = food.getCount();
+
+            // Как и в addFood, на предмет и день приходится одна запись не больше 64
+            int existing = -1;
+            for (int i = 0; i < storedFoods.size(); i++) {
+                StoredFoodEntry entry = storedFoods.get(i);
+                if (entry.itemId().equals(itemId) && entry.creationDay() == creationDay) {
+                    existing = i;
+                    break;
+                }
+            }
+
+            if (existing >= 0) {
+                StoredFoodEntry entry = storedFoods.get(existing);
+                int moved = Math.min(remaining, MAX_STACK_SIZE - entry.count());
+                if (moved > 0) {
+                    storedFoods.set(existing, entry.withCount(entry.count() + moved));
+                    remaining -= moved;
+                }
+            } else if (storedFoods.size() < maxFoodTypes) {
+                int moved = Math.min(remaining, MAX_STACK_SIZE);
+                storedFoods.add(new StoredFoodEntry(itemId, creationDay, moved));
+                remaining -= moved;
+            }
+
+            int added = food.getCount() - remaining;
+            if (added > 0) {
+                food.shrink(added);
+                totalAdded += added;
+            }
+        }
+
+        if (totalAdded > 0) {
+            setStoredFoods(container, storedFoods);
+            LOGGER.debug("Пакетно добавлено {} предметов в контейнер", totalAdded);
+        }
+        return totalAdded;
+    }
+
     /**
      * Извлекает самую старую еду из контейнера (FIFO принцип)
      *
@@ -323,6 +393,50 @@ public class FoodContainer extends Item {
         return resultStack;
     }
 
+    /**
+     * Удаляет еду определенного типа и дня создания (для дополнения стека с той же меткой)
+     *
+     * @param container ItemStack контейнера
+     * @param itemId ID предмета
+     * @param creationDay День создания, который должен совпадать
+     * @param count Максимальное количество для удаления
+     * @return ItemStack удаленной еды или EMPTY
+     */
+    public static ItemStack removeFood(ItemStack container, String itemId, long creationDay, int count) {
+        if (container.isEmpty() || !(container.getItem() instanceof FoodContainer) || count <= 0) {
+            return ItemStack.EMPTY;
+        }
+
+        List<StoredFoodEntry> storedFoods = getStoredFoods(container);
+        int removeCount = 0;
+
+        for (int i = storedFoods.size() - 1; i >= 0 && removeCount < count; i--) {
+            StoredFoodEntry entry = storedFoods.get(i);
+            if (!entry.itemId().equals(itemId) || entry.creationDay() != creationDay) {
+                continue;
+            }
+
+            int taken = Math.min(count - removeCount, entry.count());
+            if (taken == entry.count()) {
+                storedFoods.remove(i);
+            } else {
+                storedFoods.set(i, entry.withCount(entry.count() - taken));
+            }
+            removeCount += taken;
+        }
+
+        if (removeCount == 0) {
+            return ItemStack.EMPTY;
+        }
+
+        Item item = BuiltInRegistries.ITEM.getValue(ResourceLocation.parse(itemId));
+        ItemStack resultStack = new ItemStack(item, removeCount);
+        SpoilageUtils.setCreationDay(resultStack, creationDay);
+
+        setStoredFoods(container, storedFoods);
+        return resultStack;
+    }
+
     /**
      * Получает список сохраненной еды из контейнера
      *
@@ -478,11 +592,11 @@ public class FoodContainer extends Item {
         int removedCount = 0;
         int transformedCount = 0;
 
-        LOGGER.info("=== НАЧАЛО ПРОВЕРКИ ПОРЧИ В КОНТЕЙНЕРЕ ===");
-        LOGGER.info("Контейнер содержит {} записей еды", storedFoods.size());
+        LOGGER.debug("=== НАЧАЛО ПРОВЕРКИ ПОРЧИ В КОНТЕЙНЕРЕ ===");
+        LOGGER.debug("Контейнер содержит {} записей еды", storedFoods.size());
 
         for (StoredFoodEntry entry : storedFoods) {
-            LOGGER.info("Проверяем запись: {} x{} (день создания: {})",
+            LOGGER.debug("Проверяем запись: {} x{} (день создания: {})",
                     entry.itemId(), entry.count(), entry.creationDay());
 
             // Создаем временный ItemStack для проверки порчи
@@ -494,16 +608,16 @@ public class FoodContainer extends Item {
                 SpoilageUtils.setCreationDay(tempStack, entry.creationDay());
 
                 // Проверяем настройки системы порчи
-                boolean systemEnabled = Config.ENABLE_SPOILAGE_SYSTEM.get();
-                Config.SpoilageMode mode = Config.SPOILAGE_MODE.get();
-                LOGGER.info("Настройки системы порчи: включена={}, режим={}", systemEnabled, mode.getName());
+                boolean systemEnabled = SpoilageSettings.get().enableSpoilageSystem();
+                Config.SpoilageMode mode = SpoilageSettings.get().spoilageMode();
+                LOGGER.debug("Настройки системы порчи: включена={}, режим={}", systemEnabled, mode.getName());
 
                 // Проверяем, испорчена ли еда
                 boolean isSpoiled = SpoilageChecker.isItemSpoiled(tempStack, level);
                 long currentDay = com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker.getInstance(level).getCurrentDay();
                 long daysDiff = currentDay - entry.creationDay();
 
-                LOGGER.info("Проверка порчи: {} (день {}, текущий день {}, прошло дней: {}) -> {}",
+                LOGGER.debug("Проверка порчи: {} (день {}, текущий день {}, прошло дней: {}) -> {}",
                         entry.itemId(), entry.creationDay(), currentDay, daysDiff,
                         isSpoiled ? "ИСПОРЧЕНА" : "СВЕЖАЯ");
 
@@ -511,15 +625,15 @@ public class FoodContainer extends Item {
                     freshFoods.add(entry);
                 } else {
                     // Обрабатываем испорченную еду согласно настройкам
-                    LOGGER.info("ЕДА ИСПОРЧЕНА! Начинаем обработку...");
+                    LOGGER.debug("ЕДА ИСПОРЧЕНА! Начинаем обработку...");
 
                     if (mode == Config.SpoilageMode.TRANSFORM_TO_SPOILED) {
-                        LOGGER.info("Режим превращения активен. Проверяем возможность превращения для {}", entry.itemId());
+                        LOGGER.debug("Режим превращения активен. Проверяем возможность превращения для {}", entry.itemId());
                         boolean canTransform = SpoilageTransformer.canItemBeTransformed(item);
-                        LOGGER.info("Можно ли превратить {}: {}", entry.itemId(), canTransform);
+                        LOGGER.debug("Можно ли превратить {}: {}", entry.itemId(), canTransform);
 
                         if (canTransform) {
-                            LOGGER.info("Пытаемся превратить {} через SpoilageTransformer", entry.itemId());
+                            LOGGER.debug("Пытаемся превратить {} через SpoilageTransformer", entry.itemId());
                             ItemStack transformedStack = SpoilageTransformer.transformSpoiledItem(tempStack, item);
 
                             if (!transformedStack.isEmpty()) {
@@ -533,8 +647,10 @@ public class FoodContainer extends Item {
                                 );
                                 freshFoods.add(transformedEntry);
                                 transformedCount++;
+                                SpoilageJournal.recordFoodContainer(level, item, transformedStack.getItem(),
+                                        transformedStack.getCount(), currentDay);
 
-                                LOGGER.info("Превращена испорченная еда в контейнере: {} x{} -> {} x{} (новый день создания: {})",
+                                LOGGER.debug("Превращена испорченная еда в контейнере: {} x{} -> {} x{} (новый день создания: {})",
                                         entry.itemId(), entry.count(),
                                         transformedItemId, transformedStack.getCount(),
                                         currentDay);
@@ -550,28 +666,32 @@ public class FoodContainer extends Item {
                                     );
                                     freshFoods.add(spoiledEntry);
                                     transformedCount++;
+                                    SpoilageJournal.recordFoodContainer(level, item, spoiledItem, entry.count(), currentDay);
 
-                                    LOGGER.info("Превращена испорченная еда в контейнере (fallback): {} x{} -> {} x{} (новый день создания: {})",
+                                    LOGGER.debug("Превращена испорченная еда в контейнере (fallback): {} x{} -> {} x{} (новый день создания: {})",
                                             entry.itemId(), entry.count(),
                                             spoiledItemId, entry.count(),
                                             currentDay);
                                 } else {
                                     // Если и fallback не сработал, удаляем
                                     removedCount += entry.count();
-                                    LOGGER.info("Удалена испорченная еда (не удалось превратить): {} x{} (день {})",
+                                    SpoilageJournal.recordFoodContainer(level, item, Items.AIR, entry.count(), currentDay);
+                                    LOGGER.debug("Удалена испорченная еда (не удалось превратить): {} x{} (день {})",
                                             entry.itemId(), entry.count(), entry.creationDay());
                                 }
                             }
                         } else {
                             // Если превращение невозможно
                             removedCount += entry.count();
-                            LOGGER.info("Удалена испорченная еда (превращение невозможно): {} x{} (день {})",
+                            SpoilageJournal.recordFoodContainer(level, item, Items.AIR, entry.count(), currentDay);
+                            LOGGER.debug("Удалена испорченная еда (превращение невозможно): {} x{} (день {})",
                                     entry.itemId(), entry.count(), entry.creationDay());
                         }
                     } else {
                         // Режим мгновенного исчезновения
                         removedCount += entry.count();
-                        LOGGER.info("Удалена испорченная еда (режим {}): {} x{} (день {})",
+                        SpoilageJournal.recordFoodContainer(level, item, Items.AIR, entry.count(), currentDay);
+                        LOGGER.debug("Удалена испорченная еда (режим {}): {} x{} (день {})",
                                 mode.getName(), entry.itemId(), entry.count(), entry.creationDay());
                     }
                 }
@@ -0,0 +1,204 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Запись журнала в отображенные в память файлы фиксированного размера с ротацией.
+ *
+ * Каждый файл целиком отображается при создании; записи копируются в отображение,
+ * а счетчик записей в заголовке обновляется после каждой пачки ({@link #commit()}),
+ * так что читатель видит только полностью записанные записи. Когда файл заполнен,
+ * открывается файл следующего поколения, а самые старые файлы сверх лимита удаляются.
+ * Используется только фоновым потоком журнала.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+final class JournalFileWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalFileWriter.class);
+
+    /**
+     * Минимальная емкость файла в записях (при маленьком размере и большом словаре)
+     */
+    private static final int MIN_RECORDS = 1024;
+
+    private final Path directory;
+    private final long fileSize;
+    private final int maxFiles;
+    private final byte[] dictionary;
+
+    private long generation;
+    private volatile Path currentFile;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int recordsOffset;
+    private int recordCapacity;
+    private int recordCount;
+
+    private volatile long recordsWritten = 0;
+    private volatile int filesRotated = 0;
+
+    JournalFileWriter(Path directory, long fileSize, int maxFiles, byte[] dictionary) {
+        this.directory = directory;
+        this.fileSize = fileSize;
+        this.maxFiles = maxFiles;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Открывает новый файл после последнего существующего поколения
+     */
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        generation = findLatestGeneration() + 1;
+        openFile();
+        deleteOlderFiles();
+    }
+
+    private void openFile() throws IOException {
+        // Записи выравниваются по своему размеру после словаря
+        recordsOffset = (JournalFormat.HEADER_SIZE + dictionary.length + JournalFormat.RECORD_SIZE - 1)
+            / JournalFormat.RECORD_SIZE * JournalFormat.RECORD_SIZE;
+        long size = Math.min(Integer.MAX_VALUE,
+            Math.max(fileSize, recordsOffset + (long) MIN_RECORDS * JournalFormat.RECORD_SIZE));
+        recordCapacity = (int) ((size - recordsOffset) / JournalFormat.RECORD_SIZE);
+        recordCount = 0;
+
+        currentFile = directory.resolve(JournalFormat.FILE_PREFIX + generation + JournalFormat.FILE_SUFFIX);
+        channel = FileChannel.open(currentFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+
+        buffer.putInt(0, JournalFormat.MAGIC);
+        buffer.putInt(4, JournalFormat.VERSION);
+        buffer.putLong(JournalFormat.HEADER_CREATED, System.currentTimeMillis());
+        buffer.putInt(JournalFormat.HEADER_DICTIONARY_OFFSET, JournalFormat.HEADER_SIZE);
+        buffer.putInt(JournalFormat.HEADER_DICTIONARY_LENGTH, dictionary.length);
+        buffer.putInt(JournalFormat.HEADER_RECORDS_OFFSET, recordsOffset);
+        buffer.putInt(JournalFormat.HEADER_RECORD_CAPACITY, recordCapacity);
+        buffer.putLong(JournalFormat.HEADER_RECORD_COUNT, 0L);
+        buffer.put(JournalFormat.HEADER_SIZE, dictionary);
+
+        LOGGER.debug("Открыт файл журнала порчи {} ({} записей)", currentFile, recordCapacity);
+    }
+
+    /**
+     * Копирует запись из буфера в файл (с ротацией при заполнении)
+     */
+    void append(long[] data, int offset) throws IOException {
+        if (recordCount == recordCapacity) {
+            rotate();
+        }
+
+        int position = recordsOffset + recordCount * JournalFormat.RECORD_SIZE;
+        for (int i = 0; i < JournalFormat.RECORD_LONGS; i++) {
+            buffer.putLong(position + i * Long.BYTES, data[offset + i]);
+        }
+        recordCount++;
+        recordsWritten++;
+    }
+
+    /**
+     * Публикует количество записанных записей в заголовке
+     */
+    void commit() {
+        if (buffer != null) {
+            buffer.putLong(JournalFormat.HEADER_RECORD_COUNT, recordCount);
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeFile();
+        generation++;
+        openFile();
+        deleteOlderFiles();
+        filesRotated++;
+    }
+
+    /**
+     * Сбрасывает файл на диск и закрывает его
+     */
+    void close() {
+        try {
+            closeFile();
+        } catch (IOException e) {
+            LOGGER.warn("Ошибка закрытия журнала порчи {}: {}", currentFile, e.getMessage());
+        }
+    }
+
+    private void closeFile() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        commit();
+        buffer.force();
+        buffer = null;
+        channel.close();
+        channel = null;
+    }
+
+    private long findLatestGeneration() throws IOException {
+        long latest = -1;
+        for (Path file : listFiles()) {
+            latest = Math.max(latest, JournalFormat.parseGeneration(file));
+        }
+        return latest;
+    }
+
+    private void deleteOlderFiles() {
+        try {
+            List<Path> files = listFiles();
+            files.sort(Comparator.comparingLong(JournalFormat::parseGeneration));
+            for (int i = 0; i < files.size() - maxFiles; i++) {
+                try {
+                    Files.deleteIfExists(files.get(i));
+                } catch (IOException e) {
+                    LOGGER.debug("Не удалось удалить старый файл журнала {}: {}", files.get(i), e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Не удалось просмотреть каталог журнала {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private List<Path> listFiles() throws IOException {
+        List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                JournalFormat.FILE_PREFIX + "*" + JournalFormat.FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (JournalFormat.parseGeneration(file) >= 0) {
+                    result.add(file);
+                }
+            }
+        }
+        return result;
+    }
+
+    Path getCurrentFile() {
+        return currentFile;
+    }
+
+    long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    int getFilesRotated() {
+        return filesRotated;
+    }
+}
@@ -0,0 +1,141 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.journal;
+
+import java.nio.file.Path;
+
+/**
+ * Формат файла журнала порчи.
+ *
+ * Файл (big-endian) состоит из заголовка, словаря и записей фиксированного размера:
+ * <pre>
+ * Заголовок (64 байта): magic, версия, время создания (мс), смещение и длина словаря,
+ *                       смещение записей, емкость в записях, количество записей
+ * Словарь: количество предметов и их идентификаторы (по числовому id реестра),
+ *          количество измерений и их идентификаторы (writeUTF)
+ * Запись (64 байта):    время (мс), день порчи, [тип держателя, резерв, измерение, количество],
+ *                       [предмет, результат], позиция блока, UUID держателя, порядковый номер
+ * </pre>
+ * Числовые id предметов действительны только вместе со словарем своего файла.
+ * Класс не зависит от Minecraft, чтобы журнал можно было читать вне игры
+ * ({@link SpoilageJournalReader}).
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class JournalFormat {
+
+    public static final int MAGIC = 0x4D53454A; // "MSEJ"
+    public static final int VERSION = 1;
+
+    public static final int HEADER_SIZE = 64;
+    public static final int RECORD_SIZE = 64;
+    public static final int RECORD_LONGS = RECORD_SIZE / Long.BYTES;
+
+    // Смещения полей заголовка
+    public static final int HEADER_CREATED = 8;
+    public static final int HEADER_DICTIONARY_OFFSET = 16;
+    public static final int HEADER_DICTIONARY_LENGTH = 20;
+    public static final int HEADER_RECORDS_OFFSET = 24;
+    public static final int HEADER_RECORD_CAPACITY = 28;
+    public static final int HEADER_RECORD_COUNT = 32;
+
+    public static final String FILE_PREFIX = "journal.";
+    public static final String FILE_SUFFIX = ".msj";
+
+    /**
+     * Позиция не известна (например, содержимое FoodContainer)
+     */
+    public static final long NO_POSITION = Long.MIN_VALUE;
+
+    /**
+     * Измерение не найдено в словаре файла
+     */
+    public static final int NO_DIMENSION = 0xFFFF;
+
+    // === ТИПЫ ДЕРЖАТЕЛЕЙ ===
+
+    public static final int HOLDER_BLOCK = 1;
+    public static final int HOLDER_ITEM_ENTITY = 2;
+    public static final int HOLDER_PLAYER = 3;
+    public static final int HOLDER_FOOD_CONTAINER = 4;
+    public static final int HOLDER_CONTAINER = 5;
+
+    /**
+     * Название типа держателя для отчетов
+     */
+    public static String holderName(int holder) {
+        return switch (holder) {
+            case HOLDER_BLOCK -> "block";
+            case HOLDER_ITEM_ENTITY -> "item_entity";
+            case HOLDER_PLAYER -> "player";
+            case HOLDER_FOOD_CONTAINER -> "food_container";
+            case HOLDER_CONTAINER -> "container";
+            default -> "unknown(" + holder + ")";
+        };
+    }
+
+    // === УПАКОВКА ПОЛЕЙ ===
+
+    /**
+     * Упаковывает тип держателя, измерение и количество в третье слово записи
+     */
+    public static long packMeta(int holder, int dimension, int count) {
+        return ((long) (holder & 0xFF) << 56) | ((long) (dimension & 0xFFFF) << 32) | (count & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Упаковывает id предмета и результата в четвертое слово записи
+     */
+    public static long packItems(int item, int result) {
+        return ((long) item << 32) | (result & 0xFFFFFFFFL);
+    }
+
+    public static int holder(long meta) {
+        return (int) (meta >>> 56) & 0xFF;
+    }
+
+    public static int dimension(long meta) {
+        return (int) (meta >>> 32) & 0xFFFF;
+    }
+
+    public static int count(long meta) {
+        return (int) meta;
+    }
+
+    public static int item(long items) {
+        return (int) (items >>> 32);
+    }
+
+    public static int result(long items) {
+        return (int) items;
+    }
+
+    // Позиция блока упакована как в BlockPos.asLong: X - 26 бит, Z - 26 бит, Y - 12 бит
+
+    public static int blockX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    public static int blockY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    public static int blockZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+
+    /**
+     * Поколение файла журнала по имени (-1 для чужих файлов)
+     */
+    public static long parseGeneration(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    // Запрещаем создание экземпляров
+    private JournalFormat() {}
+}
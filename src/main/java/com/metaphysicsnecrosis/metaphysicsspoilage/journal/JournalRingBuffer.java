@@ -0,0 +1,117 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.journal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кольцевой буфер записей журнала без блокировок (много писателей, один читатель).
+ *
+ * Записи хранятся прямо в массиве long по {@link JournalFormat#RECORD_LONGS} слов на слот,
+ * поэтому запись события не выделяет объектов. Писатель резервирует номер слота через CAS,
+ * заполняет слот и публикует его номер с release-семантикой; читатель забирает слоты
+ * по порядку, пока они опубликованы. Если фоновый поток отстал и буфер полон,
+ * запись отбрасывается и учитывается в {@link #getDropped()} - серверный поток не ждет диска.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+final class JournalRingBuffer {
+
+    /**
+     * Получатель записи при разборе буфера; данные действительны только во время вызова
+     */
+    @FunctionalInterface
+    interface Sink {
+        void accept(long[] data, int offset);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final long[] slots;
+
+    /**
+     * Номер записи + 1 для каждого опубликованного слота (0 - слот не заполнялся)
+     */
+    private final AtomicLongArray published;
+
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail = 0;
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity емкость в записях (степень двойки)
+     */
+    JournalRingBuffer(int capacity) {
+        this.capacity = Integer.highestOneBit(capacity);
+        this.mask = this.capacity - 1;
+        this.slots = new long[this.capacity * JournalFormat.RECORD_LONGS];
+        this.published = new AtomicLongArray(this.capacity);
+    }
+
+    /**
+     * Добавляет запись; последнее слово записи - ее порядковый номер
+     *
+     * @return false если буфер полон и запись отброшена
+     */
+    boolean offer(long time, long day, long meta, long items, long pos, long holderMost, long holderLeast) {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail >= capacity) {
+                dropped.increment();
+                return false;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        int base = index * JournalFormat.RECORD_LONGS;
+        slots[base] = time;
+        slots[base + 1] = day;
+        slots[base + 2] = meta;
+        slots[base + 3] = items;
+        slots[base + 4] = pos;
+        slots[base + 5] = holderMost;
+        slots[base + 6] = holderLeast;
+        slots[base + 7] = sequence;
+        published.setRelease(index, sequence + 1);
+        return true;
+    }
+
+    /**
+     * Передает получателю до max опубликованных записей (только из потока-читателя)
+     *
+     * @return количество переданных записей
+     */
+    int drain(Sink sink, int max) {
+        long next = tail;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (next & mask);
+            if (published.getAcquire(index) != next + 1) {
+                break;
+            }
+            sink.accept(slots, index * JournalFormat.RECORD_LONGS);
+            next++;
+            drained++;
+        }
+        tail = next;
+        return drained;
+    }
+
+    /**
+     * Записи, ожидающие фонового потока
+     */
+    int size() {
+        return (int) Math.max(0, head.get() - tail);
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+}
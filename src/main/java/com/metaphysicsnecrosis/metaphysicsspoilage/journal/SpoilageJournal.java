@@ -0,0 +1,304 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.journal;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.storage.LevelResource;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStartedEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Журнал событий порчи: куда делась еда.
+ *
+ * Каждое испорченное содержимое держателя (блочный контейнер, предмет в мире, инвентарь
+ * игрока, FoodContainer) записывается как двоичная запись фиксированного размера
+ * ({@link JournalFormat}) в кольцевой буфер без блокировок ({@link JournalRingBuffer}).
+ * Фоновый поток забирает записи пачками и копирует их в отображенные в память файлы
+ * с ротацией ({@link JournalFileWriter}) в каталоге metaphysicsspoilage/journal мира.
+ * Запись события не форматирует строк и не выделяет объектов; при выключенном журнале
+ * это одна проверка volatile поля. Файлы читаются утилитой {@link SpoilageJournalReader}.
+ *
+ * Включается настройкой enableSpoilageJournal; размер файла и их количество применяются
+ * при следующем запуске журнала.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class SpoilageJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageJournal.class);
+
+    private static final int RING_CAPACITY = 8192;
+    private static final int DRAIN_BATCH = 1024;
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static volatile boolean enabled = false;
+    private static volatile JournalRingBuffer ring;
+    private static volatile Map<ResourceKey<Level>, Integer> dimensionIds = Map.of();
+
+    // Состояние жизненного цикла, защищено блокировкой класса
+    private static MinecraftServer activeServer = null;
+    private static volatile JournalFileWriter writer;
+    private static Thread writerThread;
+    private static volatile boolean writerRunning = false;
+
+    // === ЗАПИСЬ СОБЫТИЙ ===
+
+    /**
+     * Записывает порчу стека в блочном контейнере
+     *
+     * @param original стек до обработки
+     * @param result стек после обработки (пустой - предмет исчез)
+     */
+    public static void recordBlock(ServerLevel level, BlockPos pos, ItemStack original, ItemStack result, long day) {
+        if (enabled) {
+            record(JournalFormat.HOLDER_BLOCK, level, day, original.getItem(), result.getItem(), original.getCount(),
+                pos.asLong(), 0L, 0L);
+        }
+    }
+
+    /**
+     * Записывает порчу стека в контейнере без известной позиции
+     */
+    public static void recordContainer(ServerLevel level, ItemStack original, ItemStack result) {
+        if (enabled) {
+            record(JournalFormat.HOLDER_CONTAINER, level, currentDay(level), original.getItem(), result.getItem(),
+                original.getCount(), JournalFormat.NO_POSITION, 0L, 0L);
+        }
+    }
+
+    /**
+     * Записывает порчу предмета в мире или стека в инвентаре игрока
+     */
+    public static void recordEntity(Entity entity, ItemStack original, ItemStack result) {
+        if (enabled && entity.level() instanceof ServerLevel level) {
+            UUID id = entity.getUUID();
+            int holder = entity instanceof Player ? JournalFormat.HOLDER_PLAYER : JournalFormat.HOLDER_ITEM_ENTITY;
+            record(holder, level, currentDay(level), original.getItem(), result.getItem(), original.getCount(),
+                entity.blockPosition().asLong(), id.getMostSignificantBits(), id.getLeastSignificantBits());
+        }
+    }
+
+    /**
+     * Записывает порчу записи внутри FoodContainer
+     *
+     * @param result предмет после превращения (AIR - еда удалена)
+     */
+    public static void recordFoodContainer(ServerLevel level, Item item, Item result, int count, long day) {
+        if (enabled) {
+            record(JournalFormat.HOLDER_FOOD_CONTAINER, level, day, item, result, count,
+                JournalFormat.NO_POSITION, 0L, 0L);
+        }
+    }
+
+    private static void record(int holder, ServerLevel level, long day, Item item, Item result, int count,
+                               long pos, long holderMost, long holderLeast) {
+        JournalRingBuffer buffer = ring;
+        if (buffer == null) {
+            return;
+        }
+        Integer dimension = dimensionIds.get(level.dimension());
+        buffer.offer(System.currentTimeMillis(), day,
+            JournalFormat.packMeta(holder, dimension != null ? dimension : JournalFormat.NO_DIMENSION, count),
+            JournalFormat.packItems(BuiltInRegistries.ITEM.getId(item), BuiltInRegistries.ITEM.getId(result)),
+            pos, holderMost, holderLeast);
+    }
+
+    private static long currentDay(ServerLevel level) {
+        return WorldDayTracker.getInstance(level).getCurrentDay();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // === ЖИЗНЕННЫЙ ЦИКЛ ===
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        synchronized (SpoilageJournal.class) {
+            activeServer = event.getServer();
+            configure(SpoilageSettings.get());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        synchronized (SpoilageJournal.class) {
+            activeServer = null;
+            stop();
+        }
+    }
+
+    /**
+     * Применяет настройку enableSpoilageJournal (при загрузке конфигурации и запуске сервера)
+     */
+    public static synchronized void configure(SpoilageSettings settings) {
+        if (activeServer == null) {
+            return; // Журнал запускается вместе с сервером
+        }
+        if (settings.enableSpoilageJournal() && !writerRunning) {
+            start(activeServer, settings);
+        } else if (!settings.enableSpoilageJournal() && writerRunning) {
+            stop();
+        }
+    }
+
+    private static void start(MinecraftServer server, SpoilageSettings settings) {
+        try {
+            Map<ResourceKey<Level>, Integer> dimensions = new HashMap<>();
+            byte[] dictionary = buildDictionary(server, dimensions);
+            Path directory = server.getWorldPath(LevelResource.ROOT).resolve(MetaphysicsSpoilage.MODID).resolve("journal");
+
+            JournalFileWriter fileWriter = new JournalFileWriter(directory,
+                settings.journalFileSizeMb() * 1024L * 1024L, settings.journalMaxFiles(), dictionary);
+            fileWriter.open();
+
+            writer = fileWriter;
+            dimensionIds = Map.copyOf(dimensions);
+            ring = new JournalRingBuffer(RING_CAPACITY);
+            writerRunning = true;
+
+            writerThread = new Thread(() -> runWriter(fileWriter), "MetaphysicsSpoilage Journal");
+            writerThread.setDaemon(true);
+            writerThread.start();
+            enabled = true;
+
+            LOGGER.info("Журнал порчи ведется в {}", fileWriter.getCurrentFile());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Не удалось запустить журнал порчи", e);
+            writer = null;
+            ring = null;
+            writerRunning = false;
+        }
+    }
+
+    private static void stop() {
+        enabled = false;
+        if (!writerRunning) {
+            return;
+        }
+        writerRunning = false;
+
+        Thread thread = writerThread;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+        LOGGER.info("Журнал порчи остановлен: {} записей, отброшено {}",
+            writer.getRecordsWritten(), ring.getDropped());
+    }
+
+    /**
+     * Цикл фонового потока: забирает записи из буфера в файл
+     */
+    private static void runWriter(JournalFileWriter fileWriter) {
+        JournalRingBuffer buffer = ring;
+        boolean[] failed = {false};
+        JournalRingBuffer.Sink sink = (data, offset) -> {
+            if (failed[0]) {
+                return;
+            }
+            try {
+                fileWriter.append(data, offset);
+            } catch (IOException | RuntimeException e) {
+                failed[0] = true;
+                enabled = false;
+                LOGGER.error("Ошибка записи журнала порчи - журнал отключен до перезапуска", e);
+            }
+        };
+
+        while (writerRunning && !failed[0]) {
+            int drained = buffer.drain(sink, DRAIN_BATCH);
+            if (drained > 0) {
+                fileWriter.commit();
+            }
+            if (drained < DRAIN_BATCH) {
+                LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+            }
+        }
+
+        // Дописываем оставшееся после остановки
+        while (!failed[0] && buffer.drain(sink, DRAIN_BATCH) > 0) {
+            fileWriter.commit();
+        }
+        fileWriter.close();
+    }
+
+    /**
+     * Словарь файла: идентификаторы предметов по числовому id реестра и измерения сервера
+     */
+    private static byte[] buildDictionary(MinecraftServer server, Map<ResourceKey<Level>, Integer> dimensions)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            int itemCount = BuiltInRegistries.ITEM.size();
+            out.writeInt(itemCount);
+            for (int id = 0; id < itemCount; id++) {
+                out.writeUTF(String.valueOf(BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(id))));
+            }
+
+            out.writeInt(server.levelKeys().size());
+            for (ResourceKey<Level> key : server.levelKeys()) {
+                dimensions.put(key, dimensions.size());
+                out.writeUTF(key.location().toString());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    // === СТАТИСТИКА ===
+
+    /**
+     * Получает статистику журнала
+     */
+    public static String getStatistics() {
+        JournalFileWriter fileWriter = writer;
+        JournalRingBuffer buffer = ring;
+        if (!enabled || fileWriter == null || buffer == null) {
+            return "Журнал порчи - отключен";
+        }
+        return String.format("Журнал порчи - Записано: %d, В буфере: %d/%d, Отброшено: %d, Ротаций: %d, Файл: %s",
+            fileWriter.getRecordsWritten(), buffer.size(), buffer.getCapacity(), buffer.getDropped(),
+            fileWriter.getFilesRotated(), fileWriter.getCurrentFile());
+    }
+
+    @Nullable
+    public static Path getCurrentFile() {
+        JournalFileWriter fileWriter = writer;
+        return enabled && fileWriter != null ? fileWriter.getCurrentFile() : null;
+    }
+
+    // Запрещаем создание экземпляров
+    private SpoilageJournal() {}
+}
@@ -0,0 +1,222 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Утилита чтения журнала порчи вне игры.
+ *
+ * Не зависит от Minecraft: имена предметов и измерений берутся из словаря каждого файла.
+ * Запуск: {@code java -cp metaphysicsspoilage.jar com.metaphysicsnecrosis.metaphysicsspoilage.journal.SpoilageJournalReader
+ * [--csv] [--item <id>] [--holder <uuid>] <файл или каталог>...}
+ * Каталог читается целиком в порядке поколений файлов.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class SpoilageJournalReader {
+
+    private static final DateTimeFormatter TIME_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    /**
+     * Запись журнала с разрешенными именами
+     */
+    public record Entry(long timeMillis, long day, String holder, String dimension, String item, String result,
+                        int count, long position, UUID holderId, long sequence) {
+
+        public boolean hasPosition() {
+            return position != JournalFormat.NO_POSITION;
+        }
+
+        public String formatPosition() {
+            if (!hasPosition()) {
+                return "-";
+            }
+            return JournalFormat.blockX(position) + " " + JournalFormat.blockY(position) + " " + JournalFormat.blockZ(position);
+        }
+    }
+
+    /**
+     * Получатель записей файла
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(Entry entry);
+    }
+
+    public static void main(String[] args) {
+        boolean csv = false;
+        String itemFilter = null;
+        UUID holderFilter = null;
+        List<Path> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--csv" -> csv = true;
+                case "--item" -> itemFilter = ++i < args.length ? args[i] : null;
+                case "--holder" -> holderFilter = ++i < args.length ? UUID.fromString(args[i]) : null;
+                default -> inputs.add(Path.of(args[i]));
+            }
+        }
+
+        if (inputs.isEmpty()) {
+            System.err.println("Использование: SpoilageJournalReader [--csv] [--item <id>] [--holder <uuid>] <файл или каталог>...");
+            System.exit(2);
+        }
+
+        PrintStream out = System.out;
+        if (csv) {
+            out.println("time,day,dimension,holder,holder_id,x,y,z,item,count,result");
+        }
+
+        final boolean printCsv = csv;
+        final String item = itemFilter;
+        final UUID holder = holderFilter;
+        try {
+            for (Path file : expand(inputs)) {
+                read(file, entry -> {
+                    if ((item == null || item.equals(entry.item())) && (holder == null || holder.equals(entry.holderId()))) {
+                        out.println(printCsv ? toCsv(entry) : toText(entry));
+                    }
+                });
+            }
+        } catch (IOException e) {
+            System.err.println("Ошибка чтения журнала: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Читает все записанные записи файла журнала
+     */
+    public static void read(Path file, Visitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(JournalFormat.HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+            channel.read(header, 0);
+            if (header.position() < JournalFormat.HEADER_SIZE || header.getInt(0) != JournalFormat.MAGIC) {
+                throw new IOException("Не файл журнала порчи: " + file);
+            }
+            if (header.getInt(4) != JournalFormat.VERSION) {
+                throw new IOException("Неподдерживаемая версия журнала " + header.getInt(4) + ": " + file);
+            }
+
+            int dictionaryOffset = header.getInt(JournalFormat.HEADER_DICTIONARY_OFFSET);
+            int dictionaryLength = header.getInt(JournalFormat.HEADER_DICTIONARY_LENGTH);
+            int recordsOffset = header.getInt(JournalFormat.HEADER_RECORDS_OFFSET);
+            long recordCount = Math.min(header.getLong(JournalFormat.HEADER_RECORD_COUNT),
+                header.getInt(JournalFormat.HEADER_RECORD_CAPACITY));
+
+            ByteBuffer dictionaryBytes = ByteBuffer.allocate(dictionaryLength);
+            channel.read(dictionaryBytes, dictionaryOffset);
+            String[] items;
+            String[] dimensions;
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(dictionaryBytes.array()))) {
+                items = new String[in.readInt()];
+                for (int i = 0; i < items.length; i++) {
+                    items[i] = in.readUTF();
+                }
+                dimensions = new String[in.readInt()];
+                for (int i = 0; i < dimensions.length; i++) {
+                    dimensions[i] = in.readUTF();
+                }
+            }
+
+            ByteBuffer records = ByteBuffer.allocate(JournalFormat.RECORD_SIZE * 1024).order(ByteOrder.BIG_ENDIAN);
+            long position = recordsOffset;
+            long remaining = recordCount;
+            while (remaining > 0) {
+                records.clear();
+                records.limit((int) Math.min(records.capacity(), remaining * JournalFormat.RECORD_SIZE));
+                int read = channel.read(records, position);
+                if (read < JournalFormat.RECORD_SIZE) {
+                    break; // Файл обрезан
+                }
+                records.flip();
+                while (records.remaining() >= JournalFormat.RECORD_SIZE) {
+                    visitor.accept(decode(records, items, dimensions));
+                    remaining--;
+                    position += JournalFormat.RECORD_SIZE;
+                }
+            }
+        }
+    }
+
+    private static Entry decode(ByteBuffer buffer, String[] items, String[] dimensions) {
+        long time = buffer.getLong();
+        long day = buffer.getLong();
+        long meta = buffer.getLong();
+        long itemIds = buffer.getLong();
+        long pos = buffer.getLong();
+        long holderMost = buffer.getLong();
+        long holderLeast = buffer.getLong();
+        long sequence = buffer.getLong();
+
+        int dimension = JournalFormat.dimension(meta);
+        return new Entry(time, day, JournalFormat.holderName(JournalFormat.holder(meta)),
+            dimension < dimensions.length ? dimensions[dimension] : "?",
+            lookup(items, JournalFormat.item(itemIds)), lookup(items, JournalFormat.result(itemIds)),
+            JournalFormat.count(meta), pos,
+            holderMost != 0 || holderLeast != 0 ? new UUID(holderMost, holderLeast) : null, sequence);
+    }
+
+    private static String lookup(String[] names, int id) {
+        return id >= 0 && id < names.length ? names[id] : "#" + id;
+    }
+
+    private static List<Path> expand(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (!Files.isDirectory(input)) {
+                files.add(input);
+                continue;
+            }
+            List<Path> journalFiles = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(input,
+                    JournalFormat.FILE_PREFIX + "*" + JournalFormat.FILE_SUFFIX)) {
+                stream.forEach(journalFiles::add);
+            }
+            journalFiles.sort(Comparator.comparingLong(JournalFormat::parseGeneration));
+            files.addAll(journalFiles);
+        }
+        return files;
+    }
+
+    private static String toText(Entry entry) {
+        String outcome = "minecraft:air".equals(entry.result()) ? "удалено" : "-> " + entry.result();
+        return String.format("%s  день %d  %s  %s%s @ %s  %s x%d %s",
+            TIME_FORMAT.format(Instant.ofEpochMilli(entry.timeMillis())), entry.day(), entry.dimension(),
+            entry.holder(), entry.holderId() != null ? " " + entry.holderId() : "", entry.formatPosition(),
+            entry.item(), entry.count(), outcome);
+    }
+
+    private static String toCsv(Entry entry) {
+        return String.join(",",
+            Instant.ofEpochMilli(entry.timeMillis()).toString(), Long.toString(entry.day()), entry.dimension(),
+            entry.holder(), entry.holderId() != null ? entry.holderId().toString() : "",
+            entry.hasPosition() ? Integer.toString(JournalFormat.blockX(entry.position())) : "",
+            entry.hasPosition() ? Integer.toString(JournalFormat.blockY(entry.position())) : "",
+            entry.hasPosition() ? Integer.toString(JournalFormat.blockZ(entry.position())) : "",
+            entry.item(), Integer.toString(entry.count()), entry.result());
+    }
+
+    // Запрещаем создание экземпляров
+    private SpoilageJournalReader() {}
+}
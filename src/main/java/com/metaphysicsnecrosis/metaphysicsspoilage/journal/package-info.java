@@ -0,0 +1,25 @@
+/**
+ * Пакет журнала событий порчи MetaphysicsSpoilage.
+ *
+ * <h2>Основные классы:</h2>
+ * <ul>
+ *   <li>{@link com.metaphysicsnecrosis.metaphysicsspoilage.journal.SpoilageJournal} - Запись событий порчи и жизненный цикл журнала</li>
+ *   <li>{@link com.metaphysicsnecrosis.metaphysicsspoilage.journal.JournalFormat} - Двоичный формат файлов журнала</li>
+ *   <li>{@link com.metaphysicsnecrosis.metaphysicsspoilage.journal.SpoilageJournalReader} - Утилита чтения журнала вне игры</li>
+ * </ul>
+ *
+ * <h2>Пример использования:</h2>
+ * <pre>{@code
+ * // Записать порчу стека в блочном контейнере
+ * SpoilageJournal.recordBlock(serverLevel, pos, originalStack, processedStack, currentDay);
+ *
+ * // Прочитать журнал мира вне игры
+ * // java -cp metaphysicsspoilage.jar com.metaphysicsnecrosis.metaphysicsspoilage.journal.SpoilageJournalReader \
+ * //     --item minecraft:beef world/metaphysicsspoilage/journal
+ * }</pre>
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+package com.metaphysicsnecrosis.metaphysicsspoilage.journal;
\ No newline at end of file
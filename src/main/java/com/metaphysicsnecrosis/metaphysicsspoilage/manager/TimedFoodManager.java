@@ -2,11 +2,16 @@ package com.metaphysicsnecrosis.metaphysicsspoilage.manager;
 
 import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
 import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageRulesGeneration;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageTransformer;
 import com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker;
-import com.metaphysicsnecrosis.metaphysicsspoilage.performance.PerformanceManager;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.BoundedCache;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.Metrics;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.OperationTimer;
 import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
@@ -16,8 +21,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
-import java.util.Collections;
-import java.util.LinkedHashMap;
 
 /**
  * Менеджер для виртуального управления предметами с порчей в NeoForge 1.21.8.
@@ -32,6 +35,11 @@ public class TimedFoodManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TimedFoodManager.class);
 
+    private static final OperationTimer CREATE_TIMED_FOOD_TIMER = Metrics.sampledTimer("TimedFoodManager.createTimedFood");
+    private static final OperationTimer SPOILAGE_TIME_TIMER = Metrics.sampledTimer("TimedFoodManager.getSpoilageTimeOptimized");
+    private static final OperationTimer BATCH_PROCESS_TIMER = Metrics.timer("TimedFoodManager.batchProcessItems");
+    private static final OperationTimer WARMUP_TIMER = Metrics.timer("TimedFoodManager.warmupCaches");
+
     /**
      * Enum для типов испорченной еды согласно README
      */
@@ -72,28 +80,16 @@ public class TimedFoodManager {
     private static final Map<Item, Item> ORIGINAL_FOOD_CACHE = new ConcurrentHashMap<>(64, 0.75f, 4);
 
     /**
-     * FIFO кэш для проверки возможности порчи предметов (ограничен 512 записями)
+     * Кэш проверки возможности порчи предметов (сбрасывается со сменой поколения правил)
      */
-    private static final Map<String, Boolean> CAN_SPOIL_CACHE = Collections.synchronizedMap(
-        new LinkedHashMap<String, Boolean>(256, 0.75f, false) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
-                return size() > 512;
-            }
-        }
-    );
+    private static final BoundedCache<Item, Boolean> CAN_SPOIL_CACHE =
+        BoundedCache.generational("TimedFoodManager.canSpoil");
 
     /**
-     * FIFO кэш времени срока годности для предметов (ограничен 256 записями)
+     * Кэш срока годности предметов (сбрасывается со сменой поколения правил)
      */
-    private static final Map<String, Long> SPOILAGE_TIME_CACHE = Collections.synchronizedMap(
-        new LinkedHashMap<String, Long>(128, 0.75f, false) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
-                return size() > 256;
-            }
-        }
-    );
+    private static final BoundedCache<Item, Long> SPOILAGE_TIME_CACHE =
+        BoundedCache.generational("TimedFoodManager.spoilageTime");
 
     static {
         initializeSpoiledTypeMapping();
@@ -150,35 +146,25 @@ public class TimedFoodManager {
      * @return ItemStack с установленной временной меткой
      */
     public static ItemStack createTimedFood(Item baseItem, long creationDay) {
-        try (var profiler = PerformanceManager.profile("TimedFoodManager.createTimedFood")) {
+        long timerStart = CREATE_TIMED_FOOD_TIMER.start();
+        try {
             if (baseItem == null) {
                 LOGGER.warn("Попытка создать временную еду с null предметом");
                 return ItemStack.EMPTY;
             }
 
-            // Кэшированная проверка системы порчи
-            Boolean systemEnabled = PerformanceManager.getFromCacheOrCompute(
-                "system_enabled", Config.ENABLE_SPOILAGE_SYSTEM::get);
-
-            if (!systemEnabled) {
-                String itemId = BuiltInRegistries.ITEM.getKey(baseItem).toString();
-                LOGGER.debug("Система порчи отключена, возвращаем обычный предмет: {}", itemId);
+            if (!SpoilageSettings.get().enableSpoilageSystem()) {
+                LOGGER.debug("Система порчи отключена, возвращаем обычный предмет: {}", BuiltInRegistries.ITEM.getKey(baseItem));
                 return new ItemStack(baseItem);
             }
 
-            String itemId = BuiltInRegistries.ITEM.getKey(baseItem).toString();
-
-            // Кэшированная проверка исключений
-            Boolean isExcluded = PerformanceManager.getFromCacheOrCompute(
-                "excluded_" + itemId, () -> Config.isItemExcluded(itemId));
-
-            if (isExcluded) {
-                LOGGER.debug("Предмет {} исключен из системы порчи", itemId);
+            if (SpoilageSettings.get().isItemExcluded(baseItem)) {
+                LOGGER.debug("Предмет {} исключен из системы порчи", BuiltInRegistries.ITEM.getKey(baseItem));
                 return new ItemStack(baseItem);
             }
 
             // Кэшированная проверка возможности порчи
-            Boolean canSpoil = CAN_SPOIL_CACHE.computeIfAbsent(itemId, k -> SpoilageUtils.canItemSpoil(baseItem));
+            Boolean canSpoil = CAN_SPOIL_CACHE.get(baseItem, SpoilageUtils::canItemSpoil);
 
             if (!canSpoil) {
                 return new ItemStack(baseItem);
@@ -187,8 +173,10 @@ public class TimedFoodManager {
             ItemStack stack = new ItemStack(baseItem);
             SpoilageUtils.setCreationDay(stack, creationDay);
 
-            LOGGER.debug("Создан временный предмет {} с днем создания {}", itemId, creationDay);
+            LOGGER.debug("Создан временный предмет {} с днем создания {}", BuiltInRegistries.ITEM.getKey(baseItem), creationDay);
             return stack;
+        } finally {
+            CREATE_TIMED_FOOD_TIMER.stop(timerStart);
         }
     }
 
@@ -218,8 +206,8 @@ public class TimedFoodManager {
         ItemStack processed = original.copy();
         SpoilageUtils.autoSetTimestamp(processed, level);
 
-        String itemId = BuiltInRegistries.ITEM.getKey(original.getItem()).toString();
-        LOGGER.debug("Обработан предмет {} с установкой временной метки на день {}", itemId, currentDay);
+        LOGGER.debug("Обработан предмет {} с установкой временной метки на день {}",
+                BuiltInRegistries.ITEM.getKey(original.getItem()), currentDay);
 
         return processed;
     }
@@ -267,8 +255,9 @@ public class TimedFoodManager {
             return stack; // Предмет еще свежий
         }
 
-        String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
-        Config.SpoilageMode mode = Config.SPOILAGE_MODE.get();
+        // Идентификатор нужен только для логов; строка из него строится лишь при выводе
+        ResourceLocation itemId = BuiltInRegistries.ITEM.getKey(stack.getItem());
+        Config.SpoilageMode mode = SpoilageSettings.get().spoilageMode();
 
         LOGGER.debug("Обрабатывается порча предмета {} в режиме {}", itemId, mode.getName());
 
@@ -329,7 +318,7 @@ public class TimedFoodManager {
             return stack; // Предмет еще свежий
         }
 
-        String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
+        ResourceLocation itemId = BuiltInRegistries.ITEM.getKey(stack.getItem());
         LOGGER.debug("Получение испорченного продукта для {}", itemId);
 
         // Сначала пробуем новую систему превращения SpoilageTransformer
@@ -405,15 +394,13 @@ public class TimedFoodManager {
      * @return true, если предмет может портиться
      */
     public static boolean canSpoil(Item item) {
-        String itemId = BuiltInRegistries.ITEM.getKey(item).toString();
-
         // Проверяем глобальное включение системы
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return false;
         }
 
         // Проверяем исключения
-        if (Config.isItemExcluded(itemId)) {
+        if (SpoilageSettings.get().isItemExcluded(item)) {
             return false;
         }
 
@@ -423,7 +410,8 @@ public class TimedFoodManager {
 
     /**
      * Получает эффективную длительность хранения с учетом множителя скорости
-     * ОБНОВЛЕНО: теперь использует JsonSpoilageConfig вместо hardcoded настроек
+     * ОБНОВЛЕНО: теперь использует JsonSpoilageConfig вместо hardcoded настроек.
+     * Применяется при установке метки, если включено сохранение дня порчи (storeAbsoluteExpiry)
      *
      * @param item предмет еды
      * @return эффективная длительность в днях
@@ -434,7 +422,7 @@ public class TimedFoodManager {
         if (baseDuration <= 0) return baseDuration;
 
         // Применяем множитель скорости
-        return baseDuration / Config.SPOILAGE_SPEED_MULTIPLIER.get();
+        return baseDuration / SpoilageSettings.get().spoilageSpeedMultiplier();
     }
 
     /**
@@ -454,39 +442,33 @@ public class TimedFoodManager {
      * @return информация о размере всех кэшей
      */
     public static String getCacheStats() {
-        return String.format("TimedFoodManager кэши - SpoiledType: %d, OriginalFood: %d, CanSpoil: %d, SpoilageTime: %d",
+        return String.format("TimedFoodManager кэши - SpoiledType: %d, OriginalFood: %d, CanSpoil: %d, SpoilageTime: %d, Поколение правил: %d",
                 SPOILED_TYPE_CACHE.size(), ORIGINAL_FOOD_CACHE.size(),
-                CAN_SPOIL_CACHE.size(), SPOILAGE_TIME_CACHE.size());
+                CAN_SPOIL_CACHE.size(), SPOILAGE_TIME_CACHE.size(), SpoilageRulesGeneration.current());
     }
 
     /**
      * Оптимизированная проверка возможности порчи с кэшированием
      */
     public static boolean canSpoilOptimized(Item item) {
-        String itemId = BuiltInRegistries.ITEM.getKey(item).toString();
-        return CAN_SPOIL_CACHE.computeIfAbsent(itemId, k -> {
-            // Проверяем глобальное включение системы
-            if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
-                return false;
-            }
-
-            // Проверяем исключения
-            if (Config.isItemExcluded(itemId)) {
-                return false;
-            }
+        // Проверяем глобальное включение системы
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
+            return false;
+        }
 
-            // Проверяем базовую способность к порче
-            return SpoilageUtils.canItemSpoil(item);
-        });
+        // Исключения уже учтены в SpoilageUtils.canItemSpoil
+        return CAN_SPOIL_CACHE.get(item, SpoilageUtils::canItemSpoil);
     }
 
     /**
      * Оптимизированное получение времени до порчи с кэшированием
      */
     public static long getSpoilageTimeOptimized(Item item) {
-        try (var profiler = PerformanceManager.profile("TimedFoodManager.getSpoilageTimeOptimized")) {
-            String itemId = BuiltInRegistries.ITEM.getKey(item).toString();
-            return SPOILAGE_TIME_CACHE.computeIfAbsent(itemId, k -> SpoilageUtils.getSpoilageTime(item));
+        long timerStart = SPOILAGE_TIME_TIMER.start();
+        try {
+            return SPOILAGE_TIME_CACHE.get(item, SpoilageUtils::getSpoilageTime);
+        } finally {
+            SPOILAGE_TIME_TIMER.stop(timerStart);
         }
     }
 
@@ -494,7 +476,8 @@ public class TimedFoodManager {
      * Пакетная обработка предметов для оптимизации (НОВЫЙ МЕТОД)
      */
     public static void batchProcessItems(java.util.List<ItemStack> items, ServerLevel level) {
-        try (var profiler = PerformanceManager.profile("TimedFoodManager.batchProcessItems")) {
+        long timerStart = BATCH_PROCESS_TIMER.start();
+        try {
             if (items == null || items.isEmpty()) {
                 return;
             }
@@ -526,6 +509,8 @@ public class TimedFoodManager {
 
             LOGGER.debug("Пакетная обработка {} предметов в {} группах",
                         items.size(), groupedItems.size());
+        } finally {
+            BATCH_PROCESS_TIMER.stop(timerStart);
         }
     }
 
@@ -533,7 +518,8 @@ public class TimedFoodManager {
      * Прогревает кэши для улучшения производительности (НОВЫЙ МЕТОД)
      */
     public static void warmupCaches() {
-        try (var profiler = PerformanceManager.profile("TimedFoodManager.warmupCaches")) {
+        long timerStart = WARMUP_TIMER.start();
+        try {
             LOGGER.info("Начинается прогрев кэшей TimedFoodManager...");
 
             // Прогреваем кэш для основных типов еды
@@ -553,17 +539,8 @@ public class TimedFoodManager {
             }
 
             LOGGER.info("Прогрев кэшей завершен. Состояние: {}", getCacheStats());
-        }
-    }
-
-    /**
-     * Очищает устаревшие записи кэша (НОВЫЙ МЕТОД)
-     */
-    public static void cleanupStaleCacheEntries() {
-        try (var profiler = PerformanceManager.profile("TimedFoodManager.cleanupStaleCacheEntries")) {
-            // Логика очистки может быть добавлена позже при необходимости
-            // Пока что это заглушка для будущего использования
-            LOGGER.debug("Очистка устаревших записей кэша (заглушка)");
+        } finally {
+            WARMUP_TIMER.stop(timerStart);
         }
     }
 
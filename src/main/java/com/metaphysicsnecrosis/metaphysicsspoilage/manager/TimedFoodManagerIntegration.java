@@ -1,6 +1,7 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.manager;
 
 import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.entity.player.Player;
@@ -184,12 +185,12 @@ public class TimedFoodManagerIntegration {
         String itemId = foodStack.getItem().toString();
 
         // Проверяем белый список всегда съедобных предметов
-        if (Config.isAlwaysEdible(itemId)) {
+        if (SpoilageSettings.get().isAlwaysEdible(itemId)) {
             return true;
         }
 
         // Если система порчи отключена, разрешаем есть всё
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return true;
         }
 
@@ -204,7 +205,7 @@ public class TimedFoodManagerIntegration {
         }
 
         // Иначе проверяем режим блокировки
-        Config.FoodBlockingMode mode = Config.FOOD_BLOCKING_MODE.get();
+        Config.FoodBlockingMode mode = SpoilageSettings.get().foodBlockingMode();
         return mode != Config.FoodBlockingMode.FULL_BLOCK;
     }
 
@@ -224,12 +225,12 @@ public class TimedFoodManagerIntegration {
         String itemId = foodStack.getItem().toString();
 
         // Проверяем белый список всегда съедобных предметов
-        if (Config.isAlwaysEdible(itemId)) {
+        if (SpoilageSettings.get().isAlwaysEdible(itemId)) {
             return null; // Не модифицируем
         }
 
         // Если система порчи отключена, не модифицируем
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return null;
         }
 
@@ -244,7 +245,7 @@ public class TimedFoodManagerIntegration {
         }
 
         // Проверяем режим блокировки
-        Config.FoodBlockingMode mode = Config.FOOD_BLOCKING_MODE.get();
+        Config.FoodBlockingMode mode = SpoilageSettings.get().foodBlockingMode();
         if (mode == Config.FoodBlockingMode.ZERO_NUTRITION) {
             return new float[]{0.0f, 0.0f}; // Нулевое питание
         }
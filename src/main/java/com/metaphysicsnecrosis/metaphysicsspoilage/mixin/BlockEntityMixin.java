@@ -0,0 +1,28 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.mixin;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.ContainerSpoilageEvaluator;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin для сброса состояния порчи контейнера при изменении его содержимого.
+ * Следующее обращение к контейнеру (или проход глобальной обработки) оценит его заново.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@Mixin(BlockEntity.class)
+public class BlockEntityMixin {
+
+    @Inject(
+        method = "setChanged()V",
+        at = @At("HEAD")
+    )
+    private void onSetChanged(CallbackInfo ci) {
+        ContainerSpoilageEvaluator.onContentsChanged((BlockEntity) (Object) this);
+    }
+}
@@ -0,0 +1,20 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.mixin;
+
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.server.level.ChunkMap;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+/**
+ * Доступ к списку загруженных чанков измерения для административной обработки порчи.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@Mixin(ChunkMap.class)
+public interface ChunkMapAccessor {
+
+    @Invoker("getChunks")
+    Iterable<ChunkHolder> metaphysicsspoilage$getChunks();
+}
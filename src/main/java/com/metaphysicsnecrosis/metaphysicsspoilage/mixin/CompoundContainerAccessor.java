@@ -0,0 +1,23 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.mixin;
+
+import net.minecraft.world.CompoundContainer;
+import net.minecraft.world.Container;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * Доступ к половинам двойного сундука для ленивой обработки порчи.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@Mixin(CompoundContainer.class)
+public interface CompoundContainerAccessor {
+
+    @Accessor("container1")
+    Container metaphysicsspoilage$getFirst();
+
+    @Accessor("container2")
+    Container metaphysicsspoilage$getSecond();
+}
@@ -1,6 +1,7 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.mixin;
 
 import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
 import com.metaphysicsnecrosis.metaphysicsspoilage.manager.TimedFoodManager;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
 import net.minecraft.core.component.DataComponents;
@@ -52,13 +53,7 @@ public class FoodConsumptionMixin {
         }
 
         // Проверяем, включена ли система порчи
-        try {
-            if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
-                return;
-            }
-        } catch (Exception e) {
-            // Если конфиг не загружен, пропускаем проверку
-            LOGGER.debug("Конфиг не загружен при проверке порчи еды: {}", e.getMessage());
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return;
         }
 
@@ -68,13 +63,13 @@ public class FoodConsumptionMixin {
             String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
 
             try {
-                if (Config.isAlwaysEdible(itemId)) {
+                if (SpoilageSettings.get().isAlwaysEdible(itemId)) {
                     // Предмет в белом списке - можно есть
                     return;
                 }
 
                 // Блокируем еду без временной метки согласно настройкам
-                Config.FoodBlockingMode blockingMode = Config.FOOD_BLOCKING_MODE.get();
+                Config.FoodBlockingMode blockingMode = SpoilageSettings.get().foodBlockingMode();
 
                 if (blockingMode == Config.FoodBlockingMode.FULL_BLOCK) {
                     // Полная блокировка - отменяем употребление
@@ -104,27 +99,18 @@ public class FoodConsumptionMixin {
                     return;
                 } else {
                     // Превращение не удалось - проверяем режим порчи
-                    try {
-                        Config.SpoilageMode spoilageMode = Config.SPOILAGE_MODE.get();
-
-                        if (spoilageMode == Config.SpoilageMode.INSTANT_DISAPPEAR) {
-                            // Только если превращение невозможно - исчезает
-                            LOGGER.debug("Испорченная еда {} исчезла при попытке употребления (превращение невозможно)", itemId);
-                            cir.setReturnValue(ItemStack.EMPTY);
-                            return;
-                        } else {
-                            // В режиме TRANSFORM_TO_SPOILED блокируем употребление если превращение не удалось
-                            LOGGER.debug("Заблокировано употребление испорченной еды {} (превращение не удалось)", itemId);
-                            cir.setReturnValue(stack);
-                            return;
-                        }
-
-                    } catch (Exception e) {
-                        LOGGER.debug("Ошибка при получении режима порчи для {}: {}", itemId, e.getMessage());
-                        // При ошибке блокируем употребление
+                    Config.SpoilageMode spoilageMode = SpoilageSettings.get().spoilageMode();
+
+                    if (spoilageMode == Config.SpoilageMode.INSTANT_DISAPPEAR) {
+                        // Только если превращение невозможно - исчезает
+                        LOGGER.debug("Испорченная еда {} исчезла при попытке употребления (превращение невозможно)", itemId);
+                        cir.setReturnValue(ItemStack.EMPTY);
+                    } else {
+                        // В режиме TRANSFORM_TO_SPOILED блокируем употребление если превращение не удалось
+                        LOGGER.debug("Заблокировано употребление испорченной еды {} (превращение не удалось)", itemId);
                         cir.setReturnValue(stack);
-                        return;
                     }
+                    return;
                 }
             }
         }
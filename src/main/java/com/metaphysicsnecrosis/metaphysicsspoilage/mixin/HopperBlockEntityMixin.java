@@ -0,0 +1,56 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.mixin;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.ContainerSpoilageEvaluator;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageStackMerging;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import com.llamalad7.mixinextras.sugar.Local;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.Hopper;
+import net.minecraft.world.level.block.entity.HopperBlockEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin для обработки порчи контейнера перед извлечением из него воронкой.
+ * Срабатывает и для IItemHandler-источников, так как хук NeoForge вызывается внутри suckInItems.
+ * Также объединяет еду с разными метками при вставке воронкой в ванильный контейнер:
+ * метки меняются на месте сравнения стеков, когда объединение уже гарантировано.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@Mixin(HopperBlockEntity.class)
+public class HopperBlockEntityMixin {
+
+    @Inject(
+        method = "suckInItems(Lnet/minecraft/world/level/Level;Lnet/minecraft/world/level/block/entity/Hopper;)Z",
+        at = @At("HEAD")
+    )
+    private static void onSuckInItems(Level level, Hopper hopper, CallbackInfoReturnable<Boolean> cir) {
+        if (level instanceof ServerLevel serverLevel) {
+            BlockPos sourcePos = BlockPos.containing(hopper.getLevelX(), hopper.getLevelY() + 1.0, hopper.getLevelZ());
+            ContainerSpoilageEvaluator.evaluate(serverLevel, sourcePos);
+        }
+    }
+
+    @WrapOperation(
+        method = "tryMoveInItem(Lnet/minecraft/world/Container;Lnet/minecraft/world/Container;Lnet/minecraft/world/item/ItemStack;ILnet/minecraft/core/Direction;)Lnet/minecraft/world/item/ItemStack;",
+        at = @At(
+            value = "INVOKE",
+            target = "Lnet/minecraft/world/level/block/entity/HopperBlockEntity;canMergeItems(Lnet/minecraft/world/item/ItemStack;Lnet/minecraft/world/item/ItemStack;)Z"
+        )
+    )
+    private static boolean onCanMergeItems(ItemStack destinationStack, ItemStack stack, Operation<Boolean> original,
+                                           @Local(argsOnly = true, ordinal = 1) Container destination) {
+        return original.call(destinationStack, stack)
+            || SpoilageStackMerging.mergeAtSite(destination, destinationStack, stack);
+    }
+}
@@ -0,0 +1,45 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.mixin;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageStackMerging;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+
+/**
+ * Mixin для объединения еды с разными метками при добавлении в инвентарь игрока.
+ * addResource вызывается на каждой итерации Inventory.add, поэтому каждая порция
+ * входящего стека может объединиться со своим совместимым слотом.
+ *
+ * Объединение рассматривается, только если ванильный поиск слота с той же меткой
+ * ничего не нашел, и в том же порядке слотов (выбранный, вторая рука, основной инвентарь).
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@Mixin(Inventory.class)
+public class InventoryStackMergeMixin {
+
+    @Shadow @Final public Player player;
+
+    @WrapOperation(
+        method = "addResource(Lnet/minecraft/world/item/ItemStack;)I",
+        at = @At(
+            value = "INVOKE",
+            target = "Lnet/minecraft/world/entity/player/Inventory;getSlotWithRemainingSpace(Lnet/minecraft/world/item/ItemStack;)I"
+        )
+    )
+    private int onGetSlotWithRemainingSpace(Inventory inventory, ItemStack stack, Operation<Integer> original) {
+        int slot = original.call(inventory, stack);
+        if (slot != -1 || player.level().isClientSide()) {
+            return slot;
+        }
+        return SpoilageStackMerging.findMergeSlot(inventory, stack);
+    }
+}
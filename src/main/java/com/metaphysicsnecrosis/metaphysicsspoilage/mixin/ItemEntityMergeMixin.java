@@ -0,0 +1,52 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.mixin;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.events.ItemEntityExpiryScheduler;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageStackMerging;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.item.ItemEntity;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Mixin для объединения выброшенной еды с разными метками.
+ * Перед ванильной попыткой объединения приводит метки обоих предметов к общей
+ * по политике itemEntityMergePolicy, после чего ванильное сравнение стеков совпадает.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@Mixin(ItemEntity.class)
+public class ItemEntityMergeMixin {
+
+    @Shadow @Nullable private UUID target;
+
+    @Inject(
+        method = "tryToMerge(Lnet/minecraft/world/entity/item/ItemEntity;)V",
+        at = @At("HEAD")
+    )
+    private void onTryToMerge(ItemEntity other, CallbackInfo ci) {
+        ItemEntity self = (ItemEntity) (Object) this;
+        if (!(self.level() instanceof ServerLevel serverLevel)) {
+            return;
+        }
+
+        // Ванильное условие объединения по владельцу проверяем заранее, чтобы не менять метки впустую
+        if (!Objects.equals(target, ((ItemEntityMergeMixin) (Object) other).target)) {
+            return;
+        }
+
+        if (SpoilageStackMerging.prepareItemEntityMerge(self.getItem(), other.getItem())) {
+            // День порчи мог сдвинуться раньше - переносим оба предмета в колесе таймеров
+            ItemEntityExpiryScheduler.reschedule(serverLevel, self);
+            ItemEntityExpiryScheduler.reschedule(serverLevel, other);
+        }
+    }
+}
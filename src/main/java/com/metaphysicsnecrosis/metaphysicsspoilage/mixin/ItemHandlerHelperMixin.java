@@ -0,0 +1,52 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.mixin;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.component.LogicalServerContext;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageStackMerging;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import com.llamalad7.mixinextras.sugar.Local;
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.items.IItemHandler;
+import net.neoforged.neoforge.items.IItemHandlerModifiable;
+import net.neoforged.neoforge.items.ItemHandlerHelper;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+
+/**
+ * Mixin для объединения еды с разными метками при вставке в IItemHandler со складыванием.
+ * Метки меняются на месте сравнения стеков слота, только если точного совпадения нет
+ * и симуляция показала, что слот примет хотя бы часть стека. Симулированная вставка
+ * не изменяет стеки.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@Mixin(ItemHandlerHelper.class)
+public class ItemHandlerHelperMixin {
+
+    @WrapOperation(
+        method = "insertItemStacked(Lnet/neoforged/neoforge/items/IItemHandler;Lnet/minecraft/world/item/ItemStack;Z)Lnet/minecraft/world/item/ItemStack;",
+        at = @At(
+            value = "INVOKE",
+            target = "Lnet/minecraft/world/item/ItemStack;isSameItemSameComponents(Lnet/minecraft/world/item/ItemStack;Lnet/minecraft/world/item/ItemStack;)Z"
+        )
+    )
+    private static boolean onIsSameItemSameComponents(ItemStack slotStack, ItemStack stack, Operation<Boolean> original,
+                                                      @Local(argsOnly = true) IItemHandler inventory,
+                                                      @Local(argsOnly = true) boolean simulate,
+                                                      @Local(ordinal = 1) int slot) {
+        if (original.call(slotStack, stack)) {
+            return true;
+        }
+        // Дешевые проверки первыми: при политике exact и для предметов без метки ничего не делаем
+        if (simulate || !SpoilageStackMerging.isMergeCandidate(slotStack, stack)
+                || !(inventory instanceof IItemHandlerModifiable modifiable) || !LogicalServerContext.isLogicalServer()) {
+            return false;
+        }
+
+        // Номер слота берется из цикла insertItemStacked (ordinal 0 - число слотов, 1 - счетчик цикла)
+        return SpoilageStackMerging.mergeAtSite(modifiable, slot, stack,
+            probe -> inventory.insertItem(slot, probe, true).getCount() < probe.getCount());
+    }
+}
@@ -1,5 +1,6 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.mixin;
 
+import com.metaphysicsnecrosis.metaphysicsspoilage.component.LogicalServerContext;
 import com.metaphysicsnecrosis.metaphysicsspoilage.component.SpoilageComponent;
 import com.metaphysicsnecrosis.metaphysicsspoilage.component.SpoilageHooks;
 import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
@@ -41,13 +42,18 @@ public class ItemStackMixin {
     }
 
     /**
-     * Обрабатывает копирование ItemStack - превращает TRANSIENT_NEVER_DECAY_FLAG в текущее время
+     * Обрабатывает копирование ItemStack - превращает TRANSIENT_NEVER_DECAY_FLAG в текущее время.
+     * На клиенте флаг сохраняется: актуальный день знает только логический сервер.
      */
     @Inject(
         method = "copy()Lnet/minecraft/world/item/ItemStack;",
         at = @At("RETURN")
     )
     private void onCopy(CallbackInfoReturnable<ItemStack> cir) {
+        if (!LogicalServerContext.isLogicalServer()) {
+            return;
+        }
+
         ItemStack originalStack = (ItemStack) (Object) this;
         ItemStack copiedStack = cir.getReturnValue();
 
@@ -0,0 +1,66 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.mixin;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageStackMerging;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import com.llamalad7.mixinextras.sugar.Local;
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.items.IItemHandler;
+import net.neoforged.neoforge.items.IItemHandlerModifiable;
+import net.neoforged.neoforge.items.VanillaInventoryCodeHooks;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+
+/**
+ * Mixin для объединения еды с разными метками при выталкивании воронкой в IItemHandler.
+ * Вставка в ванильные контейнеры обрабатывается в {@link HopperBlockEntityMixin}.
+ *
+ * Симулированная вставка перед объединением проверяется на копии с меткой приемника,
+ * а метки меняются только на месте сравнения стеков, после которого сразу следует вставка.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@Mixin(VanillaInventoryCodeHooks.class)
+public class VanillaInventoryCodeHooksMixin {
+
+    private static final String INSERT_STACK =
+        "insertStack(Lnet/minecraft/world/level/block/entity/BlockEntity;Ljava/lang/Object;Lnet/neoforged/neoforge/items/IItemHandler;Lnet/minecraft/world/item/ItemStack;I)Lnet/minecraft/world/item/ItemStack;";
+
+    @WrapOperation(
+        method = INSERT_STACK,
+        at = @At(
+            value = "INVOKE",
+            target = "Lnet/neoforged/neoforge/items/IItemHandler;insertItem(ILnet/minecraft/world/item/ItemStack;Z)Lnet/minecraft/world/item/ItemStack;"
+        )
+    )
+    private static ItemStack onInsertItem(IItemHandler handler, int slot, ItemStack stack, boolean simulate,
+                                          Operation<ItemStack> original) {
+        ItemStack remainder = original.call(handler, slot, stack, simulate);
+        if (simulate && !remainder.isEmpty() && handler instanceof IItemHandlerModifiable modifiable
+                && SpoilageStackMerging.canMerge(modifiable, slot, stack,
+                    probe -> original.call(handler, slot, probe, true).isEmpty())) {
+            return ItemStack.EMPTY; // Весь стек поместится после приведения меток
+        }
+        return remainder;
+    }
+
+    @WrapOperation(
+        method = INSERT_STACK,
+        at = @At(
+            value = "INVOKE",
+            target = "Lnet/minecraft/world/item/ItemStack;isSameItemSameComponents(Lnet/minecraft/world/item/ItemStack;Lnet/minecraft/world/item/ItemStack;)Z"
+        )
+    )
+    private static boolean onIsSameItemSameComponents(ItemStack destinationStack, ItemStack stack, Operation<Boolean> original,
+                                                      @Local(argsOnly = true) IItemHandler handler,
+                                                      @Local(argsOnly = true) int slot) {
+        if (original.call(destinationStack, stack)) {
+            return true;
+        }
+        // Симуляция выше уже подтвердила, что стек поместится
+        return handler instanceof IItemHandlerModifiable modifiable
+            && SpoilageStackMerging.mergeAtSite(modifiable, slot, stack, probe -> true);
+    }
+}
@@ -1,6 +1,8 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.mixin;
 
+import com.metaphysicsnecrosis.metaphysicsspoilage.component.LogicalServerContext;
 import com.metaphysicsnecrosis.metaphysicsspoilage.component.SpoilageHooks;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageRulesGeneration;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
 import net.minecraft.core.component.DataComponents;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -10,6 +12,7 @@ import net.minecraft.world.item.trading.MerchantOffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
@@ -27,15 +30,42 @@ public class VillagerTradingMixin {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(VillagerTradingMixin.class);
 
+    /**
+     * День, за который результат этого предложения уже обработан
+     */
+    @Unique
+    private long metaphysicsspoilage$processedDay = Long.MIN_VALUE;
+
+    /**
+     * Поколение правил порчи, при котором результат обработан
+     */
+    @Unique
+    private int metaphysicsspoilage$processedGeneration;
+
     /**
      * Перехватывает результат торговли и устанавливает свежие временные метки для еды.
-     * Оптимизированная версия - обновляет метки только если они устарели.
+     * Экран торговли запрашивает результат многократно, поэтому каждое предложение
+     * обрабатывается не чаще одного раза за игровой день и поколение правил порчи.
      */
     @Inject(
         method = "getResult()Lnet/minecraft/world/item/ItemStack;",
         at = @At("RETURN")
     )
     private void onGetTradeResult(CallbackInfoReturnable<ItemStack> cir) {
+        // Экран торговли на клиенте тоже запрашивает результат - метки ставит только сервер
+        if (!LogicalServerContext.isLogicalServer()) {
+            return;
+        }
+
+        // Предложение уже обработано сегодня при тех же правилах
+        long currentDay = getCurrentDay();
+        int generation = SpoilageRulesGeneration.current();
+        if (metaphysicsspoilage$processedDay == currentDay && metaphysicsspoilage$processedGeneration == generation) {
+            return;
+        }
+        metaphysicsspoilage$processedDay = currentDay;
+        metaphysicsspoilage$processedGeneration = generation;
+
         ItemStack result = cir.getReturnValue();
 
         if (result == null || result.isEmpty()) {
@@ -48,9 +78,6 @@ public class VillagerTradingMixin {
                 // Проверяем, может ли предмет портиться
                 if (SpoilageUtils.canItemSpoil(result.getItem())) {
 
-                    // Получаем текущий день
-                    long currentDay = getCurrentDay();
-
                     // Проверяем, нужно ли обновлять метку
                     if (shouldUpdateTimestamp(result, currentDay)) {
                         // Устанавливаем свежую временную метку
@@ -84,21 +111,10 @@ public class VillagerTradingMixin {
     }
 
     /**
-     * Получает текущий игровой день (копия из SpoilageHooks)
+     * Получает текущий игровой день из контекста логического сервера
      */
     private long getCurrentDay() {
-        try {
-            var server = net.neoforged.neoforge.server.ServerLifecycleHooks.getCurrentServer();
-            if (server != null) {
-                var overworld = server.overworld();
-                if (overworld != null) {
-                    return com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker.getInstance(overworld).getCurrentDay();
-                }
-            }
-        } catch (Exception e) {
-            LOGGER.debug("Не удалось получить серверный уровень: {}", e.getMessage());
-        }
-        return 0L;
+        return LogicalServerContext.getCurrentDay();
     }
 
 }
\ No newline at end of file
@@ -10,8 +10,10 @@ import net.minecraft.resources.ResourceLocation;
 /**
  * Пакет для команд извлечения еды из контейнера.
  * Отправляется с клиента на сервер для выполнения операций извлечения.
+ * Порядковый номер {@code sequence} присваивается клиентом при локальном предсказании
+ * и возвращается сервером в {@link FoodContainerSyncPayload} как подтверждение.
  */
-public record FoodContainerPayload(ActionType action, String itemId, int count) implements CustomPacketPayload {
+public record FoodContainerPayload(ActionType action, String itemId, int count, int sequence) implements CustomPacketPayload {
 
     public static final CustomPacketPayload.Type<FoodContainerPayload> TYPE =
         new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath(MetaphysicsSpoilage.MODID, "food_container"));
@@ -23,6 +25,8 @@ public record FoodContainerPayload(ActionType action, String itemId, int count)
         FoodContainerPayload::itemId,
         ByteBufCodecs.VAR_INT,
         FoodContainerPayload::count,
+        ByteBufCodecs.VAR_INT,
+        FoodContainerPayload::sequence,
         FoodContainerPayload::new
     );
 
@@ -31,14 +35,36 @@ public record FoodContainerPayload(ActionType action, String itemId, int count)
         return TYPE;
     }
 
+    /**
+     * Возвращает копию пакета с указанным порядковым номером
+     */
+    public FoodContainerPayload withSequence(int sequence) {
+        return new FoodContainerPayload(action, itemId, count, sequence);
+    }
+
     /**
      * Типы действий для извлечения еды
      */
     public enum ActionType {
-        EXTRACT_SPECIFIC,   // Извлечь определенное количество определенного предмета
-        EXTRACT_ALL_TYPE,   // Извлечь все предметы определенного типа
-        EXTRACT_OLDEST,     // Извлечь самую старую еду
-        EXTRACT_ALL;        // Извлечь все предметы
+        EXTRACT_SPECIFIC(1),   // Извлечь определенное количество определенного предмета
+        EXTRACT_ALL_TYPE(2),   // Извлечь все предметы определенного типа
+        EXTRACT_OLDEST(1),     // Извлечь самую старую еду
+        EXTRACT_ALL(16),       // Извлечь все предметы (до 1000 итераций на сервере)
+        DEPOSIT_ALL_FOOD(4),   // Положить всю еду из инвентаря в контейнер
+        REFILL_HOTBAR_SLOT(1); // Пополнить слот хотбара (count - номер слота)
+
+        private final int cost;
+
+        ActionType(int cost) {
+            this.cost = cost;
+        }
+
+        /**
+         * Стоимость действия в бюджете игрока (см. FoodContainerRateLimiter)
+         */
+        public int getCost() {
+            return cost;
+        }
 
         public static final StreamCodec<ByteBuf, ActionType> STREAM_CODEC = StreamCodec.of(
             (buf, action) -> buf.writeByte(action.ordinal()),
@@ -50,27 +76,41 @@ public record FoodContainerPayload(ActionType action, String itemId, int count)
      * Создает пакет для извлечения определенного количества конкретного предмета
      */
     public static FoodContainerPayload extractSpecific(String itemId, int count) {
-        return new FoodContainerPayload(ActionType.EXTRACT_SPECIFIC, itemId, count);
+        return new FoodContainerPayload(ActionType.EXTRACT_SPECIFIC, itemId, count, 0);
     }
 
     /**
      * Создает пакет для извлечения всех предметов определенного типа
      */
     public static FoodContainerPayload extractAllType(String itemId) {
-        return new FoodContainerPayload(ActionType.EXTRACT_ALL_TYPE, itemId, 0);
+        return new FoodContainerPayload(ActionType.EXTRACT_ALL_TYPE, itemId, 0, 0);
     }
 
     /**
      * Создает пакет для извлечения самой старой еды
      */
     public static FoodContainerPayload extractOldest(int count) {
-        return new FoodContainerPayload(ActionType.EXTRACT_OLDEST, "", count);
+        return new FoodContainerPayload(ActionType.EXTRACT_OLDEST, "", count, 0);
+    }
+
+    /**
+     * Создает пакет для перемещения всей еды из инвентаря в контейнер
+     */
+    public static FoodContainerPayload depositAllFood() {
+        return new FoodContainerPayload(ActionType.DEPOSIT_ALL_FOOD, "", 0, 0);
+    }
+
+    /**
+     * Создает пакет для пополнения слота хотбара из контейнера
+     */
+    public static FoodContainerPayload refillHotbarSlot(int hotbarSlot, String itemId) {
+        return new FoodContainerPayload(ActionType.REFILL_HOTBAR_SLOT, itemId, hotbarSlot, 0);
     }
 
     /**
      * Создает пакет для извлечения всех предметов
      */
     public static FoodContainerPayload extractAll() {
-        return new FoodContainerPayload(ActionType.EXTRACT_ALL, "", 0);
+        return new FoodContainerPayload(ActionType.EXTRACT_ALL, "", 0, 0);
     }
 }
\ No newline at end of file
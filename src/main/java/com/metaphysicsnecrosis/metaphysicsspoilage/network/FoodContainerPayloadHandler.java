@@ -27,6 +27,15 @@ public class FoodContainerPayloadHandler {
             return;
         }
 
+        // Бюджет проверяется до любой работы; отброшенное действие подтверждается,
+        // а синхронизация для отката предсказания объединяется до конца тика
+        if (!FoodContainerRateLimiter.tryAcquire(player, payload.action())) {
+            foodMenu.acknowledgeSequence(payload.sequence());
+            LOGGER.debug("Отброшен пакет FoodContainer {} от игрока {}: превышен лимит",
+                payload.action(), player.getName().getString());
+            return;
+        }
+
         boolean success = false;
         String actionDescription = "";
 
@@ -49,6 +58,7 @@ public class FoodContainerPayloadHandler {
                     int extracted = 0;
                     boolean keepExtracting = true;
 
+                    // Промежуточные синхронизации не нужны: клиент уже показал результат локально
                     while (keepExtracting && !foodMenu.isEmpty() && extracted < 1000) { // Ограничение для предотвращения бесконечного цикла
                         boolean extractedSomething = foodMenu.extractOldestFood(64);
                         if (!extractedSomething) {
@@ -56,32 +66,33 @@ public class FoodContainerPayloadHandler {
                         } else {
                             extracted++;
                         }
-
-                        // Синхронизируем после каждых 5 операций для лучшей отзывчивости UI
-                        if (extracted % 5 == 0) {
-                            foodMenu.refreshContainer();
-                        }
                     }
 
-                    // Финальная синхронизация для обеспечения корректного отображения
-                    foodMenu.refreshContainer();
-
                     success = extracted > 0;
                     actionDescription = String.format("извлечение всех предметов (%d операций)", extracted);
                 }
+                case DEPOSIT_ALL_FOOD -> {
+                    success = foodMenu.depositAllFood();
+                    actionDescription = "перемещение всей еды из инвентаря в контейнер";
+                }
+                case REFILL_HOTBAR_SLOT -> {
+                    success = foodMenu.refillHotbarSlot(payload.count(), payload.itemId());
+                    actionDescription = String.format("пополнение слота хотбара %d", payload.count());
+                }
             }
 
             if (success) {
                 LOGGER.debug("Игрок {} успешно выполнил: {}", player.getName().getString(), actionDescription);
-
-                // Обновляем меню для синхронизации с клиентом
-                foodMenu.refreshContainer();
-                // Принудительно уведомляем клиент об изменениях в слотах
-                foodMenu.slotsChanged(null);
             } else {
                 LOGGER.debug("Игрок {} не смог выполнить: {}", player.getName().getString(), actionDescription);
             }
 
+            // Подтверждаем действие даже при неудаче, чтобы клиент откатил свое предсказание
+            foodMenu.acknowledgeSequence(payload.sequence());
+            foodMenu.refreshContainer();
+            // Принудительно уведомляем клиент об изменениях в слотах
+            foodMenu.slotsChanged(null);
+
         } catch (Exception e) {
             LOGGER.error("Ошибка при обработке пакета FoodContainer от игрока {}: {}",
                 player.getName().getString(), e.getMessage());
@@ -0,0 +1,164 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.network;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.gui.FoodContainerMenu;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Бюджет действий FoodContainer для каждого игрока (token bucket).
+ *
+ * Каждое действие имеет стоимость ({@link FoodContainerPayload.ActionType#getCost()}),
+ * бюджет пополняется с постоянной скоростью. Проверка выполняется до любой работы
+ * на сервере: запросы сверх бюджета отбрасываются, а клиенту один раз за тик
+ * отправляется актуальное содержимое, чтобы он откатил свои предсказания.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class FoodContainerRateLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FoodContainerRateLimiter.class);
+
+    /**
+     * Бюджеты игроков
+     */
+    private static final Map<UUID, TokenBucket> BUCKETS = new ConcurrentHashMap<>();
+
+    /**
+     * Игроки, которым нужно отправить синхронизацию после отброшенных запросов (объединяется за тик)
+     */
+    private static final Set<UUID> PENDING_RESYNC = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Игроки в сети, хотя бы раз упершиеся в лимит (удаляются при выходе)
+     */
+    private static final Set<UUID> THROTTLED_PLAYERS = ConcurrentHashMap.newKeySet();
+
+    private static final LongAdder ACCEPTED_REQUESTS = new LongAdder();
+    private static final LongAdder THROTTLED_REQUESTS = new LongAdder();
+
+    /**
+     * Списывает стоимость действия из бюджета игрока
+     *
+     * @param player Игрок, отправивший пакет
+     * @param action Тип действия
+     * @return true если действие можно выполнить
+     */
+    public static boolean tryAcquire(ServerPlayer player, FoodContainerPayload.ActionType action) {
+        int capacity = SpoilageSettings.get().foodContainerActionBudget();
+        int refillPerSecond = SpoilageSettings.get().foodContainerBudgetRefillPerSecond();
+
+        TokenBucket bucket = BUCKETS.computeIfAbsent(player.getUUID(), id -> new TokenBucket(capacity));
+        if (bucket.tryConsume(action.getCost(), capacity, refillPerSecond, System.nanoTime())) {
+            ACCEPTED_REQUESTS.increment();
+            return true;
+        }
+
+        THROTTLED_REQUESTS.increment();
+        if (THROTTLED_PLAYERS.add(player.getUUID())) {
+            LOGGER.warn("Игрок {} превысил лимит действий FoodContainer", player.getName().getString());
+        }
+        PENDING_RESYNC.add(player.getUUID());
+        return false;
+    }
+
+    /**
+     * Отправляет отложенные синхронизации игрокам с отброшенными запросами
+     */
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        if (PENDING_RESYNC.isEmpty()) {
+            return;
+        }
+
+        for (UUID playerId : PENDING_RESYNC) {
+            PENDING_RESYNC.remove(playerId);
+
+            ServerPlayer player = event.getServer().getPlayerList().getPlayer(playerId);
+            if (player != null && player.containerMenu instanceof FoodContainerMenu foodMenu) {
+                foodMenu.resyncClient();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        UUID playerId = event.getEntity().getUUID();
+        BUCKETS.remove(playerId);
+        PENDING_RESYNC.remove(playerId);
+        THROTTLED_PLAYERS.remove(playerId);
+    }
+
+    /**
+     * Получает статистику ограничения запросов
+     */
+    public static String getStatistics() {
+        return String.format("FoodContainer лимиты - Принято: %d, Отброшено: %d, Ограниченных игроков в сети: %d, Бюджетов: %d",
+            ACCEPTED_REQUESTS.sum(), THROTTLED_REQUESTS.sum(), THROTTLED_PLAYERS.size(), BUCKETS.size());
+    }
+
+    public static long getAcceptedRequestCount() {
+        return ACCEPTED_REQUESTS.sum();
+    }
+
+    public static long getThrottledRequestCount() {
+        return THROTTLED_REQUESTS.sum();
+    }
+
+    public static int getThrottledPlayerCount() {
+        return THROTTLED_PLAYERS.size();
+    }
+
+    /**
+     * Сбрасывает статистику (бюджеты игроков сохраняются)
+     */
+    public static void resetStatistics() {
+        ACCEPTED_REQUESTS.reset();
+        THROTTLED_REQUESTS.reset();
+        THROTTLED_PLAYERS.clear();
+    }
+
+    /**
+     * Бюджет одного игрока. Пополняется лениво при каждом обращении.
+     */
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(int capacity) {
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        synchronized boolean tryConsume(int cost, int capacity, int refillPerSecond, long nowNanos) {
+            double elapsedSeconds = (nowNanos - lastRefillNanos) / 1_000_000_000.0;
+            tokens = Math.min(capacity, tokens + elapsedSeconds * refillPerSecond);
+            lastRefillNanos = nowNanos;
+
+            if (tokens < cost) {
+                return false;
+            }
+
+            tokens -= cost;
+            return true;
+        }
+    }
+
+    // Запрещаем создание экземпляров
+    private FoodContainerRateLimiter() {}
+}
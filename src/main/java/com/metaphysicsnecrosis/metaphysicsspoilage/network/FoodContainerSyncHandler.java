@@ -32,11 +32,8 @@ public class FoodContainerSyncHandler {
             return;
         }
 
-        // Очищаем старый кэш перед обновлением для предотвращения конфликтов
-        foodMenu.clearSyncCache();
-
-        // Обновляем содержимое контейнера в меню
-        foodMenu.updateContainerContents(payload.foods());
+        // Обновляем содержимое контейнера в меню и сверяем ожидающие предсказания
+        foodMenu.updateContainerContents(payload.foods(), payload.ackSequence());
 
         // Также обновляем GUI, если оно открыто
         if (Minecraft.getInstance().screen instanceof FoodContainerScreen screen) {
@@ -49,7 +46,8 @@ public class FoodContainerSyncHandler {
             });
         }
 
-        LOGGER.info("Синхронизировано содержимое FoodContainer: {} записей", payload.foods().size());
+        LOGGER.info("Синхронизировано содержимое FoodContainer: {} записей (подтверждено до #{})",
+            payload.foods().size(), payload.ackSequence());
 
         // Дополнительная отладочная информация
         for (var entry : payload.foods()) {
@@ -3,6 +3,7 @@ package com.metaphysicsnecrosis.metaphysicsspoilage.network;
 import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
 import com.metaphysicsnecrosis.metaphysicsspoilage.items.StoredFoodEntry;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import net.minecraft.network.codec.ByteBufCodecs;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
@@ -13,8 +14,10 @@ import java.util.List;
 /**
  * Пакет для синхронизации содержимого FoodContainer между сервером и клиентом.
  * Отправляется с сервера на клиент для обновления GUI.
+ * {@code ackSequence} - номер последнего обработанного сервером действия клиента,
+ * по которому клиент сверяет свои предсказанные операции.
  */
-public record FoodContainerSyncPayload(List<StoredFoodEntry> foods) implements CustomPacketPayload {
+public record FoodContainerSyncPayload(List<StoredFoodEntry> foods, int ackSequence) implements CustomPacketPayload {
 
     public static final CustomPacketPayload.Type<FoodContainerSyncPayload> TYPE =
         new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath(MetaphysicsSpoilage.MODID, "food_container_sync"));
@@ -22,9 +25,24 @@ public record FoodContainerSyncPayload(List<StoredFoodEntry> foods) implements C
     public static final StreamCodec<ByteBuf, FoodContainerSyncPayload> STREAM_CODEC = StreamCodec.composite(
         ByteBufCodecs.collection(java.util.ArrayList::new, StoredFoodEntry.STREAM_CODEC),
         FoodContainerSyncPayload::foods,
+        ByteBufCodecs.VAR_INT,
+        FoodContainerSyncPayload::ackSequence,
         FoodContainerSyncPayload::new
     );
 
+    /**
+     * Размер тела пакета в байтах (кодирует пакет во временный буфер - только для диагностики)
+     */
+    public int encodedSize() {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            STREAM_CODEC.encode(buffer, this);
+            return buffer.readableBytes();
+        } finally {
+            buffer.release();
+        }
+    }
+
     @Override
     public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
         return TYPE;
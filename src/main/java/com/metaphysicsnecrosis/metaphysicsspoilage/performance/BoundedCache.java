@@ -0,0 +1,305 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.performance;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageRulesGeneration;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Типизированный кэш ограниченного размера с вытеснением по частоте (W-TinyLFU).
+ *
+ * Чтение - одно обращение к ConcurrentHashMap и инкремент {@link FrequencySketch} без блокировок.
+ * Запись при промахе выполняется под блокировкой кэша: новый ключ попадает в маленькое окно
+ * (1% емкости, FIFO), вышедший из окна кандидат сравнивается по частоте с жертвой основной
+ * области (CLOCK со вторым шансом для ключей, к которым обращались) и занимает ее место,
+ * только если встречался чаще. Так разовые обращения не вымывают горячие ключи.
+ *
+ * Емкость берется из {@code cacheSizeLimit} и применяется ко всем кэшам при перезагрузке
+ * конфигурации. Поколенный кэш дополнительно помечает записи поколением правил
+ * ({@link SpoilageRulesGeneration}) и считает записи прошлых поколений промахами.
+ * При выключенном {@code enableCacheOptimization} значения вычисляются без кэша.
+ *
+ * Ключи должны иметь корректные equals/hashCode; предметы (Item) сравниваются по ссылке.
+ * Значения null не кэшируются.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class BoundedCache<K, V> {
+
+    private static final List<BoundedCache<?, ?>> CACHES = new CopyOnWriteArrayList<>();
+
+    /**
+     * Приблизительный размер записи: узел карты, узел кэша и ссылка в очереди
+     */
+    private static final int ENTRY_BYTES = 80;
+
+    private final String name;
+    private final boolean generational;
+    private final ConcurrentHashMap<K, Node<V>> data = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch = new FrequencySketch();
+
+    // Очереди ключей, защищены блокировкой кэша
+    private final ArrayDeque<K> window = new ArrayDeque<>();
+    private final ArrayDeque<K> main = new ArrayDeque<>();
+    private int windowCapacity;
+    private int mainCapacity;
+    private volatile int capacity;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleMisses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    private BoundedCache(String name, boolean generational) {
+        this.name = name;
+        this.generational = generational;
+        setCapacity(SpoilageSettings.get().cacheSizeLimit());
+    }
+
+    /**
+     * Создает кэш, значения которого не зависят от правил порчи
+     */
+    public static <K, V> BoundedCache<K, V> create(String name) {
+        BoundedCache<K, V> cache = new BoundedCache<>(name, false);
+        CACHES.add(cache);
+        return cache;
+    }
+
+    /**
+     * Создает кэш, записи которого устаревают со сменой поколения правил порчи
+     */
+    public static <K, V> BoundedCache<K, V> generational(String name) {
+        BoundedCache<K, V> cache = new BoundedCache<>(name, true);
+        CACHES.add(cache);
+        return cache;
+    }
+
+    /**
+     * Получает значение из кэша или вычисляет его
+     *
+     * @param key    ключ
+     * @param loader функция вычисления значения
+     * @return значение (может быть null, если его вернул loader)
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (!SpoilageSettings.get().enableCacheOptimization()) {
+            misses.increment();
+            return loader.apply(key);
+        }
+
+        int generation = generational ? SpoilageRulesGeneration.current() : 0;
+        sketch.increment(key);
+
+        Node<V> node = data.get(key);
+        if (node != null) {
+            if (node.generation == generation) {
+                node.referenced = true;
+                hits.increment();
+                return node.value;
+            }
+            staleMisses.increment();
+        }
+
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            put(key, new Node<>(value, generation));
+        }
+        return value;
+    }
+
+    /**
+     * Вставляет запись и при переполнении выбирает, кого вытеснить
+     */
+    private synchronized void put(K key, Node<V> node) {
+        if (data.put(key, node) != null) {
+            return; // Ключ уже в очередях - место сохраняется
+        }
+
+        window.addLast(key);
+        if (window.size() > windowCapacity) {
+            admit(window.pollFirst());
+        }
+    }
+
+    /**
+     * Переводит вышедший из окна ключ в основную область или отклоняет его
+     */
+    private void admit(K candidate) {
+        if (main.size() < mainCapacity) {
+            main.addLast(candidate);
+            return;
+        }
+
+        K victim = selectVictim();
+        if (victim != null && sketch.frequency(candidate) > sketch.frequency(victim)) {
+            evict(victim);
+            main.addLast(candidate);
+        } else {
+            if (victim != null) {
+                main.addFirst(victim);
+            }
+            data.remove(candidate);
+            rejections.increment();
+        }
+    }
+
+    /**
+     * CLOCK: ключи, к которым обращались, получают второй шанс
+     */
+    private K selectVictim() {
+        for (int i = main.size(); i > 0; i--) {
+            K key = main.pollFirst();
+            Node<V> node = data.get(key);
+            if (node != null && node.referenced) {
+                node.referenced = false;
+                main.addLast(key);
+            } else {
+                return key;
+            }
+        }
+        return main.pollFirst();
+    }
+
+    private void evict(K key) {
+        data.remove(key);
+        evictions.increment();
+    }
+
+    /**
+     * Изменяет емкость кэша, вытесняя лишние записи
+     */
+    public synchronized void setCapacity(int newCapacity) {
+        capacity = Math.max(2, newCapacity);
+        windowCapacity = Math.max(1, capacity / 100);
+        mainCapacity = capacity - windowCapacity;
+        sketch.ensureCapacity(capacity);
+
+        while (window.size() > windowCapacity) {
+            main.addLast(window.pollFirst());
+        }
+        while (main.size() > mainCapacity) {
+            evict(main.pollFirst());
+        }
+    }
+
+    /**
+     * Удаляет все записи
+     */
+    public synchronized void clear() {
+        data.clear();
+        window.clear();
+        main.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * Грубая оценка занимаемой кучи: узлы ConcurrentHashMap и очередей плюс таблица частот
+     */
+    public long estimateHeapBytes() {
+        return data.size() * (long) ENTRY_BYTES + sketch.sizeInBytes();
+    }
+
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total > 0 ? (double) h / total : 0.0;
+    }
+
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        staleMisses.reset();
+        evictions.reset();
+        rejections.reset();
+    }
+
+    /**
+     * Получает статистику кэша
+     */
+    public String getStatistics() {
+        return String.format("%s - Записей: %d/%d, Попаданий: %d, Промахов: %d (устаревших: %d), Вытеснено: %d, Отклонено: %d, Эффективность: %.1f%%",
+            name, data.size(), capacity, hits.sum(), misses.sum(), staleMisses.sum(),
+            evictions.sum(), rejections.sum(), getHitRatio() * 100);
+    }
+
+    // === РЕЕСТР КЭШЕЙ ===
+
+    /**
+     * Получает все созданные кэши
+     */
+    public static List<BoundedCache<?, ?>> getAll() {
+        return List.copyOf(CACHES);
+    }
+
+    /**
+     * Применяет ограничение размера ко всем кэшам (при загрузке конфигурации)
+     */
+    public static void applySizeLimit(int limit) {
+        for (BoundedCache<?, ?> cache : CACHES) {
+            if (cache.capacity != Math.max(2, limit)) {
+                cache.setCapacity(limit);
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает статистику всех кэшей
+     */
+    public static void resetAllStatistics() {
+        for (BoundedCache<?, ?> cache : CACHES) {
+            cache.resetStatistics();
+        }
+    }
+
+    /**
+     * Запись кэша: значение и поколение правил, при котором оно вычислено
+     */
+    private static final class Node<V> {
+        final V value;
+        final int generation;
+        volatile boolean referenced;
+
+        Node(V value, int generation) {
+            this.value = value;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.performance;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Приблизительный счетчик частоты обращений (Count-Min Sketch с 4-битными счетчиками).
+ *
+ * Используется {@link BoundedCache} для решения, пускать ли новый ключ в кэш вместо
+ * вытесняемого (TinyLFU). Каждый long хранит 16 счетчиков; ключ отображается в 4 счетчика
+ * из одной группы по 4 и оценивается минимумом. После {@code 10 * capacity} инкрементов
+ * все счетчики делятся пополам, поэтому устаревшая популярность постепенно забывается.
+ * Инкремент выполняется CAS-циклом без блокировок.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long COUNTER_MASK = 0xFL;
+
+    private volatile AtomicLongArray table = new AtomicLongArray(16);
+    private volatile int sampleSize = 160;
+
+    /**
+     * Счетчик инкрементов до старения. Гонки лишь немного сдвигают момент старения.
+     */
+    private int additions;
+
+    /**
+     * Подгоняет размер таблицы под емкость кэша (старые частоты сбрасываются)
+     */
+    void ensureCapacity(int capacity) {
+        int length = Integer.highestOneBit(Math.max(16, capacity - 1) << 1);
+        if (length != table.length()) {
+            table = new AtomicLongArray(length);
+            additions = 0;
+        }
+        sampleSize = 10 * Math.max(16, capacity);
+    }
+
+    /**
+     * Размер таблицы счетчиков в байтах
+     */
+    long sizeInBytes() {
+        return table.length() * (long) Long.BYTES;
+    }
+
+    /**
+     * Оценивает частоту ключа (0..15)
+     */
+    int frequency(Object key) {
+        AtomicLongArray counters = table;
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int mask = counters.length() - 1;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i, mask);
+            int count = (int) ((counters.get(index) >>> ((start + i) << 2)) & COUNTER_MASK);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Увеличивает частоту ключа
+     */
+    void increment(Object key) {
+        AtomicLongArray counters = table;
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int mask = counters.length() - 1;
+
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(counters, indexOf(hash, i, mask), start + i);
+        }
+
+        if (added && ++additions >= sampleSize) {
+            reset(counters);
+        }
+    }
+
+    private static boolean incrementAt(AtomicLongArray counters, int index, int counter) {
+        int offset = counter << 2;
+        long mask = COUNTER_MASK << offset;
+        while (true) {
+            long current = counters.get(index);
+            if ((current & mask) == mask) {
+                return false; // Счетчик насыщен
+            }
+            if (counters.compareAndSet(index, current, current + (1L << offset))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Старение: все счетчики делятся пополам
+     */
+    private void reset(AtomicLongArray counters) {
+        additions = 0;
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, (counters.get(i) >>> 1) & RESET_MASK);
+        }
+    }
+
+    private static int indexOf(int hash, int i, int mask) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
@@ -0,0 +1,112 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.performance;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр таймеров операций.
+ *
+ * Таймеры регистрируются один раз (в статических полях классов) и хранят гистограммы
+ * задержек с фиксированными корзинами. Включение профилирования и частота выборки
+ * публикуются двумя volatile полями при загрузке конфигурации, поэтому выключенный
+ * замер в горячем пути стоит одной проверки и профилирование можно держать включенным.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class Metrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Metrics.class);
+
+    private static final Map<String, OperationTimer> TIMERS = new ConcurrentHashMap<>();
+
+    /**
+     * Включено ли профилирование (читается таймерами напрямую)
+     */
+    static volatile boolean enabled = SpoilageSettings.get().enablePerformanceProfiling();
+
+    /**
+     * Маска выборки: замеряется вызов, у которого (номер & маска) == 0
+     */
+    static volatile int sampleMask = toMask(SpoilageSettings.get().profilingSampleRate());
+
+    /**
+     * Регистрирует таймер, замеряющий каждый вызов (для редких операций)
+     */
+    public static OperationTimer timer(String name) {
+        return TIMERS.computeIfAbsent(name, key -> new OperationTimer(key, false));
+    }
+
+    /**
+     * Регистрирует выборочный таймер (для горячих путей)
+     */
+    public static OperationTimer sampledTimer(String name) {
+        return TIMERS.computeIfAbsent(name, key -> new OperationTimer(key, true));
+    }
+
+    /**
+     * Применяет настройки профилирования. Вызывается при загрузке конфигурации.
+     *
+     * @param profilingEnabled включено ли профилирование
+     * @param sampleRate       замерять каждый N-й вызов выборочных таймеров (округляется до степени двойки)
+     */
+    public static void configure(boolean profilingEnabled, int sampleRate) {
+        sampleMask = toMask(sampleRate);
+        enabled = profilingEnabled;
+        LOGGER.debug("Профилирование: {}, выборка 1/{}", profilingEnabled, sampleMask + 1);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Получает зарегистрированные таймеры, отсортированные по суммарному времени
+     */
+    public static List<OperationTimer> getTimers() {
+        List<OperationTimer> timers = new ArrayList<>(TIMERS.values());
+        timers.sort(Comparator.comparingLong((OperationTimer timer) -> timer.getHistogram().getTotalNanos()).reversed());
+        return timers;
+    }
+
+    /**
+     * Добавляет в отчет строки по таймерам с замерами
+     */
+    public static void appendReport(StringBuilder report) {
+        boolean any = false;
+        for (OperationTimer timer : getTimers()) {
+            if (timer.getHistogram().getCount() > 0) {
+                report.append(timer.format()).append('\n');
+                any = true;
+            }
+        }
+        if (!any) {
+            report.append("Нет данных по операциям\n");
+        }
+    }
+
+    /**
+     * Сбрасывает все гистограммы (таймеры остаются зарегистрированными)
+     */
+    public static void reset() {
+        for (OperationTimer timer : TIMERS.values()) {
+            timer.getHistogram().reset();
+        }
+    }
+
+    private static int toMask(int sampleRate) {
+        int rate = Integer.highestOneBit(Math.max(1, sampleRate));
+        return rate - 1;
+    }
+
+    // Запрещаем создание экземпляров
+    private Metrics() {}
+}
@@ -0,0 +1,89 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.performance;
+
+/**
+ * Заранее зарегистрированный таймер операции.
+ *
+ * Создается один раз в статическом поле через {@link Metrics#timer} или
+ * {@link Metrics#sampledTimer} и используется без поиска по строковому ключу и без аллокаций:
+ * <pre>
+ * long start = TIMER.start();
+ * ...
+ * TIMER.stop(start);
+ * </pre>
+ * При выключенном профилировании {@link #start()} и {@link #stop(long)} сводятся к одной проверке.
+ * Выборочный таймер замеряет только каждый N-й вызов (N - profilingSampleRate).
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class OperationTimer {
+
+    /**
+     * Значение start() для вызова, который не замеряется
+     */
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final String name;
+    private final boolean sampled;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    /**
+     * Счетчик выборки. Гонки между потоками лишь немного смещают выборку, поэтому без атомиков.
+     */
+    private int sampleTick;
+
+    OperationTimer(String name, boolean sampled) {
+        this.name = name;
+        this.sampled = sampled;
+    }
+
+    /**
+     * Начинает замер
+     *
+     * @return время начала или {@link #NOT_TIMED}
+     */
+    public long start() {
+        if (!Metrics.enabled) {
+            return NOT_TIMED;
+        }
+        if (sampled && (++sampleTick & Metrics.sampleMask) != 0) {
+            return NOT_TIMED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Завершает замер, начатый {@link #start()}
+     */
+    public void stop(long startNanos) {
+        if (startNanos != NOT_TIMED) {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * Получает строку отчета: замеры, среднее, p50/p99/p999 и максимум в микросекундах
+     */
+    public String format() {
+        return String.format("%-45s: замеров=%d%s, сред=%.1fмкс, p50=%.1fмкс, p99=%.1fмкс, p999=%.1fмкс, макс=%.1fмкс",
+            name, histogram.getCount(), sampled ? " (выборочно)" : "",
+            histogram.getMeanNanos() / 1000.0,
+            histogram.getPercentile(0.50) / 1000.0,
+            histogram.getPercentile(0.99) / 1000.0,
+            histogram.getPercentile(0.999) / 1000.0,
+            histogram.getMaxNanos() / 1000.0);
+    }
+}
@@ -0,0 +1,362 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.performance;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.events.ItemEntityExpiryScheduler;
+import com.metaphysicsnecrosis.metaphysicsspoilage.events.SpoilageEventHandler;
+import com.metaphysicsnecrosis.metaphysicsspoilage.network.FoodContainerRateLimiter;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.ContainerSpoilageEvaluator;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.DimensionExpiryIndex;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.GlobalContainerSweeper;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageChecker;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageRulesGeneration;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageTransformer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStartedEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Локальная точка выдачи метрик порчи в текстовом формате Prometheus.
+ *
+ * Включается настройкой enableMetricsEndpoint и слушает только 127.0.0.1 на порту
+ * metricsEndpointPort (GET /metrics). Запросы обслуживает один фоновый поток JDK HttpServer.
+ * Состояние, принадлежащее серверному потоку (очереди, счетчики обработчиков тика),
+ * раз в секунду копируется в неизменяемый снимок {@link ServerGauges}, публикуемый
+ * через volatile поле; остальное (кэши, гистограммы, счетчики превращений) читается
+ * из атомарных счетчиков напрямую. Выдача метрик никогда не блокирует серверный поток.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class PrometheusExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrometheusExporter.class);
+
+    private static final String PREFIX = "metaphysicsspoilage_";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * Интервал обновления снимка в тиках
+     */
+    private static final int SNAPSHOT_INTERVAL_TICKS = 20;
+
+    private static final LongAdder SYNC_PAYLOADS = new LongAdder();
+    private static final LongAdder SYNC_BYTES = new LongAdder();
+
+    private static volatile ServerGauges gauges = ServerGauges.EMPTY;
+    private static volatile boolean running = false;
+
+    private static HttpServer httpServer;
+    private static ExecutorService executor;
+    private static int boundPort = -1;
+    private static boolean serverActive = false;
+    private static int tickCounter = 0;
+
+    /**
+     * Значения, принадлежащие серверному потоку, на момент последнего снимка
+     */
+    private record ServerGauges(
+            long tickAverageNanos,
+            double tickShare,
+            long globalQueue,
+            long pendingChunks,
+            long dueItemEntities,
+            long scheduledItemEntities,
+            long indexEntries,
+            long trackedPlayers,
+            long containersEvaluated,
+            long containersSkipped,
+            long containerSpoiledStacks,
+            long globalSweeps,
+            long globalSweepContainers,
+            long itemEntitiesFired,
+            long itemEntitiesTransformed
+    ) {
+        static final ServerGauges EMPTY = new ServerGauges(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+        static ServerGauges capture() {
+            return new ServerGauges(
+                TickCostTracker.getAverageNanos(),
+                TickCostTracker.getShareOfTick(),
+                GlobalContainerSweeper.getQueueSize(),
+                ContainerSpoilageEvaluator.getPendingChunkCount(),
+                ItemEntityExpiryScheduler.getDueCount(),
+                ItemEntityExpiryScheduler.getScheduledCount(),
+                DimensionExpiryIndex.getTotalSortedEntries() + DimensionExpiryIndex.getTotalLogEntries(),
+                SpoilageEventHandler.getTrackedPlayerCount(),
+                ContainerSpoilageEvaluator.getEvaluatedContainers(),
+                ContainerSpoilageEvaluator.getSkippedContainers(),
+                ContainerSpoilageEvaluator.getSpoiledStacks(),
+                GlobalContainerSweeper.getSweeps(),
+                GlobalContainerSweeper.getContainersProcessed(),
+                ItemEntityExpiryScheduler.getFiredTotal(),
+                ItemEntityExpiryScheduler.getTransformedTotal());
+        }
+    }
+
+    // === ЖИЗНЕННЫЙ ЦИКЛ ===
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        synchronized (PrometheusExporter.class) {
+            serverActive = true;
+            gauges = ServerGauges.capture();
+            apply(SpoilageSettings.get());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        synchronized (PrometheusExporter.class) {
+            serverActive = false;
+            stop();
+        }
+        gauges = ServerGauges.EMPTY;
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        if (running && ++tickCounter >= SNAPSHOT_INTERVAL_TICKS) {
+            tickCounter = 0;
+            gauges = ServerGauges.capture();
+        }
+    }
+
+    /**
+     * Применяет настройки после перезагрузки конфигурации (если сервер запущен)
+     */
+    public static synchronized void configure(SpoilageSettings settings) {
+        if (serverActive) {
+            apply(settings);
+        }
+    }
+
+    private static void apply(SpoilageSettings settings) {
+        if (!settings.enableMetricsEndpoint()) {
+            stop();
+            return;
+        }
+        if (running && boundPort == settings.metricsEndpointPort()) {
+            return;
+        }
+
+        stop();
+        start(settings.metricsEndpointPort());
+    }
+
+    private static void start(int port) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", PrometheusExporter::handle);
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MetaphysicsSpoilage-Metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            server.setExecutor(executor);
+            server.start();
+
+            httpServer = server;
+            boundPort = port;
+            running = true;
+            LOGGER.info("Метрики порчи доступны на http://127.0.0.1:{}/metrics", port);
+        } catch (IOException e) {
+            LOGGER.error("Не удалось открыть порт метрик {}: {}", port, e.getMessage());
+            stop();
+        }
+    }
+
+    private static void stop() {
+        running = false;
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+            LOGGER.info("Точка выдачи метрик порчи остановлена");
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        boundPort = -1;
+    }
+
+    /**
+     * Проверяет, запущена ли точка выдачи (для счетчиков, которые дорого вести постоянно)
+     */
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Учитывает отправленную синхронизацию FoodContainer
+     *
+     * @param bytes размер тела пакета или 0, если он не считался
+     */
+    public static void recordContainerSync(int bytes) {
+        SYNC_PAYLOADS.increment();
+        SYNC_BYTES.add(bytes);
+    }
+
+    // === ВЫДАЧА ===
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Ошибка при выдаче метрик порчи: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Формирует ответ в текстовом формате Prometheus
+     */
+    private static String render() {
+        StringBuilder out = new StringBuilder(8192);
+        ServerGauges snapshot = gauges;
+
+        gauge(out, "rules_generation", "Current spoilage rules generation", SpoilageRulesGeneration.current());
+        gauge(out, "tick_spoilage_seconds", "Average time per server tick spent in spoilage handlers (last 100 ticks)",
+            snapshot.tickAverageNanos() / 1.0E9);
+        gauge(out, "tick_spoilage_share_ratio", "Share of average MSPT spent in spoilage handlers", snapshot.tickShare());
+
+        // Обработка
+        SpoilageChecker.SpoilageStatistics checker = SpoilageChecker.getStatistics();
+        counter(out, "inventory_sweeps_total", "Player inventory spoilage checks", checker.getInventoryChecks());
+        counter(out, "container_checks_total", "Full container spoilage checks", checker.getContainerChecks());
+        counter(out, "container_evaluations_total", "Block containers whose contents were evaluated", snapshot.containersEvaluated());
+        counter(out, "container_evaluations_skipped_total", "Block container evaluations skipped before the due day", snapshot.containersSkipped());
+        counter(out, "container_spoiled_stacks_total", "Stacks spoiled during container evaluation", snapshot.containerSpoiledStacks());
+        counter(out, "global_sweeps_total", "Global container sweep passes", snapshot.globalSweeps());
+        counter(out, "global_sweep_containers_total", "Containers processed by global sweeps", snapshot.globalSweepContainers());
+        counter(out, "item_entities_fired_total", "Dropped food entities reaching their expiry day", snapshot.itemEntitiesFired());
+        counter(out, "item_entities_transformed_total", "Dropped food entities transformed into spoiled items", snapshot.itemEntitiesTransformed());
+
+        labeledCounters(out, "spoiled_items_total", "Spoiled items by item type", "item", checker.getSpoiledByType());
+        labeledCounters(out, "transformed_items_total", "Transformed items by original item type", "item",
+            SpoilageTransformer.getTransformationStatistics());
+
+        // Очереди и держатели
+        header(out, "queue_depth", "Entries waiting in spoilage processing queues", "gauge");
+        sample(out, "queue_depth", "queue", "global_containers", snapshot.globalQueue());
+        sample(out, "queue_depth", "queue", "pending_chunks", snapshot.pendingChunks());
+        sample(out, "queue_depth", "queue", "due_item_entities", snapshot.dueItemEntities());
+
+        header(out, "tracked_holders", "Food holders tracked by spoilage schedulers and indexes", "gauge");
+        sample(out, "tracked_holders", "type", "item_entity", snapshot.scheduledItemEntities());
+        sample(out, "tracked_holders", "type", "index_entry", snapshot.indexEntries());
+        sample(out, "tracked_holders", "type", "player", snapshot.trackedPlayers());
+
+        // Кэши
+        header(out, "cache_requests_total", "Cache lookups by result", "counter");
+        for (BoundedCache<?, ?> cache : BoundedCache.getAll()) {
+            out.append(PREFIX).append("cache_requests_total{cache=\"").append(escape(cache.getName()))
+                .append("\",result=\"hit\"} ").append(cache.getHits()).append('\n');
+            out.append(PREFIX).append("cache_requests_total{cache=\"").append(escape(cache.getName()))
+                .append("\",result=\"miss\"} ").append(cache.getMisses()).append('\n');
+        }
+        header(out, "cache_evictions_total", "Entries evicted from caches", "counter");
+        for (BoundedCache<?, ?> cache : BoundedCache.getAll()) {
+            sample(out, "cache_evictions_total", "cache", cache.getName(), cache.getEvictions());
+        }
+        header(out, "cache_rejections_total", "Candidates rejected by cache admission", "counter");
+        for (BoundedCache<?, ?> cache : BoundedCache.getAll()) {
+            sample(out, "cache_rejections_total", "cache", cache.getName(), cache.getRejections());
+        }
+        header(out, "cache_entries", "Current cache entries", "gauge");
+        for (BoundedCache<?, ?> cache : BoundedCache.getAll()) {
+            sample(out, "cache_entries", "cache", cache.getName(), cache.size());
+        }
+
+        // Сеть
+        counter(out, "container_syncs_total", "Food container sync payloads sent", SYNC_PAYLOADS.sum());
+        counter(out, "container_sync_bytes_total", "Food container sync payload bytes sent while the endpoint is running", SYNC_BYTES.sum());
+        counter(out, "container_requests_accepted_total", "Food container client requests accepted", FoodContainerRateLimiter.getAcceptedRequestCount());
+        counter(out, "container_requests_throttled_total", "Food container client requests throttled", FoodContainerRateLimiter.getThrottledRequestCount());
+
+        // Таймеры операций
+        header(out, "operation_duration_seconds", "Latency of profiled spoilage operations", "summary");
+        for (OperationTimer timer : Metrics.getTimers()) {
+            LatencyHistogram histogram = timer.getHistogram();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            String name = escape(timer.getName());
+            quantile(out, name, "0.5", histogram.getPercentile(0.50));
+            quantile(out, name, "0.99", histogram.getPercentile(0.99));
+            quantile(out, name, "0.999", histogram.getPercentile(0.999));
+            out.append(PREFIX).append("operation_duration_seconds_sum{operation=\"").append(name).append("\"} ")
+                .append(histogram.getTotalNanos() / 1.0E9).append('\n');
+            out.append(PREFIX).append("operation_duration_seconds_count{operation=\"").append(name).append("\"} ")
+                .append(histogram.getCount()).append('\n');
+        }
+
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, double value) {
+        header(out, name, help, "gauge");
+        out.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "counter");
+        out.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void labeledCounters(StringBuilder out, String name, String help, String label, Map<String, Long> values) {
+        header(out, name, help, "counter");
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            sample(out, name, label, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String labelValue, long value) {
+        out.append(PREFIX).append(name).append('{').append(label).append("=\"").append(escape(labelValue))
+            .append("\"} ").append(value).append('\n');
+    }
+
+    private static void quantile(StringBuilder out, String operation, String quantile, long nanos) {
+        out.append(PREFIX).append("operation_duration_seconds{operation=\"").append(operation)
+            .append("\",quantile=\"").append(quantile).append("\"} ").append(nanos / 1.0E9).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    // Запрещаем создание экземпляров
+    private PrometheusExporter() {}
+}
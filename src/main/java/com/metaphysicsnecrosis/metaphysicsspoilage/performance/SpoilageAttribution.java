@@ -0,0 +1,558 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.performance;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Распределение затрат на порчу по держателям еды.
+ *
+ * {@link TickCostTracker} показывает, сколько времени тика уходит на порчу, но не кто
+ * его тратит. В режиме распределения каждая обработка держателя (инвентарь игрока,
+ * блочный контейнер, предмет в мире) добавляет свое время и число просмотренных стеков
+ * к записи держателя. Записи хранят скользящее окно из {@link #BUCKETS} корзин по
+ * attributionWindowSeconds / BUCKETS секунд, поэтому топ отражает последние минуты,
+ * а не всю историю сервера. Предметы в мире группируются по типу сущности и чанку,
+ * блочные контейнеры - по позиции; отчет по чанкам складывает блоки и сущности чанка.
+ *
+ * Режим включается настройкой enableCostAttribution или командой /spoilage attribution start.
+ * Выключенный режим стоит одной проверки поля на обработку держателя.
+ * Инвентари игроков могут проверяться в рабочих потоках, поэтому записи хранятся
+ * в ConcurrentHashMap, а корзины держателя изменяются и читаются под его монитором.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class SpoilageAttribution {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageAttribution.class);
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * Значение {@link #start()} при выключенном режиме
+     */
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+
+    /**
+     * Количество корзин скользящего окна
+     */
+    private static final int BUCKETS = 12;
+
+    /**
+     * Предел числа держателей; новые держатели сверх него не учитываются до очистки устаревших
+     */
+    private static final int MAX_HOLDERS = 8192;
+
+    /**
+     * Период очистки устаревших держателей, тики
+     */
+    private static final int PRUNE_INTERVAL_TICKS = 200;
+
+    /**
+     * Размер топа по умолчанию
+     */
+    public static final int DEFAULT_TOP = 10;
+
+    /**
+     * Тип держателя
+     */
+    public enum Kind {
+        PLAYER("player"),
+        BLOCK("block"),
+        ENTITY("entity"),
+        CHUNK("chunk");
+
+        private final String name;
+
+        Kind(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Ключ держателя
+     *
+     * @param position BlockPos.asLong для блоков, ChunkPos.toLong для сущностей и чанков
+     * @param type тип блочной сущности или сущности
+     */
+    public record Holder(Kind kind, @Nullable ResourceKey<Level> dimension, long position,
+                         @Nullable UUID playerId, @Nullable ResourceLocation type) {
+
+        public String describe() {
+            String where = dimension != null ? dimension.location().toString() : "?";
+            return switch (kind) {
+                case PLAYER -> "player " + playerId;
+                case BLOCK -> {
+                    BlockPos pos = BlockPos.of(position);
+                    yield "block " + type + " " + where + " " + pos.getX() + " " + pos.getY() + " " + pos.getZ();
+                }
+                case ENTITY -> {
+                    ChunkPos chunk = new ChunkPos(position);
+                    yield "entity " + type + " " + where + " chunk " + chunk.x + " " + chunk.z;
+                }
+                case CHUNK -> {
+                    ChunkPos chunk = new ChunkPos(position);
+                    yield "chunk " + where + " " + chunk.x + " " + chunk.z;
+                }
+            };
+        }
+    }
+
+    /**
+     * Итоги держателя за окно
+     *
+     * @param label имя игрока (для остальных держателей - описание ключа)
+     */
+    public record Entry(Holder holder, String label, long nanos, long calls, long stacks, long spoiled) {
+    }
+
+    /**
+     * Накопленные затраты держателя по корзинам окна (корзины защищены монитором записи)
+     */
+    private static final class Cost {
+        private final long[] epochs = new long[BUCKETS];
+        private final long[] nanos = new long[BUCKETS];
+        private final int[] calls = new int[BUCKETS];
+        private final int[] stacks = new int[BUCKETS];
+        private final int[] spoiled = new int[BUCKETS];
+        private volatile String label;
+        private volatile long lastEpoch;
+
+        private Cost(String label, long epoch) {
+            this.label = label;
+            // Новая запись не считается устаревшей до первого добавления
+            this.lastEpoch = epoch;
+            Arrays.fill(epochs, -1L);
+        }
+
+        private synchronized void add(long epoch, long elapsedNanos, int stackCount, int spoiledCount) {
+            int index = (int) (epoch % BUCKETS);
+            if (epochs[index] != epoch) {
+                epochs[index] = epoch;
+                nanos[index] = 0;
+                calls[index] = 0;
+                stacks[index] = 0;
+                spoiled[index] = 0;
+            }
+            nanos[index] += elapsedNanos;
+            calls[index]++;
+            stacks[index] += stackCount;
+            spoiled[index] += spoiledCount;
+            lastEpoch = epoch;
+        }
+
+        private synchronized Entry total(Holder holder, long currentEpoch) {
+            long totalNanos = 0;
+            long totalCalls = 0;
+            long totalStacks = 0;
+            long totalSpoiled = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (epochs[i] > currentEpoch - BUCKETS) {
+                    totalNanos += nanos[i];
+                    totalCalls += calls[i];
+                    totalStacks += stacks[i];
+                    totalSpoiled += spoiled[i];
+                }
+            }
+            return new Entry(holder, label, totalNanos, totalCalls, totalStacks, totalSpoiled);
+        }
+    }
+
+    private static final ConcurrentHashMap<Holder, Cost> COSTS = new ConcurrentHashMap<>();
+
+    /**
+     * Число держателей в COSTS; слот резервируется до вставки, чтобы не превысить MAX_HOLDERS
+     */
+    private static final AtomicInteger HOLDER_COUNT = new AtomicInteger();
+
+    private static volatile boolean enabled = false;
+
+    /**
+     * Режим включен командой независимо от настройки
+     */
+    private static volatile boolean forcedByCommand = false;
+
+    /**
+     * Длина окна изменилась в потоке конфигурации - записи сбрасываются в серверном потоке
+     */
+    private static volatile boolean resetRequested = false;
+
+    private static volatile long bucketMillis = 60_000L / BUCKETS;
+    private static final LongAdder DROPPED_HOLDERS = new LongAdder();
+    private static volatile long startedMillis = 0;
+    private static int ticksSincePrune = 0;
+
+    // === ЗАМЕР ===
+
+    /**
+     * Начинает замер обработки держателя
+     *
+     * @return метка времени для record-методов или {@link #NOT_TIMED}
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Учитывает обработку инвентаря игрока
+     */
+    public static void recordPlayer(Player player, long startNanos, int stacks, int spoiled) {
+        if (startNanos == NOT_TIMED) {
+            return;
+        }
+        add(new Holder(Kind.PLAYER, null, 0L, player.getUUID(), null), player.getGameProfile().getName(),
+            startNanos, stacks, spoiled);
+    }
+
+    /**
+     * Учитывает оценку блочного контейнера
+     */
+    public static void recordBlock(Level level, BlockEntity blockEntity, long startNanos, int stacks, int spoiled) {
+        if (startNanos == NOT_TIMED) {
+            return;
+        }
+        add(new Holder(Kind.BLOCK, level.dimension(), blockEntity.getBlockPos().asLong(), null,
+            BuiltInRegistries.BLOCK_ENTITY_TYPE.getKey(blockEntity.getType())), null, startNanos, stacks, spoiled);
+    }
+
+    /**
+     * Учитывает обработку сущности (предмета в мире) - по типу сущности и чанку
+     */
+    public static void recordEntity(Entity entity, long startNanos, int stacks, int spoiled) {
+        if (startNanos == NOT_TIMED) {
+            return;
+        }
+        add(new Holder(Kind.ENTITY, entity.level().dimension(), entity.chunkPosition().toLong(), null,
+            BuiltInRegistries.ENTITY_TYPE.getKey(entity.getType())), null, startNanos, stacks, spoiled);
+    }
+
+    private static void add(Holder holder, @Nullable String label, long startNanos, int stacks, int spoiled) {
+        long elapsed = System.nanoTime() - startNanos;
+        long epoch = System.currentTimeMillis() / bucketMillis;
+
+        // Вставка и добавление под блокировкой записи: prune не удалит запись между ними
+        COSTS.compute(holder, (key, cost) -> {
+            if (cost == null) {
+                if (HOLDER_COUNT.incrementAndGet() > MAX_HOLDERS) {
+                    HOLDER_COUNT.decrementAndGet();
+                    DROPPED_HOLDERS.increment();
+                    return null;
+                }
+                cost = new Cost(label != null ? label : key.describe(), epoch);
+            } else if (label != null) {
+                cost.label = label;
+            }
+            cost.add(epoch, elapsed, stacks, spoiled);
+            return cost;
+        });
+    }
+
+    // === ЖИЗНЕННЫЙ ЦИКЛ ===
+
+    /**
+     * Применяет настройки enableCostAttribution и attributionWindowSeconds
+     */
+    public static void configure(SpoilageSettings settings) {
+        long newBucketMillis = Math.max(1000L, settings.attributionWindowSeconds() * 1000L / BUCKETS);
+        if (newBucketMillis != bucketMillis) {
+            bucketMillis = newBucketMillis;
+            resetRequested = true; // Номера корзин зависят от их длины
+        }
+        setEnabled(settings.enableCostAttribution() || forcedByCommand);
+    }
+
+    /**
+     * Включает режим командой (до остановки сервера или команды stop)
+     */
+    public static void startByCommand() {
+        forcedByCommand = true;
+        setEnabled(true);
+    }
+
+    /**
+     * Выключает режим, включенный командой; настройка enableCostAttribution остается в силе
+     *
+     * @return false если режим включен настройкой
+     */
+    public static boolean stopByCommand() {
+        forcedByCommand = false;
+        boolean byConfig = SpoilageSettings.get().enableCostAttribution();
+        setEnabled(byConfig);
+        return !byConfig;
+    }
+
+    private static void setEnabled(boolean value) {
+        if (value && !enabled) {
+            startedMillis = System.currentTimeMillis();
+            LOGGER.info("Распределение затрат на порчу по держателям включено (окно {} с)", bucketMillis * BUCKETS / 1000);
+        } else if (!value && enabled) {
+            LOGGER.info("Распределение затрат на порчу по держателям выключено");
+        }
+        enabled = value;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        if (resetRequested) {
+            resetRequested = false;
+            reset();
+        }
+        if (COSTS.isEmpty() || ++ticksSincePrune < PRUNE_INTERVAL_TICKS) {
+            return;
+        }
+        ticksSincePrune = 0;
+        prune(System.currentTimeMillis() / bucketMillis);
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        forcedByCommand = false;
+        enabled = SpoilageSettings.get().enableCostAttribution();
+        reset();
+    }
+
+    /**
+     * Удаляет держателей без обработок в пределах окна
+     */
+    private static void prune(long currentEpoch) {
+        for (Holder holder : COSTS.keySet()) {
+            // Проверка и удаление атомарны относительно add
+            COSTS.computeIfPresent(holder, (key, cost) -> {
+                if (cost.lastEpoch > currentEpoch - BUCKETS) {
+                    return cost;
+                }
+                HOLDER_COUNT.decrementAndGet();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Сбрасывает накопленные затраты
+     */
+    public static void reset() {
+        COSTS.clear();
+        HOLDER_COUNT.set(0);
+        DROPPED_HOLDERS.reset();
+        ticksSincePrune = 0;
+        startedMillis = enabled ? System.currentTimeMillis() : 0;
+    }
+
+    // === ОТЧЕТЫ ===
+
+    /**
+     * Держатели с наибольшим временем за окно
+     */
+    public static List<Entry> top(int limit) {
+        long currentEpoch = System.currentTimeMillis() / bucketMillis;
+        List<Entry> entries = new ArrayList<>(COSTS.size());
+        for (Map.Entry<Holder, Cost> entry : COSTS.entrySet()) {
+            Entry total = entry.getValue().total(entry.getKey(), currentEpoch);
+            if (total.calls() > 0) {
+                entries.add(total);
+            }
+        }
+        return limit(entries, limit);
+    }
+
+    /**
+     * Чанки с наибольшим временем за окно (блочные контейнеры и сущности чанка)
+     */
+    public static List<Entry> topChunks(int limit) {
+        long currentEpoch = System.currentTimeMillis() / bucketMillis;
+        Map<Holder, long[]> chunks = new HashMap<>();
+        for (Map.Entry<Holder, Cost> entry : COSTS.entrySet()) {
+            Holder holder = entry.getKey();
+            long chunk;
+            if (holder.kind() == Kind.BLOCK) {
+                chunk = ChunkPos.asLong(SectionPos.blockToSectionCoord(BlockPos.getX(holder.position())),
+                    SectionPos.blockToSectionCoord(BlockPos.getZ(holder.position())));
+            } else if (holder.kind() == Kind.ENTITY) {
+                chunk = holder.position();
+            } else {
+                continue; // Игроки перемещаются между чанками
+            }
+
+            Entry total = entry.getValue().total(holder, currentEpoch);
+            if (total.calls() == 0) {
+                continue;
+            }
+            long[] sums = chunks.computeIfAbsent(new Holder(Kind.CHUNK, holder.dimension(), chunk, null, null),
+                key -> new long[4]);
+            sums[0] += total.nanos();
+            sums[1] += total.calls();
+            sums[2] += total.stacks();
+            sums[3] += total.spoiled();
+        }
+
+        List<Entry> entries = new ArrayList<>(chunks.size());
+        chunks.forEach((holder, sums) -> entries.add(new Entry(holder, holder.describe(), sums[0], sums[1], sums[2], sums[3])));
+        return limit(entries, limit);
+    }
+
+    private static List<Entry> limit(List<Entry> entries, int limit) {
+        entries.sort(Comparator.comparingLong(Entry::nanos).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    /**
+     * Получает статистику режима
+     */
+    public static String getStatistics() {
+        if (!enabled && COSTS.isEmpty()) {
+            return "Распределение затрат - отключено";
+        }
+        return String.format("Распределение затрат - %s, Окно: %d с, Держателей: %d, Отброшено новых: %d",
+            enabled ? "включено" : "выключено (данные сохранены)", bucketMillis * BUCKETS / 1000,
+            COSTS.size(), DROPPED_HOLDERS.sum());
+    }
+
+    /**
+     * Отчет для /spoilage stats attribution: статистика, топ держателей и чанков
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder(getStatistics());
+        appendTop(report, "Держатели:", top(DEFAULT_TOP));
+        appendTop(report, "Чанки:", topChunks(DEFAULT_TOP / 2));
+        return report.toString();
+    }
+
+    /**
+     * Добавляет строки топа к отчету
+     */
+    public static void appendTop(StringBuilder report, String title, List<Entry> entries) {
+        report.append('\n').append(title);
+        if (entries.isEmpty()) {
+            report.append(" нет данных");
+            return;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            report.append(String.format("\n  %d. %s - %.3f мс, обработок: %d, стеков: %d, испорчено: %d",
+                i + 1, entry.label(), entry.nanos() / 1.0E6, entry.calls(), entry.stacks(), entry.spoiled()));
+        }
+    }
+
+    /**
+     * Строит JSON-снимок топа держателей и чанков
+     */
+    public static JsonObject toJson(int limit) {
+        JsonObject root = new JsonObject();
+        root.addProperty("enabled", enabled);
+        root.addProperty("windowSeconds", bucketMillis * BUCKETS / 1000);
+        root.addProperty("startedMillis", startedMillis);
+        root.addProperty("trackedHolders", COSTS.size());
+        root.addProperty("droppedHolders", DROPPED_HOLDERS.sum());
+        root.add("holders", toJson(top(limit)));
+        root.add("chunks", toJson(topChunks(limit)));
+        return root;
+    }
+
+    private static JsonArray toJson(List<Entry> entries) {
+        JsonArray array = new JsonArray();
+        for (Entry entry : entries) {
+            Holder holder = entry.holder();
+            JsonObject object = new JsonObject();
+            object.addProperty("kind", holder.kind().getName());
+            object.addProperty("label", entry.label());
+            if (holder.dimension() != null) {
+                object.addProperty("dimension", holder.dimension().location().toString());
+            }
+            if (holder.kind() == Kind.BLOCK) {
+                BlockPos pos = BlockPos.of(holder.position());
+                object.addProperty("x", pos.getX());
+                object.addProperty("y", pos.getY());
+                object.addProperty("z", pos.getZ());
+            } else if (holder.kind() == Kind.ENTITY || holder.kind() == Kind.CHUNK) {
+                ChunkPos chunk = new ChunkPos(holder.position());
+                object.addProperty("chunkX", chunk.x);
+                object.addProperty("chunkZ", chunk.z);
+            }
+            if (holder.playerId() != null) {
+                object.addProperty("uuid", holder.playerId().toString());
+            }
+            if (holder.type() != null) {
+                object.addProperty("type", holder.type().toString());
+            }
+            object.addProperty("nanos", entry.nanos());
+            object.addProperty("calls", entry.calls());
+            object.addProperty("stacks", entry.stacks());
+            object.addProperty("spoiled", entry.spoiled());
+            array.add(object);
+        }
+        return array;
+    }
+
+    /**
+     * Записывает JSON-снимок в каталог metaphysicsspoilage/stats сервера
+     *
+     * @return путь к файлу или null при ошибке записи
+     */
+    @Nullable
+    public static Path dumpJson(MinecraftServer server, int limit) {
+        Path directory = server.getServerDirectory().resolve("metaphysicsspoilage").resolve("stats");
+        Path file = directory.resolve("attribution-" + LocalDateTime.now().format(FILE_TIME_FORMAT) + ".json");
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(file, GSON.toJson(toJson(limit)), StandardCharsets.UTF_8);
+            LOGGER.info("Распределение затрат на порчу выгружено в {}", file);
+            return file;
+        } catch (IOException e) {
+            LOGGER.error("Не удалось записать распределение затрат на порчу в {}", file, e);
+            return null;
+        }
+    }
+
+    // Запрещаем создание экземпляров
+    private SpoilageAttribution() {}
+}
@@ -0,0 +1,300 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.performance;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.metaphysicsnecrosis.metaphysicsspoilage.events.ItemEntityExpiryScheduler;
+import com.metaphysicsnecrosis.metaphysicsspoilage.events.SpoilageEventHandler;
+import com.metaphysicsnecrosis.metaphysicsspoilage.journal.SpoilageJournal;
+import com.metaphysicsnecrosis.metaphysicsspoilage.network.FoodContainerRateLimiter;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.ContainerSpoilageEvaluator;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.DimensionExpiryIndex;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.GlobalContainerSweeper;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageChecker;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageRulesGeneration;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageStackMerging;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageStatisticsStore;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageSweepJob;
+import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageTransformer;
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
+
+/**
+ * Диагностические срезы состояния системы порчи для команды /spoilage stats.
+ *
+ * Собирает в одном месте отчеты, которые раньше попадали только в лог: время порчи
+ * в тике сервера ({@link TickCostTracker}), кэши, таймеры операций, очереди обработки,
+ * количество отслеживаемых держателей еды по типам и грубую оценку занимаемой кучи.
+ * Все методы вызываются из серверного потока.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class SpoilageDiagnostics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageDiagnostics.class);
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    // Приблизительные размеры записей в куче (заголовки объектов, узлы коллекций, ссылки)
+    private static final int SCHEDULED_ENTITY_BYTES = 96;
+    private static final int QUEUED_CONTAINER_BYTES = 32;
+    private static final int PENDING_CHUNK_BYTES = 40;
+    private static final int INDEX_LOG_ENTRY_BYTES = 24;
+    private static final int TRACKED_PLAYER_BYTES = 96;
+    private static final int TIMER_BYTES = 496 * Long.BYTES + 128;
+
+    /**
+     * Разделы отчета /spoilage stats
+     */
+    public enum Section {
+        TICK("tick", SpoilageDiagnostics::tickReport),
+        QUEUES("queues", SpoilageDiagnostics::queueReport),
+        CACHES("caches", SpoilageDiagnostics::cacheReport),
+        HOLDERS("holders", SpoilageDiagnostics::holderReport),
+        MEMORY("memory", SpoilageDiagnostics::memoryReport),
+        TIMERS("timers", SpoilageDiagnostics::timerReport),
+        CONTAINERS("containers", SpoilageDiagnostics::containerReport),
+        CHECKER("checker", SpoilageChecker::generateReport),
+        TRANSFORM("transform", SpoilageTransformer::generateTransformationReport),
+        EVENTS("events", SpoilageEventHandler::getEventHandlerStats),
+        JOURNAL("journal", SpoilageJournal::getStatistics),
+        ATTRIBUTION("attribution", SpoilageAttribution::getReport),
+        REPORT("report", PerformanceManager::generatePerformanceReport);
+
+        private final String name;
+        private final Supplier<String> renderer;
+
+        Section(String name, Supplier<String> renderer) {
+            this.name = name;
+            this.renderer = renderer;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String render() {
+            return renderer.get();
+        }
+    }
+
+    /**
+     * Краткая сводка: время тика, очереди, кэши, держатели и память
+     */
+    public static String summary() {
+        return String.join("\n", tickReport(), queueReport(), cacheReport(), holderReport(), memoryReport());
+    }
+
+    // === РАЗДЕЛЫ ===
+
+    private static String tickReport() {
+        return TickCostTracker.getStatistics();
+    }
+
+    private static String queueReport() {
+        return String.format("Очереди - Контейнеры (глобальная обработка): %d, Чанки (ленивая оценка): %d, Предметы в мире к обработке: %d, Административная обработка: %s",
+            GlobalContainerSweeper.getQueueSize(), ContainerSpoilageEvaluator.getPendingChunkCount(),
+            ItemEntityExpiryScheduler.getDueCount(), SpoilageSweepJob.isRunning() ? "выполняется" : "нет");
+    }
+
+    private static String cacheReport() {
+        StringBuilder report = new StringBuilder(String.format("Кэши (поколение правил %d):", SpoilageRulesGeneration.current()));
+        for (BoundedCache<?, ?> cache : BoundedCache.getAll()) {
+            report.append("\n  ").append(cache.getStatistics());
+        }
+        return report.toString();
+    }
+
+    private static String holderReport() {
+        return String.format("Держатели - Предметы в мире: %d, Записи индекса сроков: %d (журнал: %d), Игроки: %d",
+            ItemEntityExpiryScheduler.getScheduledCount(),
+            DimensionExpiryIndex.getTotalSortedEntries() + DimensionExpiryIndex.getTotalLogEntries(),
+            DimensionExpiryIndex.getTotalLogEntries(),
+            SpoilageEventHandler.getTrackedPlayerCount());
+    }
+
+    private static String memoryReport() {
+        return String.format("Память состояния порчи (оценка) - Кэши: %.1f КБ, Очереди и планировщики: %.1f КБ, Индексы сроков: %.1f КБ, Таймеры: %.1f КБ, Счетчики по предметам: %.1f КБ, Всего: %.1f КБ",
+            estimateCacheBytes() / 1024.0, estimateQueueBytes() / 1024.0, estimateIndexBytes() / 1024.0,
+            estimateTimerBytes() / 1024.0, SpoilageStatisticsStore.estimateHeapBytes() / 1024.0, estimateHeapBytes() / 1024.0);
+    }
+
+    private static String timerReport() {
+        StringBuilder report = new StringBuilder(Metrics.isEnabled() ? "Таймеры операций:\n" : "Таймеры операций (профилирование отключено):\n");
+        Metrics.appendReport(report);
+        return report.toString().stripTrailing();
+    }
+
+    private static String containerReport() {
+        return String.join("\n",
+            ContainerSpoilageEvaluator.getStatistics(),
+            GlobalContainerSweeper.getStatistics(),
+            DimensionExpiryIndex.getAllStatistics(),
+            SpoilageStackMerging.getStatistics(),
+            ItemEntityExpiryScheduler.getStatistics(),
+            FoodContainerRateLimiter.getStatistics());
+    }
+
+    // === ОЦЕНКА ПАМЯТИ ===
+
+    /**
+     * Грубая оценка кучи, занятой состоянием порчи (без отображенных файлов индексов)
+     */
+    public static long estimateHeapBytes() {
+        return estimateCacheBytes() + estimateQueueBytes() + estimateIndexBytes() + estimateTimerBytes()
+            + SpoilageStatisticsStore.estimateHeapBytes();
+    }
+
+    private static long estimateCacheBytes() {
+        long bytes = 0;
+        for (BoundedCache<?, ?> cache : BoundedCache.getAll()) {
+            bytes += cache.estimateHeapBytes();
+        }
+        return bytes;
+    }
+
+    private static long estimateQueueBytes() {
+        return (long) ItemEntityExpiryScheduler.getScheduledCount() * SCHEDULED_ENTITY_BYTES
+            + (long) GlobalContainerSweeper.getQueueSize() * QUEUED_CONTAINER_BYTES
+            + (long) ContainerSpoilageEvaluator.getPendingChunkCount() * PENDING_CHUNK_BYTES
+            + (long) SpoilageEventHandler.getTrackedPlayerCount() * TRACKED_PLAYER_BYTES;
+    }
+
+    private static long estimateIndexBytes() {
+        return DimensionExpiryIndex.getTotalLogEntries() * INDEX_LOG_ENTRY_BYTES;
+    }
+
+    private static long estimateTimerBytes() {
+        return (long) Metrics.getTimers().size() * TIMER_BYTES;
+    }
+
+    // === СБРОС И ВЫГРУЗКА ===
+
+    /**
+     * Сбрасывает накопленную статистику (очереди и кэшированные данные сохраняются)
+     */
+    public static void resetStatistics() {
+        PerformanceManager.resetStatistics();
+        SpoilageChecker.resetStatistics();
+        SpoilageTransformer.resetStatistics();
+        FoodContainerRateLimiter.resetStatistics();
+        TickCostTracker.reset();
+        SpoilageAttribution.reset();
+    }
+
+    /**
+     * Строит JSON-снимок статистики для сравнения вне игры
+     */
+    public static JsonObject toJson() {
+        JsonObject root = new JsonObject();
+        root.addProperty("timestamp", LocalDateTime.now().toString());
+        root.addProperty("rulesGeneration", SpoilageRulesGeneration.current());
+
+        JsonObject tick = new JsonObject();
+        tick.addProperty("averageNanos", TickCostTracker.getAverageNanos());
+        tick.addProperty("maxNanos", TickCostTracker.getMaxNanos());
+        tick.addProperty("serverTickNanos", TickCostTracker.getServerTickNanos());
+        tick.addProperty("shareOfTick", TickCostTracker.getShareOfTick());
+        tick.addProperty("ticks", TickCostTracker.getTotalTicks());
+        tick.addProperty("totalNanos", TickCostTracker.getTotalNanos());
+        root.add("tick", tick);
+
+        JsonObject queues = new JsonObject();
+        queues.addProperty("globalContainers", GlobalContainerSweeper.getQueueSize());
+        queues.addProperty("pendingChunks", ContainerSpoilageEvaluator.getPendingChunkCount());
+        queues.addProperty("dueItemEntities", ItemEntityExpiryScheduler.getDueCount());
+        queues.addProperty("sweepRunning", SpoilageSweepJob.isRunning());
+        root.add("queues", queues);
+
+        JsonObject holders = new JsonObject();
+        holders.addProperty("itemEntities", ItemEntityExpiryScheduler.getScheduledCount());
+        holders.addProperty("indexSortedEntries", DimensionExpiryIndex.getTotalSortedEntries());
+        holders.addProperty("indexLogEntries", DimensionExpiryIndex.getTotalLogEntries());
+        holders.addProperty("trackedPlayers", SpoilageEventHandler.getTrackedPlayerCount());
+        root.add("holders", holders);
+
+        JsonArray caches = new JsonArray();
+        for (BoundedCache<?, ?> cache : BoundedCache.getAll()) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("name", cache.getName());
+            entry.addProperty("size", cache.size());
+            entry.addProperty("capacity", cache.getCapacity());
+            entry.addProperty("hits", cache.getHits());
+            entry.addProperty("misses", cache.getMisses());
+            entry.addProperty("evictions", cache.getEvictions());
+            entry.addProperty("rejections", cache.getRejections());
+            entry.addProperty("hitRatio", cache.getHitRatio());
+            caches.add(entry);
+        }
+        root.add("caches", caches);
+
+        JsonArray timers = new JsonArray();
+        for (OperationTimer timer : Metrics.getTimers()) {
+            LatencyHistogram histogram = timer.getHistogram();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            JsonObject entry = new JsonObject();
+            entry.addProperty("name", timer.getName());
+            entry.addProperty("sampled", timer.isSampled());
+            entry.addProperty("count", histogram.getCount());
+            entry.addProperty("meanNanos", histogram.getMeanNanos());
+            entry.addProperty("p50Nanos", histogram.getPercentile(0.50));
+            entry.addProperty("p99Nanos", histogram.getPercentile(0.99));
+            entry.addProperty("p999Nanos", histogram.getPercentile(0.999));
+            entry.addProperty("maxNanos", histogram.getMaxNanos());
+            timers.add(entry);
+        }
+        root.add("timers", timers);
+
+        JsonObject memory = new JsonObject();
+        memory.addProperty("cacheBytes", estimateCacheBytes());
+        memory.addProperty("queueBytes", estimateQueueBytes());
+        memory.addProperty("indexBytes", estimateIndexBytes());
+        memory.addProperty("timerBytes", estimateTimerBytes());
+        memory.addProperty("statisticsBytes", SpoilageStatisticsStore.estimateHeapBytes());
+        memory.addProperty("totalBytes", estimateHeapBytes());
+        root.add("memory", memory);
+
+        root.add("attribution", SpoilageAttribution.toJson(SpoilageAttribution.DEFAULT_TOP));
+
+        return root;
+    }
+
+    /**
+     * Записывает JSON-снимок в каталог metaphysicsspoilage/stats сервера
+     *
+     * @return путь к файлу или null при ошибке записи
+     */
+    @Nullable
+    public static Path dumpJson(MinecraftServer server) {
+        Path directory = server.getServerDirectory().resolve("metaphysicsspoilage").resolve("stats");
+        Path file = directory.resolve("stats-" + LocalDateTime.now().format(FILE_TIME_FORMAT) + ".json");
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(file, GSON.toJson(toJson()), StandardCharsets.UTF_8);
+            LOGGER.info("Статистика порчи выгружена в {}", file);
+            return file;
+        } catch (IOException e) {
+            LOGGER.error("Не удалось записать статистику порчи в {}", file, e);
+            return null;
+        }
+    }
+
+    // Запрещаем создание экземпляров
+    private SpoilageDiagnostics() {}
+}
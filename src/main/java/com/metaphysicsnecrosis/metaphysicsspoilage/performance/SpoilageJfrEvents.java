@@ -0,0 +1,223 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.performance;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.StackTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * События Java Flight Recorder для работы системы порчи.
+ *
+ * Как и события Minecraft, по умолчанию выключены ({@code @Enabled(false)}) и включаются
+ * файлом настроек JFR (например, {@code <event name="metaphysicsspoilage.ContainerSweep">
+ * <setting name="enabled">true</setting></event>}) или настройкой enableJfrEvents,
+ * которая включает их во всех запущенных и будущих записях. Когда событие не записывается,
+ * shouldCommit() возвращает false и поля не заполняются.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class SpoilageJfrEvents {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageJfrEvents.class);
+
+    private static final String CATEGORY = "MetaphysicsSpoilage";
+
+    private static final List<Class<? extends Event>> EVENT_TYPES = List.of(
+        InventorySweep.class, ContainerSweep.class, ItemTransform.class,
+        RuleTableRebuild.class, ContainerSync.class, DayRollover.class
+    );
+
+    private static volatile boolean forceEnabled = false;
+    private static boolean listenerRegistered = false;
+
+    /**
+     * Проверка инвентаря игрока
+     */
+    @Name("metaphysicsspoilage.InventorySweep")
+    @Label("Inventory Sweep")
+    @Category({CATEGORY, "Sweeps"})
+    @Description("Spoilage check of a player inventory")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class InventorySweep extends Event {
+        @Label("Holder Type")
+        public String holderType;
+
+        @Label("Slot Count")
+        public int slotCount;
+
+        @Label("Spoiled Count")
+        public int spoiledCount;
+    }
+
+    /**
+     * Оценка блочного контейнера
+     */
+    @Name("metaphysicsspoilage.ContainerSweep")
+    @Label("Container Sweep")
+    @Category({CATEGORY, "Sweeps"})
+    @Description("Spoilage evaluation of a block container")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class ContainerSweep extends Event {
+        @Label("Holder Type")
+        public String holderType;
+
+        @Label("Slot Count")
+        public int slotCount;
+
+        @Label("Spoiled Count")
+        public int spoiledCount;
+
+        @Label("Forced")
+        public boolean forced;
+    }
+
+    /**
+     * Превращение испорченного стека
+     */
+    @Name("metaphysicsspoilage.ItemTransform")
+    @Label("Item Transform")
+    @Category({CATEGORY, "Transforms"})
+    @Description("Transformation of a spoiled stack into its spoiled variant")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class ItemTransform extends Event {
+        @Label("Original Item")
+        public String originalItem;
+
+        @Label("Spoiled Item")
+        public String spoiledItem;
+
+        @Label("Count")
+        public int count;
+    }
+
+    /**
+     * Пересборка таблицы, зависящей от правил порчи
+     */
+    @Name("metaphysicsspoilage.RuleTableRebuild")
+    @Label("Rule Table Rebuild")
+    @Category({CATEGORY, "Rules"})
+    @Description("Rebuild of a table derived from spoilage rules")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class RuleTableRebuild extends Event {
+        @Label("Table")
+        public String table;
+
+        @Label("Entry Count")
+        public int entryCount;
+
+        @Label("Rules Generation")
+        public int generation;
+    }
+
+    /**
+     * Синхронизация содержимого FoodContainer с клиентом
+     */
+    @Name("metaphysicsspoilage.ContainerSync")
+    @Label("Container Sync")
+    @Category({CATEGORY, "Network"})
+    @Description("Food container contents sent to a client")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class ContainerSync extends Event {
+        @Label("Holder Type")
+        public String holderType;
+
+        @Label("Entry Count")
+        public int entryCount;
+
+        @Label("Bytes Sent")
+        @DataAmount
+        public int bytesSent;
+    }
+
+    /**
+     * Смена игрового дня в измерении
+     */
+    @Name("metaphysicsspoilage.DayRollover")
+    @Label("Day Rollover")
+    @Category({CATEGORY, "Time"})
+    @Description("Spoilage day change observed in a dimension")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class DayRollover extends Event {
+        @Label("Dimension")
+        public String dimension;
+
+        @Label("Previous Day")
+        public long previousDay;
+
+        @Label("New Day")
+        public long newDay;
+    }
+
+    /**
+     * Применяет настройку enableJfrEvents (при загрузке конфигурации)
+     */
+    public static synchronized void configure(boolean enabled) {
+        forceEnabled = enabled;
+        if (!enabled) {
+            return; // Уже включенные в записях события остаются до конца записи
+        }
+
+        try {
+            if (!FlightRecorder.isAvailable()) {
+                LOGGER.warn("Java Flight Recorder недоступен, события порчи не будут записаны");
+                return;
+            }
+
+            if (!listenerRegistered) {
+                for (Class<? extends Event> type : EVENT_TYPES) {
+                    FlightRecorder.register(type);
+                }
+                FlightRecorder.addListener(new FlightRecorderListener() {
+                    @Override
+                    public void recordingStateChanged(Recording recording) {
+                        if (forceEnabled && recording.getState() == RecordingState.RUNNING) {
+                            enableIn(recording);
+                        }
+                    }
+                });
+                listenerRegistered = true;
+            }
+
+            // Не инициализируем JFR сами - только дополняем уже запущенные записи
+            if (FlightRecorder.isInitialized()) {
+                for (Recording recording : FlightRecorder.getFlightRecorder().getRecordings()) {
+                    if (recording.getState() == RecordingState.RUNNING) {
+                        enableIn(recording);
+                    }
+                }
+            }
+        } catch (Exception | LinkageError e) {
+            LOGGER.error("Не удалось включить события JFR системы порчи", e);
+        }
+    }
+
+    private static void enableIn(Recording recording) {
+        for (Class<? extends Event> type : EVENT_TYPES) {
+            recording.enable(type);
+        }
+        LOGGER.debug("События порчи включены в записи JFR {}", recording.getName());
+    }
+
+    // Запрещаем создание экземпляров
+    private SpoilageJfrEvents() {}
+}
@@ -0,0 +1,151 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.performance;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.Arrays;
+
+/**
+ * Доля времени тика сервера, потраченная обработчиками порчи.
+ *
+ * Тиковые обработчики мода оборачивают свою работу в {@link #start()}/{@link #stop(long)};
+ * в конце тика (самый низкий приоритет ServerTickEvent.Post) накопленное время
+ * записывается в кольцо за последние {@link #WINDOW} тиков - то же окно, по которому
+ * сервер считает средний MSPT. Замер включен всегда: это два вызова System.nanoTime
+ * на обработчик за тик. Доступ только из серверного потока.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class TickCostTracker {
+
+    /**
+     * Размер окна в тиках (как у среднего MSPT сервера)
+     */
+    private static final int WINDOW = 100;
+
+    private static final long[] SAMPLES = new long[WINDOW];
+    private static int sampleIndex = 0;
+    private static int sampleCount = 0;
+
+    private static long currentTickNanos = 0;
+    private static long maxTickNanos = 0;
+    private static long totalNanos = 0;
+    private static long totalTicks = 0;
+
+    /**
+     * Средний MSPT сервера на момент последнего тика
+     */
+    private static long serverTickNanos = 0;
+
+    /**
+     * Начинает замер работы обработчика
+     *
+     * @return метка времени для {@link #stop(long)}
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Добавляет время обработчика к текущему тику
+     */
+    public static void stop(long startNanos) {
+        currentTickNanos += System.nanoTime() - startNanos;
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onServerTickEnd(ServerTickEvent.Post event) {
+        long nanos = currentTickNanos;
+        currentTickNanos = 0;
+
+        SAMPLES[sampleIndex] = nanos;
+        sampleIndex = (sampleIndex + 1) % WINDOW;
+        sampleCount = Math.min(sampleCount + 1, WINDOW);
+
+        maxTickNanos = Math.max(maxTickNanos, nanos);
+        totalNanos += nanos;
+        totalTicks++;
+
+        serverTickNanos = event.getServer().getAverageTickTimeNanos();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        reset();
+    }
+
+    /**
+     * Среднее время обработчиков порчи за окно, нс
+     */
+    public static long getAverageNanos() {
+        if (sampleCount == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < sampleCount; i++) {
+            sum += SAMPLES[i];
+        }
+        return sum / sampleCount;
+    }
+
+    /**
+     * Максимальное время обработчиков порчи за тик с последнего сброса, нс
+     */
+    public static long getMaxNanos() {
+        return maxTickNanos;
+    }
+
+    /**
+     * Средний MSPT сервера, нс
+     */
+    public static long getServerTickNanos() {
+        return serverTickNanos;
+    }
+
+    /**
+     * Доля среднего MSPT, приходящаяся на порчу (0.0 - 1.0)
+     */
+    public static double getShareOfTick() {
+        return serverTickNanos > 0 ? (double) getAverageNanos() / serverTickNanos : 0.0;
+    }
+
+    /**
+     * Получает статистику времени тика
+     */
+    public static String getStatistics() {
+        return String.format("Порча за тик - Среднее: %.3f мс, Максимум: %.3f мс, MSPT сервера: %.2f мс, Доля: %.2f%%, Тиков: %d, Всего: %.1f мс",
+            getAverageNanos() / 1.0E6, maxTickNanos / 1.0E6, serverTickNanos / 1.0E6,
+            getShareOfTick() * 100, totalTicks, totalNanos / 1.0E6);
+    }
+
+    public static long getTotalTicks() {
+        return totalTicks;
+    }
+
+    public static long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Сбрасывает окно и накопленную статистику
+     */
+    public static void reset() {
+        Arrays.fill(SAMPLES, 0);
+        sampleIndex = 0;
+        sampleCount = 0;
+        currentTickNanos = 0;
+        maxTickNanos = 0;
+        totalNanos = 0;
+        totalTicks = 0;
+    }
+
+    // Запрещаем создание экземпляров
+    private TickCostTracker() {}
+}
@@ -0,0 +1,210 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Индекс контейнеров с едой в чанке (data attachment на LevelChunk).
+ *
+ * Хранит для каждого блочного контейнера с портящейся едой ближайший день порчи
+ * и минимум по чанку. Глобальная обработка контейнеров заходит только в чанки,
+ * минимум которых уже наступил, и оценивает только просроченные позиции.
+ * Сохраняется вместе с чанком.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class ChunkSpoilageIndex {
+
+    /**
+     * Содержимое контейнера изменилось и еще не оценено - позиция считается просроченной
+     */
+    public static final long DIRTY = 0L;
+
+    public static final MapCodec<ChunkSpoilageIndex> MAP_CODEC = RecordCodecBuilder.mapCodec(instance -> instance.group(
+            Codec.LONG.listOf().fieldOf("positions").forGetter(ChunkSpoilageIndex::getPositions),
+            Codec.LONG.listOf().fieldOf("expiry_days").forGetter(ChunkSpoilageIndex::getExpiryDays)
+    ).apply(instance, ChunkSpoilageIndex::new));
+
+    /**
+     * Упакованная позиция блока -> ближайший день порчи
+     */
+    private final Long2LongOpenHashMap expiries = new Long2LongOpenHashMap();
+
+    private long minExpiryDay = ContainerSpoilageState.NO_EXPIRY;
+    private boolean minStale = false;
+
+    public ChunkSpoilageIndex() {
+    }
+
+    private ChunkSpoilageIndex(List<Long> positions, List<Long> expiryDays) {
+        int size = Math.min(positions.size(), expiryDays.size());
+        for (int i = 0; i < size; i++) {
+            expiries.put(positions.get(i).longValue(), expiryDays.get(i).longValue());
+        }
+        minStale = true;
+    }
+
+    /**
+     * Записывает ближайший день порчи контейнера
+     *
+     * @return true если индекс изменился
+     */
+    public boolean put(BlockPos pos, long expiryDay) {
+        if (expiryDay == ContainerSpoilageState.NO_EXPIRY || expiryDay == ContainerSpoilageState.UNKNOWN) {
+            return remove(pos);
+        }
+
+        long key = pos.asLong();
+        if (expiries.containsKey(key) && expiries.get(key) == expiryDay) {
+            return false;
+        }
+
+        long previous = expiries.put(key, expiryDay);
+        if (expiryDay < minExpiryDay) {
+            minExpiryDay = expiryDay;
+        } else if (previous == minExpiryDay) {
+            minStale = true;
+        }
+        return true;
+    }
+
+    /**
+     * Удаляет контейнер из индекса
+     *
+     * @return true если контейнер был в индексе
+     */
+    public boolean remove(BlockPos pos) {
+        long key = pos.asLong();
+        if (!expiries.containsKey(key)) {
+            return false;
+        }
+
+        long previous = expiries.remove(key);
+        if (previous == minExpiryDay) {
+            minStale = true;
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет, есть ли контейнер в индексе
+     */
+    public boolean contains(BlockPos pos) {
+        return expiries.containsKey(pos.asLong());
+    }
+
+    /**
+     * Ближайший день порчи среди контейнеров чанка
+     */
+    public long getMinExpiryDay() {
+        if (minStale) {
+            long min = ContainerSpoilageState.NO_EXPIRY;
+            for (Long2LongMap.Entry entry : expiries.long2LongEntrySet()) {
+                min = Math.min(min, entry.getLongValue());
+            }
+            minExpiryDay = min;
+            minStale = false;
+        }
+        return minExpiryDay;
+    }
+
+    /**
+     * Количество контейнеров с портящейся едой в чанке
+     */
+    public int getFoodContainerCount() {
+        return expiries.size();
+    }
+
+    /**
+     * Проверяет, есть ли в чанке контейнеры с наступившим днем порчи
+     */
+    public boolean hasDue(long currentDay) {
+        return !expiries.isEmpty() && getMinExpiryDay() <= currentDay;
+    }
+
+    /**
+     * Собирает позиции контейнеров с наступившим днем порчи
+     */
+    public LongList collectDue(long currentDay) {
+        LongList due = new LongArrayList();
+        for (Long2LongMap.Entry entry : expiries.long2LongEntrySet()) {
+            if (entry.getLongValue() <= currentDay) {
+                due.add(entry.getLongKey());
+            }
+        }
+        return due;
+    }
+
+    private List<Long> getPositions() {
+        return new ArrayList<>(expiries.keySet());
+    }
+
+    private List<Long> getExpiryDays() {
+        List<Long> days = new ArrayList<>(expiries.size());
+        for (long position : expiries.keySet()) {
+            days.add(expiries.get(position));
+        }
+        return days;
+    }
+
+    // === ДОСТУП ЧЕРЕЗ ЧАНК ===
+
+    /**
+     * Записывает день порчи контейнера в индекс его чанка
+     */
+    public static void record(ServerLevel level, BlockPos pos, long expiryDay) {
+        if (!level.isLoaded(pos)) {
+            return;
+        }
+
+        LevelChunk chunk = level.getChunkAt(pos);
+        boolean changed;
+        if (chunk.hasData(MetaphysicsSpoilage.CHUNK_SPOILAGE_INDEX)) {
+            changed = chunk.getData(MetaphysicsSpoilage.CHUNK_SPOILAGE_INDEX).put(pos, expiryDay);
+        } else if (expiryDay != ContainerSpoilageState.NO_EXPIRY && expiryDay != ContainerSpoilageState.UNKNOWN) {
+            changed = chunk.getData(MetaphysicsSpoilage.CHUNK_SPOILAGE_INDEX).put(pos, expiryDay);
+        } else {
+            changed = false; // Нечего удалять - не создаем пустой индекс
+        }
+
+        if (changed) {
+            chunk.markUnsaved();
+            DimensionExpiryIndex.recordBlock(level, pos, expiryDay == ContainerSpoilageState.UNKNOWN
+                ? ContainerSpoilageState.NO_EXPIRY : expiryDay);
+        }
+    }
+
+    /**
+     * Помечает контейнер как измененный (требует оценки при следующем проходе)
+     */
+    public static void markDirty(ServerLevel level, BlockPos pos) {
+        record(level, pos, DIRTY);
+    }
+
+    /**
+     * Проверяет, есть ли контейнер в индексе своего чанка
+     */
+    public static boolean isIndexed(ServerLevel level, BlockPos pos) {
+        if (!level.isLoaded(pos)) {
+            return false;
+        }
+
+        LevelChunk chunk = level.getChunkAt(pos);
+        return chunk.hasData(MetaphysicsSpoilage.CHUNK_SPOILAGE_INDEX)
+            && chunk.getData(MetaphysicsSpoilage.CHUNK_SPOILAGE_INDEX).contains(pos);
+    }
+}
@@ -0,0 +1,470 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.items.FoodContainer;
+import com.metaphysicsnecrosis.metaphysicsspoilage.journal.SpoilageJournal;
+import com.metaphysicsnecrosis.metaphysicsspoilage.mixin.CompoundContainerAccessor;
+import com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageAttribution;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.TickCostTracker;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageJfrEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.CompoundContainer;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import net.neoforged.neoforge.items.IItemHandler;
+import net.neoforged.neoforge.items.IItemHandlerModifiable;
+import it.unimi.dsi.fastutil.longs.LongList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Ленивая обработка порчи в блочных контейнерах.
+ *
+ * Содержимое контейнера просматривается за один проход только при обращении к нему:
+ * открытие меню, извлечение воронкой (в том числе через IItemHandler) и загрузка чанка.
+ * Результат оценки сохраняется в {@link ContainerSpoilageState} на BlockEntity
+ * и в {@link ChunkSpoilageIndex} чанка, и до наступления ближайшего дня порчи
+ * контейнер пропускается без просмотра слотов. Состояние прикрепляется к контейнеру
+ * при первой оценке и сохраняется вместе с BlockEntity только при наличии еды с меткой срока.
+ * Изменение содержимого любого контейнера помечает его позицию в индексе чанка,
+ * поэтому еда, положенная воронкой или трубой в еще не оценивавшийся контейнер, будет найдена.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class ContainerSpoilageEvaluator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContainerSpoilageEvaluator.class);
+
+    /**
+     * Максимум загруженных чанков, обрабатываемых за один тик измерения
+     */
+    private static final int MAX_CHUNKS_PER_TICK = 8;
+
+    /**
+     * Загруженные чанки, ожидающие оценки контейнеров (по измерениям)
+     */
+    private static final Map<ResourceKey<Level>, Queue<ChunkPos>> PENDING_CHUNKS = new ConcurrentHashMap<>();
+
+    private static long evaluatedContainers = 0;
+    private static long skippedContainers = 0;
+    private static long spoiledStacks = 0;
+
+    /**
+     * Оценивает контейнер по позиции блока (извлечение воронкой).
+     * Поиск IItemHandler выполняется только при первой оценке: после нее у контейнера
+     * есть состояние, и до изменения содержимого или дня порчи он пропускается.
+     */
+    public static void evaluate(ServerLevel level, BlockPos pos) {
+        if (!level.isLoaded(pos)) {
+            return;
+        }
+
+        BlockEntity blockEntity = level.getBlockEntity(pos);
+        if (blockEntity != null) {
+            evaluate(level, blockEntity);
+        }
+    }
+
+    /**
+     * Оценивает контейнер из меню (открытие игроком).
+     * Инвентарь игрока пропускается - он проверяется отдельно.
+     */
+    public static void evaluate(ServerLevel level, Container container) {
+        if (container instanceof Inventory) {
+            return;
+        }
+
+        if (container instanceof BlockEntity blockEntity) {
+            evaluate(level, blockEntity);
+        } else if (container instanceof CompoundContainer compound) {
+            // Двойной сундук - две половины со своим состоянием
+            CompoundContainerAccessor accessor = (CompoundContainerAccessor) compound;
+            evaluate(level, accessor.metaphysicsspoilage$getFirst());
+            evaluate(level, accessor.metaphysicsspoilage$getSecond());
+        } else if (SpoilageSettings.get().enableSpoilageSystem()) {
+            // Контейнер без BlockEntity - хранить состояние негде, проверяем полностью
+            SpoilageChecker.checkContainerForSpoilage(container, level);
+        }
+    }
+
+    /**
+     * Оценивает блочный контейнер, если наступил его ближайший день порчи
+     *
+     * @return true если содержимое просматривалось
+     */
+    public static boolean evaluate(ServerLevel level, BlockEntity blockEntity) {
+        return evaluate(level, blockEntity, false);
+    }
+
+    /**
+     * Оценивает блочный контейнер
+     *
+     * @param force просмотреть содержимое независимо от сохраненного срока, включая
+     *              FoodContainer внутри, и пересчитать сохраненные дни порчи стеков
+     *              (административная обработка после изменения настроек)
+     * @return true если содержимое просматривалось
+     */
+    public static boolean evaluate(ServerLevel level, BlockEntity blockEntity, boolean force) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
+            return false;
+        }
+
+        long currentDay = WorldDayTracker.getInstance(level).getCurrentDay();
+        // Состояние есть только у уже оценивавшихся контейнеров
+        ContainerSpoilageState state = blockEntity.hasData(MetaphysicsSpoilage.CONTAINER_SPOILAGE_STATE)
+            ? blockEntity.getData(MetaphysicsSpoilage.CONTAINER_SPOILAGE_STATE)
+            : null;
+        if (!force && state != null && !state.needsEvaluation(currentDay)) {
+            skippedContainers++;
+            return false;
+        }
+
+        Container container = blockEntity instanceof Container direct ? direct : null;
+        IItemHandlerModifiable handler = null;
+        if (container == null) {
+            IItemHandler capability = level.getCapability(Capabilities.ItemHandler.BLOCK,
+                blockEntity.getBlockPos(), blockEntity.getBlockState(), blockEntity, null);
+            if (!(capability instanceof IItemHandlerModifiable modifiable)) {
+                return false;
+            }
+            handler = modifiable;
+        }
+
+
+        SpoilageJfrEvents.ContainerSweep sweepEvent = new SpoilageJfrEvents.ContainerSweep();
+        sweepEvent.begin();
+        long attributionStart = SpoilageAttribution.start();
+        long spoiledBefore = spoiledStacks;
+
+        long earliestExpiry;
+        try {
+            earliestExpiry = container != null
+                ? evaluateContainer(container, level, blockEntity.getBlockPos(), currentDay, force)
+                : evaluateHandler(handler, level, blockEntity.getBlockPos(), currentDay, force);
+        } catch (Exception e) {
+            LOGGER.error("Ошибка при оценке порчи контейнера {} в {}",
+                blockEntity.getClass().getSimpleName(), blockEntity.getBlockPos(), e);
+            return false;
+        }
+
+        // Изменения слотов уже сбросили состояние через setChanged - записываем итог последним.
+        // Состояние без еды с меткой срока не сохраняется, поэтому чанк помечается только
+        // если сохраняемые данные могли измениться.
+        boolean hadFood = state != null && state.hasFood();
+        if (state == null) {
+            state = blockEntity.getData(MetaphysicsSpoilage.CONTAINER_SPOILAGE_STATE);
+        }
+        state.update(currentDay, earliestExpiry);
+        if (hadFood || state.hasFood()) {
+            level.blockEntityChanged(blockEntity.getBlockPos());
+        }
+        ChunkSpoilageIndex.record(level, blockEntity.getBlockPos(), earliestExpiry);
+        evaluatedContainers++;
+
+        int slotCount = container != null ? container.getContainerSize() : handler.getSlots();
+        SpoilageAttribution.recordBlock(level, blockEntity, attributionStart, slotCount, (int) (spoiledStacks - spoiledBefore));
+
+        sweepEvent.end();
+        if (sweepEvent.shouldCommit()) {
+            sweepEvent.holderType = String.valueOf(BuiltInRegistries.BLOCK_ENTITY_TYPE.getKey(blockEntity.getType()));
+            sweepEvent.slotCount = slotCount;
+            sweepEvent.spoiledCount = (int) (spoiledStacks - spoiledBefore);
+            sweepEvent.forced = force;
+            sweepEvent.commit();
+        }
+        return true;
+    }
+
+    /**
+     * Вызывается из BlockEntity.setChanged: сбрасывает состояние контейнера
+     * и помечает его позицию в индексе чанка как требующую оценки.
+     * Неоценивавшиеся блочные сущности попадают в индекс, только если хранят предметы,
+     * иначе еду, положенную в пустой контейнер воронкой или трубой, не нашел бы ни один проход.
+     */
+    public static void onContentsChanged(BlockEntity blockEntity) {
+        boolean tracked = blockEntity.hasData(MetaphysicsSpoilage.CONTAINER_SPOILAGE_STATE);
+        if (tracked) {
+            blockEntity.getData(MetaphysicsSpoilage.CONTAINER_SPOILAGE_STATE).invalidate();
+        }
+
+        if (blockEntity.getLevel() instanceof ServerLevel serverLevel && serverLevel.getServer().isSameThread()) {
+            BlockPos pos = blockEntity.getBlockPos();
+            if (tracked || ChunkSpoilageIndex.isIndexed(serverLevel, pos) || isItemContainer(serverLevel, blockEntity)) {
+                ChunkSpoilageIndex.markDirty(serverLevel, pos);
+            }
+        }
+    }
+
+    /**
+     * Проверяет, хранит ли блочная сущность предметы (Container или IItemHandler)
+     */
+    private static boolean isItemContainer(ServerLevel level, BlockEntity blockEntity) {
+        return blockEntity instanceof Container
+            || level.getCapability(Capabilities.ItemHandler.BLOCK, blockEntity.getBlockPos(),
+                blockEntity.getBlockState(), blockEntity, null) != null;
+    }
+
+    private static long evaluateContainer(Container container, ServerLevel level, BlockPos pos, long currentDay,
+                                          boolean force) {
+        long earliestExpiry = ContainerSpoilageState.NO_EXPIRY;
+
+        for (int slot = 0; slot < container.getContainerSize(); slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (force && stack.getItem() instanceof FoodContainer) {
+                FoodContainer.checkAndRemoveSpoiledFood(stack, level);
+                container.setItem(slot, stack);
+                continue;
+            }
+            if (force && SpoilageUtils.restampExpiry(stack)) {
+                container.setItem(slot, stack);
+            }
+
+            long expiryDay = SpoilageUtils.getExpiryDay(stack);
+            if (expiryDay < 0) {
+                continue;
+            }
+
+            if (expiryDay <= currentDay) {
+                ItemStack processed = SpoilageChecker.processSpoilage(stack, level);
+                if (!ItemStack.matches(stack, processed)) {
+                    container.setItem(slot, processed);
+                    spoiledStacks++;
+                    SpoilageJournal.recordBlock(level, pos, stack, processed, currentDay);
+                }
+                expiryDay = nextExpiry(processed, currentDay);
+            }
+
+            earliestExpiry = Math.min(earliestExpiry, expiryDay);
+        }
+
+        return earliestExpiry;
+    }
+
+    private static long evaluateHandler(IItemHandlerModifiable handler, ServerLevel level, BlockPos pos, long currentDay,
+                                        boolean force) {
+        long earliestExpiry = ContainerSpoilageState.NO_EXPIRY;
+
+        for (int slot = 0; slot < handler.getSlots(); slot++) {
+            ItemStack stack = handler.getStackInSlot(slot);
+            if (force && stack.getItem() instanceof FoodContainer) {
+                FoodContainer.checkAndRemoveSpoiledFood(stack, level);
+                handler.setStackInSlot(slot, stack);
+                continue;
+            }
+            if (force && SpoilageUtils.restampExpiry(stack)) {
+                handler.setStackInSlot(slot, stack);
+            }
+
+            long expiryDay = SpoilageUtils.getExpiryDay(stack);
+            if (expiryDay < 0) {
+                continue;
+            }
+
+            if (expiryDay <= currentDay) {
+                ItemStack processed = SpoilageChecker.processSpoilage(stack, level);
+                if (!ItemStack.matches(stack, processed)) {
+                    handler.setStackInSlot(slot, processed);
+                    spoiledStacks++;
+                    SpoilageJournal.recordBlock(level, pos, stack, processed, currentDay);
+                }
+                expiryDay = nextExpiry(processed, currentDay);
+            }
+
+            earliestExpiry = Math.min(earliestExpiry, expiryDay);
+        }
+
+        return earliestExpiry;
+    }
+
+    /**
+     * Срок стека после обработки. Если стек остался просроченным (превращение отключено),
+     * повторная попытка откладывается на следующий день.
+     */
+    private static long nextExpiry(ItemStack processed, long currentDay) {
+        long expiryDay = SpoilageUtils.getExpiryDay(processed);
+        if (expiryDay < 0) {
+            return ContainerSpoilageState.NO_EXPIRY;
+        }
+        return Math.max(expiryDay, currentDay + 1);
+    }
+
+    /**
+     * Ставит загруженный чанк в очередь оценки контейнеров
+     */
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (!(event.getLevel() instanceof ServerLevel serverLevel)) {
+            return;
+        }
+
+        if (!(event.getChunk() instanceof LevelChunk chunk) || chunk.getBlockEntities().isEmpty()) {
+            return;
+        }
+
+        if (!SpoilageSettings.get().enableGlobalContainerProcessing()) {
+            return;
+        }
+
+        PENDING_CHUNKS.computeIfAbsent(serverLevel.dimension(), key -> new ConcurrentLinkedQueue<>())
+            .add(chunk.getPos());
+    }
+
+    /**
+     * Обрабатывает очередь загруженных чанков в пределах бюджета тика
+     */
+    @SubscribeEvent
+    public static void onLevelTick(LevelTickEvent.Post event) {
+        long tickStart = TickCostTracker.start();
+        try {
+            if (!(event.getLevel() instanceof ServerLevel serverLevel)) {
+                return;
+            }
+
+            Queue<ChunkPos> pending = PENDING_CHUNKS.get(serverLevel.dimension());
+            if (pending == null || pending.isEmpty()) {
+                return;
+            }
+
+            for (int processed = 0; processed < MAX_CHUNKS_PER_TICK; processed++) {
+                ChunkPos chunkPos = pending.poll();
+                if (chunkPos == null) {
+                    break;
+                }
+
+                LevelChunk chunk = serverLevel.getChunkSource().getChunkNow(chunkPos.x, chunkPos.z);
+                if (chunk == null) {
+                    continue; // Чанк уже выгружен
+                }
+
+                evaluateChunk(serverLevel, chunk);
+            }
+        } finally {
+            TickCostTracker.stop(tickStart);
+        }
+    }
+
+    /**
+     * Оценивает контейнеры загруженного чанка. Если у чанка уже есть индекс,
+     * просматриваются просроченные позиции и контейнеры, которых нет ни в индексе,
+     * ни среди оценивавшихся (например, наполненные до появления индекса),
+     * иначе все блочные сущности (индекс строится заново).
+     */
+    private static void evaluateChunk(ServerLevel level, LevelChunk chunk) {
+        if (!chunk.hasData(MetaphysicsSpoilage.CHUNK_SPOILAGE_INDEX)) {
+            for (BlockEntity blockEntity : new ArrayList<>(chunk.getBlockEntities().values())) {
+                evaluate(level, blockEntity);
+            }
+            // Пустой индекс отмечает чанк как просмотренный, чтобы не сканировать его при каждой загрузке
+            chunk.getData(MetaphysicsSpoilage.CHUNK_SPOILAGE_INDEX);
+            chunk.markUnsaved();
+            return;
+        }
+
+        long currentDay = WorldDayTracker.getInstance(level).getCurrentDay();
+        ChunkSpoilageIndex index = chunk.getData(MetaphysicsSpoilage.CHUNK_SPOILAGE_INDEX);
+        if (index.hasDue(currentDay)) {
+            LongList due = index.collectDue(currentDay);
+            for (int i = 0; i < due.size(); i++) {
+                evaluateIndexed(level, BlockPos.of(due.getLong(i)));
+            }
+        }
+
+        for (BlockEntity blockEntity : new ArrayList<>(chunk.getBlockEntities().values())) {
+            if (!blockEntity.isRemoved()
+                && !blockEntity.hasData(MetaphysicsSpoilage.CONTAINER_SPOILAGE_STATE)
+                && !index.contains(blockEntity.getBlockPos())) {
+                evaluate(level, blockEntity);
+            }
+        }
+    }
+
+    /**
+     * Оценивает контейнер из индекса чанка и приводит запись индекса в соответствие с его состоянием
+     */
+    static void evaluateIndexed(ServerLevel level, BlockPos pos) {
+        BlockEntity blockEntity = level.getBlockEntity(pos);
+        if (blockEntity == null) {
+            ChunkSpoilageIndex.record(level, pos, ContainerSpoilageState.NO_EXPIRY);
+            return;
+        }
+
+        if (!evaluate(level, blockEntity)) {
+            long expiryDay = blockEntity.hasData(MetaphysicsSpoilage.CONTAINER_SPOILAGE_STATE)
+                ? blockEntity.getData(MetaphysicsSpoilage.CONTAINER_SPOILAGE_STATE).getEarliestExpiryDay()
+                : ContainerSpoilageState.NO_EXPIRY;
+            ChunkSpoilageIndex.record(level, pos, expiryDay);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            PENDING_CHUNKS.remove(serverLevel.dimension());
+        }
+    }
+
+    /**
+     * Получает статистику ленивой обработки контейнеров
+     */
+    public static String getStatistics() {
+        return String.format("Контейнеры - Оценено: %d, Пропущено до срока: %d, Испорчено стеков: %d, Чанков в очереди: %d",
+            evaluatedContainers, skippedContainers, spoiledStacks, getPendingChunkCount());
+    }
+
+    public static long getEvaluatedContainers() {
+        return evaluatedContainers;
+    }
+
+    public static long getSkippedContainers() {
+        return skippedContainers;
+    }
+
+    public static long getSpoiledStacks() {
+        return spoiledStacks;
+    }
+
+    /**
+     * Количество загруженных чанков, ожидающих оценки контейнеров
+     */
+    public static int getPendingChunkCount() {
+        return PENDING_CHUNKS.values().stream().mapToInt(Queue::size).sum();
+    }
+
+    /**
+     * Сбрасывает статистику и очередь чанков
+     */
+    public static void reset() {
+        PENDING_CHUNKS.clear();
+        evaluatedContainers = 0;
+        skippedContainers = 0;
+        spoiledStacks = 0;
+    }
+
+    // Запрещаем создание экземпляров
+    private ContainerSpoilageEvaluator() {}
+}
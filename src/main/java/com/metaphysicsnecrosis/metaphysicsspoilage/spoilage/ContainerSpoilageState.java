@@ -0,0 +1,86 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+/**
+ * Состояние порчи блочного контейнера (data attachment на BlockEntity).
+ *
+ * Хранит день последней оценки содержимого и ближайший день порчи среди
+ * лежащих в нем предметов. Пока ближайший день не наступил, контейнер
+ * не просматривается. Любое изменение содержимого (BlockEntity.setChanged)
+ * сбрасывает состояние, и следующий доступ оценивает контейнер заново.
+ * Прикрепляется только к контейнерам, в которых при оценке нашлась еда с меткой срока.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class ContainerSpoilageState {
+
+    /**
+     * Контейнер еще не оценивался или его содержимое изменилось
+     */
+    public static final long UNKNOWN = -1L;
+
+    /**
+     * В контейнере нет портящихся предметов
+     */
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    public static final MapCodec<ContainerSpoilageState> MAP_CODEC = RecordCodecBuilder.mapCodec(instance -> instance.group(
+            Codec.LONG.fieldOf("last_evaluated_day").forGetter(ContainerSpoilageState::getLastEvaluatedDay),
+            Codec.LONG.fieldOf("earliest_expiry_day").forGetter(ContainerSpoilageState::getEarliestExpiryDay)
+    ).apply(instance, ContainerSpoilageState::new));
+
+    private long lastEvaluatedDay;
+    private long earliestExpiryDay;
+
+    public ContainerSpoilageState() {
+        this(UNKNOWN, UNKNOWN);
+    }
+
+    public ContainerSpoilageState(long lastEvaluatedDay, long earliestExpiryDay) {
+        this.lastEvaluatedDay = lastEvaluatedDay;
+        this.earliestExpiryDay = earliestExpiryDay;
+    }
+
+    /**
+     * Проверяет, нужно ли просматривать содержимое контейнера в указанный день
+     */
+    public boolean needsEvaluation(long currentDay) {
+        return earliestExpiryDay == UNKNOWN || currentDay >= earliestExpiryDay;
+    }
+
+    /**
+     * Запоминает результат оценки
+     */
+    public void update(long currentDay, long earliestExpiryDay) {
+        this.lastEvaluatedDay = currentDay;
+        this.earliestExpiryDay = earliestExpiryDay;
+    }
+
+    /**
+     * Сбрасывает состояние после изменения содержимого
+     */
+    public void invalidate() {
+        this.earliestExpiryDay = UNKNOWN;
+    }
+
+    /**
+     * Проверяет, может ли в контейнере быть портящаяся еда.
+     * Состояние без еды не сохраняется вместе с BlockEntity.
+     */
+    public boolean hasFood() {
+        return earliestExpiryDay != NO_EXPIRY;
+    }
+
+    public long getLastEvaluatedDay() {
+        return lastEvaluatedDay;
+    }
+
+    public long getEarliestExpiryDay() {
+        return earliestExpiryDay;
+    }
+}
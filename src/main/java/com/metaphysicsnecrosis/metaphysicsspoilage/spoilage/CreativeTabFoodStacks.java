@@ -0,0 +1,96 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.component.SpoilageHooks;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageJfrEvents;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Предвычисленные стеки еды для креативных табов.
+ *
+ * Список портящейся еды с флагом TRANSIENT_NEVER_DECAY строится один раз на поколение
+ * правил порчи ({@link SpoilageRulesGeneration}) и переиспользуется всеми табами и
+ * пересборками поиска. Проверка на еду идет по компонентам прототипа предмета,
+ * без создания тестового стека на каждый предмет реестра.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class CreativeTabFoodStacks {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CreativeTabFoodStacks.class);
+
+    /**
+     * Текущий список и поколение правил, для которого он построен
+     */
+    private static volatile Snapshot snapshot;
+
+    /**
+     * Получает прототипы стеков еды текущего поколения правил.
+     * Стеки общие - перед передачей в таб их нужно копировать.
+     *
+     * @return неизменяемый список прототипов
+     */
+    public static List<ItemStack> getPrototypes() {
+        int generation = SpoilageRulesGeneration.current();
+        Snapshot current = snapshot;
+        if (current == null || current.generation() != generation) {
+            current = new Snapshot(generation, build(generation));
+            snapshot = current;
+        }
+        return current.stacks();
+    }
+
+    /**
+     * Строит список портящейся еды с флагом TRANSIENT_NEVER_DECAY
+     */
+    private static List<ItemStack> build(int generation) {
+        SpoilageJfrEvents.RuleTableRebuild rebuildEvent = new SpoilageJfrEvents.RuleTableRebuild();
+        rebuildEvent.begin();
+        long startTime = System.nanoTime();
+        List<ItemStack> stacks = new ArrayList<>();
+
+        for (Item item : BuiltInRegistries.ITEM) {
+            if (!item.components().has(DataComponents.FOOD)) {
+                continue;
+            }
+
+            try {
+                if (!SpoilageUtils.canItemSpoil(item)) {
+                    continue;
+                }
+
+                // Устанавливаем флаг "временно не портится" для креативного режима
+                stacks.add(SpoilageHooks.setTransientNonDecaying(new ItemStack(item)));
+            } catch (Exception e) {
+                LOGGER.debug("Ошибка при подготовке креативного стека {}: {}",
+                    BuiltInRegistries.ITEM.getKey(item), e.getMessage());
+            }
+        }
+
+        LOGGER.debug("Подготовлено {} стеков еды для креативных табов за {} мс",
+            stacks.size(), (System.nanoTime() - startTime) / 1_000_000);
+
+        rebuildEvent.end();
+        if (rebuildEvent.shouldCommit()) {
+            rebuildEvent.table = "creative_tab_food";
+            rebuildEvent.entryCount = stacks.size();
+            rebuildEvent.generation = generation;
+            rebuildEvent.commit();
+        }
+        return List.copyOf(stacks);
+    }
+
+    private record Snapshot(int generation, List<ItemStack> stacks) {}
+
+    // Запрещаем создание экземпляров
+    private CreativeTabFoodStacks() {}
+}
@@ -0,0 +1,560 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.storage.LevelResource;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Постоянный индекс сроков порчи измерения на диске.
+ *
+ * Хранит пары (позиция блочного контейнера, ближайший день порчи) в файле
+ * рядом с region-файлами измерения. Файл состоит из отсортированного по дню сегмента,
+ * который читается через memory-mapping, и журнала дописанных изменений.
+ * Журнал при открытии переносится в память. Изменения копятся в буфере и дописываются
+ * в файл одной записью за тик; слияние журнала с сегментом в новый файл (compaction)
+ * и сброс на диск выполняются только при сохранении мира.
+ *
+ * После перезапуска запрос "что испортилось к сегодняшнему дню" читает только
+ * начало отсортированного сегмента (бинарный поиск по дню) без обхода чанков.
+ *
+ * Формат записи (40 байт): день порчи, тип ключа, резерв, ключ A, ключ B, упакованный ChunkPos.
+ * Удаление записывается как запись с днем {@link ContainerSpoilageState#NO_EXPIRY}.
+ * Записи других типов (предметы в мире из ранних версий) пропускаются и удаляются при слиянии.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class DimensionExpiryIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DimensionExpiryIndex.class);
+
+    private static final int KIND_BLOCK = 0;
+
+    private static final int MAGIC = 0x4D534549; // "MSEI"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 40;
+
+    /**
+     * Минимальный размер журнала, после которого при сохранении выполняется слияние
+     */
+    private static final int MIN_COMPACTION_LOG = 4096;
+
+    /**
+     * Начальная емкость буфера записей журнала, ожидающих записи в файл
+     */
+    private static final int PENDING_LOG_RECORDS = 64;
+
+    private static final String FILE_PREFIX = "metaphysicsspoilage_expiry.";
+    private static final String FILE_SUFFIX = ".idx";
+
+    private static final Map<ResourceKey<Level>, DimensionExpiryIndex> INDEXES = new ConcurrentHashMap<>();
+
+    /**
+     * Получатель просроченных записей
+     */
+    @FunctionalInterface
+    public interface DueVisitor {
+        void accept(long pos, long chunkPos, long expiryDay);
+    }
+
+    private record IndexedBlock(long pos, long expiryDay) {}
+
+    private final Path directory;
+    private final String dimensionName;
+
+    private long generation;
+    private FileChannel channel;
+    private MappedByteBuffer sorted;
+    private long sortedCount;
+
+    /**
+     * Записи журнала: упакованная позиция -> день порчи
+     * (последнее значение позиции перекрывает отсортированный сегмент)
+     */
+    private final Long2LongOpenHashMap overrides = new Long2LongOpenHashMap();
+    private long logCount;
+
+    /**
+     * Записи журнала, еще не дописанные в файл (сбрасываются раз в тик и при сохранении)
+     */
+    private ByteBuffer pendingLog = ByteBuffer.allocate(RECORD_SIZE * PENDING_LOG_RECORDS).order(ByteOrder.BIG_ENDIAN);
+
+    private boolean broken = false;
+
+    private DimensionExpiryIndex(Path directory, String dimensionName) {
+        this.directory = directory;
+        this.dimensionName = dimensionName;
+    }
+
+    // === ЖИЗНЕННЫЙ ЦИКЛ ===
+
+    @SubscribeEvent
+    public static void onLevelLoad(LevelEvent.Load event) {
+        if (!(event.getLevel() instanceof ServerLevel serverLevel) || !SpoilageSettings.get().enablePersistentExpiryIndex()) {
+            return;
+        }
+
+        Path directory = DimensionType.getStorageFolder(serverLevel.dimension(),
+            serverLevel.getServer().getWorldPath(LevelResource.ROOT));
+        DimensionExpiryIndex index = new DimensionExpiryIndex(directory, serverLevel.dimension().location().toString());
+        index.open();
+        INDEXES.put(serverLevel.dimension(), index);
+    }
+
+    /**
+     * Дописывает накопленные за тик изменения одной записью в файл
+     */
+    @SubscribeEvent
+    public static void onLevelTick(LevelTickEvent.Post event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            DimensionExpiryIndex index = INDEXES.get(serverLevel.dimension());
+            if (index != null) {
+                index.flush();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelSave(LevelEvent.Save event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            DimensionExpiryIndex index = INDEXES.get(serverLevel.dimension());
+            if (index != null) {
+                index.save();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            DimensionExpiryIndex index = INDEXES.remove(serverLevel.dimension());
+            if (index != null) {
+                if (index.logCount > 0) {
+                    index.compact();
+                }
+                index.close();
+            }
+        }
+    }
+
+    /**
+     * Получает индекс измерения
+     *
+     * @return индекс или null, если он отключен или не загружен
+     */
+    public static DimensionExpiryIndex get(ServerLevel level) {
+        return INDEXES.get(level.dimension());
+    }
+
+    // === СТАТИЧЕСКИЕ ОБНОВЛЕНИЯ ===
+
+    /**
+     * Записывает ближайший день порчи блочного контейнера
+     */
+    public static void recordBlock(ServerLevel level, BlockPos pos, long expiryDay) {
+        DimensionExpiryIndex index = get(level);
+        if (index != null) {
+            index.update(pos.asLong(), expiryDay);
+        }
+    }
+
+    // === ЗАПРОСЫ ===
+
+    /**
+     * Обходит записи с днем порчи не позже указанного.
+     * Из отсортированного сегмента читается только начальный диапазон.
+     */
+    public void forEachDue(long currentDay, DueVisitor visitor) {
+        if (broken) {
+            return;
+        }
+
+        long upperBound = findUpperBound(currentDay);
+        for (long i = 0; i < upperBound; i++) {
+            int offset = (int) (i * RECORD_SIZE);
+            if (sorted.getInt(offset + 8) != KIND_BLOCK) {
+                continue;
+            }
+            long pos = sorted.getLong(offset + 16);
+            if (overrides.containsKey(pos)) {
+                continue; // Актуальное значение в журнале
+            }
+            visitor.accept(pos, sorted.getLong(offset + 32), sorted.getLong(offset));
+        }
+
+        for (Long2LongMap.Entry override : overrides.long2LongEntrySet()) {
+            if (override.getLongValue() <= currentDay) {
+                visitor.accept(override.getLongKey(), chunkOf(override.getLongKey()), override.getLongValue());
+            }
+        }
+    }
+
+    /**
+     * Количество записей в отсортированном сегменте и журнале
+     */
+    public String getStatistics() {
+        return String.format("Индекс сроков %s - Сегмент: %d, Журнал: %d, Ожидает записи: %d, Поколение: %d%s",
+            dimensionName, sortedCount, logCount, pendingLog.position() / RECORD_SIZE, generation,
+            broken ? " (отключен)" : "");
+    }
+
+    /**
+     * Получает статистику всех загруженных индексов
+     */
+    public static String getAllStatistics() {
+        if (INDEXES.isEmpty()) {
+            return "Индексы сроков не загружены";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (DimensionExpiryIndex index : INDEXES.values()) {
+            if (!builder.isEmpty()) {
+                builder.append('\n');
+            }
+            builder.append(index.getStatistics());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Суммарное количество записей отсортированных сегментов (вне кучи, в отображенных файлах)
+     */
+    public static long getTotalSortedEntries() {
+        long total = 0;
+        for (DimensionExpiryIndex index : INDEXES.values()) {
+            total += index.sortedCount;
+        }
+        return total;
+    }
+
+    /**
+     * Суммарное количество записей журналов, хранимых в памяти
+     */
+    public static long getTotalLogEntries() {
+        long total = 0;
+        for (DimensionExpiryIndex index : INDEXES.values()) {
+            total += index.overrides.size();
+        }
+        return total;
+    }
+
+    // === РЕАЛИЗАЦИЯ ===
+
+    private void update(long pos, long expiryDay) {
+        if (broken) {
+            return;
+        }
+
+        if (overrides.containsKey(pos) && overrides.get(pos) == expiryDay) {
+            return;
+        }
+
+        overrides.put(pos, expiryDay);
+        if (pendingLog.remaining() < RECORD_SIZE) {
+            ByteBuffer grown = ByteBuffer.allocate(pendingLog.capacity() * 2).order(ByteOrder.BIG_ENDIAN);
+            pendingLog.flip();
+            grown.put(pendingLog);
+            pendingLog = grown;
+        }
+        writeRecord(pendingLog, pos, expiryDay);
+        logCount++;
+    }
+
+    /**
+     * Дописывает накопленные записи журнала в конец файла без сброса на диск
+     */
+    private void flush() {
+        if (broken || pendingLog.position() == 0) {
+            return;
+        }
+
+        try {
+            pendingLog.flip();
+            long position = channel.size();
+            while (pendingLog.hasRemaining()) {
+                position += channel.write(pendingLog, position);
+            }
+            pendingLog.clear();
+        } catch (IOException e) {
+            fail("Ошибка записи в журнал индекса сроков", e);
+        }
+    }
+
+    /**
+     * Сохранение мира: дописывает журнал и сбрасывает его на диск,
+     * а при достаточном размере журнала сливает его с сегментом
+     */
+    private void save() {
+        if (broken) {
+            return;
+        }
+
+        if (logCount >= Math.max(MIN_COMPACTION_LOG, sortedCount / 2)) {
+            compact();
+            return;
+        }
+
+        flush();
+        if (broken) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            fail("Ошибка сброса журнала индекса сроков", e);
+        }
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            Path latest = findLatestFile();
+            if (latest == null) {
+                generation = 0;
+                writeFile(fileFor(generation), List.of());
+                latest = fileFor(generation);
+            } else {
+                generation = parseGeneration(latest);
+            }
+
+            mapFile(latest);
+            deleteOlderFiles();
+            LOGGER.info("Загружен индекс сроков порчи {}: {} записей, {} в журнале",
+                dimensionName, sortedCount, logCount);
+        } catch (IOException | RuntimeException e) {
+            fail("Ошибка открытия индекса сроков", e);
+        }
+    }
+
+    private void mapFile(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Некорректный заголовок файла " + file);
+        }
+        sortedCount = header.getLong();
+
+        long sortedBytes = sortedCount * RECORD_SIZE;
+        sorted = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, sortedBytes);
+        sorted.order(ByteOrder.BIG_ENDIAN);
+
+        // Журнал после сегмента переносим в память; неполная последняя запись отбрасывается
+        long logStart = HEADER_SIZE + sortedBytes;
+        long logRecords = (channel.size() - logStart) / RECORD_SIZE;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.BIG_ENDIAN);
+        for (long i = 0; i < logRecords; i++) {
+            record.clear();
+            channel.read(record, logStart + i * RECORD_SIZE);
+            record.flip();
+            if (record.getInt(8) == KIND_BLOCK) {
+                overrides.put(record.getLong(16), record.getLong(0));
+            }
+        }
+        logCount = logRecords;
+        channel.truncate(logStart + logRecords * RECORD_SIZE);
+    }
+
+    /**
+     * Сливает отсортированный сегмент и журнал в новый файл следующего поколения
+     */
+    private void compact() {
+        if (broken) {
+            return;
+        }
+
+        try {
+            Long2LongOpenHashMap merged = new Long2LongOpenHashMap();
+            for (long i = 0; i < sortedCount; i++) {
+                int offset = (int) (i * RECORD_SIZE);
+                if (sorted.getInt(offset + 8) == KIND_BLOCK) {
+                    merged.put(sorted.getLong(offset + 16), sorted.getLong(offset));
+                }
+            }
+            merged.putAll(overrides);
+
+            List<IndexedBlock> records = new ArrayList<>(merged.size());
+            for (Long2LongMap.Entry record : merged.long2LongEntrySet()) {
+                if (record.getLongValue() != ContainerSpoilageState.NO_EXPIRY) {
+                    records.add(new IndexedBlock(record.getLongKey(), record.getLongValue()));
+                }
+            }
+            records.sort(Comparator.comparingLong(IndexedBlock::expiryDay));
+
+            long nextGeneration = generation + 1;
+            writeFile(fileFor(nextGeneration), records);
+
+            channel.close();
+            sorted = null;
+            overrides.clear();
+            pendingLog.clear();
+            generation = nextGeneration;
+            mapFile(fileFor(generation));
+            deleteOlderFiles();
+
+            LOGGER.debug("Индекс сроков {} уплотнен: {} записей", dimensionName, sortedCount);
+        } catch (IOException | RuntimeException e) {
+            fail("Ошибка уплотнения индекса сроков", e);
+        }
+    }
+
+    private void writeFile(Path file, List<IndexedBlock> records) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(records.size()).putLong(0L).putLong(0L);
+            header.flip();
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 256).order(ByteOrder.BIG_ENDIAN);
+            for (IndexedBlock record : records) {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                writeRecord(buffer, record.pos(), record.expiryDay());
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temp, file, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void close() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Ошибка закрытия индекса сроков {}: {}", dimensionName, e.getMessage());
+        }
+        channel = null;
+        sorted = null;
+    }
+
+    /**
+     * Количество записей сегмента с днем порчи не позже указанного (бинарный поиск)
+     */
+    private long findUpperBound(long currentDay) {
+        long low = 0;
+        long high = sortedCount;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (sorted.getLong((int) (middle * RECORD_SIZE)) <= currentDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static void writeRecord(ByteBuffer buffer, long pos, long expiryDay) {
+        buffer.putLong(expiryDay)
+            .putInt(KIND_BLOCK)
+            .putInt(0)
+            .putLong(pos)
+            .putLong(0L)
+            .putLong(chunkOf(pos));
+    }
+
+    private static long chunkOf(long pos) {
+        return ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4);
+    }
+
+    private Path fileFor(long fileGeneration) {
+        return directory.resolve(FILE_PREFIX + fileGeneration + FILE_SUFFIX);
+    }
+
+    private Path findLatestFile() throws IOException {
+        Path latest = null;
+        long latestGeneration = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                long fileGeneration = parseGeneration(file);
+                if (fileGeneration > latestGeneration) {
+                    latestGeneration = fileGeneration;
+                    latest = file;
+                }
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Удаляет файлы прошлых поколений. На Windows отображенный файл может быть занят
+     * до сборки мусора - тогда удаление повторится после следующего уплотнения.
+     */
+    private void deleteOlderFiles() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (parseGeneration(file) < generation) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        LOGGER.debug("Не удалось удалить старый индекс {}: {}", file, e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Не удалось просмотреть каталог индекса {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static long parseGeneration(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    private void fail(String message, Exception e) {
+        broken = true;
+        LOGGER.error("{} {} - индекс отключен до перезапуска", message, dimensionName, e);
+        close();
+    }
+}
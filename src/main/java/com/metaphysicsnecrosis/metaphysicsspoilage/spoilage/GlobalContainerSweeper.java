@@ -0,0 +1,242 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.TickCostTracker;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+
+/**
+ * Глобальная обработка контейнеров вокруг игроков.
+ *
+ * Раз в {@link Config#GLOBAL_CONTAINER_CHECK_INTERVAL} тиков просматривает индексы
+ * чанков ({@link ChunkSpoilageIndex}) в радиусе {@link Config#CONTAINER_CHECK_RADIUS}
+ * от игроков и ставит в очередь только контейнеры с наступившим днем порчи.
+ * Чанки без индекса или с будущим минимумом пропускаются без обращения к блочным сущностям.
+ * Очередь обрабатывается с бюджетом {@link Config#GLOBAL_CONTAINER_BUDGET_PER_TICK} контейнеров за тик.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class GlobalContainerSweeper {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GlobalContainerSweeper.class);
+
+    /**
+     * Контейнеры, ожидающие оценки
+     */
+    private static final ArrayDeque<PendingContainer> QUEUE = new ArrayDeque<>();
+
+    private static int tickCounter = 0;
+
+    /**
+     * Последний обработанный день по измерениям (для запроса постоянного индекса при смене дня)
+     */
+    private static final Object2LongOpenHashMap<ResourceKey<Level>> LAST_INDEXED_DAY = new Object2LongOpenHashMap<>();
+
+    static {
+        LAST_INDEXED_DAY.defaultReturnValue(Long.MIN_VALUE);
+    }
+
+    private static long sweeps = 0;
+    private static long chunksVisited = 0;
+    private static long chunksDue = 0;
+    private static long containersProcessed = 0;
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        long tickStart = TickCostTracker.start();
+        try {
+            if (!SpoilageSettings.get().enableSpoilageSystem() || !SpoilageSettings.get().enableGlobalContainerProcessing()) {
+                return;
+            }
+
+            // Новый проход собирается только после обработки предыдущего
+            if (QUEUE.isEmpty() && ++tickCounter >= SpoilageSettings.get().globalContainerCheckInterval()) {
+                tickCounter = 0;
+                collectFromDimensionIndexes(event.getServer());
+                collectDueContainers(event.getServer());
+            }
+
+            if (!QUEUE.isEmpty()) {
+                drainQueue(event.getServer(), SpoilageSettings.get().globalContainerBudgetPerTick());
+            }
+        } finally {
+            TickCostTracker.stop(tickStart);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        reset();
+    }
+
+    /**
+     * Собирает просроченные контейнеры из индексов чанков вокруг игроков
+     */
+    private static void collectDueContainers(MinecraftServer server) {
+        int radiusChunks = (SpoilageSettings.get().containerCheckRadius() + 15) >> 4;
+        sweeps++;
+
+        for (ServerLevel level : server.getAllLevels()) {
+            if (level.players().isEmpty()) {
+                continue;
+            }
+
+            long currentDay = WorldDayTracker.getInstance(level).getCurrentDay();
+            LongOpenHashSet visited = new LongOpenHashSet();
+
+            for (ServerPlayer player : level.players()) {
+                ChunkPos center = player.chunkPosition();
+
+                for (int dx = -radiusChunks; dx <= radiusChunks; dx++) {
+                    for (int dz = -radiusChunks; dz <= radiusChunks; dz++) {
+                        int chunkX = center.x + dx;
+                        int chunkZ = center.z + dz;
+                        if (!visited.add(ChunkPos.asLong(chunkX, chunkZ))) {
+                            continue;
+                        }
+
+                        LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+                        if (chunk == null || !chunk.hasData(MetaphysicsSpoilage.CHUNK_SPOILAGE_INDEX)) {
+                            continue;
+                        }
+
+                        chunksVisited++;
+                        ChunkSpoilageIndex index = chunk.getData(MetaphysicsSpoilage.CHUNK_SPOILAGE_INDEX);
+                        if (!index.hasDue(currentDay)) {
+                            continue;
+                        }
+
+                        chunksDue++;
+                        LongList due = index.collectDue(currentDay);
+                        for (int i = 0; i < due.size(); i++) {
+                            QUEUE.add(new PendingContainer(level.dimension(), due.getLong(i)));
+                        }
+                    }
+                }
+            }
+        }
+
+        if (!QUEUE.isEmpty()) {
+            LOGGER.debug("Глобальная обработка: в очереди {} контейнеров", QUEUE.size());
+        }
+    }
+
+    /**
+     * При смене дня (и первом проходе после запуска) читает из постоянного индекса измерения
+     * только записи с наступившим днем порчи. Контейнеры в загруженных чанках ставятся
+     * в очередь независимо от расстояния до игроков; остальные будут оценены при загрузке чанка.
+     */
+    private static void collectFromDimensionIndexes(MinecraftServer server) {
+        for (ServerLevel level : server.getAllLevels()) {
+            long currentDay = WorldDayTracker.getInstance(level).getCurrentDay();
+            if (LAST_INDEXED_DAY.getLong(level.dimension()) == currentDay) {
+                continue;
+            }
+            LAST_INDEXED_DAY.put(level.dimension(), currentDay);
+
+            DimensionExpiryIndex index = DimensionExpiryIndex.get(level);
+            if (index == null) {
+                continue;
+            }
+
+            int[] queued = {0};
+            index.forEachDue(currentDay, (pos, chunkPos, expiryDay) -> {
+                if (level.getChunkSource().getChunkNow(ChunkPos.getX(chunkPos), ChunkPos.getZ(chunkPos)) != null) {
+                    QUEUE.add(new PendingContainer(level.dimension(), pos));
+                    queued[0]++;
+                }
+            });
+
+            if (queued[0] > 0) {
+                LOGGER.debug("Индекс сроков {}: в очередь поставлено {} контейнеров за день {}",
+                    level.dimension().location(), queued[0], currentDay);
+            }
+        }
+    }
+
+    /**
+     * Оценивает контейнеры из очереди в пределах бюджета тика
+     */
+    private static void drainQueue(MinecraftServer server, int budget) {
+        for (int processed = 0; processed < budget && !QUEUE.isEmpty(); processed++) {
+            PendingContainer pending = QUEUE.poll();
+
+            ServerLevel level = server.getLevel(pending.dimension());
+            BlockPos pos = BlockPos.of(pending.pos());
+            if (level == null || !level.isLoaded(pos)) {
+                continue;
+            }
+
+            try {
+                ContainerSpoilageEvaluator.evaluateIndexed(level, pos);
+                containersProcessed++;
+            } catch (Exception e) {
+                LOGGER.error("Ошибка при глобальной обработке контейнера в {}", pos, e);
+            }
+        }
+    }
+
+    /**
+     * Получает статистику глобальной обработки
+     */
+    public static String getStatistics() {
+        return String.format("Глобальная обработка - Проходов: %d, Чанков с индексом: %d, Просроченных чанков: %d, Контейнеров: %d, В очереди: %d",
+            sweeps, chunksVisited, chunksDue, containersProcessed, QUEUE.size());
+    }
+
+    public static long getSweeps() {
+        return sweeps;
+    }
+
+    public static long getContainersProcessed() {
+        return containersProcessed;
+    }
+
+    /**
+     * Количество контейнеров в очереди обработки
+     */
+    public static int getQueueSize() {
+        return QUEUE.size();
+    }
+
+    /**
+     * Сбрасывает очередь и статистику
+     */
+    public static void reset() {
+        QUEUE.clear();
+        LAST_INDEXED_DAY.clear();
+        tickCounter = 0;
+        sweeps = 0;
+        chunksVisited = 0;
+        chunksDue = 0;
+        containersProcessed = 0;
+    }
+
+    private record PendingContainer(ResourceKey<Level> dimension, long pos) {}
+
+    // Запрещаем создание экземпляров
+    private GlobalContainerSweeper() {}
+}
@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageJfrEvents;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.packs.resources.Resource;
@@ -58,6 +59,8 @@ public class JsonSpoilageConfig {
      * @param resourceManager менеджер ресурсов
      */
     public static void loadJsonConfigs(ResourceManager resourceManager) {
+        SpoilageJfrEvents.RuleTableRebuild rebuildEvent = new SpoilageJfrEvents.RuleTableRebuild();
+        rebuildEvent.begin();
         JSON_CONFIG_CACHE.clear();
 
         try {
@@ -85,6 +88,16 @@ public class JsonSpoilageConfig {
         } catch (Exception e) {
             LOGGER.error("Ошибка при загрузке JSON конфигураций порчи", e);
         }
+
+        SpoilageRulesGeneration.bump("загрузка JSON правил");
+
+        rebuildEvent.end();
+        if (rebuildEvent.shouldCommit()) {
+            rebuildEvent.table = "json_rules";
+            rebuildEvent.entryCount = JSON_CONFIG_CACHE.size();
+            rebuildEvent.generation = SpoilageRulesGeneration.current();
+            rebuildEvent.commit();
+        }
     }
 
     /**
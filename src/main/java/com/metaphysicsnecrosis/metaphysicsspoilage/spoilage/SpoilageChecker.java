@@ -1,8 +1,11 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
 
-import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.journal.SpoilageJournal;
 import com.metaphysicsnecrosis.metaphysicsspoilage.manager.TimedFoodManager;
 import com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageAttribution;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageJfrEvents;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.Container;
@@ -15,7 +18,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Главный класс для проверки срока годности и логики порчи предметов.
@@ -23,7 +25,7 @@ import java.util.concurrent.atomic.AtomicLong;
  * Предоставляет комплексную систему проверки порчи с поддержкой:
  * - Индивидуальной проверки предметов
  * - Массовой обработки контейнеров и инвентарей
- * - Кэширования результатов для производительности
+ * - Кэширования правил порчи по поколению правил
  * - Статистики и логирования
  * - Интеграции с существующими системами
  *
@@ -35,82 +37,27 @@ public class SpoilageChecker {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageChecker.class);
 
-    // === КЭШИРОВАНИЕ ДЛЯ ПРОИЗВОДИТЕЛЬНОСТИ ===
-
-    /**
-     * Кэш результатов проверки порчи для предотвращения повторных вычислений.
-     * Ключ: строка вида "itemId:creationDay:currentDay"
-     * Значение: результат проверки (true = испорчен, false = свежий)
-     */
-    private static final Map<String, Boolean> SPOILAGE_CHECK_CACHE = new ConcurrentHashMap<>();
-
-    /**
-     * Кэш времени до порчи для оптимизации tooltip'ов и UI.
-     * Ключ: строка вида "itemId:creationDay:currentDay"
-     * Значение: количество дней до порчи
-     */
-    private static final Map<String, Long> TIME_UNTIL_SPOILAGE_CACHE = new ConcurrentHashMap<>();
-
-    /**
-     * Время последней очистки кэша для периодической очистки устаревших данных
-     */
-    private static volatile long lastCacheCleanup = System.currentTimeMillis();
-
-    /**
-     * Интервал очистки кэша в миллисекундах (5 минут)
-     */
-    private static final long CACHE_CLEANUP_INTERVAL = 5 * 60 * 1000L;
-
     // === СТАТИСТИКА ===
 
     /**
-     * Статистика работы системы порчи
+     * Статистика работы системы порчи.
+     * Представление над {@link SpoilageStatisticsStore}, где хранятся сами счетчики.
      */
     public static class SpoilageStatistics {
-        private final AtomicLong totalChecks = new AtomicLong(0);
-        private final AtomicLong spoiledItems = new AtomicLong(0);
-        private final AtomicLong containerChecks = new AtomicLong(0);
-        private final AtomicLong inventoryChecks = new AtomicLong(0);
-        private final Map<String, AtomicLong> spoiledByType = new ConcurrentHashMap<>();
-        private final AtomicLong cacheHits = new AtomicLong(0);
-        private final AtomicLong cacheMisses = new AtomicLong(0);
-
-        public long getTotalChecks() { return totalChecks.get(); }
-        public long getSpoiledItems() { return spoiledItems.get(); }
-        public long getContainerChecks() { return containerChecks.get(); }
-        public long getInventoryChecks() { return inventoryChecks.get(); }
-        public Map<String, Long> getSpoiledByType() {
-            Map<String, Long> result = new HashMap<>();
-            spoiledByType.forEach((k, v) -> result.put(k, v.get()));
-            return result;
-        }
-        public long getCacheHits() { return cacheHits.get(); }
-        public long getCacheMisses() { return cacheMisses.get(); }
-        public double getCacheHitRatio() {
-            long hits = cacheHits.get();
-            long misses = cacheMisses.get();
-            long total = hits + misses;
-            return total > 0 ? (double) hits / total : 0.0;
-        }
+        public long getTotalChecks() { return SpoilageStatisticsStore.getTotalChecks(); }
+        public long getSpoiledItems() { return SpoilageStatisticsStore.getSpoiledItems(); }
+        public long getContainerChecks() { return SpoilageStatisticsStore.getContainerChecks(); }
+        public long getInventoryChecks() { return SpoilageStatisticsStore.getInventoryChecks(); }
+        public Map<String, Long> getSpoiledByType() { return SpoilageStatisticsStore.getSpoiledByType(); }
 
-        void incrementTotalChecks() { totalChecks.incrementAndGet(); }
-        void incrementSpoiledItems() { spoiledItems.incrementAndGet(); }
-        void incrementContainerChecks() { containerChecks.incrementAndGet(); }
-        void incrementInventoryChecks() { inventoryChecks.incrementAndGet(); }
-        void incrementSpoiledByType(String itemType) {
-            spoiledByType.computeIfAbsent(itemType, k -> new AtomicLong(0)).incrementAndGet();
-        }
-        void incrementCacheHits() { cacheHits.incrementAndGet(); }
-        void incrementCacheMisses() { cacheMisses.incrementAndGet(); }
+        // Кэширование правил порчи - в SpoilageUtils (кэш по поколению правил)
+        public long getCacheHits() { return SpoilageUtils.getRulesCache().getHits(); }
+        public long getCacheMisses() { return SpoilageUtils.getRulesCache().getMisses(); }
+        public double getCacheHitRatio() { return SpoilageUtils.getRulesCache().getHitRatio(); }
 
         public void reset() {
-            totalChecks.set(0);
-            spoiledItems.set(0);
-            containerChecks.set(0);
-            inventoryChecks.set(0);
-            spoiledByType.clear();
-            cacheHits.set(0);
-            cacheMisses.set(0);
+            SpoilageStatisticsStore.resetChecks();
+            SpoilageUtils.getRulesCache().resetStatistics();
         }
     }
 
@@ -142,10 +89,10 @@ public class SpoilageChecker {
             return false;
         }
 
-        STATISTICS.incrementTotalChecks();
+        SpoilageStatisticsStore.recordCheck();
 
         // Проверяем, включена ли система порчи
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             return false;
         }
 
@@ -153,12 +100,12 @@ public class SpoilageChecker {
         boolean result = SpoilageUtils.isItemSpoiled(itemStack, level);
 
         if (result) {
-            STATISTICS.incrementSpoiledItems();
-            String itemId = BuiltInRegistries.ITEM.getKey(itemStack.getItem()).toString();
-            STATISTICS.incrementSpoiledByType(itemId);
+            SpoilageStatisticsStore.recordSpoiled(itemStack.getItem());
 
-            LOGGER.debug("Предмет {} признан испорченным на день {}",
-                    itemId, WorldDayTracker.getInstance(level).getCurrentDay());
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Предмет {} признан испорченным на день {}",
+                        BuiltInRegistries.ITEM.getKey(itemStack.getItem()), WorldDayTracker.getInstance(level).getCurrentDay());
+            }
         }
 
         return result;
@@ -176,23 +123,8 @@ public class SpoilageChecker {
             return -1;
         }
 
-        // Проверяем кэш
-        String cacheKey = createCacheKey(itemStack, level);
-        Long cachedResult = TIME_UNTIL_SPOILAGE_CACHE.get(cacheKey);
-        if (cachedResult != null) {
-            STATISTICS.incrementCacheHits();
-            return cachedResult;
-        }
-
-        STATISTICS.incrementCacheMisses();
-
-        // Вычисляем время до порчи
-        long result = SpoilageUtils.getDaysUntilSpoilage(itemStack, level);
-
-        // Кэшируем результат
-        TIME_UNTIL_SPOILAGE_CACHE.put(cacheKey, result);
-
-        return result;
+        // Правила порчи предмета кэшируются в SpoilageUtils по поколению правил
+        return SpoilageUtils.getDaysUntilSpoilage(itemStack, level);
     }
 
     /**
@@ -212,8 +144,7 @@ public class SpoilageChecker {
             return itemStack; // Предмет еще свежий
         }
 
-        String itemId = BuiltInRegistries.ITEM.getKey(itemStack.getItem()).toString();
-        LOGGER.debug("Обрабатывается порча предмета: {}", itemId);
+        LOGGER.debug("Обрабатывается порча предмета: {}", BuiltInRegistries.ITEM.getKey(itemStack.getItem()));
 
         // Используем TimedFoodManager для обработки (который теперь интегрирован с SpoilageTransformer)
         return TimedFoodManager.checkAndProcessSpoilage(itemStack, level);
@@ -232,10 +163,7 @@ public class SpoilageChecker {
             return;
         }
 
-        STATISTICS.incrementContainerChecks();
-
-        // Проверяем временные ограничения для предотвращения спама
-        cleanupCacheIfNeeded();
+        SpoilageStatisticsStore.recordContainerCheck();
 
         int spoiledCount = 0;
         int totalItems = 0;
@@ -256,6 +184,7 @@ public class SpoilageChecker {
             if (!ItemStack.matches(stack, processed)) {
                 container.setItem(i, processed);
                 spoiledCount++;
+                SpoilageJournal.recordContainer(level, stack, processed);
 
                 if (processed.isEmpty()) {
                     LOGGER.debug("Удален испорченный предмет из слота {} контейнера", i);
@@ -266,7 +195,7 @@ public class SpoilageChecker {
         }
 
         if (spoiledCount > 0) {
-            LOGGER.info("Обработано контейнеров: 1, испорченных предметов: {} из {} общих",
+            LOGGER.debug("Обработано контейнеров: 1, испорченных предметов: {} из {} общих",
                     spoiledCount, totalItems);
         }
     }
@@ -301,16 +230,22 @@ public class SpoilageChecker {
             Long lastCheck = LAST_PLAYER_CHECK.get(playerId);
             if (lastCheck != null && (currentTime - lastCheck) < PLAYER_CHECK_COOLDOWN) {
                 LOGGER.debug("Пропуск проверки инвентаря игрока {} - кулдаун ({} мс)",
-                        player.getName().getString(), currentTime - lastCheck);
+                        player.getGameProfile().getName(), currentTime - lastCheck);
                 return; // Слишком рано для новой проверки
             }
         }
 
         LAST_PLAYER_CHECK.put(playerId, currentTime);
-        STATISTICS.incrementInventoryChecks();
+        SpoilageStatisticsStore.recordInventoryCheck();
+
+        SpoilageJfrEvents.InventorySweep sweepEvent = new SpoilageJfrEvents.InventorySweep();
+        sweepEvent.begin();
+        long attributionStart = SpoilageAttribution.start();
 
-        LOGGER.info("Проверка инвентаря игрока: {} (принудительная: {})",
-                player.getName().getString(), ignoreCooldown);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Проверка инвентаря игрока: {} (принудительная: {})",
+                    player.getName().getString(), ignoreCooldown);
+        }
 
         Inventory inventory = player.getInventory();
         int spoiledCount = 0;
@@ -337,12 +272,23 @@ public class SpoilageChecker {
                 if (!ItemStack.matches(stack, processed)) {
                     inventory.setItem(i, processed);
                     spoiledCount++;
+                    SpoilageJournal.recordEntity(player, stack, processed);
                 }
             }
         }
 
-        if (spoiledCount > 0) {
-            LOGGER.info("Проверен инвентарь игрока {}: испорченных предметов {} из {}",
+        SpoilageAttribution.recordPlayer(player, attributionStart, totalItems, spoiledCount);
+
+        sweepEvent.end();
+        if (sweepEvent.shouldCommit()) {
+            sweepEvent.holderType = "player";
+            sweepEvent.slotCount = inventory.getContainerSize();
+            sweepEvent.spoiledCount = spoiledCount;
+            sweepEvent.commit();
+        }
+
+        if (spoiledCount > 0 && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Проверен инвентарь игрока {}: испорченных предметов {} из {}",
                     player.getName().getString(), spoiledCount, totalItems);
         }
     }
@@ -382,16 +328,6 @@ public class SpoilageChecker {
 
     // === УТИЛИТНЫЕ МЕТОДЫ ===
 
-    /**
-     * Создает ключ для кэширования результатов проверки
-     */
-    private static String createCacheKey(ItemStack itemStack, ServerLevel level) {
-        String itemId = BuiltInRegistries.ITEM.getKey(itemStack.getItem()).toString();
-        long creationDay = SpoilageUtils.getCreationDay(itemStack);
-        long currentDay = WorldDayTracker.getInstance(level).getCurrentDay();
-        return itemId + ":" + creationDay + ":" + currentDay;
-    }
-
     /**
      * Подсчитывает общее количество предметов в контейнере
      */
@@ -406,26 +342,15 @@ public class SpoilageChecker {
         return total;
     }
 
-    /**
-     * Очищает устаревшие записи кэша при необходимости
-     */
-    private static void cleanupCacheIfNeeded() {
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastCacheCleanup > CACHE_CLEANUP_INTERVAL) {
-            clearCache();
-            lastCacheCleanup = currentTime;
-            LOGGER.debug("Выполнена автоматическая очистка кэша SpoilageChecker");
-        }
-    }
-
     // === ПУБЛИЧНЫЕ УТИЛИТНЫЕ МЕТОДЫ ===
 
     /**
-     * Очищает все кэши для освобождения памяти и обновления данных.
+     * Очищает кэши для освобождения памяти.
+     * Для обновления данных очистка не нужна - устаревшие правила отсекаются поколением
+     * ({@link SpoilageRulesGeneration}).
      */
     public static void clearCache() {
-        SPOILAGE_CHECK_CACHE.clear();
-        TIME_UNTIL_SPOILAGE_CACHE.clear();
+        SpoilageUtils.getRulesCache().clear();
         LAST_PLAYER_CHECK.clear();
         LOGGER.info("Кэш SpoilageChecker очищен");
     }
@@ -453,9 +378,9 @@ public class SpoilageChecker {
      * @return Строка с информацией о размерах кэшей
      */
     public static String getCacheInfo() {
-        return String.format("SpoilageChecker кэши - Проверки: %d, Время: %d, Игроки: %d",
-                SPOILAGE_CHECK_CACHE.size(),
-                TIME_UNTIL_SPOILAGE_CACHE.size(),
+        return String.format("SpoilageChecker кэши - %s, Поколение правил: %d, Игроки: %d",
+                SpoilageUtils.getRulesCache().getStatistics(),
+                SpoilageRulesGeneration.current(),
                 LAST_PLAYER_CHECK.size());
     }
 
@@ -513,6 +438,7 @@ public class SpoilageChecker {
         report.append(String.format("Проверок контейнеров: %d\n", stats.getContainerChecks()));
         report.append(String.format("Проверок инвентарей: %d\n", stats.getInventoryChecks()));
         report.append(String.format("Эффективность кэша: %.2f%%\n", stats.getCacheHitRatio() * 100));
+        report.append(String.format("Итоги сохраняются в мире: %s\n", SpoilageStatisticsStore.isPersistent() ? "да" : "нет"));
 
         report.append("\n=== СТАТИСТИКА ПО ТИПАМ ===\n");
         Map<String, Long> spoiledByType = stats.getSpoiledByType();
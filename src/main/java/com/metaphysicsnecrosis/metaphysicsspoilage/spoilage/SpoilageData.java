@@ -6,6 +6,22 @@ package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
  */
 public class SpoilageData {
 
+    /**
+     * Общий экземпляр для не портящихся предметов (данные неизменяемы)
+     */
+    private static final SpoilageData NON_SPOILABLE = new SpoilageData();
+
+    /**
+     * Общие экземпляры для типичных сроков порчи, чтобы разрешение правил не выделяло объектов
+     */
+    private static final SpoilageData[] COMMON_SPOILABLE = new SpoilageData[64];
+
+    static {
+        for (int days = 0; days < COMMON_SPOILABLE.length; days++) {
+            COMMON_SPOILABLE[days] = new SpoilageData(days, true);
+        }
+    }
+
     private final long spoilageTime;
     private final boolean canSpoil;
 
@@ -52,7 +68,7 @@ public class SpoilageData {
      * @return SpoilageData для предметов, которые не портятся
      */
     public static SpoilageData nonSpoilable() {
-        return new SpoilageData();
+        return NON_SPOILABLE;
     }
 
     /**
@@ -62,6 +78,9 @@ public class SpoilageData {
      * @return SpoilageData для портящихся предметов
      */
     public static SpoilageData spoilable(long spoilageTime) {
+        if (spoilageTime >= 0 && spoilageTime < COMMON_SPOILABLE.length) {
+            return COMMON_SPOILABLE[(int) spoilageTime];
+        }
         return new SpoilageData(spoilageTime, true);
     }
 
@@ -0,0 +1,59 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Глобальный счетчик поколений правил порчи.
+ *
+ * Увеличивается при перезагрузке конфигурации, загрузке JSON-правил из датапаков
+ * и обновлении тегов/реестров. Кэши, зависящие от правил ({@link com.metaphysicsnecrosis.metaphysicsspoilage.performance.BoundedCache}),
+ * помечают записи поколением и считают записи прошлых поколений промахами.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class SpoilageRulesGeneration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageRulesGeneration.class);
+
+    private static final AtomicInteger GENERATION = new AtomicInteger(1);
+
+    /**
+     * Текущее поколение правил
+     */
+    public static int current() {
+        return GENERATION.get();
+    }
+
+    /**
+     * Начинает новое поколение правил
+     *
+     * @param reason причина (для лога)
+     * @return новое поколение
+     */
+    public static int bump(String reason) {
+        int generation = GENERATION.incrementAndGet();
+        LOGGER.debug("Поколение правил порчи: {} ({})", generation, reason);
+        return generation;
+    }
+
+    /**
+     * Теги и синхронизированные реестры обновляются при перезагрузке датапаков и входе на сервер
+     */
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        bump("обновление тегов и реестров");
+    }
+
+    // Запрещаем создание экземпляров
+    private SpoilageRulesGeneration() {}
+}
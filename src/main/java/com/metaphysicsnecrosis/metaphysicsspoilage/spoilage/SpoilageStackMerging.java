@@ -0,0 +1,295 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.component.SpoilageComponent;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.items.IItemHandler;
+import net.neoforged.neoforge.items.IItemHandlerModifiable;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Политика объединения стеков еды с разными временными метками.
+ *
+ * Еда, помеченная в разные дни, не складывается в ванильных путях вставки, так как
+ * компоненты порчи различаются. Миксины перехватывают сравнение стеков на месте объединения:
+ * если точного совпадения в приемнике нет, а стек слота совместим по политике
+ * {@link Config.StackMergePolicy}, оба стека приводятся к метке того, что испортится раньше,
+ * и ванильный код сразу их складывает. Метки меняются только когда объединение гарантированно
+ * состоится. Объединение никогда не делает еду свежее.
+ * Для предметов в мире действует отдельная политика (itemEntityMergePolicy).
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public final class SpoilageStackMerging {
+
+    private static final LongAdder MERGES_STAMPED = new LongAdder();
+    private static final LongAdder ENTITY_MERGES_PERFORMED = new LongAdder();
+    private static final LongAdder ENTITY_MERGES_REJECTED = new LongAdder();
+
+    /**
+     * Проверяет, включено ли объединение стеков с разными метками
+     */
+    public static boolean isEnabled() {
+        SpoilageSettings settings = SpoilageSettings.get();
+        return settings.enableSpoilageSystem() && settings.stackMergePolicy() != Config.StackMergePolicy.EXACT;
+    }
+
+    /**
+     * Быстрая проверка перед поиском места объединения: политика включена,
+     * оба стека - один и тот же предмет с меткой срока
+     */
+    public static boolean isMergeCandidate(ItemStack destination, ItemStack incoming) {
+        return isEnabled() && destination.is(incoming.getItem()) && isStamped(destination) && isStamped(incoming);
+    }
+
+    /**
+     * Ищет слот инвентаря игрока для объединения, если точного совпадения нет.
+     * Слоты просматриваются в порядке Inventory.getSlotWithRemainingSpace: выбранный,
+     * вторая рука, затем основной инвентарь. Метки меняются только у найденного слота -
+     * addResource сразу добавит в него часть стека.
+     *
+     * @return слот с приведенной меткой или -1
+     */
+    public static int findMergeSlot(Inventory inventory, ItemStack incoming) {
+        if (!isEnabled() || !isStamped(incoming)) {
+            return -1;
+        }
+
+        if (mergeIntoSlot(inventory, inventory.getSelectedSlot(), incoming)) {
+            return inventory.getSelectedSlot();
+        }
+        if (mergeIntoSlot(inventory, Inventory.SLOT_OFFHAND, incoming)) {
+            return Inventory.SLOT_OFFHAND;
+        }
+        for (int slot = 0; slot < Inventory.INVENTORY_SIZE; slot++) {
+            if (mergeIntoSlot(inventory, slot, incoming)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Объединение на месте сравнения стеков при вставке в контейнер (воронка).
+     * Вызывается, только если ванильное сравнение не совпало; метки приводятся к общей,
+     * если в стеке приемника есть место и в контейнере нет стека с точно такой же меткой.
+     *
+     * @return true, если метки приведены к общей и стеки можно складывать
+     */
+    public static boolean mergeAtSite(Container container, ItemStack destination, ItemStack incoming) {
+        if (!isEnabled() || !isStamped(incoming) || !hasSpace(destination, container.getMaxStackSize(destination))) {
+            return false;
+        }
+        if (hasExactMatch(container, incoming)) {
+            return false; // Стек с той же меткой дальше по слотам - метки не трогаем
+        }
+        return applyMerged(destination, incoming);
+    }
+
+    /**
+     * Проверяет без изменения меток, примет ли слот IItemHandler входящий стек после объединения
+     *
+     * @param accepts проверка вставки стека с меткой приемника (симуляция)
+     */
+    public static boolean canMerge(IItemHandlerModifiable handler, int slot, ItemStack incoming,
+                                   Predicate<ItemStack> accepts) {
+        if (!isEnabled() || !isStamped(incoming)) {
+            return false;
+        }
+
+        ItemStack current = handler.getStackInSlot(slot);
+        if (!hasSpace(current, handler.getSlotLimit(slot)) || !handler.isItemValid(slot, incoming)
+                || getMergedComponent(current, incoming) == null || hasExactMatch(handler, incoming)) {
+            return false;
+        }
+
+        // Вместимость проверяем на копии с меткой приемника - сами стеки не меняются
+        ItemStack probe = incoming.copy();
+        probe.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(), current.get(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get()));
+        return accepts.test(probe);
+    }
+
+    /**
+     * Объединение на месте сравнения стеков при вставке в IItemHandler.
+     * Стек слота заменяется через setStackInSlot - изменять стеки из getStackInSlot напрямую нельзя.
+     *
+     * @param accepts проверка вставки стека с меткой приемника (симуляция)
+     * @return true, если метки приведены к общей и стеки можно складывать
+     */
+    public static boolean mergeAtSite(IItemHandlerModifiable handler, int slot, ItemStack incoming,
+                                      Predicate<ItemStack> accepts) {
+        if (!canMerge(handler, slot, incoming, accepts)) {
+            return false;
+        }
+
+        ItemStack destination = handler.getStackInSlot(slot).copy();
+        if (!applyMerged(destination, incoming)) {
+            return false;
+        }
+        handler.setStackInSlot(slot, destination);
+        return true;
+    }
+
+    /**
+     * Готовит объединение стеков двух предметов в мире по политике itemEntityMergePolicy.
+     * Метки приводятся к общей только если объединение гарантированно состоится
+     * (весь стек помещается в один), иначе один из предметов стал бы старше без объединения.
+     *
+     * @return true, если метки приведены к общей
+     */
+    public static boolean prepareItemEntityMerge(ItemStack first, ItemStack second) {
+        SpoilageSettings settings = SpoilageSettings.get();
+        Config.StackMergePolicy policy = settings.itemEntityMergePolicy();
+        if (!settings.enableSpoilageSystem() || policy == Config.StackMergePolicy.EXACT) {
+            return false;
+        }
+
+        if (first.isEmpty() || second.isEmpty() || !first.is(second.getItem())
+                || first.getCount() + second.getCount() > first.getMaxStackSize()) {
+            return false;
+        }
+
+        SpoilageComponent a = first.get(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get());
+        SpoilageComponent b = second.get(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get());
+        if (a == null || b == null || a.equals(b)) {
+            return false; // Ванильное сравнение справится само
+        }
+
+        SpoilageComponent merged = getMergedComponent(first, second, policy, settings.stackMergeBucketDays());
+        if (merged == null) {
+            ENTITY_MERGES_REJECTED.increment();
+            return false;
+        }
+
+        first.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(), merged);
+        second.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(), merged);
+        ENTITY_MERGES_PERFORMED.increment();
+        return true;
+    }
+
+    /**
+     * Получает общую метку для двух стеков по политике вставки в инвентари
+     *
+     * @return метка стека, который испортится раньше, или null, если стеки несовместимы
+     */
+    @Nullable
+    public static SpoilageComponent getMergedComponent(ItemStack first, ItemStack second) {
+        SpoilageSettings settings = SpoilageSettings.get();
+        return getMergedComponent(first, second, settings.stackMergePolicy(), settings.stackMergeBucketDays());
+    }
+
+    /**
+     * Получает общую метку для двух стеков по указанной политике
+     *
+     * @return метка стека, который испортится раньше, или null, если стеки несовместимы
+     */
+    @Nullable
+    public static SpoilageComponent getMergedComponent(ItemStack first, ItemStack second,
+                                                       Config.StackMergePolicy policy, int bucketDays) {
+        if (first.isEmpty() || second.isEmpty() || !first.is(second.getItem())) {
+            return null;
+        }
+
+        SpoilageComponent a = first.get(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get());
+        SpoilageComponent b = second.get(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get());
+        if (a == null || b == null || a.creationDay() < 0 || b.creationDay() < 0) {
+            return null;
+        }
+
+        if (policy == Config.StackMergePolicy.DAY_BUCKET) {
+            if (Math.floorDiv(a.creationDay(), bucketDays) != Math.floorDiv(b.creationDay(), bucketDays)) {
+                return null;
+            }
+        } else if (policy != Config.StackMergePolicy.OLDEST_WINS) {
+            return null;
+        }
+
+        // Остальные компоненты должны совпадать
+        ItemStack probe = first.copyWithCount(1);
+        probe.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(), b);
+        if (!ItemStack.isSameItemSameComponents(probe, second)) {
+            return null;
+        }
+
+        return SpoilageUtils.getExpiryDay(first) <= SpoilageUtils.getExpiryDay(second) ? a : b;
+    }
+
+    /**
+     * Получает статистику объединения стеков
+     */
+    public static String getStatistics() {
+        return String.format("Объединение стеков - Политика: %s, Объединено с приведением меток: %d; Предметы в мире - Политика: %s, Объединено: %d, Отклонено политикой: %d",
+            SpoilageSettings.get().stackMergePolicy().getName(), MERGES_STAMPED.sum(),
+            SpoilageSettings.get().itemEntityMergePolicy().getName(), ENTITY_MERGES_PERFORMED.sum(), ENTITY_MERGES_REJECTED.sum());
+    }
+
+    /**
+     * Приводит оба стека к общей метке, если они совместимы и метки различаются
+     */
+    private static boolean applyMerged(ItemStack destination, ItemStack incoming) {
+        SpoilageComponent merged = getMergedComponent(destination, incoming);
+        if (merged == null) {
+            return false;
+        }
+
+        if (merged.equals(destination.get(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get()))
+                && merged.equals(incoming.get(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get()))) {
+            return true; // Метки уже совпадают - стеки объединятся без изменений
+        }
+
+        destination.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(), merged);
+        incoming.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(), merged);
+        MERGES_STAMPED.increment();
+        return true;
+    }
+
+    private static boolean mergeIntoSlot(Inventory inventory, int slot, ItemStack incoming) {
+        ItemStack destination = inventory.getItem(slot);
+        if (!destination.isStackable() || !hasSpace(destination, inventory.getMaxStackSize(destination))
+                || !applyMerged(destination, incoming)) {
+            return false;
+        }
+        inventory.setChanged();
+        return true;
+    }
+
+    private static boolean hasExactMatch(Container container, ItemStack incoming) {
+        for (int slot = 0; slot < container.getContainerSize(); slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (hasSpace(stack, container.getMaxStackSize(stack)) && ItemStack.isSameItemSameComponents(stack, incoming)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasExactMatch(IItemHandler handler, ItemStack incoming) {
+        for (int slot = 0; slot < handler.getSlots(); slot++) {
+            ItemStack stack = handler.getStackInSlot(slot);
+            if (hasSpace(stack, handler.getSlotLimit(slot)) && ItemStack.isSameItemSameComponents(stack, incoming)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isStamped(ItemStack stack) {
+        return !stack.isEmpty() && stack.isStackable() && SpoilageUtils.getCreationDay(stack) >= 0;
+    }
+
+    private static boolean hasSpace(ItemStack destination, int limit) {
+        return !destination.isEmpty() && destination.getCount() < Math.min(limit, destination.getMaxStackSize());
+    }
+
+    // Запрещаем создание экземпляров
+    private SpoilageStackMerging() {}
+}
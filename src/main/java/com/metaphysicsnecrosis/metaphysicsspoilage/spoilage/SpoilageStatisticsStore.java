@@ -0,0 +1,332 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.StripedItemCounters;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.saveddata.SavedDataType;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.server.ServerStartedEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Единое хранилище статистики порчи: проверки, испорченные и превращенные предметы.
+ *
+ * Общие счетчики - {@link LongAdder}, счетчики по типам предметов - {@link StripedItemCounters},
+ * индексированные числовым id предмета в реестре. Запись из горячего пути - инкремент ячейки
+ * без построения строк идентификаторов и без изменения карт; строки появляются только
+ * при построении отчетов.
+ *
+ * При включенной настройке persistSpoilageStatistics итоги сохраняются в мире (SavedData
+ * в хранилище верхнего мира) и при запуске сервера добавляются к счетчикам, так что статистика
+ * накапливается за все время жизни мира. Сброс статистики командой сбрасывает и сохраненные итоги.
+ * Записи предметов, пропавших из реестра, сохраняются без изменений.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class SpoilageStatisticsStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageStatisticsStore.class);
+
+    private static final String DATA_ID = MetaphysicsSpoilage.MODID + "_statistics";
+
+    private static final LongAdder TOTAL_CHECKS = new LongAdder();
+    private static final LongAdder SPOILED_ITEMS = new LongAdder();
+    private static final LongAdder CONTAINER_CHECKS = new LongAdder();
+    private static final LongAdder INVENTORY_CHECKS = new LongAdder();
+
+    /**
+     * Сохраненные итоги текущего мира (null - сохранение не подключено)
+     */
+    private static volatile PersistedStatistics attached = null;
+
+    /**
+     * Таблицы по предметам создаются при первом обращении, когда реестр предметов уже заморожен
+     */
+    private static final class Tables {
+        static final StripedItemCounters SPOILED = new StripedItemCounters(BuiltInRegistries.ITEM.size());
+        static final StripedItemCounters TRANSFORMED = new StripedItemCounters(BuiltInRegistries.ITEM.size());
+    }
+
+    // === ЗАПИСЬ ===
+
+    public static void recordCheck() {
+        TOTAL_CHECKS.increment();
+    }
+
+    public static void recordContainerCheck() {
+        CONTAINER_CHECKS.increment();
+    }
+
+    public static void recordInventoryCheck() {
+        INVENTORY_CHECKS.increment();
+    }
+
+    /**
+     * Учитывает испорченный предмет
+     */
+    public static void recordSpoiled(Item item) {
+        SPOILED_ITEMS.increment();
+        Tables.SPOILED.increment(BuiltInRegistries.ITEM.getId(item));
+    }
+
+    /**
+     * Учитывает превращение стека испорченного предмета
+     *
+     * @param originalItem исходный предмет
+     * @param count размер превращенного стека
+     */
+    public static void recordTransformed(Item originalItem, int count) {
+        Tables.TRANSFORMED.add(BuiltInRegistries.ITEM.getId(originalItem), count);
+    }
+
+    // === ЧТЕНИЕ ===
+
+    public static long getTotalChecks() {
+        return TOTAL_CHECKS.sum();
+    }
+
+    public static long getSpoiledItems() {
+        return SPOILED_ITEMS.sum();
+    }
+
+    public static long getContainerChecks() {
+        return CONTAINER_CHECKS.sum();
+    }
+
+    public static long getInventoryChecks() {
+        return INVENTORY_CHECKS.sum();
+    }
+
+    public static long getTransformedItems() {
+        return Tables.TRANSFORMED.total();
+    }
+
+    /**
+     * Испорченные предметы по типам (только ненулевые)
+     */
+    public static Map<String, Long> getSpoiledByType() {
+        return toNamedMap(Tables.SPOILED.snapshot());
+    }
+
+    /**
+     * Превращенные предметы по исходным типам (только ненулевые)
+     */
+    public static Map<String, Long> getTransformedByType() {
+        return toNamedMap(Tables.TRANSFORMED.snapshot());
+    }
+
+    private static Map<String, Long> toNamedMap(long[] counts) {
+        Map<String, Long> result = new HashMap<>();
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] != 0) {
+                result.put(BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(id)).toString(), counts[id]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Размер таблиц счетчиков в куче, байт
+     */
+    public static long estimateHeapBytes() {
+        return Tables.SPOILED.sizeInBytes() + Tables.TRANSFORMED.sizeInBytes();
+    }
+
+    public static boolean isPersistent() {
+        return attached != null;
+    }
+
+    // === СБРОС ===
+
+    /**
+     * Сбрасывает счетчики проверок и испорченных предметов
+     */
+    public static void resetChecks() {
+        TOTAL_CHECKS.reset();
+        SPOILED_ITEMS.reset();
+        CONTAINER_CHECKS.reset();
+        INVENTORY_CHECKS.reset();
+        Tables.SPOILED.reset();
+    }
+
+    /**
+     * Сбрасывает счетчики превращений
+     */
+    public static void resetTransforms() {
+        Tables.TRANSFORMED.reset();
+    }
+
+    // === СОХРАНЕНИЕ В МИРЕ ===
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        if (SpoilageSettings.get().persistSpoilageStatistics()) {
+            attach(event.getServer());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelSave(LevelEvent.Save event) {
+        if (event.getLevel() instanceof ServerLevel level && level.dimension() == Level.OVERWORLD) {
+            markDirty(level.getServer());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        // Финальное сохранение миров выполняется после этого события
+        markDirty(event.getServer());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        attached = null;
+        resetChecks();
+        resetTransforms();
+    }
+
+    /**
+     * Помечает итоги для записи при сохранении мира (с подключением, если настройку включили на ходу)
+     */
+    private static void markDirty(MinecraftServer server) {
+        if (!SpoilageSettings.get().persistSpoilageStatistics()) {
+            return;
+        }
+        try {
+            if (attached == null) {
+                attach(server);
+            }
+            if (attached != null) {
+                attached.setDirty();
+            }
+        } catch (Exception e) {
+            LOGGER.error("Ошибка при сохранении статистики порчи", e);
+        }
+    }
+
+    /**
+     * Загружает сохраненные итоги мира и добавляет их к счетчикам
+     */
+    private static void attach(MinecraftServer server) {
+        try {
+            PersistedStatistics data = server.overworld().getDataStorage().computeIfAbsent(PersistedStatistics.TYPE);
+            if (!data.merged) {
+                Totals totals = data.loaded;
+                TOTAL_CHECKS.add(totals.totalChecks());
+                SPOILED_ITEMS.add(totals.spoiledItems());
+                CONTAINER_CHECKS.add(totals.containerChecks());
+                INVENTORY_CHECKS.add(totals.inventoryChecks());
+                mergeByType(totals.spoiledByType(), Tables.SPOILED, data.orphanSpoiled);
+                mergeByType(totals.transformedByType(), Tables.TRANSFORMED, data.orphanTransformed);
+                data.merged = true;
+
+                LOGGER.info("Загружена статистика порчи мира - Проверок: {}, Испорчено: {}, Типов предметов: {}",
+                        totals.totalChecks(), totals.spoiledItems(), totals.spoiledByType().size());
+            }
+            attached = data;
+        } catch (Exception e) {
+            LOGGER.error("Не удалось загрузить статистику порчи мира", e);
+        }
+    }
+
+    private static void mergeByType(Map<ResourceLocation, Long> saved, StripedItemCounters table,
+                                    Map<ResourceLocation, Long> orphans) {
+        saved.forEach((key, count) -> {
+            var item = BuiltInRegistries.ITEM.getOptional(key);
+            if (item.isPresent()) {
+                table.add(BuiltInRegistries.ITEM.getId(item.get()), count);
+            } else {
+                orphans.put(key, count);
+            }
+        });
+    }
+
+    private static Map<ResourceLocation, Long> toKeyedMap(long[] counts, Map<ResourceLocation, Long> orphans) {
+        Map<ResourceLocation, Long> result = new HashMap<>(orphans);
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] != 0) {
+                result.put(BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(id)), counts[id]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Сохраняемые итоги статистики
+     */
+    private record Totals(long totalChecks, long spoiledItems, long containerChecks, long inventoryChecks,
+                          Map<ResourceLocation, Long> spoiledByType, Map<ResourceLocation, Long> transformedByType) {
+
+        static final Totals EMPTY = new Totals(0, 0, 0, 0, Map.of(), Map.of());
+
+        static final Codec<Totals> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+                Codec.LONG.optionalFieldOf("totalChecks", 0L).forGetter(Totals::totalChecks),
+                Codec.LONG.optionalFieldOf("spoiledItems", 0L).forGetter(Totals::spoiledItems),
+                Codec.LONG.optionalFieldOf("containerChecks", 0L).forGetter(Totals::containerChecks),
+                Codec.LONG.optionalFieldOf("inventoryChecks", 0L).forGetter(Totals::inventoryChecks),
+                Codec.unboundedMap(ResourceLocation.CODEC, Codec.LONG).optionalFieldOf("spoiledByType", Map.of())
+                        .forGetter(Totals::spoiledByType),
+                Codec.unboundedMap(ResourceLocation.CODEC, Codec.LONG).optionalFieldOf("transformedByType", Map.of())
+                        .forGetter(Totals::transformedByType)
+        ).apply(instance, Totals::new));
+    }
+
+    /**
+     * Итоги статистики в хранилище данных верхнего мира.
+     * При записи кодируется текущее состояние счетчиков, а не загруженные значения.
+     */
+    private static final class PersistedStatistics extends SavedData {
+
+        static final Codec<PersistedStatistics> CODEC = Totals.CODEC.xmap(PersistedStatistics::new, PersistedStatistics::capture);
+
+        // Формат мода не проходит через DataFixer
+        static final SavedDataType<PersistedStatistics> TYPE =
+                new SavedDataType<>(DATA_ID, PersistedStatistics::new, CODEC, null);
+
+        final Totals loaded;
+        final Map<ResourceLocation, Long> orphanSpoiled = new HashMap<>();
+        final Map<ResourceLocation, Long> orphanTransformed = new HashMap<>();
+        boolean merged = false;
+
+        PersistedStatistics() {
+            this(Totals.EMPTY);
+        }
+
+        PersistedStatistics(Totals loaded) {
+            this.loaded = loaded;
+        }
+
+        private Totals capture() {
+            if (!merged) {
+                return loaded; // Счетчики еще не содержат сохраненных итогов
+            }
+            return new Totals(getTotalChecks(), getSpoiledItems(), getContainerChecks(), getInventoryChecks(),
+                    toKeyedMap(Tables.SPOILED.snapshot(), orphanSpoiled),
+                    toKeyedMap(Tables.TRANSFORMED.snapshot(), orphanTransformed));
+        }
+    }
+
+    // Запрещаем создание экземпляров
+    private SpoilageStatisticsStore() {}
+}
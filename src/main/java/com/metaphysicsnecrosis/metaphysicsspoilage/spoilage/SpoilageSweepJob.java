@@ -0,0 +1,450 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
+
+import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
+import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
+import com.metaphysicsnecrosis.metaphysicsspoilage.events.ItemEntityExpiryScheduler;
+import com.metaphysicsnecrosis.metaphysicsspoilage.mixin.ChunkMapAccessor;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.TickCostTracker;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.entity.EntityTypeTest;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Административная обработка порчи по всему серверу (команда /spoilage sweep).
+ *
+ * При запуске запоминает онлайн-игроков и список загруженных чанков. Позиции блочных сущностей
+ * и UUID предметов в мире собираются из этих чанков по тому же курсору, что и обработка,
+ * в пределах бюджета {@link Config#SWEEP_TICK_BUDGET_MS} миллисекунд за тик, после чего цели
+ * обрабатываются в том же бюджете. Цели хранятся по ключам, а не по ссылкам,
+ * поэтому выгруженные за время обработки чанки и ушедшие игроки просто пропускаются.
+ * Обработку можно приостановить и продолжить с того же места.
+ *
+ * Контейнеры оцениваются принудительно (без учета сохраненного дня порчи), включая
+ * FoodContainer внутри них, а предметы в мире переносятся в колесе таймеров на новый срок.
+ * Сохраненные в стеках дни порчи (storeAbsoluteExpiry) пересчитываются по текущим правилам -
+ * это позволяет применить изменение сроков хранения к работающему миру.
+ *
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+@EventBusSubscriber(modid = MetaphysicsSpoilage.MODID)
+public final class SpoilageSweepJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageSweepJob.class);
+
+    /**
+     * Интервал сообщений о ходе обработки (тики)
+     */
+    private static final int REPORT_INTERVAL_TICKS = 100;
+
+    /**
+     * Текущая обработка (доступ только из серверного потока)
+     */
+    @Nullable
+    private static SpoilageSweepJob active;
+
+    public enum Phase {
+        COLLECT,
+        PLAYERS,
+        BLOCK_ENTITIES,
+        ITEM_ENTITIES,
+        DONE
+    }
+
+    private final CommandSourceStack source;
+    private final String scope;
+
+    @Nullable
+    private final Vec3 center;
+    private final int radius;
+    private final long radiusSqr;
+
+    private final List<UUID> players = new ArrayList<>();
+    private final List<DimensionTargets> dimensions = new ArrayList<>();
+    private long total;
+
+    private Phase phase = Phase.COLLECT;
+    private int dimensionCursor = 0;
+    private int cursor = 0;
+
+    private long processed = 0;
+    private long skipped = 0;
+    private long activeNanos = 0;
+    private boolean paused = false;
+    private int ticksSinceReport = 0;
+
+    private SpoilageSweepJob(CommandSourceStack source, String scope, List<ServerLevel> levels,
+                             @Nullable Vec3 center, int radius) {
+        this.source = source;
+        this.scope = scope;
+        this.center = center;
+        this.radius = radius;
+        this.radiusSqr = (long) radius * radius;
+
+        for (ServerLevel level : levels) {
+            for (ServerPlayer player : level.players()) {
+                if (isInRange(center, radius, radiusSqr, player.getX(), player.getZ())) {
+                    players.add(player.getUUID());
+                }
+            }
+
+            // Только позиции чанков - их содержимое собирается по курсору в фазе COLLECT
+            DimensionTargets targets = new DimensionTargets(level.dimension());
+            ChunkMapAccessor chunkMap = (ChunkMapAccessor) level.getChunkSource().chunkMap;
+            for (ChunkHolder holder : chunkMap.metaphysicsspoilage$getChunks()) {
+                targets.chunks.add(holder.getPos().toLong());
+            }
+            dimensions.add(targets);
+        }
+
+        this.total = players.size();
+    }
+
+    /**
+     * Собирает позиции блочных сущностей и UUID предметов в мире одного загруженного чанка
+     */
+    private void collectChunk(@Nullable ServerLevel level, DimensionTargets targets, long packedChunkPos) {
+        if (level == null) {
+            return;
+        }
+
+        int chunkX = ChunkPos.getX(packedChunkPos);
+        int chunkZ = ChunkPos.getZ(packedChunkPos);
+        LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+        if (chunk == null) {
+            return; // Чанк выгружен после запуска
+        }
+
+        for (BlockPos pos : chunk.getBlockEntities().keySet()) {
+            if (isInRange(center, radius, radiusSqr, pos.getX() + 0.5, pos.getZ() + 0.5)) {
+                targets.blockEntities.add(pos.asLong());
+                total++;
+            }
+        }
+
+        ChunkPos chunkPos = chunk.getPos();
+        AABB bounds = new AABB(chunkPos.getMinBlockX(), level.getMinY(), chunkPos.getMinBlockZ(),
+            chunkPos.getMaxBlockX() + 1, level.getMaxY() + 1, chunkPos.getMaxBlockZ() + 1);
+        for (ItemEntity itemEntity : level.getEntities(EntityTypeTest.forClass(ItemEntity.class), bounds,
+                itemEntity -> itemEntity.chunkPosition().equals(chunkPos)
+                    && isInRange(center, radius, radiusSqr, itemEntity.getX(), itemEntity.getZ()))) {
+            targets.items.add(itemEntity.getUUID());
+            total++;
+        }
+    }
+
+    private static boolean isInRange(@Nullable Vec3 center, int radius, long radiusSqr, double x, double z) {
+        if (center == null || radius <= 0) {
+            return true;
+        }
+        double dx = x - center.x;
+        double dz = z - center.z;
+        return dx * dx + dz * dz <= radiusSqr;
+    }
+
+    // === УПРАВЛЕНИЕ ===
+
+    /**
+     * Запускает обработку
+     *
+     * @param dimension измерение или null для всех измерений
+     * @param radius    радиус в блоках вокруг позиции источника команды, 0 - без ограничения
+     * @return false если обработка уже выполняется
+     */
+    public static boolean start(CommandSourceStack source, @Nullable ServerLevel dimension, int radius) {
+        if (active != null) {
+            return false;
+        }
+
+        MinecraftServer server = source.getServer();
+        List<ServerLevel> levels = new ArrayList<>();
+        if (dimension != null) {
+            levels.add(dimension);
+        } else {
+            server.getAllLevels().forEach(levels::add);
+        }
+
+        String scope = (dimension != null ? dimension.dimension().location().toString() : "*")
+            + (radius > 0 ? ", r=" + radius : "");
+
+        active = new SpoilageSweepJob(source, scope, levels, radius > 0 ? source.getPosition() : null, radius);
+        LOGGER.info("Административная обработка порчи запущена ({}): {} игроков, {} чанков к просмотру",
+            scope, active.players.size(), active.dimensions.stream().mapToInt(targets -> targets.chunks.size()).sum());
+        return true;
+    }
+
+    /**
+     * Приостанавливает обработку
+     *
+     * @return false если обработка не выполняется или уже приостановлена
+     */
+    public static boolean pause() {
+        if (active == null || active.paused) {
+            return false;
+        }
+        active.paused = true;
+        return true;
+    }
+
+    /**
+     * Продолжает приостановленную обработку с сохраненного курсора
+     *
+     * @return false если нет приостановленной обработки
+     */
+    public static boolean resume() {
+        if (active == null || !active.paused) {
+            return false;
+        }
+        active.paused = false;
+        return true;
+    }
+
+    /**
+     * Отменяет обработку
+     *
+     * @return false если обработка не выполняется
+     */
+    public static boolean cancel() {
+        if (active == null) {
+            return false;
+        }
+        LOGGER.info("Административная обработка порчи отменена: {}", active.describe());
+        active = null;
+        return true;
+    }
+
+    public static boolean isRunning() {
+        return active != null;
+    }
+
+    /**
+     * Сообщение о ходе текущей обработки или null если она не выполняется
+     */
+    @Nullable
+    public static Component getProgressMessage() {
+        return active != null ? active.progressMessage() : null;
+    }
+
+    // === ОБРАБОТКА ===
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        long tickStart = TickCostTracker.start();
+        try {
+            SpoilageSweepJob job = active;
+            if (job == null || job.paused) {
+                return;
+            }
+
+            long budgetNanos = SpoilageSettings.get().sweepTickBudgetMs() * 1_000_000L;
+            long startNanos = System.nanoTime();
+
+            try {
+                job.run(event.getServer(), startNanos + budgetNanos);
+            } catch (Exception e) {
+                LOGGER.error("Ошибка административной обработки порчи, обработка остановлена", e);
+                job.source.sendFailure(Component.translatable("commands.metaphysicsspoilage.sweep.failed"));
+                active = null;
+                return;
+            }
+            job.activeNanos += System.nanoTime() - startNanos;
+
+            if (job.phase == Phase.DONE) {
+                LOGGER.info("Административная обработка порчи завершена: {}", job.describe());
+                job.source.sendSuccess(() -> Component.translatable("commands.metaphysicsspoilage.sweep.done",
+                    job.processed, job.skipped, String.format("%.1f", job.activeNanos / 1.0E9)), true);
+                active = null;
+            } else if (++job.ticksSinceReport >= REPORT_INTERVAL_TICKS) {
+                job.ticksSinceReport = 0;
+                job.source.sendSuccess(job::progressMessage, false);
+            }
+        } finally {
+            TickCostTracker.stop(tickStart);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        active = null;
+    }
+
+    /**
+     * Обрабатывает цели до исчерпания бюджета времени
+     */
+    private void run(MinecraftServer server, long deadlineNanos) {
+        while (phase != Phase.DONE && System.nanoTime() < deadlineNanos) {
+            switch (phase) {
+                case COLLECT -> {
+                    if (dimensionCursor >= dimensions.size()) {
+                        nextPhase(Phase.PLAYERS);
+                        continue;
+                    }
+
+                    DimensionTargets targets = dimensions.get(dimensionCursor);
+                    if (cursor >= targets.chunks.size()) {
+                        targets.chunks.clear();
+                        targets.chunks.trim();
+                        dimensionCursor++;
+                        cursor = 0;
+                        continue;
+                    }
+
+                    collectChunk(server.getLevel(targets.dimension), targets, targets.chunks.getLong(cursor++));
+                }
+                case PLAYERS -> {
+                    if (cursor >= players.size()) {
+                        nextPhase(Phase.BLOCK_ENTITIES);
+                        continue;
+                    }
+                    processPlayer(server, players.get(cursor++));
+                }
+                case BLOCK_ENTITIES, ITEM_ENTITIES -> {
+                    if (dimensionCursor >= dimensions.size()) {
+                        nextPhase(phase == Phase.BLOCK_ENTITIES ? Phase.ITEM_ENTITIES : Phase.DONE);
+                        continue;
+                    }
+
+                    DimensionTargets targets = dimensions.get(dimensionCursor);
+                    int size = phase == Phase.BLOCK_ENTITIES ? targets.blockEntities.size() : targets.items.size();
+                    if (cursor >= size) {
+                        dimensionCursor++;
+                        cursor = 0;
+                        continue;
+                    }
+
+                    ServerLevel level = server.getLevel(targets.dimension);
+                    if (phase == Phase.BLOCK_ENTITIES) {
+                        processBlockEntity(level, targets.blockEntities.getLong(cursor++));
+                    } else {
+                        processItemEntity(level, targets.items.get(cursor++));
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void nextPhase(Phase next) {
+        phase = next;
+        dimensionCursor = 0;
+        cursor = 0;
+    }
+
+    private void processPlayer(MinecraftServer server, UUID playerId) {
+        ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+        if (player == null || !(player.level() instanceof ServerLevel serverLevel)) {
+            skipped++;
+            return;
+        }
+
+        Inventory inventory = player.getInventory();
+        for (int slot = 0; slot < inventory.getContainerSize(); slot++) {
+            ItemStack stack = inventory.getItem(slot);
+            if (SpoilageUtils.restampExpiry(stack)) {
+                inventory.setItem(slot, stack);
+            }
+        }
+
+        SpoilageChecker.checkPlayerInventory(player, serverLevel, true);
+        processed++;
+    }
+
+    private void processBlockEntity(@Nullable ServerLevel level, long packedPos) {
+        BlockPos pos = BlockPos.of(packedPos);
+        if (level == null || !level.isLoaded(pos)) {
+            skipped++;
+            return;
+        }
+
+        BlockEntity blockEntity = level.getBlockEntity(pos);
+        if (blockEntity == null) {
+            skipped++;
+            return;
+        }
+
+        ContainerSpoilageEvaluator.evaluate(level, blockEntity, true);
+        processed++;
+    }
+
+    private void processItemEntity(@Nullable ServerLevel level, UUID entityId) {
+        Entity entity = level != null ? level.getEntity(entityId) : null;
+        if (!(entity instanceof ItemEntity itemEntity) || itemEntity.isRemoved()) {
+            skipped++;
+            return;
+        }
+
+        ItemStack stack = itemEntity.getItem().copy();
+        if (SpoilageUtils.restampExpiry(stack)) {
+            itemEntity.setItem(stack); // Копия - иначе данные сущности не синхронизируются
+        }
+
+        ItemEntityExpiryScheduler.reschedule(level, itemEntity);
+        processed++;
+    }
+
+    // === ОТЧЕТЫ ===
+
+    private Component progressMessage() {
+        long done = processed + skipped;
+        double seconds = activeNanos / 1.0E9;
+        double rate = seconds > 0 ? done / seconds : 0;
+        // Пока цели собираются, их общее число еще неизвестно
+        String eta = rate > 0 && phase != Phase.COLLECT ? String.format("%.0f", (total - done) / rate) : "?";
+        double percent = total > 0 ? done * 100.0 / total : 100.0;
+
+        return Component.translatable(
+            paused ? "commands.metaphysicsspoilage.sweep.progress_paused" : "commands.metaphysicsspoilage.sweep.progress",
+            scope, phase.name().toLowerCase(), done, total, String.format("%.1f", percent),
+            String.format("%.0f", rate), eta);
+    }
+
+    private String describe() {
+        return String.format("%s - обработано %d, пропущено %d из %d за %.1f с",
+            scope, processed, skipped, total, activeNanos / 1.0E9);
+    }
+
+    /**
+     * Цели обработки в одном измерении
+     */
+    private static final class DimensionTargets {
+        final ResourceKey<Level> dimension;
+        final LongArrayList chunks = new LongArrayList();
+        final LongArrayList blockEntities = new LongArrayList();
+        final List<UUID> items = new ArrayList<>();
+
+        DimensionTargets(ResourceKey<Level> dimension) {
+            this.dimension = dimension;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
 
 import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
 import com.metaphysicsnecrosis.metaphysicsspoilage.manager.TimedFoodManager;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageJfrEvents;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
@@ -12,7 +14,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Система превращения испорченных предметов согласно README.
@@ -66,11 +67,6 @@ public class SpoilageTransformer {
      */
     private static final Map<Item, SpoiledType> TRANSFORMATION_MAPPING = new ConcurrentHashMap<>();
 
-    /**
-     * Статистика превращений для отладки
-     */
-    private static final Map<String, AtomicLong> TRANSFORMATION_STATS = new ConcurrentHashMap<>();
-
     static {
         initializeTransformationMapping();
     }
@@ -177,7 +173,7 @@ public class SpoilageTransformer {
         }
 
         // Проверяем, что система порчи включена
-        if (!Config.ENABLE_SPOILAGE_SYSTEM.get()) {
+        if (!SpoilageSettings.get().enableSpoilageSystem()) {
             LOGGER.debug("Система порчи отключена в конфигурации");
             return ItemStack.EMPTY;
         }
@@ -185,6 +181,9 @@ public class SpoilageTransformer {
         // Не проверяем режим здесь, так как этот метод может вызываться
         // из разных мест, где режим уже проверен (например, из контейнера)
 
+        SpoilageJfrEvents.ItemTransform transformEvent = new SpoilageJfrEvents.ItemTransform();
+        transformEvent.begin();
+
         // Получаем испорченный вариант
         Item spoiledItem = getSpoiledVariant(originalItem);
         if (spoiledItem == Items.AIR) {
@@ -193,9 +192,10 @@ public class SpoilageTransformer {
             return ItemStack.EMPTY;
         }
 
-        String originalItemId = BuiltInRegistries.ITEM.getKey(originalItem).toString();
-        String spoiledItemId = BuiltInRegistries.ITEM.getKey(spoiledItem).toString();
-        LOGGER.debug("Найден испорченный вариант для {}: {}", originalItemId, spoiledItemId);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Найден испорченный вариант для {}: {}",
+                    BuiltInRegistries.ITEM.getKey(originalItem), BuiltInRegistries.ITEM.getKey(spoiledItem));
+        }
 
         // Создаем новый стек с сохранением количества
         ItemStack transformedStack = new ItemStack(spoiledItem, originalStack.getCount());
@@ -205,12 +205,22 @@ public class SpoilageTransformer {
             EnchantmentHelper.setEnchantments(transformedStack, EnchantmentHelper.getEnchantmentsForCrafting(originalStack));
         }
 
-        LOGGER.debug("Превращение: {} -> {} (количество: {})",
-                originalItemId, spoiledItemId, originalStack.getCount());
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Превращение: {} -> {} (количество: {})",
+                    BuiltInRegistries.ITEM.getKey(originalItem), BuiltInRegistries.ITEM.getKey(spoiledItem),
+                    originalStack.getCount());
+        }
 
         // Обновляем статистику
-        TRANSFORMATION_STATS.computeIfAbsent(originalItemId, k -> new AtomicLong(0))
-                .addAndGet(originalStack.getCount());
+        SpoilageStatisticsStore.recordTransformed(originalItem, originalStack.getCount());
+
+        transformEvent.end();
+        if (transformEvent.shouldCommit()) {
+            transformEvent.originalItem = BuiltInRegistries.ITEM.getKey(originalItem).toString();
+            transformEvent.spoiledItem = BuiltInRegistries.ITEM.getKey(spoiledItem).toString();
+            transformEvent.count = originalStack.getCount();
+            transformEvent.commit();
+        }
 
         return transformedStack;
     }
@@ -306,8 +316,8 @@ public class SpoilageTransformer {
      */
     public static boolean isTransformationEnabled() {
         // Проверяем, что система порчи включена и режим - превращение
-        return Config.ENABLE_SPOILAGE_SYSTEM.get() &&
-               Config.SPOILAGE_MODE.get() == Config.SpoilageMode.TRANSFORM_TO_SPOILED;
+        return SpoilageSettings.get().enableSpoilageSystem() &&
+               SpoilageSettings.get().spoilageMode() == Config.SpoilageMode.TRANSFORM_TO_SPOILED;
     }
 
     /**
@@ -441,16 +451,14 @@ public class SpoilageTransformer {
      * @return Map с количеством превращений по типам предметов
      */
     public static Map<String, Long> getTransformationStatistics() {
-        Map<String, Long> stats = new ConcurrentHashMap<>();
-        TRANSFORMATION_STATS.forEach((key, value) -> stats.put(key, value.get()));
-        return stats;
+        return SpoilageStatisticsStore.getTransformedByType();
     }
 
     /**
      * Сбрасывает статистику превращений
      */
     public static void resetStatistics() {
-        TRANSFORMATION_STATS.clear();
+        SpoilageStatisticsStore.resetTransforms();
         LOGGER.info("Статистика превращений SpoilageTransformer сброшена");
     }
 
@@ -543,7 +551,7 @@ public class SpoilageTransformer {
      */
     public static void clearCache() {
         TRANSFORMATION_MAPPING.clear();
-        TRANSFORMATION_STATS.clear();
+        SpoilageStatisticsStore.resetTransforms();
         initializeTransformationMapping();
         LOGGER.info("Кэш SpoilageTransformer очищен и переинициализирован");
     }
@@ -555,6 +563,6 @@ public class SpoilageTransformer {
      */
     public static String getCacheInfo() {
         return String.format("SpoilageTransformer - Маппинг: %d, Статистика: %d",
-                TRANSFORMATION_MAPPING.size(), TRANSFORMATION_STATS.size());
+                TRANSFORMATION_MAPPING.size(), getTransformationStatistics().size());
     }
 }
\ No newline at end of file
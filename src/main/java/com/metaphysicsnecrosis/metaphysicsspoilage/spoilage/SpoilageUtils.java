@@ -2,7 +2,10 @@ package com.metaphysicsnecrosis.metaphysicsspoilage.spoilage;
 
 import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
 import com.metaphysicsnecrosis.metaphysicsspoilage.MetaphysicsSpoilage;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
 import com.metaphysicsnecrosis.metaphysicsspoilage.component.SpoilageComponent;
+import com.metaphysicsnecrosis.metaphysicsspoilage.manager.TimedFoodManager;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.BoundedCache;
 import com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
@@ -24,6 +27,12 @@ public class SpoilageUtils {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SpoilageUtils.class);
 
+    /**
+     * Разрешенные правила порчи по предметам (сбрасываются со сменой поколения правил)
+     */
+    private static final BoundedCache<Item, SpoilageData> RULES_CACHE =
+        BoundedCache.generational("Правила порчи");
+
     /**
      * УДАЛЕНО: Hardcoded настройки перенесены в JSON файлы
      * Теперь все настройки загружаются из datapack JSON файлов
@@ -72,10 +81,73 @@ public class SpoilageUtils {
             return;
         }
 
-        SpoilageComponent component = new SpoilageComponent(creationDay);
+        SpoilageComponent component = createComponent(itemStack.getItem(), creationDay);
         itemStack.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(), component);
     }
 
+    /**
+     * Создает компонент порчи для предмета. При включенной настройке storeAbsoluteExpiry
+     * в компонент записывается день порчи с учетом множителя скорости порчи.
+     *
+     * @param item Предмет
+     * @param creationDay День создания или специальный флаг
+     * @return Компонент порчи
+     */
+    public static SpoilageComponent createComponent(Item item, long creationDay) {
+        if (!SpoilageSettings.get().storeAbsoluteExpiry() || SpoilageComponent.isSpecialFlag(creationDay)) {
+            return new SpoilageComponent(creationDay);
+        }
+
+        double duration = TimedFoodManager.getEffectiveSpoilageDuration(item);
+        if (duration < 0) {
+            return new SpoilageComponent(creationDay);
+        }
+
+        return new SpoilageComponent(creationDay, creationDay + (long) Math.ceil(duration));
+    }
+
+    /**
+     * Пересчитывает сохраненный день порчи стека по текущим правилам и настройкам
+     * (миграция после изменения сроков хранения). При выключенной настройке
+     * storeAbsoluteExpiry сохраненный срок удаляется.
+     *
+     * @param itemStack Стек предметов
+     * @return true если компонент изменился
+     */
+    public static boolean restampExpiry(ItemStack itemStack) {
+        if (itemStack.isEmpty()) {
+            return false;
+        }
+
+        SpoilageComponent component = itemStack.get(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get());
+        if (component == null) {
+            return false;
+        }
+
+        SpoilageComponent updated = createComponent(itemStack.getItem(), component.creationDay());
+        if (updated.equals(component)) {
+            return false;
+        }
+
+        itemStack.set(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get(), updated);
+        return true;
+    }
+
+    /**
+     * Получает срок хранения стека в днях: из сохраненного дня порчи, если он есть,
+     * иначе по правилам порчи предмета
+     *
+     * @param itemStack Стек предметов
+     * @return Срок хранения в днях, или -1 если предмет не портится
+     */
+    public static long getShelfLife(ItemStack itemStack) {
+        SpoilageComponent component = itemStack.get(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get());
+        if (component != null && component.hasStoredExpiry()) {
+            return component.expiryDay() - component.creationDay();
+        }
+        return getSpoilageTime(itemStack.getItem());
+    }
+
     /**
      * Проверяет, испортился ли предмет на основе текущего игрового дня
      *
@@ -88,12 +160,19 @@ public class SpoilageUtils {
             return false;
         }
 
-        // Получаем данные о порче для этого предмета
+        // Кэшированные правила проверяются первыми: предмет, который перестал портиться,
+        // не должен портиться по ранее сохраненному дню
         SpoilageData spoilageData = getSpoilageData(itemStack.getItem());
         if (!spoilageData.canSpoil()) {
             return false;
         }
 
+        // Сохраненный день порчи - одно сравнение без пересчета срока
+        SpoilageComponent stored = itemStack.get(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get());
+        if (stored != null && stored.hasStoredExpiry()) {
+            return WorldDayTracker.getInstance(level).getCurrentDay() >= stored.expiryDay();
+        }
+
         // Проверяем наличие компонента порчи
         long creationDay = getCreationDay(itemStack);
         if (creationDay == -1) {
@@ -127,11 +206,25 @@ public class SpoilageUtils {
      * @return Данные о порче предмета
      */
     public static SpoilageData getSpoilageData(Item item) {
+        return RULES_CACHE.get(item, SpoilageUtils::resolveSpoilageData);
+    }
+
+    /**
+     * Кэш разрешенных правил порчи (для статистики)
+     */
+    public static BoundedCache<Item, SpoilageData> getRulesCache() {
+        return RULES_CACHE;
+    }
+
+    /**
+     * Разрешает правила порчи предмета по всей цепочке источников
+     */
+    private static SpoilageData resolveSpoilageData(Item item) {
         // 0. ПРОВЕРКА ИСКЛЮЧЕНИЙ (всегда первая проверка)
         String itemId = BuiltInRegistries.ITEM.getKey(item).toString();
 
         // Проверяем исключения из конфига
-        if (Config.isItemExcluded(itemId)) {
+        if (SpoilageSettings.get().isItemExcluded(itemId)) {
             LOGGER.debug("Предмет {} исключен из системы порчи", itemId);
             return SpoilageData.nonSpoilable();
         }
@@ -149,9 +242,9 @@ public class SpoilageUtils {
         }
 
         // 2. УНИВЕРСАЛЬНАЯ ПОДДЕРЖКА: если включена универсальная порча еды
-        if (Config.ENABLE_UNIVERSAL_FOOD_SPOILAGE.get() && hasUniversalFoodComponent(item)) {
+        if (SpoilageSettings.get().enableUniversalFoodSpoilage() && hasUniversalFoodComponent(item)) {
             // Получаем дефолтное время из конфига (2 дня)
-            long defaultDays = Config.DEFAULT_FOOD_STORAGE_DAYS.get();
+            long defaultDays = SpoilageSettings.get().defaultFoodStorageDays();
             return SpoilageData.spoilable(defaultDays);
         }
 
@@ -184,6 +277,42 @@ public class SpoilageUtils {
         return data.canSpoil() ? data.getSpoilageTime() : -1;
     }
 
+    /**
+     * Получает день, начиная с которого предмет считается испорченным
+     *
+     * @param itemStack Стек предметов
+     * @return День порчи, 0 для принудительно испорченных, или -1 если стек не портится
+     *         (нет метки, специальный флаг, исключение)
+     */
+    public static long getExpiryDay(ItemStack itemStack) {
+        if (itemStack.isEmpty()) {
+            return -1;
+        }
+
+        SpoilageComponent component = itemStack.get(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get());
+        if (component == null) {
+            return -1;
+        }
+        if (component.hasStoredExpiry()) {
+            return getSpoilageData(itemStack.getItem()).canSpoil() ? component.expiryDay() : -1;
+        }
+
+        long creationDay = component.creationDay();
+        if (creationDay == SpoilageComponent.ROTTEN_FLAG) {
+            return 0;
+        }
+        if (creationDay < 0) {
+            return -1;
+        }
+
+        long spoilageTime = getSpoilageTime(itemStack.getItem());
+        if (spoilageTime < 0) {
+            return -1;
+        }
+
+        return creationDay + spoilageTime;
+    }
+
     /**
      * Автоматически устанавливает временную метку для предмета, если он может портиться
      * и у него еще нет метки
@@ -220,6 +349,11 @@ public class SpoilageUtils {
             return -1;
         }
 
+        SpoilageComponent stored = itemStack.get(MetaphysicsSpoilage.SPOILAGE_COMPONENT.get());
+        if (stored != null && stored.hasStoredExpiry()) {
+            return Math.max(0, stored.expiryDay() - WorldDayTracker.getInstance(level).getCurrentDay());
+        }
+
         SpoilageData spoilageData = getSpoilageData(itemStack.getItem());
         if (!spoilageData.canSpoil()) {
             return -1;
@@ -270,7 +404,7 @@ public class SpoilageUtils {
      */
     private static boolean isAutomaticallyExcluded(Item item, String itemId) {
         // Исключаем уже испорченные предметы
-        if (Config.EXCLUDE_ALREADY_SPOILED_ITEMS.get()) {
+        if (SpoilageSettings.get().excludeAlreadySpoiledItems()) {
             if (itemId.equals("minecraft:rotten_flesh") ||
                 itemId.equals("minecraft:spider_eye") ||
                 itemId.equals("minecraft:poisonous_potato")) {
@@ -279,7 +413,7 @@ public class SpoilageUtils {
         }
 
         // Исключаем магическую еду
-        if (Config.EXCLUDE_MAGICAL_FOOD.get()) {
+        if (SpoilageSettings.get().excludeMagicalFood()) {
             if (itemId.equals("minecraft:golden_apple") ||
                 itemId.equals("minecraft:enchanted_golden_apple") ||
                 itemId.equals("minecraft:chorus_fruit")) {
@@ -288,7 +422,7 @@ public class SpoilageUtils {
         }
 
         // Исключаем зелья
-        if (Config.EXCLUDE_POTIONS_FROM_SPOILAGE.get()) {
+        if (SpoilageSettings.get().excludePotionsFromSpoilage()) {
             if (itemId.equals("minecraft:potion") ||
                 itemId.equals("minecraft:splash_potion") ||
                 itemId.equals("minecraft:lingering_potion") ||
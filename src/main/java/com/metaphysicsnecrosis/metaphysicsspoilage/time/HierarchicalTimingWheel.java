@@ -0,0 +1,214 @@
+package com.metaphysicsnecrosis.metaphysicsspoilage.time;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Иерархическое колесо таймеров с разрешением в один игровой день.
+ *
+ * Три уровня по 64 слота покрывают 64 / 4096 / 262144 дня вперед, более дальние
+ * сроки хранятся в списке переполнения. Добавление, удаление и продвижение на один
+ * день выполняются за O(1) (не считая сработавших элементов), поэтому стоимость
+ * не зависит от количества ожидающих элементов.
+ *
+ * Класс не потокобезопасен - используется только из серверного потока.
+ *
+ * @param <T> тип планируемых элементов (сравниваются через equals/hashCode)
+ * @author MetaphysicsNecrosis
+ * @version 1.0
+ * @since 1.21.8
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 3;
+
+    /**
+     * Горизонт колеса в днях; все, что дальше, попадает в переполнение
+     */
+    private static final long HORIZON = 1L << (SLOT_BITS * LEVELS);
+
+    private static final int OVERFLOW_LOCATION = -1;
+
+    private final List<Set<T>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final Set<T> overflow = new HashSet<>();
+
+    /**
+     * Срок и расположение каждого элемента (для удаления за O(1))
+     */
+    private final Map<T, Long> expiries = new HashMap<>();
+    private final Map<T, Integer> locations = new HashMap<>();
+
+    private long currentDay;
+
+    public HierarchicalTimingWheel(long startDay) {
+        this.currentDay = startDay;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new HashSet<>());
+        }
+    }
+
+    /**
+     * Планирует элемент на указанный день. Повторное планирование переносит срок.
+     *
+     * @param element элемент
+     * @param expiryDay день срабатывания
+     * @param expired получатель элементов, срок которых уже наступил
+     */
+    public void schedule(T element, long expiryDay, Consumer<T> expired) {
+        remove(element);
+
+        if (expiryDay <= currentDay) {
+            expired.accept(element);
+            return;
+        }
+
+        place(element, expiryDay);
+    }
+
+    /**
+     * Удаляет элемент из колеса
+     *
+     * @return true если элемент был запланирован
+     */
+    public boolean remove(T element) {
+        Integer location = locations.remove(element);
+        if (location == null) {
+            return false;
+        }
+
+        expiries.remove(element);
+        if (location == OVERFLOW_LOCATION) {
+            overflow.remove(element);
+        } else {
+            slots.get(location).remove(element);
+        }
+        return true;
+    }
+
+    /**
+     * Продвигает колесо до указанного дня, передавая сработавшие элементы получателю
+     *
+     * @param targetDay новый текущий день
+     * @param expired получатель сработавших элементов
+     */
+    public void advance(long targetDay, Consumer<T> expired) {
+        if (targetDay <= currentDay) {
+            return;
+        }
+
+        // Большой скачок времени (команда /time) - проще перераспределить все заново
+        if (targetDay - currentDay >= HORIZON) {
+            rebuild(targetDay, expired);
+            return;
+        }
+
+        while (currentDay < targetDay) {
+            currentDay++;
+
+            if ((currentDay & (HORIZON - 1)) == 0 && !overflow.isEmpty()) {
+                redistribute(new ArrayList<>(overflow), expired);
+            }
+
+            // Каскад с верхних уровней на нижние на границах их периодов
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((currentDay & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    int slot = (int) ((currentDay >>> (SLOT_BITS * level)) & SLOT_MASK);
+                    Set<T> bucket = slots.get(level * SLOTS + slot);
+                    if (!bucket.isEmpty()) {
+                        redistribute(new ArrayList<>(bucket), expired);
+                    }
+                }
+            }
+
+            Set<T> due = slots.get((int) (currentDay & SLOT_MASK));
+            if (!due.isEmpty()) {
+                List<T> fired = new ArrayList<>(due);
+                for (T element : fired) {
+                    remove(element);
+                    expired.accept(element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Переводит колесо на более ранний день (мировое время переведено назад).
+     * Все элементы перераспределяются относительно нового дня; сработают только те,
+     * срок которых не позже него.
+     *
+     * @param targetDay новый текущий день
+     * @param expired получатель сработавших элементов
+     */
+    public void rewind(long targetDay, Consumer<T> expired) {
+        if (targetDay >= currentDay) {
+            return;
+        }
+        rebuild(targetDay, expired);
+    }
+
+    private void rebuild(long targetDay, Consumer<T> expired) {
+        Map<T, Long> pending = new HashMap<>(expiries);
+        clear();
+        currentDay = targetDay;
+        pending.forEach((element, expiryDay) -> schedule(element, expiryDay, expired));
+    }
+
+    private void redistribute(List<T> elements, Consumer<T> expired) {
+        for (T element : elements) {
+            Long expiryDay = expiries.get(element);
+            if (expiryDay != null) {
+                schedule(element, expiryDay, expired);
+            }
+        }
+    }
+
+    private void place(T element, long expiryDay) {
+        long delta = expiryDay - currentDay;
+        expiries.put(element, expiryDay);
+
+        if (delta >= HORIZON) {
+            overflow.add(element);
+            locations.put(element, OVERFLOW_LOCATION);
+            return;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+
+        int location = level * SLOTS + (int) ((expiryDay >>> (SLOT_BITS * level)) & SLOT_MASK);
+        slots.get(location).add(element);
+        locations.put(element, location);
+    }
+
+    /**
+     * Удаляет все элементы
+     */
+    public void clear() {
+        slots.forEach(Set::clear);
+        overflow.clear();
+        expiries.clear();
+        locations.clear();
+    }
+
+    public boolean contains(T element) {
+        return locations.containsKey(element);
+    }
+
+    public int size() {
+        return locations.size();
+    }
+
+    public long getCurrentDay() {
+        return currentDay;
+    }
+}
@@ -1,6 +1,9 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.time;
 
-import com.metaphysicsnecrosis.metaphysicsspoilage.performance.PerformanceManager;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.Metrics;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.OperationTimer;
+import com.metaphysicsnecrosis.metaphysicsspoilage.performance.SpoilageJfrEvents;
+import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import org.slf4j.Logger;
@@ -27,20 +30,16 @@ public class WorldDayTracker {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WorldDayTracker.class);
 
-    /**
-     * Кэш экземпляров трекеров по измерениям для быстрого доступа
-     */
-    private static final Map<String, WorldDayTracker> INSTANCES = new ConcurrentHashMap<>();
-
-    /**
-     * Кэш последних вычисленных дней для оптимизации повторных обращений
-     */
-    private static final Map<String, Long> DAY_CACHE = new ConcurrentHashMap<>();
+    private static final OperationTimer GET_INSTANCE_TIMER = Metrics.sampledTimer("WorldDayTracker.getInstance");
+    private static final OperationTimer CLEAR_CACHE_TIMER = Metrics.timer("WorldDayTracker.clearCache");
+    private static final OperationTimer FORCE_UPDATE_TIMER = Metrics.timer("WorldDayTracker.forceUpdate");
+    private static final OperationTimer CLEAR_ALL_CACHES_TIMER = Metrics.timer("WorldDayTracker.clearAllCaches");
 
     /**
-     * Время последнего обновления кэша дней для каждого измерения
+     * Кэш экземпляров трекеров по измерениям для быстрого доступа.
+     * Ключ - ResourceKey измерения: ключи интернированы, поэтому поиск не строит строк.
      */
-    private static final Map<String, Long> LAST_CACHE_UPDATE = new ConcurrentHashMap<>();
+    private static final Map<ResourceKey<Level>, WorldDayTracker> INSTANCES = new ConcurrentHashMap<>();
 
     /**
      * Интервал кэширования дней (500мс) для предотвращения частых пересчетов
@@ -51,6 +50,11 @@ public class WorldDayTracker {
     private volatile boolean isDirty = false;
     private volatile long lastUpdateTime = 0;
 
+    /**
+     * Время последней сверки дня с мировым временем (0 - еще не сверялся)
+     */
+    private volatile long lastWorldSync = 0;
+
     /**
      * Конструктор по умолчанию для создания нового трекера
      */
@@ -119,46 +123,45 @@ public class WorldDayTracker {
      * @return экземпляр WorldDayTracker
      */
     public static WorldDayTracker getInstance(ServerLevel level) {
-        try (var profiler = PerformanceManager.profile("WorldDayTracker.getInstance")) {
-            String dimensionKey = level.dimension().location().toString();
-
-            // Проверяем кэш дней
-            Long cachedDay = DAY_CACHE.get(dimensionKey);
-            Long lastUpdate = LAST_CACHE_UPDATE.get(dimensionKey);
-            long currentTime = System.currentTimeMillis();
-
-            // Если кэш свежий, используем его
-            if (cachedDay != null && lastUpdate != null &&
-                (currentTime - lastUpdate) < CACHE_INTERVAL) {
-
-                WorldDayTracker tracker = INSTANCES.get(dimensionKey);
-                if (tracker != null) {
-                    tracker.currentDay = cachedDay;
-                    return tracker;
-                }
+        long timerStart = GET_INSTANCE_TIMER.start();
+        try {
+            // Горячий путь: поиск по ключу измерения и сравнение времени, без выделения объектов
+            WorldDayTracker tracker = INSTANCES.get(level.dimension());
+            if (tracker == null) {
+                tracker = INSTANCES.computeIfAbsent(level.dimension(), k -> {
+                    long worldDay = TimeUtils.getCurrentDayFromWorldTime(level);
+                    LOGGER.debug("Создан новый WorldDayTracker для измерения {} с днем {}", k.location(), worldDay);
+                    return new WorldDayTracker(worldDay);
+                });
             }
 
-            // Получаем или создаем трекер
-            WorldDayTracker tracker = INSTANCES.computeIfAbsent(dimensionKey, k -> {
-                long worldDay = TimeUtils.getCurrentDayFromWorldTime(level);
-                WorldDayTracker newTracker = new WorldDayTracker(worldDay);
-                LOGGER.debug("Создан новый WorldDayTracker для измерения {} с днем {}", k, worldDay);
-                return newTracker;
-            });
-
-            // Обновляем кэш дня если необходимо
-            if (lastUpdate == null || (currentTime - lastUpdate) >= CACHE_INTERVAL) {
+            // Сверяем день с мировым временем не чаще CACHE_INTERVAL
+            long currentTime = System.currentTimeMillis();
+            if (currentTime - tracker.lastWorldSync >= CACHE_INTERVAL) {
+                tracker.lastWorldSync = currentTime;
                 long worldDay = TimeUtils.getCurrentDayFromWorldTime(level);
-                DAY_CACHE.put(dimensionKey, worldDay);
-                LAST_CACHE_UPDATE.put(dimensionKey, currentTime);
-
-                // Синхронизируем трекер с мировым временем
                 if (tracker.currentDay != worldDay) {
+                    recordDayRollover(level.dimension().location().toString(), tracker.currentDay, worldDay);
                     tracker.setCurrentDay(worldDay);
                 }
             }
 
             return tracker;
+        } finally {
+            GET_INSTANCE_TIMER.stop(timerStart);
+        }
+    }
+
+    /**
+     * Записывает событие JFR о смене дня
+     */
+    private static void recordDayRollover(String dimension, long previousDay, long newDay) {
+        SpoilageJfrEvents.DayRollover event = new SpoilageJfrEvents.DayRollover();
+        if (event.shouldCommit()) {
+            event.dimension = dimension;
+            event.previousDay = previousDay;
+            event.newDay = newDay;
+            event.commit();
         }
     }
 
@@ -166,19 +169,19 @@ public class WorldDayTracker {
      * Очистить кэш при выгрузке мира (ОПТИМИЗИРОВАННАЯ ВЕРСИЯ)
      */
     public static void clearCache(Level level) {
-        try (var profiler = PerformanceManager.profile("WorldDayTracker.clearCache")) {
-            String dimensionKey = level.dimension().location().toString();
-            INSTANCES.remove(dimensionKey);
-            DAY_CACHE.remove(dimensionKey);
-            LAST_CACHE_UPDATE.remove(dimensionKey);
-            LOGGER.debug("Очищен кэш WorldDayTracker для измерения {}", dimensionKey);
+        long timerStart = CLEAR_CACHE_TIMER.start();
+        try {
+            INSTANCES.remove(level.dimension());
+            LOGGER.debug("Очищен кэш WorldDayTracker для измерения {}", level.dimension().location());
+        } finally {
+            CLEAR_CACHE_TIMER.stop(timerStart);
         }
     }
 
     /**
      * Получить все активные трекеры (для отладки)
      */
-    public static Map<String, WorldDayTracker> getAllInstances() {
+    public static Map<ResourceKey<Level>, WorldDayTracker> getAllInstances() {
         return new ConcurrentHashMap<>(INSTANCES);
     }
 
@@ -201,12 +204,16 @@ public class WorldDayTracker {
      * Принудительно обновляет день из мирового времени (НОВЫЙ МЕТОД)
      */
     public void forceUpdateFromWorldTime(ServerLevel level) {
-        try (var profiler = PerformanceManager.profile("WorldDayTracker.forceUpdate")) {
+        long timerStart = FORCE_UPDATE_TIMER.start();
+        try {
             long worldDay = TimeUtils.getCurrentDayFromWorldTime(level);
             if (this.currentDay != worldDay) {
+                recordDayRollover(level.dimension().location().toString(), this.currentDay, worldDay);
                 setCurrentDay(worldDay);
                 LOGGER.debug("Принудительно обновлен день: {} -> {}", this.currentDay, worldDay);
             }
+        } finally {
+            FORCE_UPDATE_TIMER.stop(timerStart);
         }
     }
 
@@ -214,16 +221,14 @@ public class WorldDayTracker {
      * Очищает все кэши принудительно (для профилактики)
      */
     public static void clearAllCaches() {
-        try (var profiler = PerformanceManager.profile("WorldDayTracker.clearAllCaches")) {
+        long timerStart = CLEAR_ALL_CACHES_TIMER.start();
+        try {
             int instancesSize = INSTANCES.size();
-            int dayCacheSize = DAY_CACHE.size();
-
             INSTANCES.clear();
-            DAY_CACHE.clear();
-            LAST_CACHE_UPDATE.clear();
 
-            LOGGER.info("Очищены все кэши WorldDayTracker: экземпляров={}, дней={}",
-                       instancesSize, dayCacheSize);
+            LOGGER.info("Очищены все кэши WorldDayTracker: экземпляров={}", instancesSize);
+        } finally {
+            CLEAR_ALL_CACHES_TIMER.stop(timerStart);
         }
     }
 
@@ -231,8 +236,9 @@ public class WorldDayTracker {
      * Получает статистику использования кэша
      */
     public static String getCacheStatistics() {
-        return String.format("WorldDayTracker кэши - Трекеров: %d, Дней: %d, Обновлений: %d",
-                INSTANCES.size(), DAY_CACHE.size(), LAST_CACHE_UPDATE.size());
+        long synced = INSTANCES.values().stream().filter(tracker -> tracker.lastWorldSync > 0).count();
+        return String.format("WorldDayTracker кэши - Трекеров: %d, Сверено с миром: %d",
+                INSTANCES.size(), synced);
     }
 
     /**
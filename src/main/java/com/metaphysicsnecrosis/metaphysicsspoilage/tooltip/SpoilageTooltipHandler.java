@@ -180,7 +180,7 @@ public class SpoilageTooltipHandler {
         for (StoredFoodEntry entry : storedFood) {
             ItemStack entryStack = entry.createItemStack();
             if (!entryStack.isEmpty() && SpoilageUtils.hasTimestamp(entryStack)) {
-                long spoilageTime = SpoilageUtils.getSpoilageTime(entryStack.getItem());
+                long spoilageTime = SpoilageUtils.getShelfLife(entryStack);
                 long creationDay = SpoilageUtils.getCreationDay(entryStack);
 
                 if (spoilageTime != -1 && creationDay != -1 && level != null) {
@@ -1,6 +1,6 @@
 package com.metaphysicsnecrosis.metaphysicsspoilage.tooltip;
 
-import com.metaphysicsnecrosis.metaphysicsspoilage.Config;
+import com.metaphysicsnecrosis.metaphysicsspoilage.SpoilageSettings;
 import com.metaphysicsnecrosis.metaphysicsspoilage.spoilage.SpoilageUtils;
 import com.metaphysicsnecrosis.metaphysicsspoilage.manager.TimedFoodManager;
 import com.metaphysicsnecrosis.metaphysicsspoilage.time.WorldDayTracker;
@@ -169,7 +169,7 @@ public class TooltipUtils {
 
         // Получаем информацию о времени
         long currentDay = level.getDayTime() / 24000L; // Приблизительный расчет дня
-        long spoilageTime = SpoilageUtils.getSpoilageTime(itemStack.getItem());
+        long spoilageTime = SpoilageUtils.getShelfLife(itemStack);
 
         if (spoilageTime == -1) {
             return new Component[0];
@@ -218,7 +218,7 @@ public class TooltipUtils {
         }
 
         long currentDay = level.getDayTime() / 24000L; // Приблизительный расчет дня
-        long spoilageTime = SpoilageUtils.getSpoilageTime(itemStack.getItem());
+        long spoilageTime = SpoilageUtils.getShelfLife(itemStack);
 
         if (spoilageTime == -1) {
             return new Component[0];
@@ -241,7 +241,7 @@ public class TooltipUtils {
      * @return true если тултипы включены
      */
     public static boolean shouldShowTooltips() {
-        return Config.ENABLE_SPOILAGE_SYSTEM.get() && Config.ENABLE_TOOLTIP_SYSTEM.get();
+        return SpoilageSettings.get().enableSpoilageSystem() && SpoilageSettings.get().enableTooltipSystem();
     }
 
     /**
@@ -250,7 +250,7 @@ public class TooltipUtils {
      * @return true если расширенные тултипы включены
      */
     public static boolean shouldShowDetailedTooltips() {
-        return shouldShowTooltips() && Config.SHOW_DETAILED_TOOLTIPS.get();
+        return shouldShowTooltips() && SpoilageSettings.get().showDetailedTooltips();
     }
 
     /**